@@ -0,0 +1,72 @@
+package com.yuki.server.benchmark;
+
+import com.yuki.server.infrastructure.admission.AdaptiveConcurrencyLimiter;
+import com.yuki.server.infrastructure.admission.TokenBucketRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 准入控制基准：多线程下令牌桶限流与自适应并发上限的单次判定开销.
+ *
+ * <p>{@code sameKey} 为所有线程争用同一个令牌桶（单个客户的突发流量），
+ * {@code distinctKeys} 为各线程分散在大量客户上.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class AdmissionControlBenchmark {
+
+  private static final int CUSTOMERS = 10_000;
+
+  private TokenBucketRateLimiter rateLimiter;
+  private AdaptiveConcurrencyLimiter concurrencyLimiter;
+  private String[] keys;
+
+  @Setup
+  public void setUp() {
+    // 速率足够高，测量的是判定开销而不是拒绝路径
+    rateLimiter = new TokenBucketRateLimiter(1e9, 1_000_000, CUSTOMERS * 2, System::nanoTime);
+    concurrencyLimiter = new AdaptiveConcurrencyLimiter(
+        1024, 8, 1024, TimeUnit.SECONDS.toNanos(1), System.nanoTime());
+    keys = new String[CUSTOMERS];
+    for (int i = 0; i < CUSTOMERS; i++) {
+      keys[i] = "customer:" + i;
+    }
+  }
+
+  @Benchmark
+  public long sameKey() {
+    return rateLimiter.tryAcquire(keys[0]);
+  }
+
+  @Benchmark
+  public long distinctKeys() {
+    return rateLimiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(CUSTOMERS)]);
+  }
+
+  @Benchmark
+  public boolean concurrencyAcquireRelease() {
+    boolean acquired = concurrencyLimiter.tryAcquire();
+    if (acquired) {
+      long now = System.nanoTime();
+      concurrencyLimiter.release(1_000, now);
+    }
+    return acquired;
+  }
+}
@@ -0,0 +1,92 @@
+package com.yuki.server.benchmark;
+
+import com.yuki.server.application.service.impl.PricingServiceImpl;
+import com.yuki.server.domain.model.Basket;
+import com.yuki.server.domain.model.ProductCodes;
+import com.yuki.server.infrastructure.repository.ProductRepositoryImpl;
+import com.yuki.server.infrastructure.store.ProductStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 购物车并发加购吞吐：所有线程修改同一购物车与各自修改不同购物车的对比.
+ *
+ * <p>同一购物车上的冲突以CAS重试解决；不同购物车之间没有共享状态，吞吐应随线程数线性增长.
+ * 可用 {@code -t} 调整线程数.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class BasketContentionBenchmark {
+
+  private static final int CATALOG_SIZE = 100;
+  private static final int LINES = 8;
+
+  /**
+   * 所有线程共享的定价服务与购物车.
+   */
+  @State(Scope.Benchmark)
+  public static class Shared {
+    PricingServiceImpl pricingService;
+    ProductCodes productCodes;
+    Basket basket;
+
+    @Setup(Level.Trial)
+    public void setUpService() {
+      ProductStore productStore = BenchmarkFixtures.productStore(CATALOG_SIZE);
+      BenchmarkFixtures.promotionStore(productStore);
+      productCodes = productStore.getCatalog().getProductCodes();
+      pricingService = new PricingServiceImpl(
+          new ProductRepositoryImpl(productStore), RoundingMode.HALF_UP);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpBasket() {
+      // 每轮重建，避免数量持续累加
+      basket = BenchmarkFixtures.basket(productCodes, "shared", "customer", LINES, CATALOG_SIZE);
+    }
+  }
+
+  /**
+   * 每个线程独占的购物车.
+   */
+  @State(Scope.Thread)
+  public static class Own {
+    Basket basket;
+    int next;
+
+    @Setup(Level.Iteration)
+    public void setUp(Shared shared) {
+      basket = BenchmarkFixtures.basket(shared.productCodes,
+          "own-" + Thread.currentThread().threadId(), "customer", LINES, CATALOG_SIZE);
+    }
+  }
+
+  @Benchmark
+  public void sameBasket(Shared shared, Own own) {
+    String productCode = BenchmarkFixtures.productCode(own.next++ % LINES);
+    shared.basket.update(current -> shared.pricingService.withProduct(current, productCode, 1));
+  }
+
+  @Benchmark
+  public void crossBasket(Shared shared, Own own) {
+    String productCode = BenchmarkFixtures.productCode(own.next++ % LINES);
+    own.basket.update(current -> shared.pricingService.withProduct(current, productCode, 1));
+  }
+}
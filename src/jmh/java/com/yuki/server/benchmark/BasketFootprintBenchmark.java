@@ -0,0 +1,91 @@
+package com.yuki.server.benchmark;
+
+import com.yuki.server.application.service.impl.PricingServiceImpl;
+import com.yuki.server.domain.model.Basket;
+import com.yuki.server.domain.model.BasketContents;
+import com.yuki.server.infrastructure.repository.ProductRepositoryImpl;
+import com.yuki.server.infrastructure.store.BasketStore;
+import com.yuki.server.infrastructure.store.ProductStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.math.RoundingMode;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 大量购物车常驻内存时的占用与定价基准.
+ *
+ * <p>每个购物车在堆上占用的字节数在准备数据后输出到日志；
+ * {@code repriceRandomBasket} 为随机购物车清空缓存后完整重算总价.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class BasketFootprintBenchmark {
+
+  private static final int CATALOG_SIZE = 2_000;
+
+  @Param({"200000"})
+  int baskets;
+
+  @Param({"5"})
+  int lines;
+
+  private PricingServiceImpl pricingService;
+  private Basket[] live;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ProductStore productStore = BenchmarkFixtures.productStore(CATALOG_SIZE);
+    pricingService = new PricingServiceImpl(
+        new ProductRepositoryImpl(productStore), RoundingMode.HALF_UP);
+    pricingService.refreshPriceTable();
+
+    long heapBefore = usedHeap();
+    BasketStore basketStore = new BasketStore();
+    live = new Basket[baskets];
+    for (int i = 0; i < baskets; i++) {
+      Basket basket = new Basket("basket-" + i, "customer-" + i);
+      for (int j = 0; j < lines; j++) {
+        // 产品代码按请求解析的方式各自为独立的字符串
+        String productCode = new String(BenchmarkFixtures.productCode(
+            ThreadLocalRandom.current().nextInt(CATALOG_SIZE)));
+        int quantity = 1 + j % 3;
+        basket.update(current -> pricingService.withProduct(current, productCode, quantity));
+      }
+      basketStore.save(basket);
+      live[i] = basket;
+    }
+    System.out.printf("%n%d bytes/basket on heap (%d lines)%n",
+        (usedHeap() - heapBefore) / baskets, lines);
+  }
+
+  @Benchmark
+  public long repriceRandomBasket() {
+    Basket basket = live[ThreadLocalRandom.current().nextInt(baskets)];
+    basket.getContents().cacheSubtotal(BasketContents.UNPRICED, -1);
+    return pricingService.calculateTotalMinorUnits(basket);
+  }
+
+  private static long usedHeap() {
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+}
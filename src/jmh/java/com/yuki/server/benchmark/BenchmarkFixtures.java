@@ -0,0 +1,69 @@
+package com.yuki.server.benchmark;
+
+import com.yuki.server.application.gateway.PaymentGateway;
+import com.yuki.server.domain.model.Basket;
+import com.yuki.server.domain.model.Order;
+import com.yuki.server.domain.model.Product;
+import com.yuki.server.domain.model.ProductCodes;
+import com.yuki.server.domain.model.Promotion;
+import com.yuki.server.infrastructure.payment.LocalPaymentGateway;
+import com.yuki.server.infrastructure.store.ProductStore;
+import com.yuki.server.infrastructure.store.PromotionStore;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基准测试共用的测试数据构造方法.
+ */
+final class BenchmarkFixtures {
+  static final String DISCOUNT_CODE = "DISCOUNT10";
+  static final String CARD_NUMBER = "4000056655665556";
+  static final String EXPIRY_DATE = "12/99";
+
+  private BenchmarkFixtures() {
+  }
+
+  static String productCode(int i) {
+    return "PROD" + i;
+  }
+
+  static PaymentGateway instantPaymentGateway() {
+    return new LocalPaymentGateway(Duration.ZERO, Duration.ZERO);
+  }
+
+  static ProductStore productStore(int size) {
+    List<Product> products = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      // 价格形如 x.99，覆盖分位计算
+      products.add(new Product(productCode(i), "Product " + i,
+          BigDecimal.valueOf(100 + (i % 900) * 100L + 99, 2)));
+    }
+    ProductStore store = new ProductStore();
+    store.saveAll(products);
+    return store;
+  }
+
+  static PromotionStore promotionStore(ProductStore productStore) {
+    PromotionStore store = new PromotionStore(productStore);
+    store.save(new Promotion(DISCOUNT_CODE, new BigDecimal("10")));
+    return store;
+  }
+
+  static Basket basket(
+      ProductCodes codes, String basketId, String customerId, int lines, int catalogSize) {
+    Basket basket = new Basket(basketId, customerId);
+    for (int i = 0; i < lines; i++) {
+      basket.addProduct(codes, productCode(i % catalogSize), 1 + (i % 3));
+    }
+    return basket;
+  }
+
+  static Order order(String orderId, String customerId, int sequence) {
+    return new Order(orderId, customerId, BigDecimal.valueOf(1999, 2),
+        LocalDateTime.of(2025, 1, 1, 0, 0).plusSeconds(sequence), null);
+  }
+}
@@ -0,0 +1,78 @@
+package com.yuki.server.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuki.server.infrastructure.catalog.CatalogReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 目录文件读取基准：流式读取对比先读成Map树再逐字段转换.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class CatalogReaderBenchmark {
+
+  @Param({"10000", "1000000"})
+  int products;
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final CatalogReader catalogReader = new CatalogReader(objectMapper.getFactory());
+  private byte[] json;
+
+  @Setup
+  public void setUp() {
+    StringBuilder builder = new StringBuilder(products * 80).append("{\"products\":[");
+    for (int i = 0; i < products; i++) {
+      if (i > 0) {
+        builder.append(',');
+      }
+      builder.append("{\"productCode\":\"PROD").append(i)
+          .append("\",\"name\":\"Product ").append(i)
+          .append("\",\"fullPrice\":").append(i % 10_000).append('.').append(i % 90 + 10)
+          .append('}');
+    }
+    builder.append("],\"promotions\":[{\"discountCode\":\"DISCOUNT10\",\"discountPercent\":10}]}");
+    json = builder.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public int streaming() throws IOException {
+    return catalogReader.read(new ByteArrayInputStream(json)).getProducts().size();
+  }
+
+  @Benchmark
+  @SuppressWarnings("unchecked")
+  public int tree() throws IOException {
+    Map<String, Object> data = objectMapper.readValue(
+        new ByteArrayInputStream(json), new TypeReference<Map<String, Object>>() {});
+    List<Map<String, Object>> productsData = (List<Map<String, Object>>) data.get("products");
+    List<BigDecimal> prices = new ArrayList<>(productsData.size());
+    for (Map<String, Object> productData : productsData) {
+      prices.add(BigDecimal.valueOf(((Number) productData.get("fullPrice")).doubleValue()));
+    }
+    return prices.size();
+  }
+}
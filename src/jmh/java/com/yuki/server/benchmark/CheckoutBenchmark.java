@@ -0,0 +1,107 @@
+package com.yuki.server.benchmark;
+
+import com.yuki.server.application.dto.OrderResponse;
+import com.yuki.server.application.service.impl.CreditCardServiceImpl;
+import com.yuki.server.application.service.impl.OrderServiceImpl;
+import com.yuki.server.application.service.impl.PricingServiceImpl;
+import com.yuki.server.domain.model.Basket;
+import com.yuki.server.infrastructure.config.PaymentBulkheadConfig;
+import com.yuki.server.infrastructure.repository.BasketRepositoryImpl;
+import com.yuki.server.infrastructure.repository.IdempotencyRepositoryImpl;
+import com.yuki.server.infrastructure.repository.OrderRepositoryImpl;
+import com.yuki.server.infrastructure.repository.ProductRepositoryImpl;
+import com.yuki.server.infrastructure.store.BasketStore;
+import com.yuki.server.infrastructure.store.IdempotencyStore;
+import com.yuki.server.infrastructure.store.OrderRollupStore;
+import com.yuki.server.infrastructure.store.OrderStore;
+import com.yuki.server.infrastructure.store.ProductStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 不经过HTTP的端到端结账基准：建购物车、加购、结账.
+ *
+ * <p>每轮迭代重建存储，避免订单无限累积影响测量.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class CheckoutBenchmark {
+
+  private static final int CATALOG_SIZE = 1_000;
+
+  @Param({"1", "20"})
+  int basketSize;
+
+  private final AtomicLong sequence = new AtomicLong();
+  private BasketStore basketStore;
+  private OrderServiceImpl orderService;
+  private PricingServiceImpl pricingService;
+  private ExecutorService paymentExecutor;
+  private ExecutorService checkoutExecutor;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    ProductStore productStore = BenchmarkFixtures.productStore(CATALOG_SIZE);
+    basketStore = new BasketStore();
+    BenchmarkFixtures.promotionStore(productStore);
+    pricingService = new PricingServiceImpl(
+        new ProductRepositoryImpl(productStore), RoundingMode.HALF_UP);
+    paymentExecutor = new PaymentBulkheadConfig().paymentExecutor(false, 64, 128);
+    checkoutExecutor = new PaymentBulkheadConfig().checkoutExecutor(0, 1024);
+    OrderStore orderStore = new OrderStore();
+    orderService = new OrderServiceImpl(
+        new OrderRepositoryImpl(orderStore, new OrderRollupStore(orderStore)),
+        new BasketRepositoryImpl(basketStore),
+        new IdempotencyRepositoryImpl(new IdempotencyStore()),
+        new CreditCardServiceImpl(Clock.systemDefaultZone(), BenchmarkFixtures.instantPaymentGateway()),
+        pricingService,
+        paymentExecutor,
+        checkoutExecutor,
+        Duration.ofSeconds(2),
+        new SimpleMeterRegistry());
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() {
+    paymentExecutor.shutdownNow();
+    checkoutExecutor.shutdownNow();
+  }
+
+  @Benchmark
+  public OrderResponse checkout() {
+    long id = sequence.incrementAndGet();
+    String basketId = "basket-" + id;
+    Basket basket = new Basket(basketId, "customer-" + (id % 10_000));
+    for (int i = 0; i < basketSize; i++) {
+      String productCode = BenchmarkFixtures.productCode(i % CATALOG_SIZE);
+      basket.update(current -> pricingService.withProduct(current, productCode, 1));
+    }
+    basket.setDiscountCode(BenchmarkFixtures.DISCOUNT_CODE);
+    basketStore.save(basket);
+    return orderService.checkout(basketId, BenchmarkFixtures.CARD_NUMBER,
+        BenchmarkFixtures.EXPIRY_DATE);
+  }
+}
@@ -0,0 +1,108 @@
+package com.yuki.server.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuki.server.ServerApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 平台线程与虚拟线程两种请求执行模式下的HTTP结账负载对比.
+ *
+ * <p>支付网关替身模拟 100–500 ms 延迟；400 个并发客户端超过 Tomcat 默认的 200 个工作线程，
+ * 平台线程模式下吞吐受线程池上限约束.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(400)
+@State(Scope.Benchmark)
+public class CheckoutLoadBenchmark {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  @Param({"false", "true"})
+  String virtualThreads;
+
+  private final AtomicLong sequence = new AtomicLong();
+  private ConfigurableApplicationContext context;
+  private HttpClient client;
+  private String baseUrl;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    context = new SpringApplicationBuilder(ServerApplication.class)
+        .properties(
+            "server.port=0",
+            "spring.threads.virtual.enabled=" + virtualThreads,
+            "payment.gateway.latency-min=100ms",
+            "payment.gateway.latency-max=500ms",
+            "order-journal.enabled=false",
+            // 对比线程模型的吞吐，不经过准入控制
+            "admission.enabled=false",
+            "logging.file.name=target/checkout-load-benchmark.log",
+            "logging.level.root=WARN",
+            "logging.level.org.springframework.web=WARN",
+            "logging.level.com.yuki.server=WARN")
+        .run();
+    baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public int checkout() throws Exception {
+    String basket = send(HttpRequest.newBuilder(
+        URI.create(baseUrl + "/api/baskets?customerId=load-" + sequence.incrementAndGet()))
+        .POST(HttpRequest.BodyPublishers.noBody()));
+    String basketId = MAPPER.readTree(basket).get("basketId").asText();
+
+    send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/baskets/" + basketId + "/products"))
+        .header("Content-Type", "application/json")
+        .PUT(HttpRequest.BodyPublishers.ofString("{\"productCode\":\"PROD1\",\"quantity\":1}")));
+
+    String order = send(HttpRequest.newBuilder(
+        URI.create(baseUrl + "/api/orders/checkout/" + basketId))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString("{\"cardNumber\":\""
+            + BenchmarkFixtures.CARD_NUMBER + "\",\"expiryDate\":\""
+            + BenchmarkFixtures.EXPIRY_DATE + "\"}")));
+    return order.length();
+  }
+
+  private String send(HttpRequest.Builder request) throws Exception {
+    HttpResponse<String> response = client.send(request.build(),
+        HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("Unexpected status " + response.statusCode()
+          + ": " + response.body());
+    }
+    return response.body();
+  }
+}
@@ -0,0 +1,72 @@
+package com.yuki.server.benchmark;
+
+import com.yuki.server.application.service.impl.CreditCardServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 信用卡号与过期日期校验基准.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CreditCardBenchmark {
+
+  @Param({"4000056655665556", "4000 0566 5566 5556", "4000056655665557"})
+  String cardNumber;
+
+  @Param({"12/99", "13/99", "01/20"})
+  String expiryDate;
+
+  private static final int BATCH_SIZE = 1_000;
+
+  private CreditCardServiceImpl creditCardService;
+  private List<String> cardNumbers;
+  private List<String> expiryDates;
+
+  @Setup
+  public void setUp() {
+    creditCardService = new CreditCardServiceImpl(Clock.systemDefaultZone(), BenchmarkFixtures.instantPaymentGateway());
+    cardNumbers = new ArrayList<>(BATCH_SIZE);
+    expiryDates = new ArrayList<>(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      cardNumbers.add(cardNumber);
+      expiryDates.add(expiryDate);
+    }
+  }
+
+  @Benchmark
+  public boolean isValidCardNumber() {
+    return creditCardService.isValidCardNumber(cardNumber);
+  }
+
+  @Benchmark
+  public boolean isValidExpiryDate() {
+    return creditCardService.isValidExpiryDate(expiryDate);
+  }
+
+  /**
+   * 批量预检 {@value #BATCH_SIZE} 张卡.
+   */
+  @Benchmark
+  public boolean[] validateCards() {
+    return creditCardService.validateCards(cardNumbers, expiryDates);
+  }
+}
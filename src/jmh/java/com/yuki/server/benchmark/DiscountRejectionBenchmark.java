@@ -0,0 +1,121 @@
+package com.yuki.server.benchmark;
+
+import com.yuki.server.application.dto.ApplyDiscountResult;
+import com.yuki.server.application.service.BasketService;
+import com.yuki.server.application.service.impl.BasketServiceImpl;
+import com.yuki.server.application.service.impl.PricingServiceImpl;
+import com.yuki.server.application.service.impl.ProductServiceImpl;
+import com.yuki.server.domain.exception.InvalidRequestException;
+import com.yuki.server.domain.model.Basket;
+import com.yuki.server.infrastructure.repository.BasketRepositoryImpl;
+import com.yuki.server.infrastructure.repository.DiscountAttemptRepositoryImpl;
+import com.yuki.server.infrastructure.repository.ProductRepositoryImpl;
+import com.yuki.server.infrastructure.repository.PromotionRepositoryImpl;
+import com.yuki.server.infrastructure.store.BasketStore;
+import com.yuki.server.infrastructure.store.DiscountAttemptStore;
+import com.yuki.server.infrastructure.store.ProductStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 无效折扣码拒绝路径基准：抛出异常与返回结果、以及受限后的开销对比.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DiscountRejectionBenchmark {
+
+  private static final int CATALOG_SIZE = 1_000;
+
+  private PromotionRepositoryImpl promotionRepository;
+  private BasketService unthrottledService;
+  private BasketService throttledService;
+  private String basketId;
+  private int sequence;
+
+  @Setup
+  public void setUp() {
+    ProductStore productStore = BenchmarkFixtures.productStore(CATALOG_SIZE);
+    ProductRepositoryImpl productRepository = new ProductRepositoryImpl(productStore);
+    promotionRepository =
+        new PromotionRepositoryImpl(BenchmarkFixtures.promotionStore(productStore));
+    BasketStore basketStore = new BasketStore();
+    Basket basket = BenchmarkFixtures.basket(
+        productStore.getCatalog().getProductCodes(), "basket", "customer", 10, CATALOG_SIZE);
+    basketStore.save(basket);
+    basketId = basket.getBasketId();
+
+    // 失败次数上限足够大，每次都走查找和计数
+    unthrottledService = basketService(basketStore, productRepository,
+        new DiscountAttemptStore(Clock.systemUTC(), Duration.ofHours(1), Integer.MAX_VALUE, 1000));
+    throttledService = basketService(basketStore, productRepository,
+        new DiscountAttemptStore(Clock.systemUTC(), Duration.ofHours(1), 5, 1000));
+    for (int i = 0; i < 5; i++) {
+      throttledService.applyDiscount(basketId, nextCode());
+    }
+  }
+
+  private BasketService basketService(BasketStore basketStore,
+      ProductRepositoryImpl productRepository, DiscountAttemptStore attemptStore) {
+    return new BasketServiceImpl(
+        new BasketRepositoryImpl(basketStore),
+        promotionRepository,
+        new DiscountAttemptRepositoryImpl(attemptStore),
+        new ProductServiceImpl(productRepository),
+        new PricingServiceImpl(productRepository, RoundingMode.HALF_UP),
+        new SimpleMeterRegistry());
+  }
+
+  private String nextCode() {
+    return "GUESS" + (sequence++ & 0xFFFF);
+  }
+
+  /**
+   * 原实现：查找失败后抛出并捕获带异常栈的 InvalidRequestException.
+   */
+  @Benchmark
+  public Object invalidCodeException() {
+    String code = nextCode();
+    try {
+      if (promotionRepository.findByCode(code) == null) {
+        throw new InvalidRequestException("Invalid discount code: " + code);
+      }
+      return code;
+    } catch (InvalidRequestException e) {
+      return e;
+    }
+  }
+
+  /**
+   * 无效折扣码作为结果返回并计数.
+   */
+  @Benchmark
+  public ApplyDiscountResult invalidCodeResult() {
+    return unthrottledService.applyDiscount(basketId, nextCode());
+  }
+
+  /**
+   * 已受限的购物车：不再查找折扣码，直接返回受限结果.
+   */
+  @Benchmark
+  public ApplyDiscountResult throttledResult() {
+    return throttledService.applyDiscount(basketId, nextCode());
+  }
+}
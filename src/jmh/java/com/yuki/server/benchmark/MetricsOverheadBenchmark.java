@@ -0,0 +1,106 @@
+package com.yuki.server.benchmark;
+
+import com.yuki.server.application.dto.BasketResponse;
+import com.yuki.server.application.service.BasketService;
+import com.yuki.server.application.service.CreditCardService;
+import com.yuki.server.application.service.impl.BasketServiceImpl;
+import com.yuki.server.application.service.impl.CreditCardServiceImpl;
+import com.yuki.server.application.service.impl.PricingServiceImpl;
+import com.yuki.server.application.service.impl.ProductServiceImpl;
+import com.yuki.server.domain.model.Basket;
+import com.yuki.server.infrastructure.repository.BasketRepositoryImpl;
+import com.yuki.server.infrastructure.repository.DiscountAttemptRepositoryImpl;
+import com.yuki.server.infrastructure.repository.ProductRepositoryImpl;
+import com.yuki.server.infrastructure.repository.PromotionRepositoryImpl;
+import com.yuki.server.infrastructure.store.BasketStore;
+import com.yuki.server.infrastructure.store.DiscountAttemptStore;
+import com.yuki.server.infrastructure.store.ProductStore;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 服务方法耗时指标（@Timed + TimedAspect + Prometheus 直方图）的开销.
+ *
+ * <p>{@code instrumented=false} 直接调用实现类，{@code true} 经过与应用中相同的
+ * {@link TimedAspect} 与 CGLIB 代理；
+ * 卡号校验是最便宜的服务方法，代表相对开销的上限.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsOverheadBenchmark {
+
+  private static final int CATALOG_SIZE = 1_000;
+
+  @Param({"false", "true"})
+  boolean instrumented;
+
+  private BasketService basketService;
+  private CreditCardService creditCardService;
+  private String basketId;
+
+  @Setup
+  public void setUp() {
+    MeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+    ProductStore productStore = BenchmarkFixtures.productStore(CATALOG_SIZE);
+    ProductRepositoryImpl productRepository = new ProductRepositoryImpl(productStore);
+    PromotionRepositoryImpl promotionRepository =
+        new PromotionRepositoryImpl(BenchmarkFixtures.promotionStore(productStore));
+    BasketStore basketStore = new BasketStore();
+    Basket basket = BenchmarkFixtures.basket(
+        productStore.getCatalog().getProductCodes(), "basket", "customer", 10, CATALOG_SIZE);
+    basketStore.save(basket);
+    basketId = basket.getBasketId();
+
+    BasketService basketTarget = new BasketServiceImpl(
+        new BasketRepositoryImpl(basketStore),
+        promotionRepository,
+        new DiscountAttemptRepositoryImpl(new DiscountAttemptStore()),
+        new ProductServiceImpl(productRepository),
+        new PricingServiceImpl(productRepository, RoundingMode.HALF_UP),
+        registry);
+    CreditCardService cardTarget = new CreditCardServiceImpl(
+        Clock.systemDefaultZone(), BenchmarkFixtures.instantPaymentGateway());
+
+    basketService = instrumented ? timed(basketTarget, registry) : basketTarget;
+    creditCardService = instrumented ? timed(cardTarget, registry) : cardTarget;
+  }
+
+  private static <T> T timed(T target, MeterRegistry registry) {
+    AspectJProxyFactory factory = new AspectJProxyFactory(target);
+    factory.setProxyTargetClass(true);
+    factory.addAspect(new TimedAspect(registry));
+    return factory.getProxy();
+  }
+
+  @Benchmark
+  public BasketResponse getBasket() {
+    return basketService.getBasket(basketId);
+  }
+
+  @Benchmark
+  public boolean isValidCardNumber() {
+    return creditCardService.isValidCardNumber(BenchmarkFixtures.CARD_NUMBER);
+  }
+}
@@ -0,0 +1,119 @@
+package com.yuki.server.benchmark;
+
+import com.yuki.server.domain.model.Order;
+import com.yuki.server.infrastructure.store.CompactOrderTable;
+import com.yuki.server.infrastructure.store.HeapOrderTable;
+import com.yuki.server.infrastructure.store.OrderStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 大量订单常驻内存时两种存放方式的对比.
+ *
+ * <p>{@code fullGc} 测量保留全部订单时一次完整垃圾回收的停顿，其余方法为读取时构造订单对象的开销.
+ * 每个订单在堆内/堆外占用的字节数在准备数据后输出到日志.
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class OrderFootprintBenchmark {
+
+  private static final int CUSTOMERS = 100_000;
+
+  @Param({"HEAP", "COMPACT"})
+  String layout;
+
+  @Param({"1000000"})
+  int orders;
+
+  private OrderStore orderStore;
+  private String[] orderIds;
+  private String[] customerIds;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    customerIds = new String[CUSTOMERS];
+    for (int i = 0; i < CUSTOMERS; i++) {
+      customerIds[i] = "customer-" + i;
+    }
+    orderIds = new String[orders];
+    Random random = new Random(42);
+    for (int i = 0; i < orders; i++) {
+      orderIds[i] = new UUID(random.nextLong(), random.nextLong()).toString();
+    }
+
+    long heapBefore = usedHeap();
+    long offHeapBefore = usedDirect();
+    orderStore = new OrderStore(null,
+        "COMPACT".equals(layout) ? new CompactOrderTable() : new HeapOrderTable());
+    LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+    for (int i = 0; i < orders; i++) {
+      // 订单ID和客户ID按结账时的方式各自为独立的字符串
+      orderStore.save(new Order(
+          new String(orderIds[i]),
+          new String(customerIds[random.nextInt(CUSTOMERS)]),
+          BigDecimal.valueOf(500 + random.nextInt(50_000), 2),
+          start.plusNanos(i * 1_000_123L),
+          i % 5 == 0 ? "DISCOUNT10" : null));
+    }
+    System.out.printf("%n%s: %d bytes/order on heap, %d bytes/order off heap%n", layout,
+        (usedHeap() - heapBefore) / orders, (usedDirect() - offHeapBefore) / orders);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  public void fullGc() {
+    System.gc();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public Order findById() {
+    return orderStore.findById(orderIds[ThreadLocalRandom.current().nextInt(orders)]);
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.AverageTime)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  public List<Order> findCustomerPage() {
+    return orderStore.findPage(
+        customerIds[ThreadLocalRandom.current().nextInt(CUSTOMERS)], null, null, null, 20);
+  }
+
+  private static long usedHeap() {
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+
+  private static long usedDirect() {
+    return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+        .filter(pool -> "direct".equals(pool.getName()))
+        .mapToLong(BufferPoolMXBean::getMemoryUsed)
+        .sum();
+  }
+}
@@ -0,0 +1,73 @@
+package com.yuki.server.benchmark;
+
+import com.yuki.server.domain.model.Order;
+import com.yuki.server.infrastructure.store.OrderJournal;
+import com.yuki.server.infrastructure.store.OrderStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 订单写入吞吐基准：纯内存与各持久化模式对比，16个线程模拟并发结账.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(16)
+@State(Scope.Benchmark)
+public class OrderJournalBenchmark {
+
+  /** MEMORY 表示不启用日志. */
+  @Param({"MEMORY", "SYNC", "GROUP_COMMIT", "ASYNC"})
+  String mode;
+
+  private final AtomicInteger sequence = new AtomicInteger();
+  private Path directory;
+  private OrderJournal journal;
+  private OrderStore orderStore;
+
+  @Setup(Level.Iteration)
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("order-journal-bench");
+    journal = "MEMORY".equals(mode)
+        ? null
+        : OrderJournal.open(directory.resolve("orders.journal"),
+            OrderJournal.DurabilityMode.valueOf(mode), 10);
+    orderStore = new OrderStore(journal);
+  }
+
+  @TearDown(Level.Iteration)
+  public void tearDown() throws IOException {
+    if (journal != null) {
+      journal.close();
+    }
+    Files.deleteIfExists(directory.resolve("orders.journal"));
+    Files.deleteIfExists(directory);
+  }
+
+  @Benchmark
+  public void save() {
+    int id = sequence.incrementAndGet();
+    Order order = BenchmarkFixtures.order("order-" + id, "customer-" + (id % 10_000), id);
+    orderStore.save(order);
+  }
+}
@@ -0,0 +1,99 @@
+package com.yuki.server.benchmark;
+
+import com.yuki.server.application.service.impl.PricingServiceImpl;
+import com.yuki.server.domain.model.Basket;
+import com.yuki.server.domain.model.BasketContents;
+import com.yuki.server.domain.model.Product;
+import com.yuki.server.domain.model.Promotion;
+import com.yuki.server.infrastructure.repository.ProductRepositoryImpl;
+import com.yuki.server.infrastructure.store.ProductStore;
+import com.yuki.server.infrastructure.store.PromotionStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 购物车定价基准：原 BigDecimal 路径与定点（分）定价引擎对比.
+ *
+ * <p>配合 {@code -prof gc} 可查看每次操作的分配量.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PricingBenchmark {
+
+  private static final int CATALOG_SIZE = 2_000;
+
+  @Param({"1", "10", "100", "1000"})
+  int basketSize;
+
+  private Map<String, Product> productMap;
+  private PromotionStore promotionStore;
+  private PricingServiceImpl pricingService;
+  private Basket basket;
+
+  @Setup
+  public void setUp() {
+    ProductStore productStore = BenchmarkFixtures.productStore(CATALOG_SIZE);
+    promotionStore = BenchmarkFixtures.promotionStore(productStore);
+    productMap = productStore.findAll();
+    pricingService = new PricingServiceImpl(
+        new ProductRepositoryImpl(productStore), RoundingMode.HALF_UP);
+    basket = BenchmarkFixtures.basket(productStore.getCatalog().getProductCodes(), "basket",
+        "customer", basketSize, CATALOG_SIZE);
+    basket.setDiscountCode(BenchmarkFixtures.DISCOUNT_CODE);
+  }
+
+  /**
+   * 领域模型的 BigDecimal 小计.
+   */
+  @Benchmark
+  public BigDecimal basketCalculateTotalPrice() {
+    return basket.calculateTotalPrice(productMap);
+  }
+
+  /**
+   * 原服务中的 BigDecimal 含折扣总价计算.
+   */
+  @Benchmark
+  public BigDecimal bigDecimalTotalWithDiscount() {
+    BigDecimal total = basket.calculateTotalPrice(productMap);
+    Promotion promotion = promotionStore.findByCode(basket.getDiscountCode());
+    BigDecimal discountAmount = total.multiply(promotion.getDiscountPercent())
+        .divide(new BigDecimal("100"));
+    return total.subtract(discountAmount);
+  }
+
+  /**
+   * 定点定价引擎完整重算（清空购物车上的缓存）.
+   */
+  @Benchmark
+  public long fixedPointTotalWithDiscount() {
+    basket.getContents().cacheSubtotal(BasketContents.UNPRICED, -1);
+    return pricingService.calculateTotalMinorUnits(basket);
+  }
+
+  /**
+   * 定点定价引擎命中购物车缓存.
+   */
+  @Benchmark
+  public long fixedPointCachedTotal() {
+    return pricingService.calculateTotalMinorUnits(basket);
+  }
+}
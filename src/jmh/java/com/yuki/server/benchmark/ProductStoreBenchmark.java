@@ -0,0 +1,58 @@
+package com.yuki.server.benchmark;
+
+import com.yuki.server.domain.model.Product;
+import com.yuki.server.domain.model.ProductCatalog;
+import com.yuki.server.infrastructure.store.ProductStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 产品目录读取基准.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductStoreBenchmark {
+
+  @Param({"100", "10000", "100000"})
+  int catalogSize;
+
+  private ProductStore productStore;
+  private String productCode;
+
+  @Setup
+  public void setUp() {
+    productStore = BenchmarkFixtures.productStore(catalogSize);
+    productCode = BenchmarkFixtures.productCode(catalogSize / 2);
+  }
+
+  @Benchmark
+  public Map<String, Product> findAll() {
+    return productStore.findAll();
+  }
+
+  @Benchmark
+  public ProductCatalog getCatalog() {
+    return productStore.getCatalog();
+  }
+
+  @Benchmark
+  public Product findByCode() {
+    return productStore.findByCode(productCode);
+  }
+}
@@ -0,0 +1,205 @@
+package com.yuki.server.benchmark;
+
+import com.yuki.server.application.service.impl.PricingServiceImpl;
+import com.yuki.server.domain.model.Basket;
+import com.yuki.server.domain.model.BasketContents;
+import com.yuki.server.domain.model.Money;
+import com.yuki.server.domain.model.Product;
+import com.yuki.server.domain.model.ProductCatalog;
+import com.yuki.server.domain.model.PromotionPlan;
+import com.yuki.server.domain.model.PromotionRule;
+import com.yuki.server.infrastructure.repository.ProductRepositoryImpl;
+import com.yuki.server.infrastructure.store.ProductStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 促销规则引擎基准：预编译执行计划与逐条扫描全部规则对比.
+ *
+ * <p>规则以产品、分类和买赠为主，约1%为整单档位规则. 执行计划每个产品行只查找与之相关的规则，
+ * 整单规则则逐条计算，因此整单规则的数量决定了剩余开销.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PromotionEngineBenchmark {
+
+  private static final int CATALOG_SIZE = 20_000;
+  private static final int CATEGORIES = 200;
+
+  @Param({"0", "1000", "10000"})
+  int rules;
+
+  @Param({"10", "100"})
+  int basketSize;
+
+  private ProductCatalog catalog;
+  private PromotionPlan plan;
+  private PricingServiceImpl pricingService;
+  private Basket basket;
+  private long subtotal;
+
+  @Setup
+  public void setUp() {
+    List<Product> products = new ArrayList<>(CATALOG_SIZE);
+    for (int i = 0; i < CATALOG_SIZE; i++) {
+      products.add(new Product(BenchmarkFixtures.productCode(i), "Product " + i,
+          BigDecimal.valueOf(100 + (i % 900) * 100L + 99, 2), category(i)));
+    }
+    ProductStore productStore = new ProductStore();
+    productStore.saveAll(products);
+    catalog = productStore.replace(null, null, rules(rules));
+    plan = PromotionPlan.compile(catalog, RoundingMode.HALF_UP);
+    pricingService = new PricingServiceImpl(
+        new ProductRepositoryImpl(productStore), RoundingMode.HALF_UP);
+    pricingService.refreshPriceTable();
+    basket = BenchmarkFixtures.basket(
+        catalog.getProductCodes(), "basket", "customer", basketSize, CATALOG_SIZE);
+    subtotal = naiveSubtotal(basket.getContents());
+  }
+
+  private static String category(int i) {
+    return "CAT" + (i % CATEGORIES);
+  }
+
+  private static List<PromotionRule> rules(int count) {
+    List<PromotionRule> rules = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      String ruleId = "R" + i;
+      String productCode = BenchmarkFixtures.productCode((i * 7) % CATALOG_SIZE);
+      boolean stackable = i % 5 == 0;
+      int kind = i % 100 == 99 ? 3 : i % 3;
+      rules.add(switch (kind) {
+        case 0 -> PromotionRule.productPercent(
+            ruleId, productCode, BigDecimal.valueOf(5 + i % 20), null, stackable);
+        case 1 -> PromotionRule.categoryPercent(
+            ruleId, category(i), BigDecimal.valueOf(1 + i % 10), null, stackable);
+        case 2 -> PromotionRule.buyXGetY(ruleId, productCode, 2, 1, null, null, stackable);
+        default -> PromotionRule.spendTiers(ruleId, List.of(
+            new PromotionRule.SpendTier(BigDecimal.valueOf(50 + i % 100), BigDecimal.ONE, null),
+            new PromotionRule.SpendTier(BigDecimal.valueOf(500 + i % 100), null,
+                BigDecimal.TEN)), null, stackable);
+      });
+    }
+    return rules;
+  }
+
+  /**
+   * 预编译执行计划计算规则折扣.
+   */
+  @Benchmark
+  public long compiledPlanDiscount() {
+    return plan.discount(basket.getContents(), subtotal, catalog, this::unitPrice,
+        RoundingMode.HALF_UP);
+  }
+
+  /**
+   * 逐条扫描全部规则计算规则折扣（对照组）.
+   */
+  @Benchmark
+  public long naiveScanDiscount() {
+    BasketContents contents = basket.getContents();
+    long lineDiscounts = 0;
+    for (Map.Entry<String, Integer> line : contents.toProductMap().entrySet()) {
+      Product product = catalog.find(line.getKey());
+      long unitPrice = Money.toMinorUnits(product.getFullPrice(), RoundingMode.HALF_UP);
+      int quantity = line.getValue();
+      long lineAmount = unitPrice * quantity;
+      long exclusive = 0;
+      long stacked = 0;
+      for (PromotionRule rule : catalog.getRules()) {
+        long discount = switch (rule.getType()) {
+          case PRODUCT_PERCENT -> rule.getProductCode().equals(line.getKey())
+              ? Money.percentOf(lineAmount, rule.getPercent(), RoundingMode.HALF_UP) : 0;
+          case CATEGORY_PERCENT -> rule.getCategory().equals(product.getCategory())
+              ? Money.percentOf(lineAmount, rule.getPercent(), RoundingMode.HALF_UP) : 0;
+          case BUY_X_GET_Y -> rule.getProductCode().equals(line.getKey())
+              ? quantity / (rule.getBuyQuantity() + rule.getFreeQuantity())
+                  * (long) rule.getFreeQuantity() * unitPrice
+              : 0;
+          default -> 0;
+        };
+        if (rule.isStackable()) {
+          stacked += discount;
+        } else {
+          exclusive = Math.max(exclusive, discount);
+        }
+      }
+      lineDiscounts += Math.min(lineAmount, exclusive + stacked);
+    }
+    long remaining = subtotal - lineDiscounts;
+    long exclusive = 0;
+    long stacked = 0;
+    for (PromotionRule rule : catalog.getRules()) {
+      if (rule.getType() != PromotionRule.Type.SPEND_TIERS) {
+        continue;
+      }
+      long discount = 0;
+      for (PromotionRule.SpendTier tier : rule.getTiers()) {
+        if (remaining >= Money.toMinorUnits(tier.getMinSpend(), RoundingMode.HALF_UP)) {
+          discount = tier.getPercent() != null
+              ? Money.percentOf(remaining, tier.getPercent(), RoundingMode.HALF_UP)
+              : Math.min(remaining,
+                  Money.toMinorUnits(tier.getAmountOff(), RoundingMode.HALF_UP));
+        }
+      }
+      if (rule.isStackable()) {
+        stacked += discount;
+      } else {
+        exclusive = Math.max(exclusive, discount);
+      }
+    }
+    return lineDiscounts + Math.min(remaining, exclusive + stacked);
+  }
+
+  /**
+   * 定价服务完整重算含规则折扣的总价（清空购物车上的缓存）.
+   */
+  @Benchmark
+  public long pricingServiceTotal() {
+    basket.getContents().cacheSubtotal(BasketContents.UNPRICED, -1);
+    return pricingService.calculateTotalMinorUnits(basket);
+  }
+
+  /**
+   * 编译执行计划，规则重新加载时发生一次.
+   */
+  @Benchmark
+  public PromotionPlan compilePlan() {
+    return PromotionPlan.compile(catalog, RoundingMode.HALF_UP);
+  }
+
+  private long unitPrice(int productId) {
+    Product product = catalog.find(catalog.getProductCodes().codeOf(productId));
+    return product == null
+        ? PromotionPlan.UnitPrices.NO_PRICE
+        : Money.toMinorUnits(product.getFullPrice(), RoundingMode.HALF_UP);
+  }
+
+  private long naiveSubtotal(BasketContents contents) {
+    long total = 0;
+    for (int line = 0; line < contents.getLineCount(); line++) {
+      total += unitPrice(contents.getProductId(line)) * contents.getQuantity(line);
+    }
+    return total;
+  }
+}
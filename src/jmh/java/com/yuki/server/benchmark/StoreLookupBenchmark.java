@@ -0,0 +1,86 @@
+package com.yuki.server.benchmark;
+
+import com.yuki.server.domain.model.Basket;
+import com.yuki.server.domain.model.Order;
+import com.yuki.server.domain.model.ProductCodes;
+import com.yuki.server.infrastructure.store.BasketStore;
+import com.yuki.server.infrastructure.store.OrderStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按客户查询购物车/订单的基准，随存储规模增长耗时应保持不变.
+ *
+ * <p>每个客户持有一个购物车和 {@value #ORDERS_PER_CUSTOMER} 个订单.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class StoreLookupBenchmark {
+
+  private static final int ORDERS_PER_CUSTOMER = 5;
+
+  @Param({"1000", "100000", "500000"})
+  int customers;
+
+  private BasketStore basketStore;
+  private OrderStore orderStore;
+  private String[] customerIds;
+
+  @Setup
+  public void setUp() {
+    basketStore = new BasketStore();
+    orderStore = new OrderStore();
+    customerIds = new String[customers];
+    ProductCodes productCodes = new ProductCodes();
+    int sequence = 0;
+    for (int i = 0; i < customers; i++) {
+      String customerId = "customer-" + i;
+      customerIds[i] = customerId;
+      basketStore.save(BenchmarkFixtures.basket(productCodes, "basket-" + i, customerId, 3, 100));
+      for (int j = 0; j < ORDERS_PER_CUSTOMER; j++) {
+        orderStore.save(BenchmarkFixtures.order("order-" + i + "-" + j, customerId, sequence++));
+      }
+    }
+  }
+
+  private String randomCustomer() {
+    return customerIds[ThreadLocalRandom.current().nextInt(customerIds.length)];
+  }
+
+  @Benchmark
+  public Basket basketFindByCustomerId() {
+    return basketStore.findByCustomerId(randomCustomer());
+  }
+
+  @Benchmark
+  public List<Basket> basketFindAllByCustomerId() {
+    return basketStore.findAllByCustomerId(randomCustomer());
+  }
+
+  @Benchmark
+  public List<Order> orderFindByCustomerId() {
+    return orderStore.findByCustomerId(randomCustomer());
+  }
+
+  @Benchmark
+  public List<Order> orderFindFirstPage() {
+    return orderStore.findPage(null, null, null, null, 50);
+  }
+}
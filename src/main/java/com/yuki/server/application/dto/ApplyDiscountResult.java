@@ -0,0 +1,42 @@
+package com.yuki.server.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 应用折扣码结果DTO.
+ *
+ * <p>无效折扣码和受限请求作为结果返回而不抛出异常，猜测折扣码的大量请求不产生异常栈.
+ */
+@Data
+@AllArgsConstructor
+public class ApplyDiscountResult {
+
+  /**
+   * 结果状态.
+   */
+  public enum Status {
+    /** 已应用. */
+    APPLIED,
+    /** 折扣码无效. */
+    INVALID_CODE,
+    /** 无效尝试过多，暂时拒绝. */
+    THROTTLED
+  }
+
+  private Status status;
+  private BasketResponse basket; // 仅APPLIED时有值
+  private long retryAfterSeconds; // 仅THROTTLED时有值
+
+  public static ApplyDiscountResult applied(BasketResponse basket) {
+    return new ApplyDiscountResult(Status.APPLIED, basket, 0);
+  }
+
+  public static ApplyDiscountResult invalidCode() {
+    return new ApplyDiscountResult(Status.INVALID_CODE, null, 0);
+  }
+
+  public static ApplyDiscountResult throttled(long retryAfterSeconds) {
+    return new ApplyDiscountResult(Status.THROTTLED, null, retryAfterSeconds);
+  }
+}
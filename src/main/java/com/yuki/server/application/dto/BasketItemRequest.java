@@ -0,0 +1,31 @@
+package com.yuki.server.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批量修改购物车时单个产品行的请求DTO.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BasketItemRequest {
+
+  /**
+   * 产品行操作.
+   */
+  public enum Operation {
+    /** 在现有数量上增加. */
+    ADD,
+    /** 设置为指定数量，0表示移除. */
+    SET,
+    /** 移除该产品. */
+    REMOVE
+  }
+
+  private String productCode;
+  private Integer quantity;
+  /** 为null时按ADD处理. */
+  private Operation operation;
+}
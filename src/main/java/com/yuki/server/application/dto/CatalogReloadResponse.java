@@ -0,0 +1,23 @@
+package com.yuki.server.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 目录重新加载结果DTO.
+ */
+@Data
+@AllArgsConstructor
+public class CatalogReloadResponse {
+  private long catalogVersion;
+  private long promotionVersion;
+  private int productsAdded;
+  private int productsUpdated;
+  private int productsRemoved;
+  private int promotionsAdded;
+  private int promotionsUpdated;
+  private int promotionsRemoved;
+  private int rulesAdded;
+  private int rulesUpdated;
+  private int rulesRemoved;
+}
@@ -0,0 +1,19 @@
+package com.yuki.server.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 单分钟订单汇总响应DTO.
+ */
+@Data
+@AllArgsConstructor
+public class MinuteStatsResponse {
+  private LocalDateTime minute; // 该分钟的起始时间
+  private long orderCount;
+  private BigDecimal revenue;
+  private long discountedOrderCount;
+}
@@ -0,0 +1,16 @@
+package com.yuki.server.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 订单分页响应DTO.
+ */
+@Data
+@AllArgsConstructor
+public class OrderPageResponse {
+  private List<OrderResponse> orders;
+  private String nextCursor; // 为null表示没有更多数据
+}
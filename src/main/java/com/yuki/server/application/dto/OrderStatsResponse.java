@@ -0,0 +1,17 @@
+package com.yuki.server.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 订单汇总响应DTO.
+ */
+@Data
+@AllArgsConstructor
+public class OrderStatsResponse {
+  private long orderCount;
+  private BigDecimal revenue;
+  private long discountedOrderCount;
+}
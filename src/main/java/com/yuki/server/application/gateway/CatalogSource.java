@@ -0,0 +1,40 @@
+package com.yuki.server.application.gateway;
+
+import com.yuki.server.domain.model.Product;
+import com.yuki.server.domain.model.Promotion;
+import com.yuki.server.domain.model.PromotionRule;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 产品目录数据源接口（应用层）.
+ */
+public interface CatalogSource {
+
+  /**
+   * 读取数据源中的全部产品、折扣码和促销规则.
+   *
+   * @return 目录内容，同一代码出现多次时以靠后的为准
+   * @throws java.io.UncheckedIOException 读取失败或格式错误
+   */
+  Contents read();
+
+  /**
+   * 数据源当前的变更标识，数据源内容变化后标识随之变化.
+   *
+   * @return 变更标识
+   */
+  String fingerprint();
+
+  /**
+   * 目录内容.
+   */
+  @Data
+  class Contents {
+    private final List<Product> products = new ArrayList<>();
+    private final List<Promotion> promotions = new ArrayList<>();
+    private final List<PromotionRule> rules = new ArrayList<>();
+  }
+}
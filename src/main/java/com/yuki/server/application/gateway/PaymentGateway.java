@@ -0,0 +1,18 @@
+package com.yuki.server.application.gateway;
+
+import com.yuki.server.domain.exception.PaymentException;
+
+/**
+ * 支付网关接口（应用层）.
+ */
+public interface PaymentGateway {
+
+  /**
+   * 向支付网关请求授权.
+   *
+   * @param cardNumber 信用卡号
+   * @param expiryDate 过期日期
+   * @throws PaymentException 如果授权被拒绝
+   */
+  void authorize(String cardNumber, String expiryDate);
+}
@@ -2,6 +2,8 @@ package com.yuki.server.application.repository;
 
 import com.yuki.server.domain.model.Basket;
 
+import java.util.List;
+
 /**
  * 购物车仓储接口（应用层）.
  */
@@ -12,6 +14,8 @@ public interface BasketRepository {
 
   Basket findByCustomerId(String customerId);
 
+  List<Basket> findAllByCustomerId(String customerId);
+
   void delete(String basketId);
 }
 
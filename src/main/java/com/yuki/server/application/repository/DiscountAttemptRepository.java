@@ -0,0 +1,22 @@
+package com.yuki.server.application.repository;
+
+/**
+ * 无效折扣码尝试计数仓储接口（应用层）.
+ */
+public interface DiscountAttemptRepository {
+
+  /**
+   * 查询键（购物车或客户）是否因多次无效尝试而受限.
+   *
+   * @param key 键
+   * @return 距离解除限制的毫秒数，未受限时为0
+   */
+  long retryAfterMillis(String key);
+
+  /**
+   * 记录一次无效尝试.
+   *
+   * @param key 键
+   */
+  void recordFailure(String key);
+}
@@ -0,0 +1,28 @@
+package com.yuki.server.application.repository;
+
+import com.yuki.server.application.dto.OrderResponse;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 结账幂等结果仓储接口（应用层）.
+ */
+public interface IdempotencyRepository {
+
+  /**
+   * 登记幂等键对应的结账结果；该键已有未过期的结果（含进行中的结账）时返回已有结果.
+   *
+   * @param key 幂等键
+   * @param result 本次结账的结果
+   * @return 已有结果，未登记过时返回null
+   */
+  CompletableFuture<OrderResponse> putIfAbsent(String key, CompletableFuture<OrderResponse> result);
+
+  /**
+   * 移除幂等键登记的结果（仅当仍为给定结果时），用于结账失败后允许重试.
+   *
+   * @param key 幂等键
+   * @param result 登记时的结果
+   */
+  void remove(String key, CompletableFuture<OrderResponse> result);
+}
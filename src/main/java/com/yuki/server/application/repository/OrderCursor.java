@@ -0,0 +1,69 @@
+package com.yuki.server.application.repository;
+
+import com.yuki.server.domain.exception.InvalidRequestException;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 订单分页游标（按创建时间、订单ID排序的键）.
+ *
+ * <p>同时作为订单时间索引的排序键；对外以不透明的 Base64 字符串传递.
+ */
+@Data
+public class OrderCursor implements Comparable<OrderCursor> {
+  private final LocalDateTime createdAt;
+  private final String orderId;
+
+  /**
+   * 某一时刻之前/之后的边界游标（排在该时刻所有订单之前）.
+   *
+   * @param time 时间
+   * @return 游标
+   */
+  public static OrderCursor at(LocalDateTime time) {
+    return new OrderCursor(time, "");
+  }
+
+  /**
+   * 编码为不透明字符串.
+   *
+   * @return 游标字符串
+   */
+  public String encode() {
+    String raw = createdAt + "|" + orderId;
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * 从字符串解码游标.
+   *
+   * @param cursor 游标字符串
+   * @return 游标
+   * @throws InvalidRequestException 如果游标格式无效
+   */
+  public static OrderCursor decode(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      int separator = raw.indexOf('|');
+      if (separator < 0) {
+        throw new InvalidRequestException("Invalid cursor: " + cursor);
+      }
+      return new OrderCursor(
+          LocalDateTime.parse(raw.substring(0, separator)),
+          raw.substring(separator + 1));
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new InvalidRequestException("Invalid cursor: " + cursor);
+    }
+  }
+
+  @Override
+  public int compareTo(OrderCursor other) {
+    int result = createdAt.compareTo(other.createdAt);
+    return result != 0 ? result : orderId.compareTo(other.orderId);
+  }
+}
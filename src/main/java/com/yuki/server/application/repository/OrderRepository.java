@@ -2,7 +2,9 @@ package com.yuki.server.application.repository;
 
 import com.yuki.server.domain.model.Order;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * 订单仓储接口（应用层）.
@@ -15,5 +17,28 @@ public interface OrderRepository {
   List<Order> findAll();
 
   List<Order> findByCustomerId(String customerId);
+
+  /**
+   * 按创建时间升序的键集分页查询.
+   *
+   * @param customerId 客户ID，为null时查询全部订单
+   * @param from 起始时间（含），可为null
+   * @param to 结束时间（不含），可为null
+   * @param after 上一页最后一条的游标（不含），可为null
+   * @param limit 最多返回条数
+   * @return 订单列表
+   */
+  List<Order> findPage(
+      String customerId, LocalDateTime from, LocalDateTime to, OrderCursor after, int limit);
+
+  /**
+   * 按创建时间升序惰性遍历订单，调用方负责关闭返回的流.
+   *
+   * @param customerId 客户ID，为null时遍历全部订单
+   * @param from 起始时间（含），可为null
+   * @param to 结束时间（不含），可为null
+   * @return 订单流
+   */
+  Stream<Order> stream(String customerId, LocalDateTime from, LocalDateTime to);
 }
 
@@ -0,0 +1,53 @@
+package com.yuki.server.application.repository;
+
+import com.yuki.server.domain.model.OrderTotals;
+
+import java.time.LocalDateTime;
+import java.util.NavigableMap;
+
+/**
+ * 订单汇总仓储接口（应用层）.
+ *
+ * <p>汇总值在订单保存时增量维护，查询不扫描订单数据.
+ */
+public interface OrderRollupRepository {
+
+  /**
+   * 获取全部订单的汇总.
+   *
+   * @return 订单汇总
+   */
+  OrderTotals getTotals();
+
+  /**
+   * 获取客户的订单汇总.
+   *
+   * @param customerId 客户ID
+   * @return 订单汇总，没有订单时为零
+   */
+  OrderTotals getCustomerTotals(String customerId);
+
+  /**
+   * 获取使用某折扣码的订单汇总.
+   *
+   * @param discountCode 折扣码
+   * @return 订单汇总，没有订单时为零
+   */
+  OrderTotals getDiscountTotals(String discountCode);
+
+  /**
+   * 获取截至某分钟（含）的最近若干分钟的逐分钟汇总.
+   *
+   * @param until 最后一分钟
+   * @param minutes 分钟数，不超过 {@link #getWindowMinutes()}
+   * @return 按分钟起始时间升序的汇总，没有订单的分钟为零
+   */
+  NavigableMap<LocalDateTime, OrderTotals> getMinuteTotals(LocalDateTime until, int minutes);
+
+  /**
+   * 逐分钟汇总保留的分钟数.
+   *
+   * @return 分钟数
+   */
+  int getWindowMinutes();
+}
@@ -1,7 +1,12 @@
 package com.yuki.server.application.repository;
 
 import com.yuki.server.domain.model.Product;
+import com.yuki.server.domain.model.ProductCatalog;
+import com.yuki.server.domain.model.Promotion;
+import com.yuki.server.domain.model.PromotionRule;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -10,8 +15,28 @@ import java.util.Map;
 public interface ProductRepository {
   void save(Product product);
 
+  void saveAll(Collection<Product> products);
+
   Product findByCode(String productCode);
 
   Map<String, Product> findAll();
+
+  /**
+   * 获取当前产品目录快照（不复制）.
+   *
+   * @return 不可变目录快照
+   */
+  ProductCatalog getCatalog();
+
+  /**
+   * 一次替换产品、折扣码和促销规则，读取方不会看到新旧数据混合的目录.
+   *
+   * @param products 新的产品映射，为null时保持不变
+   * @param promotions 新的折扣码映射，为null时保持不变
+   * @param rules 新的促销规则，为null时保持不变
+   * @return 发布后的目录快照
+   */
+  ProductCatalog replace(Map<String, Product> products, Map<String, Promotion> promotions,
+      List<PromotionRule> rules);
 }
 
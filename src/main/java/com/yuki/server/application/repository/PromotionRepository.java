@@ -2,14 +2,24 @@ package com.yuki.server.application.repository;
 
 import com.yuki.server.domain.model.Promotion;
 
+import java.util.Collection;
+
 /**
  * 促销仓储接口（应用层）.
  */
 public interface PromotionRepository {
   void save(Promotion promotion);
 
+  void saveAll(Collection<Promotion> promotions);
+
   Promotion findByCode(String discountCode);
 
   boolean isValid(String discountCode);
-}
 
+  /**
+   * 获取促销数据版本，每次变更后递增.
+   *
+   * @return 版本号
+   */
+  long getVersion();
+}
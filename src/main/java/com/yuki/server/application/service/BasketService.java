@@ -1,7 +1,11 @@
 package com.yuki.server.application.service;
 
+import com.yuki.server.application.dto.ApplyDiscountResult;
+import com.yuki.server.application.dto.BasketItemRequest;
 import com.yuki.server.application.dto.BasketResponse;
 
+import java.util.List;
+
 /**
  * 购物车服务接口（应用层）.
  */
@@ -41,13 +45,23 @@ public interface BasketService {
    */
   BasketResponse addProduct(String basketId, String productCode, int quantity);
 
+  /**
+   * 批量修改购物车产品行（增加、设置、移除），全部校验通过后一次性生效并只定价一次.
+   *
+   * @param basketId 购物车ID
+   * @param items 产品行修改列表，按顺序应用
+   * @return 购物车响应
+   */
+  BasketResponse updateProducts(String basketId, List<BasketItemRequest> items);
+
   /**
    * 应用折扣码.
+   * 无效尝试过多而受限时，窗口结束前有效的折扣码也返回受限，避免受限后仍能试出有效码.
    *
    * @param basketId 购物车ID
    * @param discountCode 折扣码
-   * @return 购物车响应
+   * @return 应用结果；折扣码无效或无效尝试过多时不抛出异常，以结果状态表示
    */
-  BasketResponse applyDiscount(String basketId, String discountCode);
+  ApplyDiscountResult applyDiscount(String basketId, String discountCode);
 }
 
@@ -0,0 +1,18 @@
+package com.yuki.server.application.service;
+
+import com.yuki.server.application.dto.CatalogReloadResponse;
+
+/**
+ * 目录加载服务接口（应用层）.
+ */
+public interface CatalogService {
+
+  /**
+   * 从目录数据源重新加载产品和折扣码，与当前目录比较后一次发布变化的部分.
+   * 读取和比较期间请求照常使用旧目录；数据源读取失败时保持当前目录不变.
+   *
+   * @return 本次变化的条数及发布后的版本号
+   * @throws com.yuki.server.domain.exception.CatalogReloadException 数据源读取失败或格式错误
+   */
+  CatalogReloadResponse reload();
+}
@@ -2,6 +2,8 @@ package com.yuki.server.application.service;
 
 import com.yuki.server.domain.exception.PaymentException;
 
+import java.util.List;
+
 /**
  * 信用卡服务接口（应用层）.
  */
@@ -13,7 +15,7 @@ public interface CreditCardService {
    * @param cardNumber 信用卡号
    * @return 是否有效
    */
-  boolean isValidCardNumber(String cardNumber);
+  boolean isValidCardNumber(CharSequence cardNumber);
 
   /**
    * 验证过期日期是否有效且未过期.
@@ -21,7 +23,17 @@ public interface CreditCardService {
    * @param expiryDate 过期日期，格式为 MM/yy
    * @return 是否有效且未过期
    */
-  boolean isValidExpiryDate(String expiryDate);
+  boolean isValidExpiryDate(CharSequence expiryDate);
+
+  /**
+   * 批量验证信用卡号和过期日期，用于批量支付预检.
+   *
+   * @param cardNumbers 信用卡号列表
+   * @param expiryDates 过期日期列表，与卡号一一对应
+   * @return 每张卡是否同时通过卡号和过期日期验证
+   */
+  boolean[] validateCards(List<? extends CharSequence> cardNumbers,
+      List<? extends CharSequence> expiryDates);
 
   /**
    * 处理支付.
@@ -32,4 +44,3 @@ public interface CreditCardService {
    */
   void processPayment(String cardNumber, String expiryDate);
 }
-
@@ -1,8 +1,12 @@
 package com.yuki.server.application.service;
 
+import com.yuki.server.application.dto.OrderPageResponse;
 import com.yuki.server.application.dto.OrderResponse;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * 订单服务接口（应用层）.
@@ -19,6 +23,41 @@ public interface OrderService {
    */
   OrderResponse checkout(String basketId, String cardNumber, String expiryDate);
 
+  /**
+   * 按幂等键结账：同一购物车以相同幂等键重复提交时返回首次结账的结果，不会重复支付或下单.
+   *
+   * @param basketId 购物车ID
+   * @param cardNumber 信用卡号
+   * @param expiryDate 过期日期
+   * @param idempotencyKey 幂等键，为null时等同于普通结账
+   * @return 订单响应
+   */
+  OrderResponse checkout(
+      String basketId, String cardNumber, String expiryDate, String idempotencyKey);
+
+  /**
+   * 异步结账：支付授权与计价并行执行，完成后下单，不阻塞调用线程等待支付网关.
+   *
+   * @param basketId 购物车ID
+   * @param cardNumber 信用卡号
+   * @param expiryDate 过期日期
+   * @return 订单响应，支付并发已满或授权超时时以PaymentUnavailableException失败
+   */
+  CompletableFuture<OrderResponse> checkoutAsync(
+      String basketId, String cardNumber, String expiryDate);
+
+  /**
+   * 按幂等键异步结账，语义同 {@link #checkout(String, String, String, String)}.
+   *
+   * @param basketId 购物车ID
+   * @param cardNumber 信用卡号
+   * @param expiryDate 过期日期
+   * @param idempotencyKey 幂等键，为null时等同于普通异步结账
+   * @return 订单响应
+   */
+  CompletableFuture<OrderResponse> checkoutAsync(
+      String basketId, String cardNumber, String expiryDate, String idempotencyKey);
+
   /**
    * 获取所有订单.
    *
@@ -33,5 +72,28 @@ public interface OrderService {
    * @return 订单列表
    */
   List<OrderResponse> getOrdersByCustomerId(String customerId);
-}
 
+  /**
+   * 分页获取订单（按创建时间升序）.
+   *
+   * @param customerId 客户ID，为null时查询全部订单
+   * @param from 起始时间（含），可为null
+   * @param to 结束时间（不含），可为null
+   * @param after 上一页返回的游标，可为null
+   * @param limit 每页条数
+   * @return 订单分页响应
+   */
+  OrderPageResponse getOrdersPage(
+      String customerId, LocalDateTime from, LocalDateTime to, String after, int limit);
+
+  /**
+   * 导出订单（按创建时间升序）：逐条惰性转换，不在内存中构造完整列表.
+   * 只包含导出开始前已创建的订单，调用方负责关闭返回的流.
+   *
+   * @param customerId 客户ID，为null时导出全部订单
+   * @param from 起始时间（含），可为null
+   * @param to 结束时间（不含），可为null
+   * @return 订单响应流
+   */
+  Stream<OrderResponse> exportOrders(String customerId, LocalDateTime from, LocalDateTime to);
+}
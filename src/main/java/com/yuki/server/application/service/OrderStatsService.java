@@ -0,0 +1,43 @@
+package com.yuki.server.application.service;
+
+import com.yuki.server.application.dto.MinuteStatsResponse;
+import com.yuki.server.application.dto.OrderStatsResponse;
+
+import java.util.List;
+
+/**
+ * 订单汇总服务接口（应用层）.
+ */
+public interface OrderStatsService {
+
+  /**
+   * 获取全部订单的汇总.
+   *
+   * @return 订单汇总
+   */
+  OrderStatsResponse getTotals();
+
+  /**
+   * 获取客户的订单汇总.
+   *
+   * @param customerId 客户ID
+   * @return 订单汇总
+   */
+  OrderStatsResponse getCustomerTotals(String customerId);
+
+  /**
+   * 获取折扣码的使用汇总.
+   *
+   * @param discountCode 折扣码
+   * @return 订单汇总
+   */
+  OrderStatsResponse getDiscountTotals(String discountCode);
+
+  /**
+   * 获取最近若干分钟（含当前分钟）的逐分钟汇总.
+   *
+   * @param minutes 分钟数
+   * @return 按时间升序的逐分钟汇总
+   */
+  List<MinuteStatsResponse> getMinuteTotals(int minutes);
+}
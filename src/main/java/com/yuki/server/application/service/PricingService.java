@@ -0,0 +1,59 @@
+package com.yuki.server.application.service;
+
+import com.yuki.server.domain.model.Basket;
+import com.yuki.server.domain.model.BasketContents;
+
+import java.math.BigDecimal;
+
+/**
+ * 定价服务接口（应用层）.
+ */
+public interface PricingService {
+
+  /**
+   * 计算购物车总价（含折扣）.
+   *
+   * @param basket 购物车
+   * @return 总价
+   */
+  BigDecimal calculateTotalPrice(Basket basket);
+
+  /**
+   * 计算购物车总价（含折扣），以最小货币单位表示.
+   *
+   * @param basket 购物车
+   * @return 总价（分）
+   */
+  long calculateTotalMinorUnits(Basket basket);
+
+  /**
+   * 计算购物车某一内容快照的总价（含折扣）.
+   *
+   * @param contents 购物车内容快照
+   * @return 总价
+   */
+  BigDecimal calculateTotalPrice(BasketContents contents);
+
+  /**
+   * 计算购物车某一内容快照的总价（含折扣），以最小货币单位表示.
+   *
+   * @param contents 购物车内容快照
+   * @return 总价（分）
+   */
+  long calculateTotalMinorUnits(BasketContents contents);
+
+  /**
+   * 计算添加产品后的内容快照，并按增量带上缓存的小计；不修改购物车及给定快照.
+   *
+   * @param contents 当前内容快照
+   * @param productCode 产品代码
+   * @param quantity 数量
+   * @return 新的内容快照
+   */
+  BasketContents withProduct(BasketContents contents, String productCode, int quantity);
+
+  /**
+   * 按当前目录预先换算单价表并编译促销规则，目录重新加载后调用，避免由请求线程承担换算开销.
+   */
+  void refreshPriceTable();
+}
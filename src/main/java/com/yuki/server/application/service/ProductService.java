@@ -2,6 +2,7 @@ package com.yuki.server.application.service;
 
 import com.yuki.server.application.dto.ProductResponse;
 import com.yuki.server.domain.model.Product;
+import com.yuki.server.domain.model.ProductCatalog;
 
 import java.util.List;
 import java.util.Map;
@@ -18,6 +19,13 @@ public interface ProductService {
    */
   List<ProductResponse> getAllProducts();
 
+  /**
+   * 获取产品目录版本号，目录每次变更都会递增.
+   *
+   * @return 目录版本号
+   */
+  long getCatalogVersion();
+
   /**
    * 根据产品代码获取产品.
    *
@@ -32,5 +40,12 @@ public interface ProductService {
    * @return 产品映射
    */
   Map<String, Product> getAllProductsMap();
+
+  /**
+   * 获取当前目录快照，其中的产品与产品代码字典属于同一时刻.
+   *
+   * @return 目录快照
+   */
+  ProductCatalog getCatalog();
 }
 
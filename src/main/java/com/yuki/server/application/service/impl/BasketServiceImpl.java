@@ -1,41 +1,68 @@
 package com.yuki.server.application.service.impl;
 
+import com.yuki.server.application.dto.ApplyDiscountResult;
+import com.yuki.server.application.dto.BasketItemRequest;
 import com.yuki.server.application.dto.BasketResponse;
 import com.yuki.server.application.repository.BasketRepository;
-import com.yuki.server.application.repository.ProductRepository;
+import com.yuki.server.application.repository.DiscountAttemptRepository;
 import com.yuki.server.application.repository.PromotionRepository;
 import com.yuki.server.application.service.BasketService;
+import com.yuki.server.application.service.PricingService;
 import com.yuki.server.application.service.ProductService;
 import com.yuki.server.domain.exception.InvalidRequestException;
 import com.yuki.server.domain.exception.ResourceNotFoundException;
 import com.yuki.server.domain.model.Basket;
-import com.yuki.server.domain.model.Promotion;
+import com.yuki.server.domain.model.BasketContents;
+import com.yuki.server.domain.model.Product;
+import com.yuki.server.domain.model.ProductCatalog;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 购物车服务实现类（应用层）.
+ *
+ * <p>无效折扣码按购物车和客户分别计数，短时间内失败过多时暂时拒绝该购物车/客户的折扣码请求，
+ * 且不再查找折扣码；无效和受限都作为结果返回，不抛出异常.
  */
 @Service
+@Timed(value = "app.service", histogram = true)
 public class BasketServiceImpl implements BasketService {
 
+  private static final int MAX_BATCH_SIZE = 1000;
+
   private final BasketRepository basketRepository;
-  private final ProductRepository productRepository;
   private final PromotionRepository promotionRepository;
+  private final DiscountAttemptRepository discountAttemptRepository;
   private final ProductService productService;
+  private final PricingService pricingService;
+  private final Counter invalidDiscountCodes;
+  private final Counter throttledDiscountCodes;
 
   public BasketServiceImpl(
       BasketRepository basketRepository,
-      ProductRepository productRepository,
       PromotionRepository promotionRepository,
-      ProductService productService) {
+      DiscountAttemptRepository discountAttemptRepository,
+      ProductService productService,
+      PricingService pricingService,
+      MeterRegistry meterRegistry) {
     this.basketRepository = basketRepository;
-    this.productRepository = productRepository;
     this.promotionRepository = promotionRepository;
+    this.discountAttemptRepository = discountAttemptRepository;
     this.productService = productService;
+    this.pricingService = pricingService;
+    this.invalidDiscountCodes = Counter.builder("discount.invalid")
+        .description("Discount codes rejected because no promotion matches")
+        .register(meterRegistry);
+    this.throttledDiscountCodes = Counter.builder("discount.throttled")
+        .description("Discount code requests refused after too many invalid attempts")
+        .register(meterRegistry);
   }
 
   @Override
@@ -78,48 +105,112 @@ public class BasketServiceImpl implements BasketService {
       throw new InvalidRequestException("Quantity must be greater than 0");
     }
 
-    basket.addProduct(productCode, quantity);
+    // 基于最新快照计算新快照，冲突时重试；溢出时购物车保持不变
+    basket.update(current -> pricingService.withProduct(current, productCode, quantity));
     basketRepository.save(basket);
     return convertToResponse(basket);
   }
 
   @Override
-  public BasketResponse applyDiscount(String basketId, String discountCode) {
+  public BasketResponse updateProducts(String basketId, List<BasketItemRequest> items) {
+    Basket basket = basketRepository.findById(basketId);
+    if (basket == null) {
+      throw new ResourceNotFoundException("Basket not found with id: " + basketId);
+    }
+    if (items == null || items.isEmpty() || items.size() > MAX_BATCH_SIZE) {
+      throw new InvalidRequestException(
+          "Number of items must be between 1 and " + MAX_BATCH_SIZE);
+    }
+
+    // 在当前快照的副本上校验并应用全部修改，任何一项失败时购物车保持不变
+    ProductCatalog catalog = productService.getCatalog();
+    BasketContents contents = basket.update(current -> {
+      Map<String, Integer> updated = current.toProductMap();
+      for (BasketItemRequest item : items) {
+        applyItem(updated, item, catalog.getProducts());
+      }
+      BasketContents next = current.withProducts(catalog.getProductCodes(), updated);
+      // 整个批次只在发布前定价一次，结果缓存在快照上供响应复用
+      pricingService.calculateTotalMinorUnits(next);
+      return next;
+    });
+    basketRepository.save(basket);
+    return convertToResponse(basket, contents);
+  }
+
+  @Override
+  public ApplyDiscountResult applyDiscount(String basketId, String discountCode) {
     Basket basket = basketRepository.findById(basketId);
     if (basket == null) {
       throw new ResourceNotFoundException("Basket not found with id: " + basketId);
     }
 
-    Promotion promotion = promotionRepository.findByCode(discountCode);
-    if (promotion == null) {
-      throw new InvalidRequestException("Invalid discount code: " + discountCode);
+    String basketKey = "basket:" + basketId;
+    String customerKey = "customer:" + basket.getCustomerId();
+    long retryAfterMillis = Math.max(
+        discountAttemptRepository.retryAfterMillis(basketKey),
+        discountAttemptRepository.retryAfterMillis(customerKey));
+    if (retryAfterMillis > 0) {
+      throttledDiscountCodes.increment();
+      return ApplyDiscountResult.throttled(
+          Math.max(1, TimeUnit.MILLISECONDS.toSeconds(retryAfterMillis + 999)));
+    }
+
+    if (discountCode == null || !promotionRepository.isValid(discountCode)) {
+      invalidDiscountCodes.increment();
+      discountAttemptRepository.recordFailure(basketKey);
+      discountAttemptRepository.recordFailure(customerKey);
+      return ApplyDiscountResult.invalidCode();
     }
 
     basket.setDiscountCode(discountCode);
     basketRepository.save(basket);
-    return convertToResponse(basket);
+    return ApplyDiscountResult.applied(convertToResponse(basket));
   }
 
   /**
-   * 计算总价（含折扣）.
+   * 校验单个产品行修改并应用到产品数量映射.
    *
-   * @param basket 购物车
-   * @return 总价
+   * @param products 产品代码到数量的映射
+   * @param item 产品行修改
+   * @param catalog 产品目录
    */
-  private BigDecimal calculateTotalPriceWithDiscount(Basket basket) {
-    Map<String, com.yuki.server.domain.model.Product> productMap = productRepository.findAll();
-    BigDecimal total = basket.calculateTotalPrice(productMap);
-
-    if (basket.getDiscountCode() != null) {
-      Promotion promotion = promotionRepository.findByCode(basket.getDiscountCode());
-      if (promotion != null) {
-        BigDecimal discountAmount = total.multiply(promotion.getDiscountPercent())
-            .divide(new BigDecimal("100"));
-        total = total.subtract(discountAmount);
-      }
+  private void applyItem(
+      Map<String, Integer> products, BasketItemRequest item, Map<String, Product> catalog) {
+    String productCode = item.getProductCode();
+    if (productCode == null) {
+      throw new InvalidRequestException("Product code is required");
+    }
+    BasketItemRequest.Operation operation =
+        item.getOperation() == null ? BasketItemRequest.Operation.ADD : item.getOperation();
+    if (operation == BasketItemRequest.Operation.REMOVE) {
+      products.remove(productCode);
+      return;
     }
 
-    return total;
+    if (!catalog.containsKey(productCode)) {
+      throw new ResourceNotFoundException("Product not found with code: " + productCode);
+    }
+    Integer quantity = item.getQuantity();
+    if (operation == BasketItemRequest.Operation.ADD) {
+      if (quantity == null || quantity <= 0) {
+        throw new InvalidRequestException("Quantity must be greater than 0");
+      }
+      try {
+        products.merge(productCode, quantity, Math::addExact);
+      } catch (ArithmeticException e) {
+        throw new InvalidRequestException("Quantity too large for product: " + productCode);
+      }
+    } else {
+      if (quantity == null || quantity < 0) {
+        throw new InvalidRequestException("Quantity must not be negative");
+      }
+      if (quantity == 0) {
+        products.remove(productCode);
+      } else {
+        products.put(productCode, quantity);
+      }
+    }
   }
 
   /**
@@ -129,12 +220,23 @@ public class BasketServiceImpl implements BasketService {
    * @return 购物车响应
    */
   private BasketResponse convertToResponse(Basket basket) {
+    return convertToResponse(basket, basket.getContents());
+  }
+
+  /**
+   * 按给定的内容快照转换为响应DTO，产品行与总价来自同一快照.
+   *
+   * @param basket 购物车
+   * @param contents 内容快照
+   * @return 购物车响应
+   */
+  private BasketResponse convertToResponse(Basket basket, BasketContents contents) {
     return new BasketResponse(
         basket.getBasketId(),
         basket.getCustomerId(),
-        basket.getProducts(),
-        basket.getDiscountCode(),
-        calculateTotalPriceWithDiscount(basket));
+        contents.toProductMap(),
+        contents.getDiscountCode(),
+        pricingService.calculateTotalPrice(contents));
   }
 }
 
@@ -0,0 +1,209 @@
+package com.yuki.server.application.service.impl;
+
+import com.yuki.server.application.dto.CatalogReloadResponse;
+import com.yuki.server.application.gateway.CatalogSource;
+import com.yuki.server.application.repository.ProductRepository;
+import com.yuki.server.application.service.CatalogService;
+import com.yuki.server.application.service.PricingService;
+import com.yuki.server.domain.exception.CatalogReloadException;
+import com.yuki.server.domain.model.Product;
+import com.yuki.server.domain.model.ProductCatalog;
+import com.yuki.server.domain.model.Promotion;
+import com.yuki.server.domain.model.PromotionRule;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * 目录加载服务实现类（应用层）.
+ *
+ * <p>新目录在请求路径之外读取并与当前快照比较，只有产品、折扣码或促销规则确有变化时才发布；
+ * 三者通过 {@link ProductRepository#replace} 一次发布，请求不会看到新旧混合的目录.
+ */
+@Service
+@Timed(value = "app.service", histogram = true)
+public class CatalogServiceImpl implements CatalogService {
+
+  private static final Logger logger = LoggerFactory.getLogger(CatalogServiceImpl.class);
+
+  private final CatalogSource catalogSource;
+  private final ProductRepository productRepository;
+  private final PricingService pricingService;
+  // 串行化重新加载，比较和发布之间目录不会被另一次加载修改
+  private final ReentrantLock reloadLock = new ReentrantLock();
+
+  private final Timer loadTimer;
+  private final Counter appliedReloads;
+  private final Counter unchangedReloads;
+  private final Counter failedReloads;
+  private final AtomicLong loadedProducts = new AtomicLong();
+  private final AtomicLong loadedPromotions = new AtomicLong();
+  private final AtomicLong loadedRules = new AtomicLong();
+  private final AtomicLong recordsPerSecond = new AtomicLong();
+
+  public CatalogServiceImpl(
+      CatalogSource catalogSource,
+      ProductRepository productRepository,
+      PricingService pricingService,
+      MeterRegistry meterRegistry) {
+    this.catalogSource = catalogSource;
+    this.productRepository = productRepository;
+    this.pricingService = pricingService;
+
+    this.loadTimer = Timer.builder("catalog.load")
+        .description("Time spent loading the catalog files")
+        .register(meterRegistry);
+    this.appliedReloads = reloadCounter(meterRegistry, "applied");
+    this.unchangedReloads = reloadCounter(meterRegistry, "unchanged");
+    this.failedReloads = reloadCounter(meterRegistry, "failed");
+    Gauge.builder("catalog.load.records", loadedProducts, AtomicLong::get)
+        .description("Records read by the last catalog load")
+        .tag("type", "product")
+        .register(meterRegistry);
+    Gauge.builder("catalog.load.records", loadedPromotions, AtomicLong::get)
+        .description("Records read by the last catalog load")
+        .tag("type", "promotion")
+        .register(meterRegistry);
+    Gauge.builder("catalog.load.records", loadedRules, AtomicLong::get)
+        .description("Records read by the last catalog load")
+        .tag("type", "rule")
+        .register(meterRegistry);
+    Gauge.builder("catalog.load.throughput", recordsPerSecond, AtomicLong::get)
+        .description("Records per second achieved by the last catalog load")
+        .baseUnit("records/s")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public CatalogReloadResponse reload() {
+    reloadLock.lock();
+    try {
+      long start = System.nanoTime();
+      CatalogSource.Contents contents;
+      try {
+        contents = catalogSource.read();
+      } catch (UncheckedIOException e) {
+        failedReloads.increment();
+        throw new CatalogReloadException(
+            "Catalog reload failed: " + e.getCause().getMessage(), e.getCause());
+      }
+
+      ProductCatalog current = productRepository.getCatalog();
+      Map<String, Product> products = index(contents.getProducts(), Product::getProductCode);
+      Map<String, Promotion> promotions =
+          index(contents.getPromotions(), Promotion::getDiscountCode);
+      // 规则保持文件中的顺序，便于按顺序查看和比较
+      Map<String, PromotionRule> rules = new LinkedHashMap<>();
+      for (PromotionRule rule : contents.getRules()) {
+        rules.put(rule.getRuleId(), rule);
+      }
+      Diff productDiff = Diff.of(current.getProducts(), products);
+      Diff promotionDiff = Diff.of(current.getPromotions(), promotions);
+      Diff ruleDiff = Diff.of(index(current.getRules(), PromotionRule::getRuleId), rules);
+
+      ProductCatalog published = current;
+      if (productDiff.changed() || promotionDiff.changed() || ruleDiff.changed()) {
+        // 未变化的一侧保持原版本，对应的价格表和购物车缓存继续有效
+        published = productRepository.replace(
+            productDiff.changed() ? products : null,
+            promotionDiff.changed() ? promotions : null,
+            ruleDiff.changed() ? new ArrayList<>(rules.values()) : null);
+        pricingService.refreshPriceTable();
+        appliedReloads.increment();
+      } else {
+        unchangedReloads.increment();
+      }
+
+      long elapsed = System.nanoTime() - start;
+      loadTimer.record(elapsed, TimeUnit.NANOSECONDS);
+      loadedProducts.set(contents.getProducts().size());
+      loadedPromotions.set(contents.getPromotions().size());
+      loadedRules.set(contents.getRules().size());
+      long records = (long) contents.getProducts().size() + contents.getPromotions().size()
+          + contents.getRules().size();
+      recordsPerSecond.set(records * TimeUnit.SECONDS.toNanos(1) / Math.max(1, elapsed));
+
+      logger.info("Loaded {} products (+{} ~{} -{}), {} promotions (+{} ~{} -{}) and {} rules"
+              + " (+{} ~{} -{}) in {} ms ({} records/s), catalog version {}, promotion version {}",
+          products.size(), productDiff.added, productDiff.updated, productDiff.removed,
+          promotions.size(), promotionDiff.added, promotionDiff.updated, promotionDiff.removed,
+          rules.size(), ruleDiff.added, ruleDiff.updated, ruleDiff.removed,
+          TimeUnit.NANOSECONDS.toMillis(elapsed), recordsPerSecond.get(),
+          published.getVersion(), published.getPromotionVersion());
+
+      return new CatalogReloadResponse(
+          published.getVersion(),
+          published.getPromotionVersion(),
+          productDiff.added,
+          productDiff.updated,
+          productDiff.removed,
+          promotionDiff.added,
+          promotionDiff.updated,
+          promotionDiff.removed,
+          ruleDiff.added,
+          ruleDiff.updated,
+          ruleDiff.removed);
+    } finally {
+      reloadLock.unlock();
+    }
+  }
+
+  private static <T> Map<String, T> index(List<T> items, Function<T, String> key) {
+    Map<String, T> indexed = new HashMap<>(items.size() * 2);
+    for (T item : items) {
+      indexed.put(key.apply(item), item);
+    }
+    return indexed;
+  }
+
+  private static Counter reloadCounter(MeterRegistry meterRegistry, String result) {
+    return Counter.builder("catalog.reloads")
+        .description("Catalog loads by outcome")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  /**
+   * 新旧映射之间新增、修改、删除的条数.
+   */
+  private static final class Diff {
+    private int added;
+    private int updated;
+    private int removed;
+
+    static <T> Diff of(Map<String, T> current, Map<String, T> next) {
+      Diff diff = new Diff();
+      for (Map.Entry<String, T> entry : next.entrySet()) {
+        T existing = current.get(entry.getKey());
+        if (existing == null) {
+          diff.added++;
+        } else if (!existing.equals(entry.getValue())) {
+          diff.updated++;
+        }
+      }
+      // 新映射中的键要么是新增，要么在旧映射中存在
+      diff.removed = current.size() - (next.size() - diff.added);
+      return diff;
+    }
+
+    boolean changed() {
+      return added + updated + removed > 0;
+    }
+  }
+}
@@ -1,90 +1,96 @@
 package com.yuki.server.application.service.impl;
 
+import com.yuki.server.application.gateway.PaymentGateway;
 import com.yuki.server.application.service.CreditCardService;
+import com.yuki.server.domain.exception.InvalidRequestException;
 import com.yuki.server.domain.exception.PaymentException;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
 import java.time.LocalDate;
+import java.time.Year;
+import java.time.ZoneId;
+import java.util.List;
 
 /**
  * 信用卡服务实现类（应用层）.
+ *
+ * <p>校验直接在 {@link CharSequence} 上单次遍历完成，不创建中间字符串、不使用异常控制流程；
+ * 当前年月按月缓存，仅在跨月时重新计算.
  */
 @Service
+@Timed(value = "app.service", histogram = true)
 public class CreditCardServiceImpl implements CreditCardService {
 
-  @Override
-  public boolean isValidCardNumber(String cardNumber) {
-    if (cardNumber == null || cardNumber.trim().isEmpty()) {
-      return false;
-    }
+  private static final int MIN_CARD_DIGITS = 13;
+  private static final int MAX_CARD_DIGITS = 19;
+  private static final long INVALID_NUMBER = Long.MIN_VALUE;
 
-    // 移除所有非数字字符
-    String digitsOnly = cardNumber.replaceAll("[^0-9]", "");
-    
-    if (digitsOnly.length() < 13 || digitsOnly.length() > 19) {
-      return false;
-    }
+  private final Clock clock;
+  private final PaymentGateway paymentGateway;
+  private volatile CurrentMonth currentMonth;
 
-    return luhnCheck(digitsOnly);
+  public CreditCardServiceImpl(Clock clock, PaymentGateway paymentGateway) {
+    this.clock = clock;
+    this.paymentGateway = paymentGateway;
   }
 
-  /**
-   * Luhn算法验证.
-   *
-   * @param cardNumber 信用卡号（仅数字）
-   * @return 是否通过Luhn验证
-   */
-  private boolean luhnCheck(String cardNumber) {
-    int sum = 0;
-    boolean alternate = false;
+  @Override
+  public boolean isValidCardNumber(CharSequence cardNumber) {
+    if (cardNumber == null) {
+      return false;
+    }
 
-    // 从右到左处理每个数字
+    // 从右到左处理每个数字，忽略所有非数字字符（Luhn算法）
+    int sum = 0;
+    int digits = 0;
     for (int i = cardNumber.length() - 1; i >= 0; i--) {
-      int digit = Character.getNumericValue(cardNumber.charAt(i));
+      char c = cardNumber.charAt(i);
+      if (c < '0' || c > '9') {
+        continue;
+      }
+      if (++digits > MAX_CARD_DIGITS) {
+        return false;
+      }
 
-      if (alternate) {
+      int digit = c - '0';
+      if ((digits & 1) == 0) {
         digit *= 2;
         if (digit > 9) {
-          digit = (digit % 10) + 1;
+          digit -= 9;
         }
       }
-
       sum += digit;
-      alternate = !alternate;
     }
 
-    return (sum % 10) == 0;
+    return digits >= MIN_CARD_DIGITS && sum % 10 == 0;
   }
 
   @Override
-  public boolean isValidExpiryDate(String expiryDate) {
-    if (expiryDate == null || expiryDate.trim().isEmpty()) {
+  public boolean isValidExpiryDate(CharSequence expiryDate) {
+    if (expiryDate == null) {
       return false;
     }
+    return isValidExpiryDate(expiryDate, currentYearMonth());
+  }
+
+  @Override
+  public boolean[] validateCards(List<? extends CharSequence> cardNumbers,
+      List<? extends CharSequence> expiryDates) {
+    if (cardNumbers.size() != expiryDates.size()) {
+      throw new InvalidRequestException("Card numbers and expiry dates must have the same size");
+    }
 
-    try {
-      // 解析MM/yy格式
-      String[] parts = expiryDate.split("/");
-      if (parts.length != 2) {
-        return false;
-      }
-      
-      int month = Integer.parseInt(parts[0]);
-      int year = Integer.parseInt(parts[1]);
-      
-      // 将yy转换为yyyy（假设20xx）
-      int fullYear = 2000 + year;
-      
-      // 创建该月的第一天
-      LocalDate expiry = LocalDate.of(fullYear, month, 1);
-      // 设置为该月的最后一天
-      expiry = expiry.withDayOfMonth(expiry.lengthOfMonth());
-      
-      LocalDate today = LocalDate.now();
-      return expiry.isAfter(today) || expiry.isEqual(today);
-    } catch (Exception e) {
-      return false;
+    long yearMonth = currentYearMonth();
+    boolean[] result = new boolean[cardNumbers.size()];
+    for (int i = 0; i < result.length; i++) {
+      CharSequence expiryDate = expiryDates.get(i);
+      result[i] = isValidCardNumber(cardNumbers.get(i))
+          && expiryDate != null
+          && isValidExpiryDate(expiryDate, yearMonth);
     }
+    return result;
   }
 
   @Override
@@ -99,7 +105,127 @@ public class CreditCardServiceImpl implements CreditCardService {
       throw new PaymentException("Invalid or expired card. Expiry date must be later than today.");
     }
 
-    // 模拟支付处理（这里只是验证，实际支付已通过验证）
+    // 校验通过后向支付网关请求授权
+    paymentGateway.authorize(cardNumber, expiryDate);
   }
-}
 
+  /**
+   * 验证MM/yy格式的过期日期，卡在过期月份的最后一天之前均有效.
+   *
+   * <p>解析规则与 {@code split("/")} 加 {@link Integer#parseInt(String)} 一致：
+   * 末尾的'/'被忽略，月份和年份允许正负号及前导零.
+   *
+   * @param expiryDate 过期日期
+   * @param currentYearMonth 当前年月（年 * 12 + 月）
+   * @return 是否有效且未过期
+   */
+  private static boolean isValidExpiryDate(CharSequence expiryDate, long currentYearMonth) {
+    int end = expiryDate.length();
+    while (end > 0 && expiryDate.charAt(end - 1) == '/') {
+      end--;
+    }
+
+    int separator = -1;
+    for (int i = 0; i < end; i++) {
+      if (expiryDate.charAt(i) == '/') {
+        if (separator >= 0) {
+          return false;
+        }
+        separator = i;
+      }
+    }
+    if (separator < 0) {
+      return false;
+    }
+
+    long month = parseInt(expiryDate, 0, separator);
+    long year = parseInt(expiryDate, separator + 1, end);
+    if (month == INVALID_NUMBER || year == INVALID_NUMBER || month < 1 || month > 12) {
+      return false;
+    }
+
+    // 将yy转换为yyyy（假设20xx），与int加法的溢出行为保持一致
+    int fullYear = 2000 + (int) year;
+    if (fullYear < Year.MIN_VALUE || fullYear > Year.MAX_VALUE) {
+      return false;
+    }
+    return fullYear * 12L + month >= currentYearMonth;
+  }
+
+  /**
+   * 解析十进制int，规则同 {@link Integer#parseInt(String)}，失败时返回 {@link #INVALID_NUMBER}.
+   *
+   * @param s 字符序列
+   * @param begin 起始位置（含）
+   * @param end 结束位置（不含）
+   * @return 解析结果
+   */
+  private static long parseInt(CharSequence s, int begin, int end) {
+    if (begin >= end) {
+      return INVALID_NUMBER;
+    }
+
+    int i = begin;
+    boolean negative = false;
+    char first = s.charAt(i);
+    if (first == '-' || first == '+') {
+      negative = first == '-';
+      if (++i == end) {
+        return INVALID_NUMBER;
+      }
+    }
+
+    long value = 0;
+    for (; i < end; i++) {
+      int digit = Character.digit(s.charAt(i), 10);
+      if (digit < 0) {
+        return INVALID_NUMBER;
+      }
+      value = value * 10 + digit;
+      if (value > -(long) Integer.MIN_VALUE) {
+        return INVALID_NUMBER;
+      }
+    }
+
+    value = negative ? -value : value;
+    return value > Integer.MAX_VALUE ? INVALID_NUMBER : value;
+  }
+
+  /**
+   * 获取当前年月（年 * 12 + 月），同一个月内复用缓存结果.
+   *
+   * @return 当前年月
+   */
+  private long currentYearMonth() {
+    CurrentMonth month = currentMonth;
+    long now = clock.millis();
+    if (month == null || now < month.fromMillis || now >= month.untilMillis) {
+      month = CurrentMonth.of(LocalDate.now(clock), clock.getZone());
+      currentMonth = month;
+    }
+    return month.yearMonth;
+  }
+
+  /**
+   * 缓存的当前月份及其有效时间范围.
+   */
+  private static final class CurrentMonth {
+    private final long yearMonth;
+    private final long fromMillis;
+    private final long untilMillis;
+
+    private CurrentMonth(long yearMonth, long fromMillis, long untilMillis) {
+      this.yearMonth = yearMonth;
+      this.fromMillis = fromMillis;
+      this.untilMillis = untilMillis;
+    }
+
+    private static CurrentMonth of(LocalDate today, ZoneId zone) {
+      LocalDate firstDay = today.withDayOfMonth(1);
+      return new CurrentMonth(
+          today.getYear() * 12L + today.getMonthValue(),
+          firstDay.atStartOfDay(zone).toInstant().toEpochMilli(),
+          firstDay.plusMonths(1).atStartOfDay(zone).toInstant().toEpochMilli());
+    }
+  }
+}
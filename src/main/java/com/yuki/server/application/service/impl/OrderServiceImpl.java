@@ -1,80 +1,296 @@
 package com.yuki.server.application.service.impl;
 
+import com.yuki.server.application.dto.OrderPageResponse;
 import com.yuki.server.application.dto.OrderResponse;
 import com.yuki.server.application.repository.BasketRepository;
+import com.yuki.server.application.repository.IdempotencyRepository;
+import com.yuki.server.application.repository.OrderCursor;
 import com.yuki.server.application.repository.OrderRepository;
-import com.yuki.server.application.repository.ProductRepository;
-import com.yuki.server.application.repository.PromotionRepository;
 import com.yuki.server.application.service.CreditCardService;
 import com.yuki.server.application.service.OrderService;
+import com.yuki.server.application.service.PricingService;
+import com.yuki.server.domain.exception.InvalidRequestException;
+import com.yuki.server.domain.exception.PaymentException;
+import com.yuki.server.domain.exception.PaymentUnavailableException;
 import com.yuki.server.domain.exception.ResourceNotFoundException;
 import com.yuki.server.domain.model.Basket;
+import com.yuki.server.domain.model.BasketContents;
 import com.yuki.server.domain.model.Order;
-import com.yuki.server.domain.model.Promotion;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 订单服务实现类（应用层）.
  */
 @Service
+@Timed(value = "app.service", histogram = true)
 public class OrderServiceImpl implements OrderService {
 
   private static final Logger logger = LoggerFactory.getLogger(OrderServiceImpl.class);
+  private static final int MAX_PAGE_SIZE = 1000;
+  private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
 
   private final OrderRepository orderRepository;
   private final BasketRepository basketRepository;
-  private final ProductRepository productRepository;
-  private final PromotionRepository promotionRepository;
+  private final IdempotencyRepository idempotencyRepository;
   private final CreditCardService creditCardService;
+  private final PricingService pricingService;
+  private final ExecutorService paymentExecutor;
+  private final Executor checkoutExecutor;
+  private final long paymentTimeoutMillis;
+
+  // 结账各阶段耗时及支付拒绝原因计数，构造时注册，热路径上不再查找指标
+  private final Timer lookupTimer;
+  private final Timer pricingTimer;
+  private final Timer paymentTimer;
+  private final Timer persistTimer;
+  private final Counter paymentDeclined;
+  private final Counter paymentBusy;
+  private final Counter paymentTimedOut;
 
   public OrderServiceImpl(
       OrderRepository orderRepository,
       BasketRepository basketRepository,
-      ProductRepository productRepository,
-      PromotionRepository promotionRepository,
-      CreditCardService creditCardService) {
+      IdempotencyRepository idempotencyRepository,
+      CreditCardService creditCardService,
+      PricingService pricingService,
+      @Qualifier("paymentExecutor") ExecutorService paymentExecutor,
+      @Qualifier("checkoutExecutor") Executor checkoutExecutor,
+      @Value("${payment.timeout:2s}") Duration paymentTimeout,
+      MeterRegistry meterRegistry) {
     this.orderRepository = orderRepository;
     this.basketRepository = basketRepository;
-    this.productRepository = productRepository;
-    this.promotionRepository = promotionRepository;
+    this.idempotencyRepository = idempotencyRepository;
     this.creditCardService = creditCardService;
+    this.pricingService = pricingService;
+    this.paymentExecutor = paymentExecutor;
+    this.checkoutExecutor = checkoutExecutor;
+    this.paymentTimeoutMillis = paymentTimeout.toMillis();
+    this.lookupTimer = stageTimer(meterRegistry, "lookup");
+    this.pricingTimer = stageTimer(meterRegistry, "pricing");
+    this.paymentTimer = stageTimer(meterRegistry, "payment");
+    this.persistTimer = stageTimer(meterRegistry, "persist");
+    this.paymentDeclined = rejectionCounter(meterRegistry, "declined");
+    this.paymentBusy = rejectionCounter(meterRegistry, "busy");
+    this.paymentTimedOut = rejectionCounter(meterRegistry, "timeout");
   }
 
   @Override
   public OrderResponse checkout(String basketId, String cardNumber, String expiryDate) {
+    return checkout(basketId, cardNumber, expiryDate, null);
+  }
+
+  @Override
+  public OrderResponse checkout(
+      String basketId, String cardNumber, String expiryDate, String idempotencyKey) {
+    // 同步结账在当前线程计价、等待支付并下单，只有支付网关调用进入隔离舱；
+    // 结果通常已经完成，仅在复用同一幂等键的进行中结账时才需要等待
+    try {
+      return checkout(basketId, cardNumber, expiryDate, idempotencyKey, false).join();
+    } catch (CompletionException e) {
+      throw unwrap(e);
+    }
+  }
+
+  @Override
+  public CompletableFuture<OrderResponse> checkoutAsync(
+      String basketId, String cardNumber, String expiryDate) {
+    return checkoutAsync(basketId, cardNumber, expiryDate, null);
+  }
+
+  @Override
+  public CompletableFuture<OrderResponse> checkoutAsync(
+      String basketId, String cardNumber, String expiryDate, String idempotencyKey) {
+    return checkout(basketId, cardNumber, expiryDate, idempotencyKey, true);
+  }
+
+  /**
+   * 按幂等键复用或发起一次结账.
+   *
+   * @param basketId 购物车ID
+   * @param cardNumber 信用卡号
+   * @param expiryDate 过期日期
+   * @param idempotencyKey 幂等键，可为null
+   * @param async 为true时在结账线程池中下单，否则在当前线程等待支付并下单
+   * @return 订单响应
+   */
+  private CompletableFuture<OrderResponse> checkout(String basketId, String cardNumber,
+      String expiryDate, String idempotencyKey, boolean async) {
+    if (idempotencyKey == null) {
+      return processCheckout(basketId, cardNumber, expiryDate, async);
+    }
+    if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+      return CompletableFuture.failedFuture(new InvalidRequestException(
+          "Idempotency key must be between 1 and " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters"));
+    }
+
+    // 幂等键按购物车隔离；重复请求直接复用首次结账的结果（含仍在进行中的结账）
+    String key = basketId + '\n' + idempotencyKey;
+    CompletableFuture<OrderResponse> result = new CompletableFuture<>();
+    CompletableFuture<OrderResponse> existing = idempotencyRepository.putIfAbsent(key, result);
+    if (existing != null) {
+      logger.info("Replaying checkout result for basket {} with idempotency key {}",
+          basketId, idempotencyKey);
+      return existing;
+    }
+
+    processCheckout(basketId, cardNumber, expiryDate, async).whenComplete((order, failure) -> {
+      if (failure != null) {
+        // 失败结果不缓存，先移除再完成，保证客户端看到失败后可以用同一幂等键重试
+        idempotencyRepository.remove(key, result);
+        result.completeExceptionally(causeOf(failure));
+      } else {
+        result.complete(order);
+      }
+    });
+    return result;
+  }
+
+  private CompletableFuture<OrderResponse> processCheckout(
+      String basketId, String cardNumber, String expiryDate, boolean async) {
+    long start = System.nanoTime();
     Basket basket = basketRepository.findById(basketId);
-    if (basket == null) {
-      throw new ResourceNotFoundException("Basket not found with id: " + basketId);
+    BasketContents contents = basket == null ? null : basket.getContents();
+    long pricingStart = System.nanoTime();
+    lookupTimer.record(pricingStart - start, TimeUnit.NANOSECONDS);
+    if (contents == null || contents.isClosed()) {
+      return CompletableFuture.failedFuture(
+          new ResourceNotFoundException("Basket not found with id: " + basketId));
+    }
+
+    // 支付授权在隔离舱线程池中执行，同时在当前线程计算总价（含折扣）
+    CompletableFuture<Void> payment = authorize(cardNumber, expiryDate);
+    CompletableFuture<BigDecimal> totalPrice;
+    try {
+      totalPrice = CompletableFuture.completedFuture(pricingService.calculateTotalPrice(contents));
+    } catch (RuntimeException e) {
+      totalPrice = CompletableFuture.failedFuture(e);
+    }
+    pricingTimer.record(System.nanoTime() - pricingStart, TimeUnit.NANOSECONDS);
+
+    if (async) {
+      // 两者都完成后在结账线程池中下单，不占用隔离舱线程；支付失败优先于计价失败返回.
+      // 结账线程池队列已满时以RejectedExecutionException失败（503），购物车保持不变
+      return payment.thenCombineAsync(totalPrice,
+          (ignored, total) -> placeOrder(basket, contents, total), checkoutExecutor);
+    }
+    try {
+      payment.join();
+      return CompletableFuture.completedFuture(placeOrder(basket, contents, totalPrice.join()));
+    } catch (CompletionException e) {
+      return CompletableFuture.failedFuture(causeOf(e));
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  /**
+   * 在支付隔离舱中授权支付，并发已满或超时时以PaymentUnavailableException失败.
+   *
+   * @param cardNumber 信用卡号
+   * @param expiryDate 过期日期
+   * @return 授权结果
+   */
+  private CompletableFuture<Void> authorize(String cardNumber, String expiryDate) {
+    long submitted = System.nanoTime();
+    CompletableFuture<Void> payment = new CompletableFuture<>();
+    Future<?> task;
+    try {
+      task = paymentExecutor.submit(() -> {
+        try {
+          creditCardService.processPayment(cardNumber, expiryDate);
+          payment.complete(null);
+        } catch (RuntimeException e) {
+          payment.completeExceptionally(e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      paymentBusy.increment();
+      return CompletableFuture.failedFuture(
+          new PaymentUnavailableException("Payment service is busy, please retry later"));
     }
 
-    // 验证支付
-    creditCardService.processPayment(cardNumber, expiryDate);
+    return payment
+        .orTimeout(paymentTimeoutMillis, TimeUnit.MILLISECONDS)
+        .exceptionally(failure -> {
+          // 超时后中断仍在等待网关的授权，及时释放隔离舱线程
+          task.cancel(true);
+          if (causeOf(failure) instanceof TimeoutException) {
+            paymentTimedOut.increment();
+            throw new PaymentUnavailableException("Payment authorization timed out");
+          }
+          if (causeOf(failure) instanceof PaymentException) {
+            paymentDeclined.increment();
+          }
+          throw unwrap(failure);
+        })
+        .whenComplete((ignored, failure) ->
+            paymentTimer.record(System.nanoTime() - submitted, TimeUnit.NANOSECONDS));
+  }
 
-    // 计算总价（含折扣）
-    BigDecimal totalPrice = calculateTotalPriceWithDiscount(basket);
+  /**
+   * 关闭购物车并创建订单，然后删除购物车；订单保存失败时重新打开购物车.
+   *
+   * @param basket 购物车
+   * @param contents 计价所用的内容快照
+   * @param totalPrice 该快照的总价
+   * @return 订单响应
+   */
+  private OrderResponse placeOrder(Basket basket, BasketContents contents, BigDecimal totalPrice) {
+    long start = System.nanoTime();
+    String basketId = basket.getBasketId();
+    // 结账期间购物车被修改时按最新内容重新计价，保证订单与关闭时的购物车一致
+    while (!basket.close(contents)) {
+      contents = basket.getContents();
+      if (contents.isClosed()) {
+        throw new ResourceNotFoundException("Basket not found with id: " + basketId);
+      }
+      totalPrice = pricingService.calculateTotalPrice(contents);
+    }
 
-    // 创建订单
     String orderId = UUID.randomUUID().toString();
     Order order = new Order(
         orderId,
         basket.getCustomerId(),
         totalPrice,
         LocalDateTime.now(),
-        basket.getDiscountCode());
+        contents.getDiscountCode());
 
-    orderRepository.save(order);
+    try {
+      orderRepository.save(order);
+    } catch (RuntimeException e) {
+      // 订单未保存，恢复购物车以便客户端重试结账
+      basket.reopen(contents);
+      throw e;
+    }
 
     // 删除购物车
     basketRepository.delete(basketId);
+    persistTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
 
     // 记录日志
     logger.info("Successfully converted basket {} to order {} for customer {} with total price {}",
@@ -97,26 +313,70 @@ public class OrderServiceImpl implements OrderService {
         .collect(Collectors.toList());
   }
 
+  @Override
+  public OrderPageResponse getOrdersPage(
+      String customerId, LocalDateTime from, LocalDateTime to, String after, int limit) {
+    if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+      throw new InvalidRequestException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+    }
+    OrderCursor cursor = after == null || after.isEmpty() ? null : OrderCursor.decode(after);
+
+    // 多取一条用于判断是否还有下一页
+    List<Order> orders = orderRepository.findPage(customerId, from, to, cursor, limit + 1);
+    boolean hasMore = orders.size() > limit;
+    int size = hasMore ? limit : orders.size();
+
+    List<OrderResponse> page = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      page.add(convertToResponse(orders.get(i)));
+    }
+    String nextCursor = null;
+    if (hasMore) {
+      Order last = orders.get(size - 1);
+      nextCursor = new OrderCursor(last.getCreatedAt(), last.getOrderId()).encode();
+    }
+    return new OrderPageResponse(page, nextCursor);
+  }
+
+  @Override
+  public Stream<OrderResponse> exportOrders(
+      String customerId, LocalDateTime from, LocalDateTime to) {
+    // 上界截止到导出开始时刻，持续有订单写入时导出也能结束
+    LocalDateTime now = LocalDateTime.now();
+    LocalDateTime upper = to == null || to.isAfter(now) ? now : to;
+    return orderRepository.stream(customerId, from, upper)
+        .map(this::convertToResponse);
+  }
+
+  private static Timer stageTimer(MeterRegistry meterRegistry, String stage) {
+    return Timer.builder("checkout.stage")
+        .description("Checkout time spent in each stage")
+        .tag("stage", stage)
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+
+  private static Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+    return Counter.builder("payment.rejections")
+        .description("Payment authorizations that did not succeed")
+        .tag("reason", reason)
+        .register(meterRegistry);
+  }
+
   /**
-   * 计算总价（含折扣）.
+   * 取出异步执行中被包装的原始异常.
    *
-   * @param basket 购物车
-   * @return 总价
+   * @param failure 异常
+   * @return 原始异常
    */
-  private BigDecimal calculateTotalPriceWithDiscount(Basket basket) {
-    Map<String, com.yuki.server.domain.model.Product> productMap = productRepository.findAll();
-    BigDecimal total = basket.calculateTotalPrice(productMap);
-
-    if (basket.getDiscountCode() != null) {
-      Promotion promotion = promotionRepository.findByCode(basket.getDiscountCode());
-      if (promotion != null) {
-        BigDecimal discountAmount = total.multiply(promotion.getDiscountPercent())
-            .divide(new BigDecimal("100"));
-        total = total.subtract(discountAmount);
-      }
-    }
+  private static RuntimeException unwrap(Throwable failure) {
+    Throwable cause = causeOf(failure);
+    return cause instanceof RuntimeException runtime ? runtime : new CompletionException(cause);
+  }
 
-    return total;
+  private static Throwable causeOf(Throwable failure) {
+    return failure instanceof CompletionException && failure.getCause() != null
+        ? failure.getCause() : failure;
   }
 
   /**
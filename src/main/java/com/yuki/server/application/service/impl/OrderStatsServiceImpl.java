@@ -0,0 +1,73 @@
+package com.yuki.server.application.service.impl;
+
+import com.yuki.server.application.dto.MinuteStatsResponse;
+import com.yuki.server.application.dto.OrderStatsResponse;
+import com.yuki.server.application.repository.OrderRollupRepository;
+import com.yuki.server.application.service.OrderStatsService;
+import com.yuki.server.domain.exception.InvalidRequestException;
+import com.yuki.server.domain.model.OrderTotals;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 订单汇总服务实现类（应用层）.
+ */
+@Service
+@Timed(value = "app.service", histogram = true)
+public class OrderStatsServiceImpl implements OrderStatsService {
+
+  private final OrderRollupRepository rollupRepository;
+
+  private final Clock clock;
+
+  public OrderStatsServiceImpl(OrderRollupRepository rollupRepository, Clock clock) {
+    this.rollupRepository = rollupRepository;
+    this.clock = clock;
+  }
+
+  @Override
+  public OrderStatsResponse getTotals() {
+    return convertToResponse(rollupRepository.getTotals());
+  }
+
+  @Override
+  public OrderStatsResponse getCustomerTotals(String customerId) {
+    return convertToResponse(rollupRepository.getCustomerTotals(customerId));
+  }
+
+  @Override
+  public OrderStatsResponse getDiscountTotals(String discountCode) {
+    return convertToResponse(rollupRepository.getDiscountTotals(discountCode));
+  }
+
+  @Override
+  public List<MinuteStatsResponse> getMinuteTotals(int minutes) {
+    int window = rollupRepository.getWindowMinutes();
+    if (minutes <= 0 || minutes > window) {
+      throw new InvalidRequestException("Minutes must be between 1 and " + window);
+    }
+
+    List<MinuteStatsResponse> series = new ArrayList<>(minutes);
+    for (Map.Entry<LocalDateTime, OrderTotals> entry
+        : rollupRepository.getMinuteTotals(LocalDateTime.now(clock), minutes).entrySet()) {
+      OrderTotals totals = entry.getValue();
+      series.add(new MinuteStatsResponse(
+          entry.getKey(),
+          totals.getOrderCount(),
+          totals.getRevenue(),
+          totals.getDiscountedOrderCount()));
+    }
+    return series;
+  }
+
+  private OrderStatsResponse convertToResponse(OrderTotals totals) {
+    return new OrderStatsResponse(
+        totals.getOrderCount(), totals.getRevenue(), totals.getDiscountedOrderCount());
+  }
+}
@@ -0,0 +1,266 @@
+package com.yuki.server.application.service.impl;
+
+import com.yuki.server.application.repository.ProductRepository;
+import com.yuki.server.application.service.PricingService;
+import com.yuki.server.domain.exception.InvalidRequestException;
+import com.yuki.server.domain.model.Basket;
+import com.yuki.server.domain.model.BasketContents;
+import com.yuki.server.domain.model.Money;
+import com.yuki.server.domain.model.Product;
+import com.yuki.server.domain.model.ProductCatalog;
+import com.yuki.server.domain.model.ProductCodes;
+import com.yuki.server.domain.model.Promotion;
+import com.yuki.server.domain.model.PromotionPlan;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 定价服务实现类（应用层）.
+ *
+ * <p>金额以分（long）计算，单价按目录版本预先换算为以目录的 {@link ProductCodes} 编号为下标的数组，
+ * 以其他字典编号的购物车内容先换算到当前字典再计价；
+ * 折扣按配置的舍入方式舍入到分，金额溢出时拒绝请求.
+ *
+ * <p>促销规则按促销版本编译为 {@link PromotionPlan} 并缓存. 总价 = 小计 - 规则折扣 - 折扣码折扣，
+ * 其中折扣码的百分比按扣除规则折扣后的金额计算.
+ */
+@Service
+public class PricingServiceImpl implements PricingService {
+
+  private final ProductRepository productRepository;
+  private final RoundingMode roundingMode;
+
+  private final ReentrantLock rebuildLock = new ReentrantLock();
+  private final ReentrantLock planLock = new ReentrantLock();
+  private volatile PriceTable priceTable =
+      new PriceTable(ProductCatalog.EMPTY, RoundingMode.HALF_UP, true);
+  private volatile PromotionPlan promotionPlan = PromotionPlan.EMPTY;
+
+  public PricingServiceImpl(
+      ProductRepository productRepository,
+      @Value("${pricing.rounding-mode:HALF_UP}") RoundingMode roundingMode) {
+    this.productRepository = productRepository;
+    this.roundingMode = roundingMode;
+  }
+
+  @Override
+  public BigDecimal calculateTotalPrice(Basket basket) {
+    return calculateTotalPrice(basket.getContents());
+  }
+
+  @Override
+  public long calculateTotalMinorUnits(Basket basket) {
+    return calculateTotalMinorUnits(basket.getContents());
+  }
+
+  @Override
+  public BigDecimal calculateTotalPrice(BasketContents contents) {
+    return Money.toDecimal(calculateTotalMinorUnits(contents));
+  }
+
+  @Override
+  public long calculateTotalMinorUnits(BasketContents contents) {
+    // 价格与折扣码取自同一个目录快照，目录重新加载时不会混用新旧数据
+    ProductCatalog catalog = productRepository.getCatalog();
+    long promotionVersion = catalog.getPromotionVersion();
+    PriceTable table = priceTableFor(catalog);
+    long cached = contents.getCachedTotal(table.version, promotionVersion);
+    if (cached != BasketContents.UNPRICED) {
+      return cached;
+    }
+
+    // 目录换用新字典后，旧快照按当前字典换算编号再计价，价格仍缓存在原快照上
+    BasketContents priced = contents.remapTo(catalog.getProductCodes());
+    long subtotal = contents.getCachedSubtotal(table.version);
+    if (subtotal == BasketContents.UNPRICED) {
+      subtotal = calculateSubtotal(priced, table);
+      contents.cacheSubtotal(subtotal, table.version);
+    }
+
+    long ruleDiscount = planFor(catalog)
+        .discount(priced, subtotal, catalog, table::priceOf, roundingMode);
+    long discounted = subtotal - ruleDiscount;
+    long total = discounted
+        - calculateDiscount(discounted, catalog, contents.getDiscountCode());
+    contents.cacheTotal(total, table.version, promotionVersion);
+    return total;
+  }
+
+  @Override
+  public BasketContents withProduct(BasketContents contents, String productCode, int quantity) {
+    // 新快照发布前算好增量小计；溢出时抛出异常，由调用方放弃本次修改
+    ProductCatalog catalog = productRepository.getCatalog();
+    PriceTable table = priceTableFor(catalog);
+    ProductCodes codes = catalog.getProductCodes();
+    BasketContents updated = contents.withProduct(codes, productCode, quantity);
+    long subtotal = contents.getCachedSubtotal(table.version);
+    long unitPrice = table.priceOf(codes.find(productCode));
+    if (subtotal != BasketContents.UNPRICED && unitPrice != PromotionPlan.UnitPrices.NO_PRICE) {
+      updated.cacheSubtotal(addExact(subtotal, multiplyExact(unitPrice, quantity)), table.version);
+    }
+    return updated;
+  }
+
+  /**
+   * 计算小计（不含折扣）.
+   *
+   * @param contents 购物车内容快照
+   * @param table 价格表
+   * @return 小计（分）
+   */
+  private long calculateSubtotal(BasketContents contents, PriceTable table) {
+    long total = 0;
+    for (int line = 0, lines = contents.getLineCount(); line < lines; line++) {
+      long unitPrice = table.priceOf(contents.getProductId(line));
+      if (unitPrice != PromotionPlan.UnitPrices.NO_PRICE) {
+        total = addExact(total, multiplyExact(unitPrice, contents.getQuantity(line)));
+      }
+    }
+    return total;
+  }
+
+  /**
+   * 计算折扣码的折扣金额.
+   *
+   * @param subtotal 扣除规则折扣后的金额（分）
+   * @param catalog 目录快照
+   * @param discountCode 折扣码，可为null
+   * @return 折扣金额（分）
+   */
+  private long calculateDiscount(long subtotal, ProductCatalog catalog, String discountCode) {
+    if (discountCode == null) {
+      return 0;
+    }
+    Promotion promotion = catalog.findPromotion(discountCode);
+    if (promotion == null) {
+      return 0;
+    }
+    return Money.percentOf(subtotal, promotion.getDiscountPercent(), roundingMode);
+  }
+
+  @Override
+  public void refreshPriceTable() {
+    rebuildLock.lock();
+    try {
+      rebuild(productRepository.getCatalog());
+    } finally {
+      rebuildLock.unlock();
+    }
+    planFor(productRepository.getCatalog());
+  }
+
+  private PromotionPlan planFor(ProductCatalog catalog) {
+    PromotionPlan plan = promotionPlan;
+    if (plan.isCompiledFor(catalog)) {
+      return plan;
+    }
+    if (catalog.getPromotionVersion() < plan.getPromotionVersion()) {
+      // 持有旧快照的线程：按该快照单独编译，不覆盖已发布的新计划
+      return PromotionPlan.compile(catalog, roundingMode);
+    }
+    // 规则变更很少，且编译开销与规则数成正比；只编译一次，其他线程等待结果
+    planLock.lock();
+    try {
+      plan = promotionPlan;
+      if (!plan.isCompiledFor(catalog)) {
+        // 促销版本相同而产品代码字典不同（产品被移除后）时以最后编译的为准
+        plan = PromotionPlan.compile(catalog, roundingMode);
+        if (plan.getPromotionVersion() >= promotionPlan.getPromotionVersion()) {
+          promotionPlan = plan;
+        }
+      }
+      return plan;
+    } finally {
+      planLock.unlock();
+    }
+  }
+
+  private PriceTable priceTableFor(ProductCatalog catalog) {
+    PriceTable table = priceTable;
+    if (table.version == catalog.getVersion()) {
+      return table;
+    }
+    // 目录变更时只由一个线程重建；其他线程（及持有旧快照的线程）按快照逐个换算所需单价，不等待重建
+    if (catalog.getVersion() > table.version && rebuildLock.tryLock()) {
+      try {
+        return rebuild(catalog);
+      } finally {
+        rebuildLock.unlock();
+      }
+    }
+    return new PriceTable(catalog, roundingMode, false);
+  }
+
+  private PriceTable rebuild(ProductCatalog catalog) {
+    PriceTable table = priceTable;
+    if (table.version != catalog.getVersion()) {
+      table = new PriceTable(catalog, roundingMode, true);
+      if (table.version > priceTable.version) {
+        priceTable = table;
+      }
+    }
+    return table;
+  }
+
+  private static long multiplyExact(long unitPrice, long quantity) {
+    try {
+      return Money.multiply(unitPrice, quantity);
+    } catch (ArithmeticException e) {
+      throw new InvalidRequestException("Basket total exceeds the supported amount range");
+    }
+  }
+
+  private static long addExact(long a, long b) {
+    try {
+      return Math.addExact(a, b);
+    } catch (ArithmeticException e) {
+      throw new InvalidRequestException("Basket total exceeds the supported amount range");
+    }
+  }
+
+  /**
+   * 某一目录版本下以分表示的单价表，以该目录的产品编号为下标；未预先换算时按需从目录快照换算.
+   */
+  private static final class PriceTable {
+    private final long version;
+    private final long[] prices; // 为null时按需换算
+    private final ProductCatalog catalog;
+    private final RoundingMode roundingMode;
+
+    private PriceTable(ProductCatalog catalog, RoundingMode roundingMode, boolean precompute) {
+      long[] minorPrices = null;
+      if (precompute) {
+        // 目录中的产品在快照创建时已分配编号，数组覆盖这些编号；此后新分配的编号不属于该目录
+        ProductCodes codes = catalog.getProductCodes();
+        minorPrices = new long[codes.size()];
+        Arrays.fill(minorPrices, PromotionPlan.UnitPrices.NO_PRICE);
+        for (Product product : catalog.getProducts().values()) {
+          minorPrices[codes.find(product.getProductCode())] =
+              Money.toMinorUnits(product.getFullPrice(), roundingMode);
+        }
+      }
+      this.version = catalog.getVersion();
+      this.prices = minorPrices;
+      this.catalog = catalog;
+      this.roundingMode = roundingMode;
+    }
+
+    private long priceOf(int productId) {
+      if (productId < 0) {
+        return PromotionPlan.UnitPrices.NO_PRICE;
+      }
+      if (prices != null) {
+        return productId < prices.length ? prices[productId] : PromotionPlan.UnitPrices.NO_PRICE;
+      }
+      Product product = catalog.find(catalog.getProductCodes().codeOf(productId));
+      return product == null
+          ? PromotionPlan.UnitPrices.NO_PRICE
+          : Money.toMinorUnits(product.getFullPrice(), roundingMode);
+    }
+  }
+}
@@ -5,6 +5,8 @@ import com.yuki.server.application.repository.ProductRepository;
 import com.yuki.server.application.service.ProductService;
 import com.yuki.server.domain.exception.ResourceNotFoundException;
 import com.yuki.server.domain.model.Product;
+import com.yuki.server.domain.model.ProductCatalog;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -15,6 +17,7 @@ import java.util.stream.Collectors;
  * 产品服务实现类（应用层）.
  */
 @Service
+@Timed(value = "app.service", histogram = true)
 public class ProductServiceImpl implements ProductService {
 
   private final ProductRepository productRepository;
@@ -25,8 +28,7 @@ public class ProductServiceImpl implements ProductService {
 
   @Override
   public List<ProductResponse> getAllProducts() {
-    Map<String, Product> products = productRepository.findAll();
-    return products.values().stream()
+    return productRepository.getCatalog().getProducts().values().stream()
         .map(product -> new ProductResponse(
             product.getProductCode(),
             product.getName(),
@@ -34,6 +36,11 @@ public class ProductServiceImpl implements ProductService {
         .collect(Collectors.toList());
   }
 
+  @Override
+  public long getCatalogVersion() {
+    return productRepository.getCatalog().getVersion();
+  }
+
   @Override
   public Product getProductByCode(String productCode) {
     Product product = productRepository.findByCode(productCode);
@@ -48,5 +55,10 @@ public class ProductServiceImpl implements ProductService {
   public Map<String, Product> getAllProductsMap() {
     return productRepository.findAll();
   }
+
+  @Override
+  public ProductCatalog getCatalog() {
+    return productRepository.getCatalog();
+  }
 }
 
@@ -0,0 +1,10 @@
+package com.yuki.server.domain.exception;
+
+/**
+ * 无权访问异常，如管理接口未启用或凭证不匹配（领域层）.
+ */
+public class AccessDeniedException extends RuntimeException {
+  public AccessDeniedException(String message) {
+    super(message);
+  }
+}
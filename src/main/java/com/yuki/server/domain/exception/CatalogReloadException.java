@@ -0,0 +1,10 @@
+package com.yuki.server.domain.exception;
+
+/**
+ * 目录重新加载失败异常，如目录文件缺失或格式错误（领域层）.
+ */
+public class CatalogReloadException extends RuntimeException {
+  public CatalogReloadException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,10 @@
+package com.yuki.server.domain.exception;
+
+/**
+ * 支付服务暂不可用异常，如支付并发已满或授权超时（领域层）.
+ */
+public class PaymentUnavailableException extends PaymentException {
+  public PaymentUnavailableException(String message) {
+    super(message);
+  }
+}
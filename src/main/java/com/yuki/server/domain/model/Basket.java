@@ -1,36 +1,128 @@
 package com.yuki.server.domain.model;
 
+import com.yuki.server.domain.exception.ResourceNotFoundException;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
 /**
  * 购物车领域模型.
+ *
+ * <p>内容保存为不可变的 {@link BasketContents} 快照，修改时基于当前快照生成新快照并以CAS发布，
+ * 冲突时基于最新快照重试；同一购物车的并发修改不会丢失，不同购物车之间互不影响，
+ * 读取方总能拿到一致的快照. 结账后购物车关闭，之后的修改按购物车不存在处理.
  */
 @Data
 public class Basket {
+
   private final String basketId;
   private final String customerId;
-  private final Map<String, Integer> products; // productCode -> quantity
-  private String discountCode;
+
+  @Getter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private final AtomicReference<BasketContents> contents =
+      new AtomicReference<>(BasketContents.EMPTY);
 
   public Basket(String basketId, String customerId) {
     this.basketId = basketId;
     this.customerId = customerId;
-    this.products = new HashMap<>();
-    this.discountCode = null;
+  }
+
+  /**
+   * 获取当前内容快照.
+   *
+   * @return 内容快照
+   */
+  public BasketContents getContents() {
+    return contents.get();
+  }
+
+  /**
+   * 获取当前产品行，由内容快照还原为产品代码到数量的映射.
+   *
+   * @return 产品代码到数量的映射
+   */
+  public Map<String, Integer> getProducts() {
+    return contents.get().toProductMap();
+  }
+
+  public String getDiscountCode() {
+    return contents.get().getDiscountCode();
+  }
+
+  /**
+   * 基于当前快照应用修改并以CAS发布，冲突时基于最新快照重试.
+   *
+   * @param mutation 由当前快照生成新快照的函数，可能被调用多次，不应有副作用
+   * @return 发布的新快照
+   * @throws ResourceNotFoundException 如果购物车已结账关闭
+   */
+  public BasketContents update(UnaryOperator<BasketContents> mutation) {
+    while (true) {
+      BasketContents current = contents.get();
+      if (current.isClosed()) {
+        throw new ResourceNotFoundException("Basket not found with id: " + basketId);
+      }
+      BasketContents updated = mutation.apply(current);
+      if (contents.compareAndSet(current, updated)) {
+        return updated;
+      }
+    }
   }
 
   /**
    * 添加产品到购物车.
    *
+   * @param productCodes 当前目录的产品代码字典
    * @param productCode 产品代码
    * @param quantity 数量
    */
-  public void addProduct(String productCode, int quantity) {
-    products.put(productCode, products.getOrDefault(productCode, 0) + quantity);
+  public void addProduct(ProductCodes productCodes, String productCode, int quantity) {
+    update(current -> current.withProduct(productCodes, productCode, quantity));
+  }
+
+  /**
+   * 用给定的产品行整体替换购物车内容.
+   *
+   * @param productCodes 当前目录的产品代码字典
+   * @param updatedProducts 产品代码到数量的映射
+   */
+  public void replaceProducts(ProductCodes productCodes, Map<String, Integer> updatedProducts) {
+    update(current -> current.withProducts(productCodes, updatedProducts));
+  }
+
+  public void setDiscountCode(String discountCode) {
+    update(current -> current.withDiscountCode(discountCode));
+  }
+
+  /**
+   * 结账时关闭购物车，仅当内容仍是给定快照时成功.
+   *
+   * @param expected 结账时计价所用的快照
+   * @return 是否关闭成功；失败说明期间购物车被修改或已被关闭
+   */
+  public boolean close(BasketContents expected) {
+    return !expected.isClosed() && contents.compareAndSet(expected, expected.close());
+  }
+
+  /**
+   * 结账未能保存订单时重新打开购物车，恢复为关闭前的快照.
+   *
+   * @param expected 关闭时所用的快照
+   * @return 是否重新打开；购物车不是由该快照关闭时返回false
+   */
+  public boolean reopen(BasketContents expected) {
+    BasketContents current = contents.get();
+    return current.isClosed() && current.getVersion() == expected.getVersion() + 1
+        && contents.compareAndSet(current, expected);
   }
 
   /**
@@ -40,14 +132,16 @@ public class Basket {
    * @return 总价
    */
   public BigDecimal calculateTotalPrice(Map<String, Product> productMap) {
+    BasketContents current = contents.get();
     BigDecimal total = BigDecimal.ZERO;
-    for (Map.Entry<String, Integer> entry : products.entrySet()) {
-      Product product = productMap.get(entry.getKey());
+    for (int line = 0; line < current.getLineCount(); line++) {
+      Product product =
+          productMap.get(current.getProductCodes().codeOf(current.getProductId(line)));
       if (product != null) {
-        total = total.add(product.getFullPrice().multiply(BigDecimal.valueOf(entry.getValue())));
+        total = total.add(
+            product.getFullPrice().multiply(BigDecimal.valueOf(current.getQuantity(line))));
       }
     }
     return total;
   }
 }
-
@@ -0,0 +1,322 @@
+package com.yuki.server.domain.model;
+
+import com.yuki.server.domain.exception.InvalidRequestException;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 购物车内容的不可变快照（领域层）.
+ *
+ * <p>每次修改都生成带新版本号的快照，由 {@link Basket} 以CAS发布. 快照上缓存以分表示的
+ * 小计（不含折扣）和总价（含折扣），并记录计算时的目录/促销版本；缓存只属于该快照，
+ * 并发修改不会把旧内容的价格记到新内容上.
+ *
+ * <p>产品行以 {@link ProductCodes} 编号存放在一个int数组中（编号、数量交替，按编号升序），
+ * 不为每行保存产品代码字符串和装箱的数量；只在响应等边界处由 {@link #toProductMap()} 还原为产品代码.
+ * 快照记录编号所属的字典，目录换用新字典后由 {@link #remapTo} 换算.
+ */
+public final class BasketContents {
+  /** 未定价标记. */
+  public static final long UNPRICED = -1;
+
+  private static final int[] NO_LINES = new int[0];
+
+  static final BasketContents EMPTY = new BasketContents(0, NO_LINES, null, null, false);
+
+  private final long version;
+  private final int[] lines; // [产品编号, 数量, ...]，按产品编号升序，不可修改
+  private final ProductCodes codes; // 编号所属的字典，没有产品行时可为null
+  private final String discountCode;
+  private final boolean closed;
+
+  private volatile Subtotal subtotal;
+  private volatile Total total;
+
+  private BasketContents(
+      long version, int[] lines, ProductCodes codes, String discountCode, boolean closed) {
+    this.version = version;
+    this.lines = lines;
+    this.codes = codes;
+    this.discountCode = discountCode;
+    this.closed = closed;
+  }
+
+  public long getVersion() {
+    return version;
+  }
+
+  /**
+   * 产品编号所属的字典.
+   *
+   * @return 字典，从未有过产品行时为null
+   */
+  public ProductCodes getProductCodes() {
+    return codes;
+  }
+
+  public int getLineCount() {
+    return lines.length >> 1;
+  }
+
+  /**
+   * 获取第几行的产品编号.
+   *
+   * @param line 行号，小于 {@link #getLineCount()}
+   * @return 产品编号
+   */
+  public int getProductId(int line) {
+    return lines[line << 1];
+  }
+
+  /**
+   * 获取第几行的数量.
+   *
+   * @param line 行号，小于 {@link #getLineCount()}
+   * @return 数量
+   */
+  public int getQuantity(int line) {
+    return lines[(line << 1) + 1];
+  }
+
+  /**
+   * 按产品编号查询数量.
+   *
+   * @param productId {@link #getProductCodes()} 中的产品编号
+   * @return 数量，不在购物车中时为0
+   */
+  public int quantityOf(int productId) {
+    int line = indexOf(productId);
+    return line < 0 ? 0 : getQuantity(line);
+  }
+
+  /**
+   * 还原为产品代码到数量的映射，每次调用都构造新的映射.
+   *
+   * @return 产品代码到数量的映射
+   */
+  public Map<String, Integer> toProductMap() {
+    Map<String, Integer> products = new LinkedHashMap<>(lines.length);
+    for (int i = 0; i < lines.length; i += 2) {
+      products.put(codes.codeOf(lines[i]), lines[i + 1]);
+    }
+    return products;
+  }
+
+  public String getDiscountCode() {
+    return discountCode;
+  }
+
+  /**
+   * 是否已结账关闭，关闭后不再接受修改.
+   *
+   * @return 是否已关闭
+   */
+  public boolean isClosed() {
+    return closed;
+  }
+
+  /**
+   * 在现有数量上增加产品.
+   *
+   * @param productCodes 当前目录的产品代码字典，新快照以其编号
+   * @param productCode 产品代码
+   * @param quantity 数量
+   * @return 新快照
+   */
+  public BasketContents withProduct(ProductCodes productCodes, String productCode, int quantity) {
+    BasketContents current = remapTo(productCodes);
+    int[] lines = current.lines;
+    int productId = productCodes.intern(productCode);
+    int line = current.indexOf(productId);
+    int[] updated;
+    if (line >= 0) {
+      updated = lines.clone();
+      try {
+        updated[(line << 1) + 1] = Math.addExact(updated[(line << 1) + 1], quantity);
+      } catch (ArithmeticException e) {
+        throw new InvalidRequestException("Quantity too large for product: " + productCode);
+      }
+    } else {
+      int position = (-line - 1) << 1;
+      updated = new int[lines.length + 2];
+      System.arraycopy(lines, 0, updated, 0, position);
+      updated[position] = productId;
+      updated[position + 1] = quantity;
+      System.arraycopy(lines, position, updated, position + 2, lines.length - position);
+    }
+    return new BasketContents(version + 1, updated, productCodes, discountCode, false);
+  }
+
+  /**
+   * 整体替换产品行.
+   *
+   * @param productCodes 当前目录的产品代码字典，新快照以其编号
+   * @param updatedProducts 产品代码到数量的映射
+   * @return 新快照
+   */
+  public BasketContents withProducts(
+      ProductCodes productCodes, Map<String, Integer> updatedProducts) {
+    long[] packed = new long[updatedProducts.size()];
+    int count = 0;
+    for (Map.Entry<String, Integer> entry : updatedProducts.entrySet()) {
+      packed[count++] = pack(productCodes.intern(entry.getKey()), entry.getValue());
+    }
+    return new BasketContents(
+        version + 1, unpackSorted(packed), productCodes, discountCode, false);
+  }
+
+  /**
+   * 换算为另一个字典的编号，产品行、版本和已缓存的价格不变.
+   *
+   * @param productCodes 目标字典
+   * @return 以目标字典编号的快照；已是该字典或没有产品行时返回自身
+   */
+  public BasketContents remapTo(ProductCodes productCodes) {
+    if (codes == productCodes || lines.length == 0) {
+      return this;
+    }
+    long[] packed = new long[lines.length >> 1];
+    for (int i = 0; i < packed.length; i++) {
+      packed[i] = pack(productCodes.intern(codes.codeOf(lines[i << 1])), lines[(i << 1) + 1]);
+    }
+    BasketContents remapped =
+        new BasketContents(version, unpackSorted(packed), productCodes, discountCode, closed);
+    remapped.subtotal = subtotal;
+    remapped.total = total;
+    return remapped;
+  }
+
+  private static long pack(int productId, int quantity) {
+    return ((long) productId << 32) | (quantity & 0xFFFFFFFFL);
+  }
+
+  /**
+   * 编号非负，按高32位排序即按编号排序.
+   */
+  private static int[] unpackSorted(long[] packed) {
+    Arrays.sort(packed);
+    int[] lines = new int[packed.length << 1];
+    for (int i = 0; i < packed.length; i++) {
+      lines[i << 1] = (int) (packed[i] >>> 32);
+      lines[(i << 1) + 1] = (int) packed[i];
+    }
+    return lines;
+  }
+
+  /**
+   * 设置折扣码，产品行不变，因此沿用已缓存的小计.
+   *
+   * @param code 折扣码
+   * @return 新快照
+   */
+  public BasketContents withDiscountCode(String code) {
+    BasketContents updated = new BasketContents(version + 1, lines, codes, code, false);
+    updated.subtotal = subtotal;
+    return updated;
+  }
+
+  BasketContents close() {
+    return new BasketContents(version + 1, lines, codes, discountCode, true);
+  }
+
+  /**
+   * 二分查找产品编号所在的行.
+   *
+   * @return 行号；不存在时为 -(插入位置) - 1
+   */
+  private int indexOf(int productId) {
+    int low = 0;
+    int high = (lines.length >> 1) - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int id = lines[middle << 1];
+      if (id < productId) {
+        low = middle + 1;
+      } else if (id > productId) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -(low + 1);
+  }
+
+  /**
+   * 获取缓存的小计.
+   *
+   * @param catalogVersion 当前目录版本
+   * @return 小计（分），版本不一致或未缓存时为 {@link #UNPRICED}
+   */
+  public long getCachedSubtotal(long catalogVersion) {
+    Subtotal cached = subtotal;
+    return cached != null && cached.catalogVersion == catalogVersion ? cached.amount : UNPRICED;
+  }
+
+  /**
+   * 缓存小计，同时使总价缓存失效.
+   *
+   * @param amount 小计（分）
+   * @param catalogVersion 计算时的目录版本
+   */
+  public void cacheSubtotal(long amount, long catalogVersion) {
+    this.subtotal = new Subtotal(amount, catalogVersion);
+    this.total = null;
+  }
+
+  /**
+   * 获取缓存的含折扣总价.
+   *
+   * @param catalogVersion 当前目录版本
+   * @param promotionVersion 当前促销版本
+   * @return 总价（分），版本不一致或未缓存时为 {@link #UNPRICED}
+   */
+  public long getCachedTotal(long catalogVersion, long promotionVersion) {
+    Total cached = total;
+    if (cached != null && cached.catalogVersion == catalogVersion
+        && cached.promotionVersion == promotionVersion) {
+      return cached.amount;
+    }
+    return UNPRICED;
+  }
+
+  /**
+   * 缓存含折扣总价.
+   *
+   * @param amount 总价（分）
+   * @param catalogVersion 计算时的目录版本
+   * @param promotionVersion 计算时的促销版本
+   */
+  public void cacheTotal(long amount, long catalogVersion, long promotionVersion) {
+    this.total = new Total(amount, catalogVersion, promotionVersion);
+  }
+
+  /**
+   * 某一目录版本下的小计，金额与版本一起发布.
+   */
+  private static final class Subtotal {
+    private final long amount;
+    private final long catalogVersion;
+
+    private Subtotal(long amount, long catalogVersion) {
+      this.amount = amount;
+      this.catalogVersion = catalogVersion;
+    }
+  }
+
+  /**
+   * 某一目录/促销版本下的含折扣总价.
+   */
+  private static final class Total {
+    private final long amount;
+    private final long catalogVersion;
+    private final long promotionVersion;
+
+    private Total(long amount, long catalogVersion, long promotionVersion) {
+      this.amount = amount;
+      this.catalogVersion = catalogVersion;
+      this.promotionVersion = promotionVersion;
+    }
+  }
+}
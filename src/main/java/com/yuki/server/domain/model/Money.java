@@ -0,0 +1,154 @@
+package com.yuki.server.domain.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 金额定点运算工具（领域层）.
+ *
+ * <p>金额以 long 表示的最小货币单位（分）存储，所有运算均做溢出检查，
+ * 溢出时抛出 {@link ArithmeticException}.
+ */
+public final class Money {
+  /** 最小货币单位的小数位数（分）. */
+  public static final int SCALE = 2;
+
+  /** 百分比换算为定点整数时保留的小数位数. */
+  public static final int PERCENT_SCALE = 4;
+
+  private static final long PERCENT_DIVISOR = 100L * 10_000L; // 100 * 10^PERCENT_SCALE
+  private static final BigDecimal HUNDRED = new BigDecimal("100");
+
+  private Money() {
+  }
+
+  /**
+   * 将金额转换为最小货币单位.
+   *
+   * @param amount 金额
+   * @param roundingMode 超出分位时的舍入方式
+   * @return 分
+   */
+  public static long toMinorUnits(BigDecimal amount, RoundingMode roundingMode) {
+    return amount.movePointRight(SCALE).setScale(0, roundingMode).longValueExact();
+  }
+
+  /**
+   * 将最小货币单位转换为金额.
+   *
+   * @param minorUnits 分
+   * @return 金额（两位小数）
+   */
+  public static BigDecimal toDecimal(long minorUnits) {
+    return BigDecimal.valueOf(minorUnits, SCALE);
+  }
+
+  /**
+   * 计算单价乘以数量.
+   *
+   * @param unitPrice 单价（分）
+   * @param quantity 数量
+   * @return 行金额（分）
+   */
+  public static long multiply(long unitPrice, long quantity) {
+    return Math.multiplyExact(unitPrice, quantity);
+  }
+
+  /**
+   * 计算金额的百分比.
+   *
+   * @param amount 金额（分）
+   * @param percent 百分比，如 10 表示 10%
+   * @param roundingMode 舍入方式
+   * @return 百分比金额（分）
+   */
+  public static long percentOf(long amount, BigDecimal percent, RoundingMode roundingMode) {
+    try {
+      long scaledPercent = percent.movePointRight(PERCENT_SCALE).longValueExact();
+      return divide(Math.multiplyExact(amount, scaledPercent), PERCENT_DIVISOR, roundingMode);
+    } catch (ArithmeticException e) {
+      // 百分比精度超出定点范围或乘积溢出，退回 BigDecimal 计算
+      return BigDecimal.valueOf(amount).multiply(percent)
+          .divide(HUNDRED, 0, roundingMode)
+          .longValueExact();
+    }
+  }
+
+  /**
+   * 将百分比换算为定点整数（保留 {@value #PERCENT_SCALE} 位小数）.
+   *
+   * @param percent 百分比，如 12.5 表示 12.5%
+   * @return 定点百分比
+   * @throws ArithmeticException 小数位数超过 {@value #PERCENT_SCALE} 位
+   */
+  public static long scalePercent(BigDecimal percent) {
+    return percent.movePointRight(PERCENT_SCALE).longValueExact();
+  }
+
+  /**
+   * 计算金额的百分比，百分比已由 {@link #scalePercent} 换算为定点整数.
+   *
+   * @param amount 金额（分）
+   * @param scaledPercent 定点百分比
+   * @param roundingMode 舍入方式
+   * @return 百分比金额（分）
+   */
+  public static long percentOf(long amount, long scaledPercent, RoundingMode roundingMode) {
+    try {
+      return divide(Math.multiplyExact(amount, scaledPercent), PERCENT_DIVISOR, roundingMode);
+    } catch (ArithmeticException e) {
+      // 乘积溢出，退回 BigDecimal 计算
+      return BigDecimal.valueOf(amount).multiply(BigDecimal.valueOf(scaledPercent, PERCENT_SCALE))
+          .divide(HUNDRED, 0, roundingMode)
+          .longValueExact();
+    }
+  }
+
+  /**
+   * 按指定舍入方式做整数除法.
+   *
+   * @param dividend 被除数
+   * @param divisor 除数
+   * @param roundingMode 舍入方式
+   * @return 商
+   */
+  public static long divide(long dividend, long divisor, RoundingMode roundingMode) {
+    long quotient = dividend / divisor;
+    long remainder = dividend - quotient * divisor;
+    if (remainder == 0) {
+      return quotient;
+    }
+
+    // 结果的符号：+1 或 -1
+    int signum = 1 | (int) ((dividend ^ divisor) >> (Long.SIZE - 1));
+    boolean increment;
+    switch (roundingMode) {
+      case UNNECESSARY:
+        throw new ArithmeticException("Rounding necessary");
+      case DOWN:
+        increment = false;
+        break;
+      case UP:
+        increment = true;
+        break;
+      case CEILING:
+        increment = signum > 0;
+        break;
+      case FLOOR:
+        increment = signum < 0;
+        break;
+      default:
+        // HALF_EVEN / HALF_UP / HALF_DOWN：比较余数与除数的一半
+        long absRemainder = Math.abs(remainder);
+        long comparison = absRemainder - (Math.abs(divisor) - absRemainder);
+        if (comparison == 0) {
+          increment = roundingMode == RoundingMode.HALF_UP
+              || (roundingMode == RoundingMode.HALF_EVEN && (quotient & 1) != 0);
+        } else {
+          increment = comparison > 0;
+        }
+        break;
+    }
+    return increment ? quotient + signum : quotient;
+  }
+}
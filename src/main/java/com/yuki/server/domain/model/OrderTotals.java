@@ -0,0 +1,19 @@
+package com.yuki.server.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * 订单汇总值：订单数、营业额及使用折扣码的订单数.
+ */
+@Data
+@AllArgsConstructor
+public class OrderTotals {
+  public static final OrderTotals ZERO = new OrderTotals(0, BigDecimal.ZERO.setScale(Money.SCALE), 0);
+
+  private final long orderCount;
+  private final BigDecimal revenue;
+  private final long discountedOrderCount;
+}
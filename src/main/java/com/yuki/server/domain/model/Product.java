@@ -1,5 +1,6 @@
 package com.yuki.server.domain.model;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -8,9 +9,14 @@ import java.math.BigDecimal;
  * 产品领域模型.
  */
 @Data
+@AllArgsConstructor
 public class Product {
   private final String productCode;
   private final String name;
   private final BigDecimal fullPrice;
-}
+  private final String category; // 产品分类，可为null
 
+  public Product(String productCode, String name, BigDecimal fullPrice) {
+    this(productCode, name, fullPrice, null);
+  }
+}
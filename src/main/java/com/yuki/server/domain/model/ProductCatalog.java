@@ -0,0 +1,157 @@
+package com.yuki.server.domain.model;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 产品目录快照领域模型.
+ *
+ * <p>不可变，每次目录变更都会发布一个版本号递增的新快照，读取方可直接共享而无需复制.
+ * 折扣码、促销规则与产品放在同一个快照中，读取方从一个快照得到的产品和促销总是同一时刻的数据.
+ * 快照持有为其全部产品分配了编号的 {@link ProductCodes}.
+ */
+@Getter
+public final class ProductCatalog {
+  public static final ProductCatalog EMPTY =
+      new ProductCatalog(0L, Collections.emptyMap(), 0L, Collections.emptyMap(), List.of());
+
+  private final long version; // 产品版本，产品变更时递增
+  private final Map<String, Product> products; // productCode -> product，只读
+  private final long promotionVersion; // 促销版本，折扣码或促销规则变更时递增
+  private final Map<String, Promotion> promotions; // discountCode -> promotion，只读
+  private final List<PromotionRule> rules; // 促销规则，只读
+  private final Set<String> ruleDiscountCodes; // 促销规则引用的折扣码
+  private final ProductCodes productCodes; // 包含全部产品，可能还有已移除产品或规则引用的代码
+
+  /**
+   * 创建快照.
+   *
+   * @param version 产品版本号
+   * @param products 产品映射，调用方保证之后不再修改
+   * @param promotionVersion 促销版本号
+   * @param promotions 折扣码映射，调用方保证之后不再修改
+   * @param rules 促销规则
+   */
+  public ProductCatalog(
+      long version,
+      Map<String, Product> products,
+      long promotionVersion,
+      Map<String, Promotion> promotions,
+      List<PromotionRule> rules) {
+    this(version, products, promotionVersion, promotions, List.copyOf(rules),
+        ruleDiscountCodes(rules), codesFor(products, new ProductCodes()));
+  }
+
+  private ProductCatalog(
+      long version,
+      Map<String, Product> products,
+      long promotionVersion,
+      Map<String, Promotion> promotions,
+      List<PromotionRule> rules,
+      Set<String> ruleDiscountCodes,
+      ProductCodes productCodes) {
+    this.version = version;
+    this.products = Collections.unmodifiableMap(products);
+    this.promotionVersion = promotionVersion;
+    this.promotions = Collections.unmodifiableMap(promotions);
+    this.rules = rules;
+    this.ruleDiscountCodes = ruleDiscountCodes;
+    this.productCodes = productCodes;
+  }
+
+  private static ProductCodes codesFor(Map<String, Product> products, ProductCodes codes) {
+    for (String productCode : products.keySet()) {
+      codes.intern(productCode);
+    }
+    return codes;
+  }
+
+  private static Set<String> ruleDiscountCodes(List<PromotionRule> rules) {
+    Set<String> codes = new HashSet<>();
+    for (PromotionRule rule : rules) {
+      if (rule.getDiscountCode() != null) {
+        codes.add(rule.getDiscountCode());
+      }
+    }
+    return Collections.unmodifiableSet(codes);
+  }
+
+  /**
+   * 根据产品代码查找产品.
+   *
+   * @param productCode 产品代码
+   * @return 产品，不存在时为null
+   */
+  public Product find(String productCode) {
+    return products.get(productCode);
+  }
+
+  /**
+   * 根据折扣码查找促销.
+   *
+   * @param discountCode 折扣码
+   * @return 促销，不存在时为null
+   */
+  public Promotion findPromotion(String discountCode) {
+    return promotions.get(discountCode);
+  }
+
+  /**
+   * 折扣码是否有效：存在对应的促销，或被某条促销规则引用.
+   *
+   * @param discountCode 折扣码
+   * @return 是否有效
+   */
+  public boolean isDiscountCode(String discountCode) {
+    return promotions.containsKey(discountCode) || ruleDiscountCodes.contains(discountCode);
+  }
+
+  public int size() {
+    return products.size();
+  }
+
+  /**
+   * 替换产品，折扣码不变.
+   *
+   * <p>没有产品被移除时沿用当前的产品代码字典，否则换用只含新产品的字典.
+   *
+   * @param newProducts 产品映射，调用方保证之后不再修改
+   * @return 新快照
+   */
+  public ProductCatalog withProducts(Map<String, Product> newProducts) {
+    ProductCodes codes = newProducts.keySet().containsAll(products.keySet())
+        ? productCodes
+        : new ProductCodes();
+    return new ProductCatalog(version + 1, newProducts, promotionVersion, promotions, rules,
+        ruleDiscountCodes, codesFor(newProducts, codes));
+  }
+
+  /**
+   * 替换折扣码，产品和促销规则不变.
+   *
+   * @param newPromotions 折扣码映射，调用方保证之后不再修改
+   * @return 新快照
+   */
+  public ProductCatalog withPromotions(Map<String, Promotion> newPromotions) {
+    return new ProductCatalog(version, products, promotionVersion + 1, newPromotions, rules,
+        ruleDiscountCodes, productCodes);
+  }
+
+  /**
+   * 替换折扣码和促销规则，产品不变.
+   *
+   * @param newPromotions 折扣码映射，调用方保证之后不再修改
+   * @param newRules 促销规则
+   * @return 新快照
+   */
+  public ProductCatalog withPromotions(
+      Map<String, Promotion> newPromotions, List<PromotionRule> newRules) {
+    return new ProductCatalog(version, products, promotionVersion + 1, newPromotions,
+        List.copyOf(newRules), ruleDiscountCodes(newRules), productCodes);
+  }
+}
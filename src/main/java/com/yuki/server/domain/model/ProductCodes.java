@@ -0,0 +1,78 @@
+package com.yuki.server.domain.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 产品代码字典（领域层）.
+ *
+ * <p>由 {@link ProductCatalog} 快照持有，把产品代码映射为从0开始的连续整数编号，
+ * 供购物车行、价格表和促销计划以数组下标引用产品. 编号只增不删，已分配的编号在字典内不变.
+ *
+ * <p>目录只新增或修改产品时新快照沿用同一个字典；有产品被移除时新快照换用只含当前产品的新字典，
+ * 字典大小不随历次加载累积. 持有旧字典编号的购物车内容通过 {@link BasketContents#remapTo} 换算.
+ */
+public final class ProductCodes {
+  private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+  private final Object lock = new Object();
+  private volatile String[] codes = new String[16];
+  private int size; // 受lock保护
+
+  /**
+   * 获取产品代码的编号，不存在时分配新编号.
+   *
+   * @param productCode 产品代码
+   * @return 编号
+   */
+  public int intern(String productCode) {
+    Integer id = ids.get(productCode);
+    if (id != null) {
+      return id;
+    }
+    synchronized (lock) {
+      id = ids.get(productCode);
+      if (id != null) {
+        return id;
+      }
+      String[] current = codes;
+      if (size == current.length) {
+        current = Arrays.copyOf(current, current.length * 2);
+      }
+      current[size] = productCode;
+      codes = current; // 先发布代码，再发布编号
+      ids.put(productCode, size);
+      return size++;
+    }
+  }
+
+  /**
+   * 查找产品代码的编号，不分配新编号.
+   *
+   * @param productCode 产品代码
+   * @return 编号，不存在时为-1
+   */
+  public int find(String productCode) {
+    Integer id = ids.get(productCode);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * 由编号还原产品代码.
+   *
+   * @param id 由 {@link #intern} 返回的编号
+   * @return 产品代码
+   */
+  public String codeOf(int id) {
+    return codes[id];
+  }
+
+  /**
+   * 已分配的编号数，所有编号都小于该值.
+   *
+   * @return 编号数
+   */
+  public int size() {
+    return ids.size();
+  }
+}
@@ -0,0 +1,300 @@
+package com.yuki.server.domain.model;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 促销规则的预编译执行计划（领域层）.
+ *
+ * <p>按促销版本和产品代码字典从目录规则编译一次：产品规则按被折扣产品的 {@link ProductCodes} 编号以数组索引，
+ * 分类规则按分类索引，整单规则单独存放；百分比预先换算为定点整数，金额预先换算为分.
+ * 定价时每个产品行只查找与之相关的规则，开销与规则总数无关.
+ *
+ * <p>计算顺序：先算各产品行的折扣（行内不可叠加的规则取最大一条，可叠加的规则累加，不超过行金额），
+ * 再对扣除行折扣后的金额计算整单档位折扣（同样的叠加方式，不超过该金额）.
+ */
+public final class PromotionPlan {
+  public static final PromotionPlan EMPTY =
+      new PromotionPlan(0L, new ProductCodes(), 0, new CompiledRule[0][], Map.of(),
+          new CompiledRule[0]);
+
+  private static final CompiledRule[] NO_RULES = new CompiledRule[0];
+
+  private final long promotionVersion;
+  private final ProductCodes productCodes;
+  private final int ruleCount;
+  private final CompiledRule[][] productRules; // 被折扣产品的编号 -> 规则
+  private final Map<String, CompiledRule[]> categoryRules; // category -> 规则
+  private final CompiledRule[] basketRules;
+
+  private PromotionPlan(
+      long promotionVersion,
+      ProductCodes productCodes,
+      int ruleCount,
+      CompiledRule[][] productRules,
+      Map<String, CompiledRule[]> categoryRules,
+      CompiledRule[] basketRules) {
+    this.promotionVersion = promotionVersion;
+    this.productCodes = productCodes;
+    this.ruleCount = ruleCount;
+    this.productRules = productRules;
+    this.categoryRules = categoryRules;
+    this.basketRules = basketRules;
+  }
+
+  /**
+   * 单价查询，由调用方按自己的价格表提供.
+   */
+  @FunctionalInterface
+  public interface UnitPrices {
+    /** 产品不存在. */
+    long NO_PRICE = Long.MIN_VALUE;
+
+    /**
+     * 查询单价.
+     *
+     * @param productId 产品编号
+     * @return 单价（分），产品不存在时为 {@link #NO_PRICE}
+     */
+    long priceOf(int productId);
+  }
+
+  /**
+   * 编译目录快照中的促销规则.
+   *
+   * @param catalog 目录快照
+   * @param roundingMode 金额换算为分时的舍入方式
+   * @return 执行计划
+   */
+  public static PromotionPlan compile(ProductCatalog catalog, RoundingMode roundingMode) {
+    return compile(catalog.getRules(), catalog.getPromotionVersion(), catalog.getProductCodes(),
+        roundingMode);
+  }
+
+  /**
+   * 编译促销规则.
+   *
+   * @param rules 促销规则
+   * @param promotionVersion 规则所属的促销版本
+   * @param productCodes 产品代码字典，规则和购物车内容都以其编号
+   * @param roundingMode 金额换算为分时的舍入方式
+   * @return 执行计划
+   */
+  public static PromotionPlan compile(List<PromotionRule> rules, long promotionVersion,
+      ProductCodes productCodes, RoundingMode roundingMode) {
+    Map<Integer, List<CompiledRule>> byProduct = new HashMap<>();
+    Map<String, List<CompiledRule>> byCategory = new HashMap<>();
+    List<CompiledRule> basket = new ArrayList<>();
+    for (PromotionRule rule : rules) {
+      CompiledRule compiled = new CompiledRule(rule, productCodes, roundingMode);
+      switch (rule.getType()) {
+        case PRODUCT_PERCENT, BUY_X_GET_Y -> add(byProduct, compiled.rewardId, compiled);
+        case CATEGORY_PERCENT -> add(byCategory, rule.getCategory(), compiled);
+        case SPEND_TIERS -> basket.add(compiled);
+        default -> throw new IllegalStateException("Unknown rule type: " + rule.getType());
+      }
+    }
+    CompiledRule[][] productRules =
+        new CompiledRule[byProduct.keySet().stream().mapToInt(id -> id + 1).max().orElse(0)][];
+    Arrays.fill(productRules, NO_RULES);
+    byProduct.forEach((id, list) -> productRules[id] = list.toArray(NO_RULES));
+    return new PromotionPlan(promotionVersion, productCodes, rules.size(), productRules,
+        freeze(byCategory), basket.toArray(NO_RULES));
+  }
+
+  private static <K> void add(Map<K, List<CompiledRule>> index, K key, CompiledRule rule) {
+    index.computeIfAbsent(key, k -> new ArrayList<>(2)).add(rule);
+  }
+
+  private static Map<String, CompiledRule[]> freeze(Map<String, List<CompiledRule>> index) {
+    Map<String, CompiledRule[]> frozen = new HashMap<>(index.size() * 2);
+    index.forEach((key, list) -> frozen.put(key, list.toArray(NO_RULES)));
+    return frozen;
+  }
+
+  public long getPromotionVersion() {
+    return promotionVersion;
+  }
+
+  public int getRuleCount() {
+    return ruleCount;
+  }
+
+  /**
+   * 是否可用于该目录快照：促销版本相同，且规则与快照使用同一个产品代码字典.
+   *
+   * @param catalog 目录快照
+   * @return 是否可用
+   */
+  public boolean isCompiledFor(ProductCatalog catalog) {
+    return promotionVersion == catalog.getPromotionVersion()
+        && (ruleCount == 0 || productCodes == catalog.getProductCodes());
+  }
+
+  /**
+   * 计算促销规则带来的折扣.
+   *
+   * @param contents 购物车内容快照，须以编译时的产品代码字典编号
+   * @param subtotal 小计（分）
+   * @param catalog 目录快照，用于查找产品分类
+   * @param prices 单价查询
+   * @param roundingMode 百分比折扣的舍入方式
+   * @return 折扣金额（分），不超过小计
+   */
+  public long discount(BasketContents contents, long subtotal, ProductCatalog catalog,
+      UnitPrices prices, RoundingMode roundingMode) {
+    if (ruleCount == 0) {
+      return 0;
+    }
+    String discountCode = contents.getDiscountCode();
+    long lineDiscounts = 0;
+    if (productRules.length > 0 || !categoryRules.isEmpty()) {
+      for (int line = 0, lines = contents.getLineCount(); line < lines; line++) {
+        int productId = contents.getProductId(line);
+        CompiledRule[] byProduct =
+            productId < productRules.length ? productRules[productId] : NO_RULES;
+        CompiledRule[] byCategory = NO_RULES;
+        if (!categoryRules.isEmpty()) {
+          Product product = catalog.find(productCodes.codeOf(productId));
+          if (product != null && product.getCategory() != null) {
+            byCategory = categoryRules.getOrDefault(product.getCategory(), NO_RULES);
+          }
+        }
+        if (byProduct.length == 0 && byCategory.length == 0) {
+          continue;
+        }
+        long unitPrice = prices.priceOf(productId);
+        if (unitPrice == UnitPrices.NO_PRICE) {
+          continue;
+        }
+        int quantity = contents.getQuantity(line);
+        long lineAmount = unitPrice * quantity; // 小计已计算过，不会溢出
+        Best best = new Best();
+        for (CompiledRule rule : byProduct) {
+          if (rule.appliesTo(discountCode)) {
+            best.offer(rule, rule.lineDiscount(lineAmount, unitPrice, quantity, contents,
+                roundingMode));
+          }
+        }
+        for (CompiledRule rule : byCategory) {
+          if (rule.appliesTo(discountCode)) {
+            best.offer(rule, rule.lineDiscount(lineAmount, unitPrice, quantity, contents,
+                roundingMode));
+          }
+        }
+        lineDiscounts += best.total(lineAmount);
+      }
+    }
+
+    long remaining = subtotal - lineDiscounts;
+    if (basketRules.length == 0 || remaining <= 0) {
+      return lineDiscounts;
+    }
+    Best best = new Best();
+    for (CompiledRule rule : basketRules) {
+      if (rule.appliesTo(discountCode)) {
+        best.offer(rule, rule.basketDiscount(remaining, roundingMode));
+      }
+    }
+    return lineDiscounts + best.total(remaining);
+  }
+
+  /**
+   * 叠加方式：不可叠加的规则取最大一条，可叠加的规则累加，结果不超过上限.
+   */
+  private static final class Best {
+    private long exclusive;
+    private long stacked;
+
+    private void offer(CompiledRule rule, long discount) {
+      if (rule.stackable) {
+        stacked = discount > Long.MAX_VALUE - stacked ? Long.MAX_VALUE : stacked + discount;
+      } else if (discount > exclusive) {
+        exclusive = discount;
+      }
+    }
+
+    private long total(long cap) {
+      long sum = exclusive + stacked;
+      return sum < 0 ? cap : Math.min(cap, sum); // sum<0 即溢出
+    }
+  }
+
+  /**
+   * 编译后的单条规则.
+   */
+  private static final class CompiledRule {
+    private final PromotionRule.Type type;
+    private final String discountCode;
+    private final boolean stackable;
+    private final long scaledPercent;
+    private final int triggerId;
+    private final int rewardId;
+    private final int buyQuantity;
+    private final int freeQuantity;
+    private final long[] tierMinSpend; // 升序
+    private final long[] tierPercent; // 定点百分比，-1表示按金额
+    private final long[] tierAmountOff;
+
+    private CompiledRule(PromotionRule rule, ProductCodes productCodes, RoundingMode roundingMode) {
+      this.type = rule.getType();
+      this.discountCode = rule.getDiscountCode();
+      this.stackable = rule.isStackable();
+      this.scaledPercent = rule.getPercent() == null ? 0 : Money.scalePercent(rule.getPercent());
+      this.triggerId =
+          rule.getProductCode() == null ? -1 : productCodes.intern(rule.getProductCode());
+      this.rewardId = rule.getRewardProductCode() == null
+          ? triggerId : productCodes.intern(rule.getRewardProductCode());
+      this.buyQuantity = rule.getBuyQuantity();
+      this.freeQuantity = rule.getFreeQuantity();
+      List<PromotionRule.SpendTier> tiers = rule.getTiers();
+      this.tierMinSpend = new long[tiers.size()];
+      this.tierPercent = new long[tiers.size()];
+      this.tierAmountOff = new long[tiers.size()];
+      for (int i = 0; i < tiers.size(); i++) {
+        PromotionRule.SpendTier tier = tiers.get(i);
+        tierMinSpend[i] = Money.toMinorUnits(tier.getMinSpend(), roundingMode);
+        tierPercent[i] = tier.getPercent() == null ? -1 : Money.scalePercent(tier.getPercent());
+        tierAmountOff[i] = tier.getAmountOff() == null
+            ? 0 : Money.toMinorUnits(tier.getAmountOff(), roundingMode);
+      }
+    }
+
+    private boolean appliesTo(String basketDiscountCode) {
+      return discountCode == null || discountCode.equals(basketDiscountCode);
+    }
+
+    private long lineDiscount(long lineAmount, long unitPrice, int quantity,
+        BasketContents contents, RoundingMode roundingMode) {
+      if (type != PromotionRule.Type.BUY_X_GET_Y) {
+        return Money.percentOf(lineAmount, scaledPercent, roundingMode);
+      }
+      long freeUnits;
+      if (triggerId == rewardId) {
+        freeUnits = quantity / ((long) buyQuantity + freeQuantity) * freeQuantity;
+      } else {
+        int triggerQuantity = contents.quantityOf(triggerId);
+        if (triggerQuantity == 0) {
+          return 0;
+        }
+        freeUnits = Math.min((long) (triggerQuantity / buyQuantity) * freeQuantity, quantity);
+      }
+      return freeUnits * unitPrice;
+    }
+
+    private long basketDiscount(long amount, RoundingMode roundingMode) {
+      for (int i = tierMinSpend.length - 1; i >= 0; i--) {
+        if (amount >= tierMinSpend[i]) {
+          return tierPercent[i] >= 0
+              ? Money.percentOf(amount, tierPercent[i], roundingMode)
+              : Math.min(amount, tierAmountOff[i]);
+        }
+      }
+      return 0;
+    }
+  }
+}
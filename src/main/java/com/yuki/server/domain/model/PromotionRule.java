@@ -0,0 +1,119 @@
+package com.yuki.server.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 促销规则领域模型.
+ *
+ * <p>规则按类型使用不同字段，通过静态工厂方法创建并校验. 设置了 {@code discountCode} 的规则
+ * 仅在购物车使用该折扣码时生效. 同一产品行（或整单）上的多条规则中，不可叠加的规则只取折扣最大的一条，
+ * 可叠加（{@code stackable}）的规则全部累加.
+ */
+@Data
+@AllArgsConstructor
+public class PromotionRule {
+
+  /**
+   * 规则类型.
+   */
+  public enum Type {
+    /** 指定产品按百分比折扣. */
+    PRODUCT_PERCENT,
+    /** 指定分类的产品按百分比折扣. */
+    CATEGORY_PERCENT,
+    /** 买X件送Y件，赠品可为同一产品或另一产品. */
+    BUY_X_GET_Y,
+    /** 按整单金额分档折扣. */
+    SPEND_TIERS
+  }
+
+  private final String ruleId;
+  private final Type type;
+  private final String productCode; // PRODUCT_PERCENT、BUY_X_GET_Y 的触发产品
+  private final String category; // CATEGORY_PERCENT
+  private final BigDecimal percent; // PRODUCT_PERCENT、CATEGORY_PERCENT
+  private final int buyQuantity; // BUY_X_GET_Y
+  private final int freeQuantity; // BUY_X_GET_Y
+  private final String rewardProductCode; // BUY_X_GET_Y 的赠品，为null时与触发产品相同
+  private final List<SpendTier> tiers; // SPEND_TIERS，按门槛升序
+  private final String discountCode; // 可为null
+  private final boolean stackable;
+
+  /**
+   * 整单金额档位：金额达到门槛时按百分比或固定金额折扣，二者取其一.
+   */
+  @Data
+  @AllArgsConstructor
+  public static class SpendTier {
+    private final BigDecimal minSpend;
+    private final BigDecimal percent; // 可为null
+    private final BigDecimal amountOff; // 可为null
+  }
+
+  public static PromotionRule productPercent(String ruleId, String productCode, BigDecimal percent,
+      String discountCode, boolean stackable) {
+    require(productCode != null, ruleId, "productCode is required");
+    requirePercent(ruleId, percent);
+    return new PromotionRule(ruleId, Type.PRODUCT_PERCENT, productCode, null, percent, 0, 0, null,
+        List.of(), discountCode, stackable);
+  }
+
+  public static PromotionRule categoryPercent(String ruleId, String category, BigDecimal percent,
+      String discountCode, boolean stackable) {
+    require(category != null, ruleId, "category is required");
+    requirePercent(ruleId, percent);
+    return new PromotionRule(ruleId, Type.CATEGORY_PERCENT, null, category, percent, 0, 0, null,
+        List.of(), discountCode, stackable);
+  }
+
+  public static PromotionRule buyXGetY(String ruleId, String productCode, int buyQuantity,
+      int freeQuantity, String rewardProductCode, String discountCode, boolean stackable) {
+    require(productCode != null, ruleId, "productCode is required");
+    require(buyQuantity > 0 && freeQuantity > 0, ruleId,
+        "buyQuantity and freeQuantity must be positive");
+    return new PromotionRule(ruleId, Type.BUY_X_GET_Y, productCode, null, null, buyQuantity,
+        freeQuantity, rewardProductCode, List.of(), discountCode, stackable);
+  }
+
+  public static PromotionRule spendTiers(String ruleId, List<SpendTier> tiers,
+      String discountCode, boolean stackable) {
+    require(tiers != null && !tiers.isEmpty(), ruleId, "at least one tier is required");
+    for (SpendTier tier : tiers) {
+      require(tier.getMinSpend() != null && tier.getMinSpend().signum() >= 0, ruleId,
+          "minSpend must not be negative");
+      require((tier.getPercent() == null) != (tier.getAmountOff() == null), ruleId,
+          "each tier needs exactly one of percent or amountOff");
+      if (tier.getPercent() != null) {
+        requirePercent(ruleId, tier.getPercent());
+      } else {
+        require(tier.getAmountOff().signum() >= 0, ruleId, "amountOff must not be negative");
+      }
+    }
+    List<SpendTier> sorted = new ArrayList<>(tiers);
+    sorted.sort(Comparator.comparing(SpendTier::getMinSpend));
+    return new PromotionRule(ruleId, Type.SPEND_TIERS, null, null, null, 0, 0, null,
+        List.copyOf(sorted), discountCode, stackable);
+  }
+
+  private static void requirePercent(String ruleId, BigDecimal percent) {
+    require(percent != null && percent.signum() >= 0 && percent.compareTo(BigDecimal.valueOf(100)) <= 0,
+        ruleId, "percent must be between 0 and 100");
+    require(percent.stripTrailingZeros().scale() <= Money.PERCENT_SCALE, ruleId,
+        "percent supports at most " + Money.PERCENT_SCALE + " decimal places");
+  }
+
+  private static void require(boolean condition, String ruleId, String message) {
+    if (ruleId == null) {
+      throw new IllegalArgumentException("Promotion rule requires a ruleId");
+    }
+    if (!condition) {
+      throw new IllegalArgumentException("Promotion rule " + ruleId + ": " + message);
+    }
+  }
+}
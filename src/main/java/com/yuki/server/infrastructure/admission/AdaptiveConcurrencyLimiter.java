@@ -0,0 +1,83 @@
+package com.yuki.server.infrastructure.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 自适应并发上限（基础设施层）.
+ *
+ * <p>加性增、乘性减（AIMD）：请求耗时未超过目标且并发已用到上限一半以上时上限加一；
+ * 耗时超过目标时上限乘以0.9，且每个目标耗时内最多下调一次，避免一批慢请求把上限直接压到最小.
+ * 进行中的请求达到上限时拒绝新请求，而不是让它们排队. 计数和上限都以CAS更新，无锁.
+ */
+public final class AdaptiveConcurrencyLimiter {
+  private static final double BACKOFF_RATIO = 0.9;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger limit;
+  private final AtomicLong lastDecrease;
+  private final int minLimit;
+  private final int maxLimit;
+  private final long targetLatencyNanos;
+
+  /**
+   * 创建并发上限.
+   *
+   * @param initialLimit 初始上限
+   * @param minLimit 最小上限
+   * @param maxLimit 最大上限
+   * @param targetLatencyNanos 目标耗时（纳秒），超过即下调上限
+   * @param now 当前单调时间（纳秒）
+   */
+  public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+      long targetLatencyNanos, long now) {
+    this.minLimit = Math.max(1, minLimit);
+    this.maxLimit = Math.max(this.minLimit, maxLimit);
+    this.limit = new AtomicInteger(Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit)));
+    this.targetLatencyNanos = Math.max(1, targetLatencyNanos);
+    this.lastDecrease = new AtomicLong(now - this.targetLatencyNanos);
+  }
+
+  /**
+   * 尝试占用一个并发名额.
+   *
+   * @return 是否占用成功；成功后必须调用 {@link #release}
+   */
+  public boolean tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= limit.get()) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * 释放名额并按本次耗时调整上限.
+   *
+   * @param latencyNanos 本次请求耗时（纳秒）
+   * @param now 当前单调时间（纳秒）
+   */
+  public void release(long latencyNanos, long now) {
+    int before = inFlight.getAndDecrement();
+    if (latencyNanos > targetLatencyNanos) {
+      long last = lastDecrease.get();
+      if (now - last >= targetLatencyNanos && lastDecrease.compareAndSet(last, now)) {
+        limit.updateAndGet(l -> Math.max(minLimit, (int) (l * BACKOFF_RATIO)));
+      }
+    } else if (before * 2 >= limit.get()) {
+      limit.updateAndGet(l -> Math.min(maxLimit, l + 1));
+    }
+  }
+
+  public int getLimit() {
+    return limit.get();
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+}
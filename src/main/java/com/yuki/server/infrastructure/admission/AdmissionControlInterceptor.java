@@ -0,0 +1,165 @@
+package com.yuki.server.infrastructure.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuki.server.application.dto.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * 购物车和订单接口的准入控制（基础设施层）.
+ *
+ * <p>按接口类别分别限流：购物车接口、结账接口、订单查询接口各有独立的令牌桶，
+ * 按购物车ID、客户ID、已认证用户计数，均没有时（如订单列表和导出）按客户端地址计数.
+ * 客户端地址取自 {@link HttpServletRequest#getRemoteAddr()}：部署在反向代理之后时需设置
+ * {@code server.forward-headers-strategy}，由容器按X-Forwarded-For还原客户端地址；
+ * 默认不信任转发头，伪造的转发头不会改变计数的键. 结账接口另有自适应并发上限，
+ * 结账变慢时下调上限，超出的请求立即返回429而不是排队. 被拒绝的请求都带Retry-After.
+ */
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+  private static final Logger logger = LoggerFactory.getLogger(AdmissionControlInterceptor.class);
+
+  private static final String START_ATTRIBUTE =
+      AdmissionControlInterceptor.class.getName() + ".start";
+  private static final long SHED_RETRY_AFTER_SECONDS = 1;
+
+  /**
+   * 接口类别，各自独立限流.
+   */
+  public enum EndpointClass {
+    BASKET,
+    CHECKOUT,
+    ORDER
+  }
+
+  private final Map<EndpointClass, TokenBucketRateLimiter> rateLimiters;
+  private final AdaptiveConcurrencyLimiter checkoutLimiter;
+  private final LongSupplier nanoClock;
+  private final ObjectMapper objectMapper;
+  private final Map<EndpointClass, Counter> rateLimited = new EnumMap<>(EndpointClass.class);
+  private final Counter shed;
+
+  public AdmissionControlInterceptor(
+      Map<EndpointClass, TokenBucketRateLimiter> rateLimiters,
+      AdaptiveConcurrencyLimiter checkoutLimiter,
+      LongSupplier nanoClock,
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry) {
+    this.rateLimiters = new EnumMap<>(rateLimiters);
+    this.checkoutLimiter = checkoutLimiter;
+    this.nanoClock = nanoClock;
+    this.objectMapper = objectMapper;
+    for (EndpointClass endpoint : EndpointClass.values()) {
+      rateLimited.put(endpoint, rejectionCounter(meterRegistry, endpoint, "rate-limit"));
+    }
+    this.shed = rejectionCounter(meterRegistry, EndpointClass.CHECKOUT, "concurrency");
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+      Object handler) throws IOException {
+    if (request.getDispatcherType() != DispatcherType.REQUEST) {
+      return true; // 异步请求完成后的再次分派，首次分派时已准入
+    }
+    EndpointClass endpoint = classify(request.getRequestURI());
+    TokenBucketRateLimiter rateLimiter = rateLimiters.get(endpoint);
+    if (rateLimiter != null) {
+      long waitNanos = rateLimiter.tryAcquire(keyOf(request));
+      if (waitNanos > 0) {
+        rateLimited.get(endpoint).increment();
+        reject(response, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999)),
+            "Rate limit exceeded, retry later");
+        return false;
+      }
+    }
+    if (endpoint == EndpointClass.CHECKOUT) {
+      if (!checkoutLimiter.tryAcquire()) {
+        shed.increment();
+        reject(response, SHED_RETRY_AFTER_SECONDS, "Checkout is overloaded, retry later");
+        return false;
+      }
+      request.setAttribute(START_ATTRIBUTE, nanoClock.getAsLong());
+    }
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+      Object handler, Exception ex) {
+    // 同步请求在首次分派后调用；异步结账在完成后的再次分派后调用
+    Object start = request.getAttribute(START_ATTRIBUTE);
+    if (start != null) {
+      request.removeAttribute(START_ATTRIBUTE);
+      long now = nanoClock.getAsLong();
+      checkoutLimiter.release(now - (Long) start, now);
+    }
+  }
+
+  static EndpointClass classify(String uri) {
+    if (uri.startsWith("/api/orders/checkout/")) {
+      return EndpointClass.CHECKOUT;
+    }
+    if (uri.startsWith("/api/orders")) {
+      return EndpointClass.ORDER;
+    }
+    return EndpointClass.BASKET;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static String keyOf(HttpServletRequest request) {
+    Map<String, String> variables = (Map<String, String>)
+        request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+    String basketId = variables == null ? null : variables.get("basketId");
+    if (basketId != null) {
+      return "basket:" + basketId;
+    }
+    String customerId = variables == null ? null : variables.get("customerId");
+    if (customerId == null) {
+      customerId = request.getParameter("customerId");
+    }
+    if (customerId != null) {
+      return "customer:" + customerId;
+    }
+    Principal principal = request.getUserPrincipal();
+    if (principal != null) {
+      return "user:" + principal.getName();
+    }
+    return "address:" + request.getRemoteAddr();
+  }
+
+  private void reject(HttpServletResponse response, long retryAfterSeconds, String message)
+      throws IOException {
+    logger.debug("Request rejected: {}", message);
+    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    objectMapper.writeValue(response.getOutputStream(),
+        new ErrorResponse("TOO_MANY_REQUESTS", message));
+  }
+
+  private static Counter rejectionCounter(MeterRegistry meterRegistry, EndpointClass endpoint,
+      String reason) {
+    return Counter.builder("admission.rejected")
+        .description("Requests rejected by admission control")
+        .tag("endpoint", endpoint.name().toLowerCase())
+        .tag("reason", reason)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,87 @@
+package com.yuki.server.infrastructure.admission;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * 按键限流的令牌桶（基础设施层）.
+ *
+ * <p>每个键只保存一个 {@link AtomicLong}：令牌桶按"理论到达时间"（GCRA）表示，
+ * 取令牌是一次CAS，无锁. 桶在理论到达时间早于当前时间时已满，与新桶等价，
+ * 键数超过上限时清理这些桶；清理与取令牌并发时，被清理的桶最多多放行一次.
+ */
+public final class TokenBucketRateLimiter {
+
+  private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+  private final ReentrantLock sweepLock = new ReentrantLock();
+
+  private final long intervalNanos; // 生成一个令牌的时间
+  private final long capacityNanos; // 桶容量对应的时间
+  private final int maxKeys;
+  private final LongSupplier nanoClock;
+
+  /**
+   * 创建限流器.
+   *
+   * @param ratePerSecond 每秒生成的令牌数
+   * @param burst 桶容量，即允许的突发请求数
+   * @param maxKeys 超过该键数时清理已满的桶
+   * @param nanoClock 单调时钟（纳秒）
+   */
+  public TokenBucketRateLimiter(double ratePerSecond, int burst, int maxKeys,
+      LongSupplier nanoClock) {
+    if (ratePerSecond <= 0 || burst <= 0) {
+      throw new IllegalArgumentException("Rate and burst must be positive");
+    }
+    this.intervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+    this.capacityNanos = intervalNanos * burst;
+    this.maxKeys = Math.max(1, maxKeys);
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * 尝试为键取一个令牌.
+   *
+   * @param key 键
+   * @return 0表示放行，否则为距离下一个令牌的纳秒数
+   */
+  public long tryAcquire(String key) {
+    long now = nanoClock.getAsLong();
+    AtomicLong bucket = buckets.get(key);
+    if (bucket == null) {
+      bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+      if (buckets.size() > maxKeys) {
+        sweep(now);
+      }
+    }
+    while (true) {
+      long arrival = bucket.get();
+      long next = Math.max(arrival, now) + intervalNanos;
+      long wait = next - now - capacityNanos;
+      if (wait > 0) {
+        return wait;
+      }
+      if (bucket.compareAndSet(arrival, next)) {
+        return 0;
+      }
+    }
+  }
+
+  public int size() {
+    return buckets.size();
+  }
+
+  private void sweep(long now) {
+    if (!sweepLock.tryLock()) {
+      return; // 其他线程正在清理
+    }
+    try {
+      buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    } finally {
+      sweepLock.unlock();
+    }
+  }
+}
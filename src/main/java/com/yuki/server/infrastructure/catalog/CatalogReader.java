@@ -0,0 +1,212 @@
+package com.yuki.server.infrastructure.catalog;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.yuki.server.application.gateway.CatalogSource;
+import com.yuki.server.domain.model.Product;
+import com.yuki.server.domain.model.Promotion;
+import com.yuki.server.domain.model.PromotionRule;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * data.json格式目录文件的流式读取器（基础设施层）.
+ *
+ * <p>按token顺序读取，直接构造 {@link Product}、{@link Promotion} 和 {@link PromotionRule}，
+ * 不建立中间的树结构；
+ * 金额按JSON中的原始文本解析为 {@link BigDecimal}，不经过 double，精度与文件一致.
+ */
+public class CatalogReader {
+
+  private final JsonFactory jsonFactory;
+
+  public CatalogReader(JsonFactory jsonFactory) {
+    this.jsonFactory = jsonFactory;
+  }
+
+  /**
+   * 读取目录文件.
+   *
+   * @param inputStream 输入流，由调用方关闭
+   * @return 文件中的产品、折扣码和促销规则
+   * @throws IOException 读取失败或格式错误
+   */
+  public CatalogSource.Contents read(InputStream inputStream) throws IOException {
+    CatalogSource.Contents contents = new CatalogSource.Contents();
+    try (JsonParser parser = jsonFactory.createParser(inputStream)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new JsonParseException(parser, "Catalog must be a JSON object");
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        JsonToken value = parser.nextToken();
+        if ("products".equals(field) && value == JsonToken.START_ARRAY) {
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            contents.getProducts().add(readProduct(parser));
+          }
+        } else if ("promotions".equals(field) && value == JsonToken.START_ARRAY) {
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            contents.getPromotions().add(readPromotion(parser));
+          }
+        } else if ("rules".equals(field) && value == JsonToken.START_ARRAY) {
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            contents.getRules().add(readRule(parser));
+          }
+        } else {
+          parser.skipChildren();
+        }
+      }
+    }
+    return contents;
+  }
+
+  private Product readProduct(JsonParser parser) throws IOException {
+    expectObject(parser, "product");
+    String productCode = null;
+    String name = null;
+    BigDecimal fullPrice = null;
+    String category = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      parser.nextToken();
+      switch (field) {
+        case "productCode" -> productCode = parser.getValueAsString();
+        case "name" -> name = parser.getValueAsString();
+        case "fullPrice" -> fullPrice = readDecimal(parser);
+        case "category" -> category = parser.getValueAsString();
+        default -> parser.skipChildren();
+      }
+    }
+    if (productCode == null || fullPrice == null) {
+      throw new JsonParseException(parser, "Product requires productCode and fullPrice");
+    }
+    return new Product(productCode, name, fullPrice, category);
+  }
+
+  private Promotion readPromotion(JsonParser parser) throws IOException {
+    expectObject(parser, "promotion");
+    String discountCode = null;
+    BigDecimal discountPercent = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      parser.nextToken();
+      switch (field) {
+        case "discountCode" -> discountCode = parser.getValueAsString();
+        case "discountPercent" -> discountPercent = readDecimal(parser);
+        default -> parser.skipChildren();
+      }
+    }
+    if (discountCode == null || discountPercent == null) {
+      throw new JsonParseException(parser, "Promotion requires discountCode and discountPercent");
+    }
+    return new Promotion(discountCode, discountPercent);
+  }
+
+  private PromotionRule readRule(JsonParser parser) throws IOException {
+    expectObject(parser, "rule");
+    String ruleId = null;
+    String type = null;
+    String productCode = null;
+    String category = null;
+    BigDecimal percent = null;
+    int buyQuantity = 0;
+    int freeQuantity = 0;
+    String rewardProductCode = null;
+    List<PromotionRule.SpendTier> tiers = null;
+    String discountCode = null;
+    boolean stackable = false;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken value = parser.nextToken();
+      switch (field) {
+        case "ruleId" -> ruleId = parser.getValueAsString();
+        case "type" -> type = parser.getValueAsString();
+        case "productCode" -> productCode = parser.getValueAsString();
+        case "category" -> category = parser.getValueAsString();
+        case "percent" -> percent = readDecimal(parser);
+        case "buyQuantity" -> buyQuantity = parser.getValueAsInt();
+        case "freeQuantity" -> freeQuantity = parser.getValueAsInt();
+        case "rewardProductCode" -> rewardProductCode = parser.getValueAsString();
+        case "tiers" -> tiers = readTiers(parser, value);
+        case "discountCode" -> discountCode = parser.getValueAsString();
+        case "stackable" -> stackable = parser.getValueAsBoolean();
+        default -> parser.skipChildren();
+      }
+    }
+    if (ruleId == null || type == null) {
+      throw new JsonParseException(parser, "Rule requires ruleId and type");
+    }
+    try {
+      return switch (PromotionRule.Type.valueOf(type.toUpperCase(Locale.ROOT))) {
+        case PRODUCT_PERCENT ->
+            PromotionRule.productPercent(ruleId, productCode, percent, discountCode, stackable);
+        case CATEGORY_PERCENT ->
+            PromotionRule.categoryPercent(ruleId, category, percent, discountCode, stackable);
+        case BUY_X_GET_Y -> PromotionRule.buyXGetY(ruleId, productCode, buyQuantity,
+            freeQuantity, rewardProductCode, discountCode, stackable);
+        case SPEND_TIERS -> PromotionRule.spendTiers(ruleId, tiers, discountCode, stackable);
+      };
+    } catch (IllegalArgumentException e) {
+      String message = e.getMessage().startsWith("No enum constant")
+          ? "Unknown rule type: " + type : e.getMessage();
+      throw new JsonParseException(parser, message, e);
+    }
+  }
+
+  private List<PromotionRule.SpendTier> readTiers(JsonParser parser, JsonToken value)
+      throws IOException {
+    if (value != JsonToken.START_ARRAY) {
+      throw new JsonParseException(parser, "Expected tiers array");
+    }
+    List<PromotionRule.SpendTier> tiers = new ArrayList<>();
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      expectObject(parser, "tier");
+      BigDecimal minSpend = null;
+      BigDecimal percent = null;
+      BigDecimal amountOff = null;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        parser.nextToken();
+        switch (field) {
+          case "minSpend" -> minSpend = readDecimal(parser);
+          case "percent" -> percent = readDecimal(parser);
+          case "amountOff" -> amountOff = readDecimal(parser);
+          default -> parser.skipChildren();
+        }
+      }
+      tiers.add(new PromotionRule.SpendTier(minSpend, percent, amountOff));
+    }
+    return tiers;
+  }
+
+  private static void expectObject(JsonParser parser, String what) throws IOException {
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      throw new JsonParseException(parser, "Expected " + what + " object");
+    }
+  }
+
+  /**
+   * 读取金额，兼容数字和字符串两种写法.
+   */
+  private static BigDecimal readDecimal(JsonParser parser) throws IOException {
+    JsonToken token = parser.currentToken();
+    if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+      return parser.getDecimalValue();
+    }
+    if (token == JsonToken.VALUE_STRING) {
+      try {
+        return new BigDecimal(parser.getText().trim());
+      } catch (NumberFormatException e) {
+        throw new JsonParseException(parser, "Invalid decimal: " + parser.getText(), e);
+      }
+    }
+    throw new JsonParseException(parser, "Expected decimal but found " + token);
+  }
+}
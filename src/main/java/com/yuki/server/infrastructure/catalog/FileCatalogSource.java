@@ -0,0 +1,176 @@
+package com.yuki.server.infrastructure.catalog;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuki.server.application.gateway.CatalogSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.stereotype.Component;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 基于data.json格式文件的目录数据源（基础设施层）.
+ *
+ * <p>目录可拆分为多个文件（{@code data-loader.locations}，支持通配符），各文件并行流式读取，
+ * 结果按配置顺序合并，同一代码出现在多个文件中时以靠后的文件为准.
+ *
+ * <p>并行的粒度是文件：单个文件始终由一个线程从头到尾读取，不会被切分.
+ * 大型目录需要拆分为多个文件才能并行加载.
+ */
+@Component
+public class FileCatalogSource implements CatalogSource {
+
+  private static final Logger logger = LoggerFactory.getLogger(FileCatalogSource.class);
+
+  private final CatalogReader catalogReader;
+  private final ResourcePatternResolver resourceResolver;
+  private final String[] locations;
+  private final int parallelism;
+
+  public FileCatalogSource(
+      ObjectMapper objectMapper,
+      ResourceLoader resourceLoader,
+      @Value("${data-loader.locations:classpath:static/data.json}") String[] locations,
+      @Value("${data-loader.parallelism:4}") int parallelism) {
+    this.catalogReader = new CatalogReader(objectMapper.getFactory());
+    this.resourceResolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
+    this.locations = locations;
+    this.parallelism = Math.max(1, parallelism);
+  }
+
+  @Override
+  public Contents read() {
+    try {
+      List<Resource> resources = resolve();
+      Contents merged = new Contents();
+      for (Contents part : readAll(resources)) {
+        merged.getProducts().addAll(part.getProducts());
+        merged.getPromotions().addAll(part.getPromotions());
+        merged.getRules().addAll(part.getRules());
+      }
+      return merged;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public String fingerprint() {
+    StringBuilder fingerprint = new StringBuilder();
+    try {
+      for (Resource resource : resolve()) {
+        fingerprint.append(resource.getDescription())
+            .append('@').append(lastModified(resource))
+            .append('/').append(resource.contentLength())
+            .append('\n');
+      }
+    } catch (IOException e) {
+      // 文件暂时不可读（如正在替换），以异常信息作为标识，恢复后标识变化会触发重新加载
+      fingerprint.append(e);
+    }
+    return fingerprint.toString();
+  }
+
+  /**
+   * 解析配置的文件位置，保持配置顺序.
+   *
+   * @return 目录文件
+   * @throws IOException 文件不存在
+   */
+  private List<Resource> resolve() throws IOException {
+    List<Resource> resources = new ArrayList<>();
+    for (String location : locations) {
+      Resource[] matched = resourceResolver.getResources(location.trim());
+      Arrays.sort(matched, (a, b) -> String.valueOf(a.getFilename())
+          .compareTo(String.valueOf(b.getFilename())));
+      for (Resource resource : matched) {
+        if (!resource.exists()) {
+          throw new FileNotFoundException("Catalog file not found: " + resource.getDescription());
+        }
+        resources.add(resource);
+      }
+    }
+    if (resources.isEmpty()) {
+      throw new FileNotFoundException("No catalog files match " + Arrays.toString(locations));
+    }
+    return resources;
+  }
+
+  /**
+   * 读取全部目录文件，多个文件时并行读取，结果按文件顺序返回.
+   *
+   * @param resources 目录文件
+   * @return 各文件内容
+   * @throws IOException 任一文件读取失败
+   */
+  private List<Contents> readAll(List<Resource> resources) throws IOException {
+    if (resources.size() == 1) {
+      return List.of(read(resources.get(0)));
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(
+        Math.min(parallelism, resources.size()));
+    try {
+      List<Future<Contents>> futures = new ArrayList<>(resources.size());
+      for (Resource resource : resources) {
+        futures.add(executor.submit(() -> read(resource)));
+      }
+      List<Contents> parts = new ArrayList<>(resources.size());
+      for (Future<Contents> future : futures) {
+        parts.add(future.get());
+      }
+      return parts;
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof IOException cause ? cause : new IOException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while reading catalog files", e);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private Contents read(Resource resource) throws IOException {
+    try (InputStream inputStream = resource.getInputStream()) {
+      Contents contents = catalogReader.read(inputStream);
+      logger.debug("Read {} products, {} promotions and {} rules from {}",
+          contents.getProducts().size(), contents.getPromotions().size(),
+          contents.getRules().size(), resource.getDescription());
+      return contents;
+    } catch (JsonProcessingException e) {
+      JsonLocation location = e.getLocation();
+      throw new IOException("Invalid catalog file " + resource.getDescription()
+          + (location == null ? "" : " at line " + location.getLineNr()
+              + ", column " + location.getColumnNr())
+          + ": " + e.getOriginalMessage(), e);
+    } catch (IOException e) {
+      throw new IOException(
+          "Failed to read catalog file " + resource.getDescription() + ": " + e.getMessage(), e);
+    }
+  }
+
+  private static long lastModified(Resource resource) {
+    try {
+      return resource.lastModified();
+    } catch (IOException e) {
+      return 0L; // jar内的资源没有修改时间
+    }
+  }
+}
@@ -0,0 +1,80 @@
+package com.yuki.server.infrastructure.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuki.server.infrastructure.admission.AdaptiveConcurrencyLimiter;
+import com.yuki.server.infrastructure.admission.AdmissionControlInterceptor;
+import com.yuki.server.infrastructure.admission.AdmissionControlInterceptor.EndpointClass;
+import com.yuki.server.infrastructure.admission.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 准入控制配置（基础设施层）.
+ *
+ * <p>在购物车和订单接口前注册 {@link AdmissionControlInterceptor}；
+ * {@code admission.enabled=false} 时不注册.
+ */
+@Configuration
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+  private final boolean enabled;
+  private final AdmissionControlInterceptor interceptor;
+
+  public AdmissionControlConfig(
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${admission.enabled:true}") boolean enabled,
+      @Value("${admission.rate-limit.max-keys:100000}") int maxKeys,
+      @Value("${admission.rate-limit.basket.rate:50}") double basketRate,
+      @Value("${admission.rate-limit.basket.burst:100}") int basketBurst,
+      @Value("${admission.rate-limit.checkout.rate:5}") double checkoutRate,
+      @Value("${admission.rate-limit.checkout.burst:10}") int checkoutBurst,
+      @Value("${admission.rate-limit.order.rate:20}") double orderRate,
+      @Value("${admission.rate-limit.order.burst:40}") int orderBurst,
+      @Value("${admission.checkout-concurrency.initial-limit:64}") int initialLimit,
+      @Value("${admission.checkout-concurrency.min-limit:8}") int minLimit,
+      @Value("${admission.checkout-concurrency.max-limit:256}") int maxLimit,
+      @Value("${admission.checkout-concurrency.target-latency:1s}") Duration targetLatency) {
+    this.enabled = enabled;
+    Map<EndpointClass, TokenBucketRateLimiter> rateLimiters = new EnumMap<>(EndpointClass.class);
+    rateLimiters.put(EndpointClass.BASKET,
+        new TokenBucketRateLimiter(basketRate, basketBurst, maxKeys, System::nanoTime));
+    rateLimiters.put(EndpointClass.CHECKOUT,
+        new TokenBucketRateLimiter(checkoutRate, checkoutBurst, maxKeys, System::nanoTime));
+    rateLimiters.put(EndpointClass.ORDER,
+        new TokenBucketRateLimiter(orderRate, orderBurst, maxKeys, System::nanoTime));
+    AdaptiveConcurrencyLimiter checkoutLimiter = new AdaptiveConcurrencyLimiter(
+        initialLimit, minLimit, maxLimit, targetLatency.toNanos(), System.nanoTime());
+    this.interceptor = new AdmissionControlInterceptor(
+        rateLimiters, checkoutLimiter, System::nanoTime, objectMapper, meterRegistry);
+
+    Gauge.builder("admission.checkout.limit", checkoutLimiter,
+            AdaptiveConcurrencyLimiter::getLimit)
+        .description("Current adaptive concurrency limit for checkout")
+        .register(meterRegistry);
+    Gauge.builder("admission.checkout.in-flight", checkoutLimiter,
+            AdaptiveConcurrencyLimiter::getInFlight)
+        .description("Checkout requests currently admitted")
+        .register(meterRegistry);
+    rateLimiters.forEach((endpoint, limiter) ->
+        Gauge.builder("admission.rate-limit.keys", limiter, TokenBucketRateLimiter::size)
+            .description("Keys tracked by the rate limiter")
+            .tag("endpoint", endpoint.name().toLowerCase())
+            .register(meterRegistry));
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    if (enabled) {
+      registry.addInterceptor(interceptor).addPathPatterns("/api/baskets/**", "/api/orders/**");
+    }
+  }
+}
@@ -1,94 +1,91 @@
 package com.yuki.server.infrastructure.config;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.yuki.server.application.repository.ProductRepository;
-import com.yuki.server.application.repository.PromotionRepository;
-import com.yuki.server.domain.model.Product;
-import com.yuki.server.domain.model.Promotion;
+import com.yuki.server.application.gateway.CatalogSource;
+import com.yuki.server.application.service.CatalogService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
 
-import java.io.InputStream;
-import java.math.BigDecimal;
-import java.util.List;
-import java.util.Map;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 数据加载器，从data.json加载产品数据和折扣码数据（基础设施层）.
+ *
+ * <p>启动时加载一次；开启 {@code data-loader.watch.enabled} 后在后台线程定期检查目录文件，
+ * 文件变化时重新加载，不占用请求线程.
  */
 @Component
-public class DataLoader implements CommandLineRunner {
+public class DataLoader implements CommandLineRunner, DisposableBean {
 
   private static final Logger logger = LoggerFactory.getLogger(DataLoader.class);
 
-  private final ProductRepository productRepository;
-  private final PromotionRepository promotionRepository;
-  private final ObjectMapper objectMapper;
+  private final CatalogService catalogService;
+  private final CatalogSource catalogSource;
+  private final boolean watchEnabled;
+  private final Duration watchInterval;
 
-  public DataLoader(ProductRepository productRepository, PromotionRepository promotionRepository, ObjectMapper objectMapper) {
-    this.productRepository = productRepository;
-    this.promotionRepository = promotionRepository;
-    this.objectMapper = objectMapper;
+  private ScheduledExecutorService watcher;
+  private String lastFingerprint;
+
+  public DataLoader(
+      CatalogService catalogService,
+      CatalogSource catalogSource,
+      @Value("${data-loader.watch.enabled:false}") boolean watchEnabled,
+      @Value("${data-loader.watch.interval:5s}") Duration watchInterval) {
+    this.catalogService = catalogService;
+    this.catalogSource = catalogSource;
+    this.watchEnabled = watchEnabled;
+    this.watchInterval = watchInterval;
   }
 
   @Override
   public void run(String... args) throws Exception {
+    // 加载前取标识，加载期间发生的修改会在下一次检查时被发现
+    lastFingerprint = catalogSource.fingerprint();
     try {
-      ClassPathResource resource = new ClassPathResource("static/data.json");
-      InputStream inputStream = resource.getInputStream();
-
-      Map<String, Object> data = objectMapper.readValue(inputStream, new TypeReference<Map<String, Object>>() {});
-
-      // 加载产品数据
-      List<Map<String, Object>> productsData = (List<Map<String, Object>>) data.get("products");
-      if (productsData != null) {
-        for (Map<String, Object> productData : productsData) {
-          String productCode = (String) productData.get("productCode");
-          String name = (String) productData.get("name");
-          Object priceObj = productData.get("fullPrice");
-          
-          BigDecimal fullPrice;
-          if (priceObj instanceof Number) {
-            fullPrice = BigDecimal.valueOf(((Number) priceObj).doubleValue());
-          } else {
-            fullPrice = new BigDecimal(priceObj.toString());
-          }
+      catalogService.reload();
+    } catch (Exception e) {
+      logger.error("Error loading data from catalog files", e);
+      throw e;
+    }
 
-          Product product = new Product(productCode, name, fullPrice);
-          productRepository.save(product);
-          logger.info("Loaded product: {} - {}", productCode, name);
-        }
-        logger.info("Successfully loaded {} products", productsData.size());
-      }
+    if (watchEnabled) {
+      watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "catalog-watch");
+        thread.setDaemon(true);
+        return thread;
+      });
+      long intervalMillis = Math.max(1, watchInterval.toMillis());
+      watcher.scheduleWithFixedDelay(
+          this::reloadIfChanged, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+      logger.info("Watching catalog files for changes every {}", watchInterval);
+    }
+  }
 
-      // 加载折扣码数据
-      List<Map<String, Object>> promotionsData = (List<Map<String, Object>>) data.get("promotions");
-      if (promotionsData != null) {
-        for (Map<String, Object> promotionData : promotionsData) {
-          String discountCode = (String) promotionData.get("discountCode");
-          Object percentObj = promotionData.get("discountPercent");
-          
-          BigDecimal discountPercent;
-          if (percentObj instanceof Number) {
-            discountPercent = BigDecimal.valueOf(((Number) percentObj).doubleValue());
-          } else {
-            discountPercent = new BigDecimal(percentObj.toString());
-          }
+  @Override
+  public void destroy() {
+    if (watcher != null) {
+      watcher.shutdownNow();
+    }
+  }
 
-          Promotion promotion = new Promotion(discountCode, discountPercent);
-          promotionRepository.save(promotion);
-          logger.info("Loaded promotion: {} - {}%", discountCode, discountPercent);
-        }
-        logger.info("Successfully loaded {} promotions", promotionsData.size());
+  private void reloadIfChanged() {
+    try {
+      String fingerprint = catalogSource.fingerprint();
+      if (fingerprint.equals(lastFingerprint)) {
+        return;
       }
-    } catch (Exception e) {
-      logger.error("Error loading data from data.json", e);
-      throw e;
+      // 无论成功与否都记下新标识：文件写了一半导致失败时，写完后标识会再次变化
+      lastFingerprint = fingerprint;
+      catalogService.reload();
+    } catch (RuntimeException e) {
+      logger.warn("Keeping the current catalog: {}", e.getMessage());
     }
   }
 }
-
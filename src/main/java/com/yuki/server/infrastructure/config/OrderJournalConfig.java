@@ -0,0 +1,27 @@
+package com.yuki.server.infrastructure.config;
+
+import com.yuki.server.infrastructure.store.OrderJournal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+/**
+ * 订单持久化日志配置（基础设施层）.
+ *
+ * <p>仅在 {@code order-journal.enabled=true} 时创建，未启用时订单只保存在内存中.
+ */
+@Configuration
+public class OrderJournalConfig {
+
+  @Bean(destroyMethod = "close")
+  @ConditionalOnProperty(name = "order-journal.enabled", havingValue = "true")
+  public OrderJournal orderJournal(
+      @Value("${order-journal.path:./data/orders.journal}") String path,
+      @Value("${order-journal.mode:GROUP_COMMIT}") OrderJournal.DurabilityMode mode,
+      @Value("${order-journal.flush-interval-ms:10}") long flushIntervalMillis) {
+    return OrderJournal.open(Path.of(path), mode, flushIntervalMillis);
+  }
+}
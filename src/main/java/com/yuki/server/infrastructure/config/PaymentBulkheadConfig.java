@@ -0,0 +1,66 @@
+package com.yuki.server.infrastructure.config;
+
+import com.yuki.server.infrastructure.payment.VirtualThreadBulkhead;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 支付调用隔离舱配置（基础设施层）.
+ *
+ * <p>支付授权只在固定大小的线程池中执行，等待队列有界，队列满时直接拒绝，
+ * 支付网关变慢时不会占满处理其余接口的请求线程. 启用虚拟线程时改为每个授权一个虚拟线程，
+ * 由信号量限制并发与等待数，上限与拒绝行为不变.
+ *
+ * <p>异步结账在授权完成后于单独的线程池中下单，隔离舱线程只用于等待支付网关.
+ *
+ * <p>两个线程池只按名称注入（defaultCandidate = false），不作为按类型查找的 Executor，
+ * 因此 Spring Boot 仍会创建默认的 applicationTaskExecutor.
+ */
+@Configuration
+public class PaymentBulkheadConfig {
+
+  @Bean(destroyMethod = "shutdownNow", defaultCandidate = false)
+  public ExecutorService paymentExecutor(
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+      @Value("${payment.bulkhead.max-concurrent:64}") int maxConcurrent,
+      @Value("${payment.bulkhead.queue-capacity:128}") int queueCapacity) {
+    if (virtualThreads) {
+      return new VirtualThreadBulkhead(maxConcurrent, queueCapacity, "payment-");
+    }
+    return new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), threadFactory("payment-"),
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  /**
+   * 异步结账在支付授权后关闭购物车并保存订单的线程池.
+   *
+   * <p>等待队列有界，队列满时拒绝下单（503）；此时购物车未关闭，授权未形成订单，客户端可重试.
+   */
+  @Bean(destroyMethod = "shutdown", defaultCandidate = false)
+  public ThreadPoolExecutor checkoutExecutor(
+      @Value("${payment.completion-threads:0}") int threads,
+      @Value("${payment.completion-queue-capacity:1024}") int queueCapacity) {
+    int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    return new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity), threadFactory("checkout-"),
+        new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  private static ThreadFactory threadFactory(String prefix) {
+    AtomicInteger sequence = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
@@ -0,0 +1,76 @@
+package com.yuki.server.infrastructure.config;
+
+import com.yuki.server.infrastructure.store.BasketStore;
+import com.yuki.server.infrastructure.store.DiscountAttemptStore;
+import com.yuki.server.infrastructure.store.IdempotencyStore;
+import com.yuki.server.infrastructure.store.OrderStore;
+import com.yuki.server.infrastructure.store.ProductStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 内存存储指标配置（基础设施层）.
+ *
+ * <p>大小和计数在抓取指标时才从存储读取，写入路径上没有额外开销.
+ */
+@Configuration
+public class StoreMetricsConfig {
+
+  @Bean
+  public MeterBinder storeMetrics(
+      BasketStore basketStore,
+      OrderStore orderStore,
+      ProductStore productStore,
+      IdempotencyStore idempotencyStore,
+      DiscountAttemptStore discountAttemptStore) {
+    return registry -> {
+      Gauge.builder("store.size", basketStore, BasketStore::size)
+          .description("Number of entries held in an in-memory store")
+          .tag("store", "basket")
+          .register(registry);
+      Gauge.builder("store.size", orderStore, OrderStore::size)
+          .description("Number of entries held in an in-memory store")
+          .tag("store", "order")
+          .register(registry);
+      Gauge.builder("store.size", productStore, store -> store.getCatalog().size())
+          .description("Number of entries held in an in-memory store")
+          .tag("store", "product")
+          .register(registry);
+      Gauge.builder("store.size", idempotencyStore, IdempotencyStore::size)
+          .description("Number of entries held in an in-memory store")
+          .tag("store", "idempotency")
+          .register(registry);
+      Gauge.builder("store.size", discountAttemptStore, DiscountAttemptStore::size)
+          .description("Number of entries held in an in-memory store")
+          .tag("store", "discount-attempt")
+          .register(registry);
+
+      FunctionCounter.builder("basket.removed", basketStore, BasketStore::getExpiredCount)
+          .description("Baskets removed without checkout")
+          .tag("reason", "expired")
+          .register(registry);
+      FunctionCounter.builder("basket.removed", basketStore, BasketStore::getEvictedCount)
+          .description("Baskets removed without checkout")
+          .tag("reason", "evicted")
+          .register(registry);
+
+      FunctionCounter.builder("idempotency.requests", idempotencyStore,
+              IdempotencyStore::getHitCount)
+          .description("Checkout requests carrying an idempotency key")
+          .tag("result", "hit")
+          .register(registry);
+      FunctionCounter.builder("idempotency.requests", idempotencyStore,
+              IdempotencyStore::getMissCount)
+          .description("Checkout requests carrying an idempotency key")
+          .tag("result", "miss")
+          .register(registry);
+      FunctionCounter.builder("idempotency.evicted", idempotencyStore,
+              IdempotencyStore::getEvictedCount)
+          .description("Idempotency results evicted by TTL or size limit")
+          .register(registry);
+    };
+  }
+}
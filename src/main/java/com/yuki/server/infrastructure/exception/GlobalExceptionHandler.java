@@ -1,8 +1,11 @@
 package com.yuki.server.infrastructure.exception;
 
 import com.yuki.server.application.dto.ErrorResponse;
+import com.yuki.server.domain.exception.AccessDeniedException;
+import com.yuki.server.domain.exception.CatalogReloadException;
 import com.yuki.server.domain.exception.InvalidRequestException;
 import com.yuki.server.domain.exception.PaymentException;
+import com.yuki.server.domain.exception.PaymentUnavailableException;
 import com.yuki.server.domain.exception.ResourceNotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,6 +13,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
+
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * 全局异常处理器（基础设施层）.
@@ -40,6 +46,50 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
   }
 
+  @ExceptionHandler(PaymentUnavailableException.class)
+  public ResponseEntity<ErrorResponse> handlePaymentUnavailableException(
+      PaymentUnavailableException ex) {
+    logger.error("Payment unavailable: {}", ex.getMessage());
+    ErrorResponse error = new ErrorResponse("PAYMENT_UNAVAILABLE", ex.getMessage());
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+  }
+
+  @ExceptionHandler(AccessDeniedException.class)
+  public ResponseEntity<ErrorResponse> handleAccessDeniedException(AccessDeniedException ex) {
+    logger.warn("Access denied: {}", ex.getMessage());
+    ErrorResponse error = new ErrorResponse("FORBIDDEN", ex.getMessage());
+    return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+  }
+
+  /**
+   * 目录文件有误或不可读，当前目录保持不变；属于服务端数据问题而非请求错误.
+   */
+  @ExceptionHandler(CatalogReloadException.class)
+  public ResponseEntity<ErrorResponse> handleCatalogReloadException(CatalogReloadException ex) {
+    logger.error("Catalog reload failed: {}", ex.getMessage());
+    ErrorResponse error = new ErrorResponse("CATALOG_RELOAD_FAILED", ex.getMessage());
+    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+  }
+
+  /**
+   * 隔离舱或结账线程池已满.
+   */
+  @ExceptionHandler(RejectedExecutionException.class)
+  public ResponseEntity<ErrorResponse> handleRejectedExecutionException(
+      RejectedExecutionException ex) {
+    logger.warn("Request rejected by a full executor: {}", ex.getMessage());
+    ErrorResponse error = new ErrorResponse("SERVICE_BUSY", "Service is busy, please retry later");
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+  }
+
+  /**
+   * 客户端已断开（如流式导出中途关闭连接），响应不可再写，无需返回错误体.
+   */
+  @ExceptionHandler(AsyncRequestNotUsableException.class)
+  public void handleAsyncRequestNotUsableException(AsyncRequestNotUsableException ex) {
+    logger.debug("Client disconnected: {}", ex.getMessage());
+  }
+
   @ExceptionHandler(Exception.class)
   public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
     logger.error("Unexpected error: ", ex);
@@ -0,0 +1,44 @@
+package com.yuki.server.infrastructure.payment;
+
+import com.yuki.server.application.gateway.PaymentGateway;
+import com.yuki.server.domain.exception.PaymentException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 本地支付网关替身（基础设施层）.
+ *
+ * <p>总是授权成功，按配置在 [latency-min, latency-max] 区间内随机阻塞，用于模拟真实网关延迟.
+ */
+@Component
+public class LocalPaymentGateway implements PaymentGateway {
+
+  private final long minLatencyNanos;
+  private final long maxLatencyNanos;
+
+  public LocalPaymentGateway(
+      @Value("${payment.gateway.latency-min:0ms}") Duration minLatency,
+      @Value("${payment.gateway.latency-max:0ms}") Duration maxLatency) {
+    this.minLatencyNanos = minLatency.toNanos();
+    this.maxLatencyNanos = Math.max(minLatencyNanos, maxLatency.toNanos());
+  }
+
+  @Override
+  public void authorize(String cardNumber, String expiryDate) {
+    long latency = maxLatencyNanos > minLatencyNanos
+        ? ThreadLocalRandom.current().nextLong(minLatencyNanos, maxLatencyNanos + 1)
+        : minLatencyNanos;
+    if (latency <= 0) {
+      return;
+    }
+    try {
+      Thread.sleep(Duration.ofNanos(latency));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new PaymentException("Payment authorization interrupted");
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package com.yuki.server.infrastructure.payment;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 以虚拟线程执行任务的隔离舱（基础设施层）.
+ *
+ * <p>每个任务一个虚拟线程，并发数由信号量限制，而不是由线程池大小限制：
+ * 同时执行的任务不超过 maxConcurrent，另有最多 queueCapacity 个任务在信号量上等待，
+ * 超出时立即以 {@link RejectedExecutionException} 拒绝，与有界队列的线程池行为一致.
+ * 等待中的任务只是挂起的虚拟线程，不占用平台线程.
+ */
+public class VirtualThreadBulkhead extends AbstractExecutorService {
+
+  private final ExecutorService delegate;
+  private final Semaphore admitted; // 执行中与等待中的任务
+  private final Semaphore running; // 执行中的任务
+
+  public VirtualThreadBulkhead(int maxConcurrent, int queueCapacity, String namePrefix) {
+    this.delegate = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name(namePrefix, 1).factory());
+    this.admitted = new Semaphore(maxConcurrent + queueCapacity);
+    this.running = new Semaphore(maxConcurrent);
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    if (!admitted.tryAcquire()) {
+      throw new RejectedExecutionException("Bulkhead is full");
+    }
+    try {
+      delegate.execute(() -> {
+        try {
+          running.acquire();
+        } catch (InterruptedException e) {
+          // 等待期间被取消
+          admitted.release();
+          Thread.currentThread().interrupt();
+          return;
+        }
+        try {
+          command.run();
+        } finally {
+          running.release();
+          admitted.release();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      admitted.release();
+      throw e;
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    return delegate.shutdownNow();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return delegate.isShutdown();
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return delegate.isTerminated();
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return delegate.awaitTermination(timeout, unit);
+  }
+}
@@ -5,6 +5,8 @@ import com.yuki.server.domain.model.Basket;
 import com.yuki.server.infrastructure.store.BasketStore;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * 购物车仓储实现（基础设施层）.
  */
@@ -32,6 +34,11 @@ public class BasketRepositoryImpl implements BasketRepository {
     return basketStore.findByCustomerId(customerId);
   }
 
+  @Override
+  public List<Basket> findAllByCustomerId(String customerId) {
+    return basketStore.findAllByCustomerId(customerId);
+  }
+
   @Override
   public void delete(String basketId) {
     basketStore.delete(basketId);
@@ -0,0 +1,28 @@
+package com.yuki.server.infrastructure.repository;
+
+import com.yuki.server.application.repository.DiscountAttemptRepository;
+import com.yuki.server.infrastructure.store.DiscountAttemptStore;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 无效折扣码尝试计数仓储实现（基础设施层）.
+ */
+@Repository
+public class DiscountAttemptRepositoryImpl implements DiscountAttemptRepository {
+
+  private final DiscountAttemptStore discountAttemptStore;
+
+  public DiscountAttemptRepositoryImpl(DiscountAttemptStore discountAttemptStore) {
+    this.discountAttemptStore = discountAttemptStore;
+  }
+
+  @Override
+  public long retryAfterMillis(String key) {
+    return discountAttemptStore.retryAfterMillis(key);
+  }
+
+  @Override
+  public void recordFailure(String key) {
+    discountAttemptStore.recordFailure(key);
+  }
+}
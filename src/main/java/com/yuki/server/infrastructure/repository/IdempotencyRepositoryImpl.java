@@ -0,0 +1,32 @@
+package com.yuki.server.infrastructure.repository;
+
+import com.yuki.server.application.dto.OrderResponse;
+import com.yuki.server.application.repository.IdempotencyRepository;
+import com.yuki.server.infrastructure.store.IdempotencyStore;
+import org.springframework.stereotype.Repository;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 结账幂等结果仓储实现（基础设施层）.
+ */
+@Repository
+public class IdempotencyRepositoryImpl implements IdempotencyRepository {
+
+  private final IdempotencyStore idempotencyStore;
+
+  public IdempotencyRepositoryImpl(IdempotencyStore idempotencyStore) {
+    this.idempotencyStore = idempotencyStore;
+  }
+
+  @Override
+  public CompletableFuture<OrderResponse> putIfAbsent(
+      String key, CompletableFuture<OrderResponse> result) {
+    return idempotencyStore.putIfAbsent(key, result);
+  }
+
+  @Override
+  public void remove(String key, CompletableFuture<OrderResponse> result) {
+    idempotencyStore.remove(key, result);
+  }
+}
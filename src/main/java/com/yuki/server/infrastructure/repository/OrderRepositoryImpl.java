@@ -1,11 +1,15 @@
 package com.yuki.server.infrastructure.repository;
 
+import com.yuki.server.application.repository.OrderCursor;
 import com.yuki.server.application.repository.OrderRepository;
 import com.yuki.server.domain.model.Order;
+import com.yuki.server.infrastructure.store.OrderRollupStore;
 import com.yuki.server.infrastructure.store.OrderStore;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * 订单仓储实现（基础设施层）.
@@ -15,13 +19,19 @@ public class OrderRepositoryImpl implements OrderRepository {
 
   private final OrderStore orderStore;
 
-  public OrderRepositoryImpl(OrderStore orderStore) {
+  private final OrderRollupStore rollupStore;
+
+  public OrderRepositoryImpl(OrderStore orderStore, OrderRollupStore rollupStore) {
     this.orderStore = orderStore;
+    this.rollupStore = rollupStore;
   }
 
   @Override
   public void save(Order order) {
-    orderStore.save(order);
+    // 汇总只计入首次保存，重复保存同一订单不重复计数
+    if (orderStore.save(order) == null) {
+      rollupStore.record(order);
+    }
   }
 
   @Override
@@ -38,5 +48,15 @@ public class OrderRepositoryImpl implements OrderRepository {
   public List<Order> findByCustomerId(String customerId) {
     return orderStore.findByCustomerId(customerId);
   }
-}
 
+  @Override
+  public List<Order> findPage(
+      String customerId, LocalDateTime from, LocalDateTime to, OrderCursor after, int limit) {
+    return orderStore.findPage(customerId, from, to, after, limit);
+  }
+
+  @Override
+  public Stream<Order> stream(String customerId, LocalDateTime from, LocalDateTime to) {
+    return orderStore.stream(customerId, from, to);
+  }
+}
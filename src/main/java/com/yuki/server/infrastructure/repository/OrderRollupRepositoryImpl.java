@@ -0,0 +1,47 @@
+package com.yuki.server.infrastructure.repository;
+
+import com.yuki.server.application.repository.OrderRollupRepository;
+import com.yuki.server.domain.model.OrderTotals;
+import com.yuki.server.infrastructure.store.OrderRollupStore;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.NavigableMap;
+
+/**
+ * 订单汇总仓储实现（基础设施层）.
+ */
+@Repository
+public class OrderRollupRepositoryImpl implements OrderRollupRepository {
+
+  private final OrderRollupStore rollupStore;
+
+  public OrderRollupRepositoryImpl(OrderRollupStore rollupStore) {
+    this.rollupStore = rollupStore;
+  }
+
+  @Override
+  public OrderTotals getTotals() {
+    return rollupStore.getTotals();
+  }
+
+  @Override
+  public OrderTotals getCustomerTotals(String customerId) {
+    return rollupStore.getCustomerTotals(customerId);
+  }
+
+  @Override
+  public OrderTotals getDiscountTotals(String discountCode) {
+    return rollupStore.getDiscountTotals(discountCode);
+  }
+
+  @Override
+  public NavigableMap<LocalDateTime, OrderTotals> getMinuteTotals(LocalDateTime until, int minutes) {
+    return rollupStore.getMinuteTotals(until, minutes);
+  }
+
+  @Override
+  public int getWindowMinutes() {
+    return rollupStore.getWindowMinutes();
+  }
+}
@@ -2,9 +2,14 @@ package com.yuki.server.infrastructure.repository;
 
 import com.yuki.server.application.repository.ProductRepository;
 import com.yuki.server.domain.model.Product;
+import com.yuki.server.domain.model.ProductCatalog;
+import com.yuki.server.domain.model.Promotion;
+import com.yuki.server.domain.model.PromotionRule;
 import com.yuki.server.infrastructure.store.ProductStore;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -24,6 +29,11 @@ public class ProductRepositoryImpl implements ProductRepository {
     productStore.save(product);
   }
 
+  @Override
+  public void saveAll(Collection<Product> products) {
+    productStore.saveAll(products);
+  }
+
   @Override
   public Product findByCode(String productCode) {
     return productStore.findByCode(productCode);
@@ -33,5 +43,15 @@ public class ProductRepositoryImpl implements ProductRepository {
   public Map<String, Product> findAll() {
     return productStore.findAll();
   }
-}
 
+  @Override
+  public ProductCatalog getCatalog() {
+    return productStore.getCatalog();
+  }
+
+  @Override
+  public ProductCatalog replace(Map<String, Product> products, Map<String, Promotion> promotions,
+      List<PromotionRule> rules) {
+    return productStore.replace(products, promotions, rules);
+  }
+}
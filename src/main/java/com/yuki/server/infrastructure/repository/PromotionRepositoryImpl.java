@@ -5,6 +5,8 @@ import com.yuki.server.domain.model.Promotion;
 import com.yuki.server.infrastructure.store.PromotionStore;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+
 /**
  * 促销仓储实现（基础设施层）.
  */
@@ -22,6 +24,11 @@ public class PromotionRepositoryImpl implements PromotionRepository {
     promotionStore.save(promotion);
   }
 
+  @Override
+  public void saveAll(Collection<Promotion> promotions) {
+    promotionStore.saveAll(promotions);
+  }
+
   @Override
   public Promotion findByCode(String discountCode) {
     return promotionStore.findByCode(discountCode);
@@ -31,5 +38,9 @@ public class PromotionRepositoryImpl implements PromotionRepository {
   public boolean isValid(String discountCode) {
     return promotionStore.isValid(discountCode);
   }
-}
 
+  @Override
+  public long getVersion() {
+    return promotionStore.getVersion();
+  }
+}
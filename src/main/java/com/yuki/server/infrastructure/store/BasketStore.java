@@ -1,35 +1,373 @@
 package com.yuki.server.infrastructure.store;
 
 import com.yuki.server.domain.model.Basket;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 购物车数据存储（基础设施层）.
+ *
+ * <p>除主表外维护 customerId → basketId 的二级索引，按客户查询无需扫描全部购物车.
+ * 索引的增删在主表对应 key 的 compute 中完成，保证并发创建、结账、删除时两者一致.
+ *
+ * <p>配置空闲过期时间后，购物车在 {@link #save}/{@link #findById} 时记录访问时间，
+ * 由后台线程按时间轮逐槽检查到期的购物车；读取时也会立即排除已过期的购物车.
+ * 超过最大数量时按近似最久未使用的顺序淘汰（second chance）：购物车按创建顺序排队，
+ * 淘汰时队头的购物车若在入队后被访问过，则移到队尾并跳过一次. 访问只更新时间戳，不移动队列，
+ * 淘汰与时间轮无关，未配置空闲过期时同样生效.
  */
 @Component
 public class BasketStore {
-  private final Map<String, Basket> baskets = new ConcurrentHashMap<>();
+  private static final Logger logger = LoggerFactory.getLogger(BasketStore.class);
+  private static final int WHEEL_SLOTS = 512;
+
+  private final Map<String, Entry> baskets = new ConcurrentHashMap<>();
+  // customerId -> 该客户的购物车ID（按创建顺序，不可变列表，写时复制）
+  private final Map<String, List<String>> customerIndex = new ConcurrentHashMap<>();
+
+  private final Clock clock;
+  private final long idleTtlMillis; // <= 0 表示不过期
+  private final int maxBaskets; // <= 0 表示不限制
+  private final TimingWheel<String> wheel;
+  private final ScheduledExecutorService sweeper;
+  private final ReentrantLock evictionLock = new ReentrantLock();
+  // 按入队顺序排列，可能包含已被移除或替换的条目，出队时跳过；仅在限制数量时使用
+  private final Queue<Entry> evictionQueue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger evictionQueueSize = new AtomicInteger();
+  private volatile long currentTick;
+
+  private final LongAdder expiredCount = new LongAdder();
+  private final LongAdder evictedCount = new LongAdder();
+
+  public BasketStore() {
+    this(Clock.systemUTC(), Duration.ZERO, 0, Duration.ofSeconds(1));
+  }
+
+  @Autowired
+  public BasketStore(
+      Clock clock,
+      @Value("${basket.idle-ttl:30m}") Duration idleTtl,
+      @Value("${basket.max-count:0}") int maxBaskets,
+      @Value("${basket.expiry-tick:1s}") Duration expiryTick) {
+    this.clock = clock;
+    this.idleTtlMillis = idleTtl.toMillis();
+    this.maxBaskets = maxBaskets;
+    if (idleTtlMillis <= 0) {
+      this.wheel = null;
+      this.sweeper = null;
+      return;
+    }
+
+    this.wheel = new TimingWheel<>(WHEEL_SLOTS, Math.max(1, expiryTick.toMillis()));
+    this.currentTick = wheel.tickOf(clock.millis());
+    this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "basket-expiry");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long tickMillis = Math.max(1, expiryTick.toMillis());
+    sweeper.scheduleWithFixedDelay(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+  }
 
   public void save(Basket basket) {
-    baskets.put(basket.getBasketId(), basket);
+    long now = clock.millis();
+    boolean[] created = new boolean[1];
+    Entry saved = baskets.compute(basket.getBasketId(), (basketId, existing) -> {
+      if (existing != null && existing.basket == basket) {
+        existing.touch(now);
+        return existing;
+      }
+      if (existing == null) {
+        indexAdd(basket.getCustomerId(), basketId);
+        created[0] = true;
+      }
+      return new Entry(basket, now);
+    });
+
+    if (wheel != null && created[0]) {
+      wheel.schedule(basket.getBasketId(), scheduleTick(now + idleTtlMillis));
+    }
+    if (maxBaskets > 0 && saved.enqueued.compareAndSet(false, true)) {
+      saved.queuedAt = saved.lastAccess;
+      evictionQueue.add(saved);
+      evictionQueueSize.incrementAndGet();
+      evictOverflow();
+      if (sweeper == null) {
+        // 没有后台线程时由写入线程清理，仅在失效条目累积到阈值后执行，均摊开销为常数
+        compactEvictionQueue();
+      }
+    }
   }
 
   public Basket findById(String basketId) {
-    return baskets.get(basketId);
+    Entry entry = baskets.get(basketId);
+    if (entry == null) {
+      return null;
+    }
+    long now = clock.millis();
+    if (isExpired(entry, now)) {
+      removeIfExpired(basketId, now);
+      return null;
+    }
+    entry.touch(now);
+    return entry.basket;
   }
 
   public Basket findByCustomerId(String customerId) {
-    return baskets.values().stream()
-        .filter(basket -> basket.getCustomerId().equals(customerId))
-        .findFirst()
-        .orElse(null);
+    List<String> basketIds = customerIndex.get(customerId);
+    if (basketIds == null) {
+      return null;
+    }
+    long now = clock.millis();
+    for (String basketId : basketIds) {
+      Entry entry = baskets.get(basketId);
+      if (entry != null && !isExpired(entry, now)) {
+        return entry.basket;
+      }
+    }
+    return null;
+  }
+
+  public List<Basket> findAllByCustomerId(String customerId) {
+    List<String> basketIds = customerIndex.get(customerId);
+    if (basketIds == null) {
+      return Collections.emptyList();
+    }
+    long now = clock.millis();
+    List<Basket> result = new ArrayList<>(basketIds.size());
+    for (String basketId : basketIds) {
+      Entry entry = baskets.get(basketId);
+      if (entry != null && !isExpired(entry, now)) {
+        result.add(entry.basket);
+      }
+    }
+    return result;
   }
 
   public void delete(String basketId) {
-    baskets.remove(basketId);
+    baskets.computeIfPresent(basketId, (id, existing) -> {
+      indexRemove(existing.basket.getCustomerId(), id);
+      return null;
+    });
+  }
+
+  public int size() {
+    return baskets.size();
+  }
+
+  /**
+   * 因空闲超时被清理的购物车数量.
+   *
+   * @return 数量
+   */
+  public long getExpiredCount() {
+    return expiredCount.sum();
+  }
+
+  /**
+   * 因超过最大数量被淘汰的购物车数量.
+   *
+   * @return 数量
+   */
+  public long getEvictedCount() {
+    return evictedCount.sum();
+  }
+
+  @PreDestroy
+  public void close() {
+    if (sweeper != null) {
+      sweeper.shutdownNow();
+    }
+  }
+
+  /**
+   * 推进时间轮，处理到期槽中的购物车.
+   */
+  private void advance() {
+    try {
+      long now = clock.millis();
+      long targetTick = wheel.tickOf(now);
+      while (currentTick <= targetTick) {
+        for (String basketId : wheel.drain(currentTick)) {
+          expireOrReschedule(basketId, now);
+        }
+        currentTick++;
+      }
+      if (maxBaskets > 0) {
+        compactEvictionQueue();
+      }
+    } catch (RuntimeException e) {
+      logger.error("Basket expiry sweep failed", e);
+    }
   }
-}
 
+  private void expireOrReschedule(String basketId, long now) {
+    Entry entry = baskets.get(basketId);
+    if (entry == null) {
+      return; // 已结账或删除
+    }
+    long deadline = entry.lastAccess + idleTtlMillis;
+    if (deadline <= now) {
+      removeIfExpired(basketId, now);
+    } else {
+      wheel.schedule(basketId, scheduleTick(deadline));
+    }
+  }
+
+  /**
+   * 从队头移除已不在存储中的条目，超过上限时淘汰入队后未被访问的最早的购物车；
+   * 同一时间只有一个线程执行. 被访问过的购物车移到队尾，每次调用最多移动队列长度次，
+   * 开销均摊到访问与淘汰上.
+   */
+  private void evictOverflow() {
+    if (!evictionLock.tryLock()) {
+      return; // 其他线程正在淘汰
+    }
+    try {
+      int requeues = evictionQueueSize.get();
+      Entry head;
+      while ((head = evictionQueue.peek()) != null) {
+        String basketId = head.basket.getBasketId();
+        boolean current = baskets.get(basketId) == head;
+        if (current && baskets.size() <= maxBaskets) {
+          break;
+        }
+        evictionQueue.poll();
+        if (current && head.lastAccess > head.queuedAt && requeues-- > 0) {
+          head.queuedAt = head.lastAccess;
+          evictionQueue.add(head);
+          continue;
+        }
+        evictionQueueSize.decrementAndGet();
+        if (current && remove(basketId, head)) {
+          evictedCount.increment();
+        }
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  /**
+   * 队头的购物车仍然存在时，其后已结账或过期的条目不会出队；
+   * 这类条目超过存储大小时由后台线程整体清理一次.
+   */
+  private void compactEvictionQueue() {
+    if (evictionQueueSize.get() <= 2 * baskets.size() + WHEEL_SLOTS || !evictionLock.tryLock()) {
+      return;
+    }
+    try {
+      evictionQueue.removeIf(entry -> {
+        boolean stale = baskets.get(entry.basket.getBasketId()) != entry;
+        if (stale) {
+          evictionQueueSize.decrementAndGet();
+        }
+        return stale;
+      });
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private boolean isExpired(Entry entry, long now) {
+    return idleTtlMillis > 0 && now - entry.lastAccess >= idleTtlMillis;
+  }
+
+  private void removeIfExpired(String basketId, long now) {
+    boolean[] removed = new boolean[1];
+    baskets.computeIfPresent(basketId, (id, existing) -> {
+      if (!isExpired(existing, now)) {
+        return existing;
+      }
+      indexRemove(existing.basket.getCustomerId(), id);
+      removed[0] = true;
+      return null;
+    });
+    if (removed[0]) {
+      expiredCount.increment();
+    }
+  }
+
+  private boolean remove(String basketId, Entry expected) {
+    boolean[] removed = new boolean[1];
+    baskets.computeIfPresent(basketId, (id, existing) -> {
+      if (existing != expected) {
+        return existing;
+      }
+      indexRemove(existing.basket.getCustomerId(), id);
+      removed[0] = true;
+      return null;
+    });
+    return removed[0];
+  }
+
+  private long scheduleTick(long deadlineMillis) {
+    // 不早于下一个待处理的刻度，避免落入已处理过的槽
+    return Math.max(wheel.tickOf(deadlineMillis), currentTick + 1);
+  }
+
+  private void indexAdd(String customerId, String basketId) {
+    customerIndex.compute(customerId, (key, ids) -> {
+      if (ids == null) {
+        return List.of(basketId);
+      }
+      List<String> updated = new ArrayList<>(ids.size() + 1);
+      updated.addAll(ids);
+      updated.add(basketId);
+      return Collections.unmodifiableList(updated);
+    });
+  }
+
+  private void indexRemove(String customerId, String basketId) {
+    customerIndex.computeIfPresent(customerId, (key, ids) -> {
+      if (ids.size() == 1) {
+        return ids.get(0).equals(basketId) ? null : ids;
+      }
+      List<String> updated = new ArrayList<>(ids);
+      updated.remove(basketId);
+      return Collections.unmodifiableList(updated);
+    });
+  }
+
+  /**
+   * 购物车及其最近访问时间.
+   */
+  private static final class Entry {
+    private final Basket basket;
+    private final AtomicBoolean enqueued = new AtomicBoolean();
+    private volatile long lastAccess;
+    private volatile long queuedAt; // 最近一次进入淘汰队列时的访问时间
+
+    private Entry(Basket basket, long lastAccess) {
+      this.basket = basket;
+      this.lastAccess = lastAccess;
+    }
+
+    private void touch(long now) {
+      if (lastAccess != now) {
+        lastAccess = now;
+      }
+    }
+  }
+}
@@ -0,0 +1,522 @@
+package com.yuki.server.infrastructure.store;
+
+import com.yuki.server.application.repository.OrderCursor;
+import com.yuki.server.domain.model.Order;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 按列存放在堆外内存中的订单（基础设施层）.
+ *
+ * <p>订单按写入顺序编为行号，每 {@value #SEGMENT_ROWS} 行一个直接内存段，段内按列存放：
+ * 订单ID为两个long（UUID的128位），金额为未缩放的long加一个字节的小数位数，
+ * 创建时间为纪元纳秒，客户ID和折扣码为字典编号. 每个订单在堆外占 {@value #ROW_BYTES} 字节，
+ * 堆上只有每个客户/折扣码一份的字典和以行号表示的索引（int数组），垃圾回收无需逐个扫描订单.
+ * 读取时才构造 {@link Order}.
+ *
+ * <p>不是规范UUID格式的订单ID保存在堆上的列表中，行内只记录其下标.
+ * 重复保存同一订单ID时新行替换旧行，旧行从索引中移除但仍占用堆外空间.
+ * 写入持有写锁，读取持有读锁；流式遍历按页加读锁，与 {@link HeapOrderTable} 一样是弱一致的.
+ */
+public class CompactOrderTable implements OrderTable {
+
+  private static final int SEGMENT_SHIFT = 16;
+  static final int SEGMENT_ROWS = 1 << SEGMENT_SHIFT;
+  private static final int SEGMENT_MASK = SEGMENT_ROWS - 1;
+
+  // 段内各列的起始偏移（字节）
+  private static final int ID_HIGH = 0;
+  private static final int ID_LOW = ID_HIGH + Long.BYTES * SEGMENT_ROWS;
+  private static final int CREATED_AT = ID_LOW + Long.BYTES * SEGMENT_ROWS;
+  private static final int AMOUNT = CREATED_AT + Long.BYTES * SEGMENT_ROWS;
+  private static final int CUSTOMER = AMOUNT + Long.BYTES * SEGMENT_ROWS;
+  private static final int DISCOUNT = CUSTOMER + Integer.BYTES * SEGMENT_ROWS;
+  private static final int SCALE = DISCOUNT + Integer.BYTES * SEGMENT_ROWS;
+  private static final int FLAGS = SCALE + SEGMENT_ROWS;
+  private static final int SEGMENT_BYTES = FLAGS + SEGMENT_ROWS;
+  static final int ROW_BYTES = SEGMENT_BYTES / SEGMENT_ROWS;
+
+  private static final byte FLAG_OTHER_ID = 1; // 订单ID不是UUID，ID_LOW为其在otherIds中的下标
+  private static final int NO_DISCOUNT = -1;
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+  private static final int STREAM_PAGE_SIZE = 256;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private ByteBuffer[] segments = new ByteBuffer[16];
+  private int rows;
+
+  private final Dictionary customers = new Dictionary();
+  private final Dictionary discountCodes = new Dictionary();
+  private final List<String> otherIds = new ArrayList<>();
+
+  private int[] idTable = new int[1024]; // 开放寻址，存放行号+1，0为空
+  private int idCount;
+  private final RowList timeIndex = new RowList();
+  private RowList[] customerIndex = new RowList[16];
+
+  @Override
+  public Order put(Order order) {
+    long createdAt;
+    long amount;
+    try {
+      createdAt = epochNanos(order.getCreatedAt());
+      amount = order.getTotalPrice().unscaledValue().longValueExact();
+    } catch (ArithmeticException e) {
+      throw new IllegalArgumentException(
+          "Order cannot be stored in compact layout: " + order.getOrderId(), e);
+    }
+    int scale = order.getTotalPrice().scale();
+    if (scale < Byte.MIN_VALUE || scale > Byte.MAX_VALUE) {
+      throw new IllegalArgumentException(
+          "Order cannot be stored in compact layout: " + order.getOrderId());
+    }
+    UUID uuid = parseUuid(order.getOrderId());
+
+    lock.writeLock().lock();
+    try {
+      int previous = findRow(uuid, order.getOrderId());
+      Order replaced = previous < 0 ? null : materialize(previous);
+      int row = rows;
+      ByteBuffer segment = segmentForWrite(row);
+      int index = row & SEGMENT_MASK;
+      if (uuid != null) {
+        segment.putLong(ID_HIGH + index * Long.BYTES, uuid.getMostSignificantBits());
+        segment.putLong(ID_LOW + index * Long.BYTES, uuid.getLeastSignificantBits());
+        segment.put(FLAGS + index, (byte) 0);
+      } else {
+        segment.putLong(ID_LOW + index * Long.BYTES, otherIds.size());
+        segment.put(FLAGS + index, FLAG_OTHER_ID);
+        otherIds.add(order.getOrderId());
+      }
+      segment.putLong(CREATED_AT + index * Long.BYTES, createdAt);
+      segment.putLong(AMOUNT + index * Long.BYTES, amount);
+      segment.put(SCALE + index, (byte) scale);
+      int customer = customers.encode(order.getCustomerId());
+      segment.putInt(CUSTOMER + index * Integer.BYTES, customer);
+      segment.putInt(DISCOUNT + index * Integer.BYTES, order.getDiscountCode() == null
+          ? NO_DISCOUNT
+          : discountCodes.encode(order.getDiscountCode()));
+      rows++;
+
+      indexId(row, uuid, order.getOrderId());
+      if (previous >= 0) {
+        remove(timeIndex, previous, uuid, order.getOrderId());
+        remove(customerIndex[customerOf(previous)], previous, uuid, order.getOrderId());
+      }
+      insert(timeIndex, row, createdAt, uuid, order.getOrderId());
+      insert(customerRows(customer), row, createdAt, uuid, order.getOrderId());
+      return replaced;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public Order findById(String orderId) {
+    UUID uuid = parseUuid(orderId);
+    lock.readLock().lock();
+    try {
+      int row = findRow(uuid, orderId);
+      return row < 0 ? null : materialize(row);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public List<Order> findAll() {
+    lock.readLock().lock();
+    try {
+      return materialize(timeIndex, 0, timeIndex.size);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public List<Order> findByCustomerId(String customerId) {
+    lock.readLock().lock();
+    try {
+      RowList index = customerIndex(customerId);
+      return index == null ? Collections.emptyList() : materialize(index, 0, index.size);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public List<Order> findPage(
+      String customerId, LocalDateTime from, LocalDateTime to, OrderCursor after, int limit) {
+    lock.readLock().lock();
+    try {
+      RowList index = customerId == null ? timeIndex : customerIndex(customerId);
+      if (index == null) {
+        return Collections.emptyList();
+      }
+      // 下界取 after（不含）与 from（含）中较大者，上界为 to（不含）
+      int start = after == null ? 0 : search(index, after, true);
+      if (from != null) {
+        start = Math.max(start, search(index, boundNanos(from), null, "", false));
+      }
+      int end = to == null ? index.size : search(index, boundNanos(to), null, "", false);
+      return materialize(index, start, Math.min(end, start + Math.max(0, limit)));
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * 按创建时间升序惰性遍历订单，每次按游标取一页.
+   */
+  @Override
+  public Stream<Order> stream(String customerId, LocalDateTime from, LocalDateTime to) {
+    Iterator<Order> pages = new Iterator<>() {
+      private List<Order> page = Collections.emptyList();
+      private int position;
+      private OrderCursor after;
+      private boolean exhausted;
+
+      @Override
+      public boolean hasNext() {
+        if (position < page.size()) {
+          return true;
+        }
+        if (exhausted) {
+          return false;
+        }
+        page = findPage(customerId, from, to, after, STREAM_PAGE_SIZE);
+        position = 0;
+        exhausted = page.size() < STREAM_PAGE_SIZE;
+        if (page.isEmpty()) {
+          return false;
+        }
+        Order last = page.get(page.size() - 1);
+        after = new OrderCursor(last.getCreatedAt(), last.getOrderId());
+        return true;
+      }
+
+      @Override
+      public Order next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return page.get(position++);
+      }
+    };
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+        pages, Spliterator.ORDERED | Spliterator.NONNULL), false);
+  }
+
+  @Override
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return idCount;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private ByteBuffer segmentForWrite(int row) {
+    int segment = row >>> SEGMENT_SHIFT;
+    if (segment == segments.length) {
+      segments = Arrays.copyOf(segments, segments.length * 2);
+    }
+    if (segments[segment] == null) {
+      segments[segment] = ByteBuffer.allocateDirect(SEGMENT_BYTES).order(ByteOrder.nativeOrder());
+    }
+    return segments[segment];
+  }
+
+  private RowList customerRows(int customer) {
+    if (customer == customerIndex.length) {
+      customerIndex = Arrays.copyOf(customerIndex, customerIndex.length * 2);
+    }
+    RowList index = customerIndex[customer];
+    if (index == null) {
+      index = new RowList();
+      customerIndex[customer] = index;
+    }
+    return index;
+  }
+
+  private RowList customerIndex(String customerId) {
+    int customer = customers.find(customerId);
+    return customer < 0 ? null : customerIndex[customer];
+  }
+
+  private Order materialize(int row) {
+    ByteBuffer segment = segments[row >>> SEGMENT_SHIFT];
+    int index = row & SEGMENT_MASK;
+    int discount = segment.getInt(DISCOUNT + index * Integer.BYTES);
+    return new Order(
+        orderId(row),
+        customers.decode(segment.getInt(CUSTOMER + index * Integer.BYTES)),
+        BigDecimal.valueOf(segment.getLong(AMOUNT + index * Long.BYTES), segment.get(SCALE + index)),
+        timeOf(segment.getLong(CREATED_AT + index * Long.BYTES)),
+        discount == NO_DISCOUNT ? null : discountCodes.decode(discount));
+  }
+
+  private List<Order> materialize(RowList index, int start, int end) {
+    if (start >= end) {
+      return Collections.emptyList();
+    }
+    List<Order> orders = new ArrayList<>(end - start);
+    for (int i = start; i < end; i++) {
+      orders.add(materialize(index.rows[i]));
+    }
+    return orders;
+  }
+
+  private String orderId(int row) {
+    ByteBuffer segment = segments[row >>> SEGMENT_SHIFT];
+    int index = row & SEGMENT_MASK;
+    long low = segment.getLong(ID_LOW + index * Long.BYTES);
+    if (segment.get(FLAGS + index) == FLAG_OTHER_ID) {
+      return otherIds.get((int) low);
+    }
+    return new UUID(segment.getLong(ID_HIGH + index * Long.BYTES), low).toString();
+  }
+
+  private long createdAt(int row) {
+    return segments[row >>> SEGMENT_SHIFT].getLong(CREATED_AT + (row & SEGMENT_MASK) * Long.BYTES);
+  }
+
+  private int customerOf(int row) {
+    return segments[row >>> SEGMENT_SHIFT].getInt(CUSTOMER + (row & SEGMENT_MASK) * Integer.BYTES);
+  }
+
+  // ---- 订单ID索引 ----
+
+  private int findRow(UUID uuid, String orderId) {
+    int mask = idTable.length - 1;
+    for (int slot = idHash(uuid, orderId) & mask; idTable[slot] != 0; slot = (slot + 1) & mask) {
+      int row = idTable[slot] - 1;
+      if (sameId(row, uuid, orderId)) {
+        return row;
+      }
+    }
+    return -1;
+  }
+
+  private void indexId(int row, UUID uuid, String orderId) {
+    int mask = idTable.length - 1;
+    int slot = idHash(uuid, orderId) & mask;
+    for (; idTable[slot] != 0; slot = (slot + 1) & mask) {
+      if (sameId(idTable[slot] - 1, uuid, orderId)) {
+        idTable[slot] = row + 1; // 重复的订单ID指向最新一行
+        return;
+      }
+    }
+    idTable[slot] = row + 1;
+    if (++idCount * 2 > idTable.length) {
+      rehash();
+    }
+  }
+
+  private void rehash() {
+    int[] previous = idTable;
+    idTable = new int[previous.length * 2];
+    int mask = idTable.length - 1;
+    for (int entry : previous) {
+      if (entry != 0) {
+        String orderId = orderId(entry - 1);
+        int slot = idHash(parseUuid(orderId), orderId) & mask;
+        while (idTable[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        idTable[slot] = entry;
+      }
+    }
+  }
+
+  private boolean sameId(int row, UUID uuid, String orderId) {
+    ByteBuffer segment = segments[row >>> SEGMENT_SHIFT];
+    int index = row & SEGMENT_MASK;
+    long low = segment.getLong(ID_LOW + index * Long.BYTES);
+    if (segment.get(FLAGS + index) == FLAG_OTHER_ID) {
+      return uuid == null && otherIds.get((int) low).equals(orderId);
+    }
+    return uuid != null
+        && low == uuid.getLeastSignificantBits()
+        && segment.getLong(ID_HIGH + index * Long.BYTES) == uuid.getMostSignificantBits();
+  }
+
+  private static int idHash(UUID uuid, String orderId) {
+    int hash = uuid != null ? uuid.hashCode() : orderId.hashCode();
+    return hash ^ (hash >>> 16);
+  }
+
+  /**
+   * 仅接受规范的小写UUID字符串，保证还原后与原订单ID相同.
+   */
+  private static UUID parseUuid(String orderId) {
+    if (orderId.length() != 36) {
+      return null;
+    }
+    try {
+      UUID uuid = UUID.fromString(orderId);
+      return uuid.toString().equals(orderId) ? uuid : null;
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  // ---- 时间索引 ----
+
+  /**
+   * 按（创建时间, 订单ID）插入行号；订单基本按时间顺序到达，通常直接追加在末尾.
+   */
+  private void insert(RowList index, int row, long time, UUID uuid, String orderId) {
+    int position = index.size;
+    if (position > 0 && compare(index.rows[position - 1], time, uuid, orderId) > 0) {
+      position = search(index, time, uuid, orderId, true);
+    }
+    index.insert(position, row);
+  }
+
+  /**
+   * 从索引中移除被同一订单ID的新行替换的旧行.
+   */
+  private void remove(RowList index, int row, UUID uuid, String orderId) {
+    int position = search(index, createdAt(row), uuid, orderId, false);
+    if (position < index.size && index.rows[position] == row) {
+      index.remove(position);
+    }
+  }
+
+  private int search(RowList index, OrderCursor cursor, boolean exclusive) {
+    return search(index, boundNanos(cursor.getCreatedAt()), parseUuid(cursor.getOrderId()),
+        cursor.getOrderId(), exclusive);
+  }
+
+  /**
+   * 查找第一个大于（{@code exclusive}）或不小于（创建时间, 订单ID）的位置.
+   */
+  private int search(RowList index, long time, UUID uuid, String orderId, boolean exclusive) {
+    int low = 0;
+    int high = index.size;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      int result = compare(index.rows[middle], time, uuid, orderId);
+      if (result < 0 || (exclusive && result == 0)) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * 与 {@link OrderCursor#compareTo} 的顺序一致；{@code uuid} 为 {@code orderId} 解析出的UUID，
+   * 不是规范UUID时为null.
+   */
+  private int compare(int row, long time, UUID uuid, String orderId) {
+    int result = Long.compare(createdAt(row), time);
+    if (result != 0) {
+      return result;
+    }
+    ByteBuffer segment = segments[row >>> SEGMENT_SHIFT];
+    int index = row & SEGMENT_MASK;
+    if (segment.get(FLAGS + index) == FLAG_OTHER_ID) {
+      return otherIds.get((int) segment.getLong(ID_LOW + index * Long.BYTES)).compareTo(orderId);
+    }
+    if (uuid != null) {
+      // 规范小写UUID字符串的字典序与两个long的无符号比较一致
+      result = Long.compareUnsigned(
+          segment.getLong(ID_HIGH + index * Long.BYTES), uuid.getMostSignificantBits());
+      return result != 0 ? result : Long.compareUnsigned(
+          segment.getLong(ID_LOW + index * Long.BYTES), uuid.getLeastSignificantBits());
+    }
+    return orderId.isEmpty() ? 1 : orderId(row).compareTo(orderId);
+  }
+
+  private static long epochNanos(LocalDateTime time) {
+    return Math.addExact(
+        Math.multiplyExact(time.toEpochSecond(ZoneOffset.UTC), NANOS_PER_SECOND), time.getNano());
+  }
+
+  /**
+   * 查询边界超出可表示的范围时取最小/最大值，所有订单都在其内.
+   */
+  private static long boundNanos(LocalDateTime time) {
+    try {
+      return epochNanos(time);
+    } catch (ArithmeticException e) {
+      return time.getYear() < 1970 ? Long.MIN_VALUE : Long.MAX_VALUE;
+    }
+  }
+
+  private static LocalDateTime timeOf(long epochNanos) {
+    return LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND),
+        (int) Math.floorMod(epochNanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+  }
+
+  /**
+   * 按时间排序的行号数组.
+   */
+  private static final class RowList {
+    private int[] rows = new int[4];
+    private int size;
+
+    void insert(int position, int row) {
+      if (size == rows.length) {
+        rows = Arrays.copyOf(rows, rows.length * 2);
+      }
+      System.arraycopy(rows, position, rows, position + 1, size - position);
+      rows[position] = row;
+      size++;
+    }
+
+    void remove(int position) {
+      System.arraycopy(rows, position + 1, rows, position, size - position - 1);
+      size--;
+    }
+  }
+
+  /**
+   * 字符串字典，相同的客户ID/折扣码只保存一份.
+   */
+  private static final class Dictionary {
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    int encode(String value) {
+      Integer code = codes.get(value);
+      if (code == null) {
+        code = values.size();
+        codes.put(value, code);
+        values.add(value);
+      }
+      return code;
+    }
+
+    int find(String value) {
+      Integer code = codes.get(value);
+      return code == null ? -1 : code;
+    }
+
+    String decode(int code) {
+      return values.get(code);
+    }
+  }
+}
@@ -0,0 +1,134 @@
+package com.yuki.server.infrastructure.store;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 无效折扣码尝试计数存储（基础设施层）.
+ *
+ * <p>按键（购物车或客户）在固定时间窗口内计数失败次数，达到上限后直到窗口结束都视为受限.
+ * 窗口长度相同，创建顺序即过期顺序，与 {@link IdempotencyStore} 一样用FIFO队列按过期时间
+ * 和数量上限淘汰，无需后台线程. 计数本身是原子自增，不加锁.
+ */
+@Component
+public class DiscountAttemptStore {
+
+  private final Map<String, Window> windows = new ConcurrentHashMap<>();
+  // 按创建顺序排列，可能包含已被替换的窗口，出队时跳过
+  private final Queue<Window> creationOrder = new ConcurrentLinkedQueue<>();
+  private final ReentrantLock evictionLock = new ReentrantLock();
+
+  private final Clock clock;
+  private final long windowMillis;
+  private final int maxFailures;
+  private final int maxSize;
+
+  private final LongAdder evictedCount = new LongAdder();
+
+  public DiscountAttemptStore() {
+    this(Clock.systemUTC(), Duration.ofMinutes(1), 5, 100_000);
+  }
+
+  @Autowired
+  public DiscountAttemptStore(
+      Clock clock,
+      @Value("${discount-throttle.window:1m}") Duration window,
+      @Value("${discount-throttle.max-failures:5}") int maxFailures,
+      @Value("${discount-throttle.max-size:100000}") int maxSize) {
+    this.clock = clock;
+    this.windowMillis = Math.max(1, window.toMillis());
+    this.maxFailures = Math.max(1, maxFailures);
+    this.maxSize = Math.max(1, maxSize);
+  }
+
+  /**
+   * 查询键是否受限.
+   *
+   * @param key 键
+   * @return 距离解除限制的毫秒数，未受限时为0
+   */
+  public long retryAfterMillis(String key) {
+    Window window = windows.get(key);
+    if (window == null || window.failures.get() < maxFailures) {
+      return 0;
+    }
+    return Math.max(0, window.expiresAt - clock.millis());
+  }
+
+  /**
+   * 记录一次失败.
+   *
+   * @param key 键
+   */
+  public void recordFailure(String key) {
+    long now = clock.millis();
+    Window window = windows.get(key);
+    if (window == null || window.isExpired(now)) {
+      Window created = new Window(key, now + windowMillis);
+      window = windows.compute(key,
+          (k, existing) -> existing == null || existing.isExpired(now) ? created : existing);
+      if (window == created) {
+        creationOrder.add(created);
+        evict(now);
+      }
+    }
+    window.failures.incrementAndGet();
+  }
+
+  public int size() {
+    return windows.size();
+  }
+
+  public long getEvictedCount() {
+    return evictedCount.sum();
+  }
+
+  /**
+   * 从队头移除已过期的窗口，以及超出数量上限时最早创建的窗口.
+   *
+   * @param now 当前时间（毫秒）
+   */
+  private void evict(long now) {
+    if (!evictionLock.tryLock()) {
+      return; // 其他线程正在淘汰
+    }
+    try {
+      Window head;
+      while ((head = creationOrder.peek()) != null
+          && (head.isExpired(now) || windows.size() > maxSize)) {
+        creationOrder.poll();
+        if (windows.remove(head.key, head)) {
+          evictedCount.increment();
+        }
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private static final class Window {
+    private final String key;
+    private final long expiresAt;
+    private final AtomicInteger failures = new AtomicInteger();
+
+    private Window(String key, long expiresAt) {
+      this.key = key;
+      this.expiresAt = expiresAt;
+    }
+
+    private boolean isExpired(long now) {
+      return expiresAt <= now;
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package com.yuki.server.infrastructure.store;
+
+import com.yuki.server.application.repository.OrderCursor;
+import com.yuki.server.domain.model.Order;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * 以订单对象存放订单（基础设施层）.
+ *
+ * <p>维护按创建时间排序的全局索引和按客户分组的时间索引，
+ * 分页查询只遍历所需的一页数据.
+ */
+public class HeapOrderTable implements OrderTable {
+  private final Map<String, Order> orders = new ConcurrentHashMap<>();
+  private final ConcurrentSkipListMap<OrderCursor, Order> timeIndex = new ConcurrentSkipListMap<>();
+  private final Map<String, ConcurrentSkipListMap<OrderCursor, Order>> customerIndex =
+      new ConcurrentHashMap<>();
+
+  /**
+   * 保存订单；订单ID已存在时替换原订单，原订单的时间和客户也可能不同.
+   */
+  @Override
+  public Order put(Order order) {
+    OrderCursor key = keyOf(order);
+    Order previous = orders.put(order.getOrderId(), order);
+    if (previous != null && previous != order) {
+      OrderCursor previousKey = keyOf(previous);
+      timeIndex.remove(previousKey, previous);
+      Map<OrderCursor, Order> previousIndex = customerIndex.get(previous.getCustomerId());
+      if (previousIndex != null) {
+        previousIndex.remove(previousKey, previous);
+      }
+    }
+    timeIndex.put(key, order);
+    customerIndex.computeIfAbsent(order.getCustomerId(), id -> new ConcurrentSkipListMap<>())
+        .put(key, order);
+    return previous;
+  }
+
+  @Override
+  public Order findById(String orderId) {
+    return orders.get(orderId);
+  }
+
+  @Override
+  public List<Order> findAll() {
+    return new ArrayList<>(timeIndex.values());
+  }
+
+  @Override
+  public List<Order> findByCustomerId(String customerId) {
+    NavigableMap<OrderCursor, Order> index = customerIndex.get(customerId);
+    if (index == null) {
+      return Collections.emptyList();
+    }
+    return new ArrayList<>(index.values());
+  }
+
+  @Override
+  public List<Order> findPage(
+      String customerId, LocalDateTime from, LocalDateTime to, OrderCursor after, int limit) {
+    List<Order> page = new ArrayList<>(Math.min(limit, 64));
+    for (Order order : range(customerId, from, to, after).values()) {
+      if (page.size() >= limit) {
+        break;
+      }
+      page.add(order);
+    }
+    return page;
+  }
+
+  /**
+   * 按创建时间升序惰性遍历订单，不复制结果集.
+   */
+  @Override
+  public Stream<Order> stream(String customerId, LocalDateTime from, LocalDateTime to) {
+    return range(customerId, from, to, null).values().stream();
+  }
+
+  @Override
+  public int size() {
+    return orders.size();
+  }
+
+  /**
+   * 取时间索引上满足条件的区间视图.
+   */
+  private NavigableMap<OrderCursor, Order> range(
+      String customerId, LocalDateTime from, LocalDateTime to, OrderCursor after) {
+    NavigableMap<OrderCursor, Order> index = customerId == null
+        ? timeIndex
+        : customerIndex.get(customerId);
+    if (index == null) {
+      return Collections.emptyNavigableMap();
+    }
+
+    // 下界取 after（不含）与 from（含）中较大者，上界为 to（不含）
+    OrderCursor lower = after;
+    boolean lowerInclusive = false;
+    if (from != null && (lower == null || OrderCursor.at(from).compareTo(lower) > 0)) {
+      lower = OrderCursor.at(from);
+      lowerInclusive = true;
+    }
+    OrderCursor upper = to == null ? null : OrderCursor.at(to);
+    if (lower != null && upper != null && lower.compareTo(upper) >= 0) {
+      return Collections.emptyNavigableMap();
+    }
+
+    if (lower == null) {
+      return upper == null ? index : index.headMap(upper, false);
+    } else if (upper == null) {
+      return index.tailMap(lower, lowerInclusive);
+    }
+    return index.subMap(lower, lowerInclusive, upper, false);
+  }
+
+  private static OrderCursor keyOf(Order order) {
+    return new OrderCursor(order.getCreatedAt(), order.getOrderId());
+  }
+}
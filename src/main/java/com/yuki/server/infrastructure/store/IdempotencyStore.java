@@ -0,0 +1,129 @@
+package com.yuki.server.infrastructure.store;
+
+import com.yuki.server.application.dto.OrderResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 结账幂等结果存储（基础设施层）.
+ *
+ * <p>所有条目的存活时间相同，插入顺序即过期顺序，因此用一个FIFO队列即可按过期时间
+ * 和数量上限淘汰，无需后台线程；淘汰在登记新结果时顺带进行.
+ */
+@Component
+public class IdempotencyStore {
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  // 按插入顺序排列，可能包含已被移除或替换的条目，出队时跳过
+  private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+  private final ReentrantLock evictionLock = new ReentrantLock();
+
+  private final Clock clock;
+  private final long ttlMillis;
+  private final int maxSize;
+
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder evictedCount = new LongAdder();
+
+  public IdempotencyStore() {
+    this(Clock.systemUTC(), Duration.ofMinutes(10), 100_000);
+  }
+
+  @Autowired
+  public IdempotencyStore(
+      Clock clock,
+      @Value("${idempotency.ttl:10m}") Duration ttl,
+      @Value("${idempotency.max-size:100000}") int maxSize) {
+    this.clock = clock;
+    this.ttlMillis = ttl.toMillis();
+    this.maxSize = Math.max(1, maxSize);
+  }
+
+  public CompletableFuture<OrderResponse> putIfAbsent(
+      String key, CompletableFuture<OrderResponse> result) {
+    long now = clock.millis();
+    Entry created = new Entry(key, result, now + ttlMillis);
+    Entry entry = entries.compute(key,
+        (k, existing) -> existing == null || existing.isExpired(now) ? created : existing);
+    if (entry != created) {
+      hitCount.increment();
+      return entry.result;
+    }
+
+    missCount.increment();
+    insertionOrder.add(created);
+    evict(now);
+    return null;
+  }
+
+  public void remove(String key, CompletableFuture<OrderResponse> result) {
+    entries.computeIfPresent(key, (k, existing) -> existing.result == result ? null : existing);
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  public long getEvictedCount() {
+    return evictedCount.sum();
+  }
+
+  /**
+   * 从队头移除已过期的条目，以及超出数量上限时最早登记的条目.
+   *
+   * @param now 当前时间（毫秒）
+   */
+  private void evict(long now) {
+    if (!evictionLock.tryLock()) {
+      return; // 其他线程正在淘汰
+    }
+    try {
+      Entry head;
+      while ((head = insertionOrder.peek()) != null
+          && (head.isExpired(now) || entries.size() > maxSize)) {
+        insertionOrder.poll();
+        if (entries.remove(head.key, head)) {
+          evictedCount.increment();
+        }
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private static final class Entry {
+    private final String key;
+    private final CompletableFuture<OrderResponse> result;
+    private final long expiresAt;
+
+    private Entry(String key, CompletableFuture<OrderResponse> result, long expiresAt) {
+      this.key = key;
+      this.result = result;
+      this.expiresAt = expiresAt;
+    }
+
+    private boolean isExpired(long now) {
+      return expiresAt <= now;
+    }
+  }
+}
@@ -0,0 +1,428 @@
+package com.yuki.server.infrastructure.store;
+
+import com.yuki.server.domain.model.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * 订单追加日志（基础设施层）.
+ *
+ * <p>文件按固定大小分段做内存映射，每条记录格式为 [长度][CRC32C][订单数据]。
+ * 启动时通过 {@link #replay(Consumer)} 重放并定位写入位置，末尾校验失败的半条记录会被丢弃.
+ *
+ * <p>刷盘策略见 {@link DurabilityMode}；分组提交模式下由后台线程统一刷盘，
+ * 并发写入方等待同一次 force 完成.
+ */
+public class OrderJournal implements Closeable {
+
+  /**
+   * 持久化模式.
+   */
+  public enum DurabilityMode {
+    /** 每个订单写入后单独刷盘. */
+    SYNC,
+    /** 并发写入共享一次刷盘，写入方等待刷盘完成后返回. */
+    GROUP_COMMIT,
+    /** 写入即返回，后台按固定间隔刷盘. */
+    ASYNC
+  }
+
+  private static final Logger logger = LoggerFactory.getLogger(OrderJournal.class);
+
+  static final int DEFAULT_REGION_SIZE = 64 * 1024 * 1024;
+  private static final int HEADER_SIZE = 8; // 长度 + CRC
+  private static final int END_OF_LOG = 0;
+  private static final int REGION_PADDING = -1; // 本段剩余空间不足，跳到下一段
+
+  private final Path path;
+  private final DurabilityMode mode;
+  private final long flushIntervalMillis;
+  private final int regionSize;
+  private final FileChannel channel;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition pendingWrites = lock.newCondition();
+  private final Condition durabilityAdvanced = lock.newCondition();
+  // 串行化刷盘，保证推进持久序号时更早取出的分段都已刷盘；获取顺序先于lock
+  private final ReentrantLock forceLock = new ReentrantLock();
+
+  private MappedByteBuffer region;
+  private long regionStart;
+  private final List<MappedByteBuffer> unforcedRegions = new ArrayList<>();
+  private long appendedSequence;
+  private long durableSequence;
+  private boolean replayed;
+  private volatile boolean closed;
+  private Thread flusher;
+
+  private OrderJournal(Path path, DurabilityMode mode, long flushIntervalMillis, int regionSize) {
+    this.path = path;
+    this.mode = mode;
+    this.flushIntervalMillis = flushIntervalMillis;
+    this.regionSize = regionSize;
+    try {
+      if (path.getParent() != null) {
+        Files.createDirectories(path.getParent());
+      }
+      this.channel = FileChannel.open(path,
+          StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open order journal: " + path, e);
+    }
+  }
+
+  /**
+   * 打开（或创建）日志文件，使用前须先调用 {@link #replay(Consumer)}.
+   *
+   * @param path 文件路径
+   * @param mode 持久化模式
+   * @param flushIntervalMillis 异步模式下的刷盘间隔
+   * @return 日志
+   */
+  public static OrderJournal open(Path path, DurabilityMode mode, long flushIntervalMillis) {
+    return open(path, mode, flushIntervalMillis, DEFAULT_REGION_SIZE);
+  }
+
+  static OrderJournal open(
+      Path path, DurabilityMode mode, long flushIntervalMillis, int regionSize) {
+    return new OrderJournal(path, mode, flushIntervalMillis, regionSize);
+  }
+
+  /**
+   * 重放已有记录并定位写入位置，只能调用一次.
+   *
+   * @param consumer 接收重放出的订单
+   * @return 重放的订单数
+   */
+  public int replay(Consumer<Order> consumer) {
+    lock.lock();
+    try {
+      if (replayed) {
+        throw new IllegalStateException("Order journal already replayed");
+      }
+      int count = 0;
+      regionStart = 0;
+      region = map(regionStart);
+      while (true) {
+        if (region.remaining() < HEADER_SIZE) {
+          nextRegion();
+          continue;
+        }
+        int position = region.position();
+        int length = region.getInt();
+        if (length == REGION_PADDING) {
+          nextRegion();
+          continue;
+        }
+        if (length <= 0 || length > region.remaining() - 4) {
+          region.position(position);
+          break;
+        }
+        int checksum = region.getInt();
+        byte[] payload = new byte[length];
+        region.get(payload);
+        if (checksum(payload) != checksum) {
+          logger.warn("Order journal {} has a torn record at offset {}, truncating",
+              path, regionStart + position);
+          region.position(position);
+          break;
+        }
+        consumer.accept(decode(ByteBuffer.wrap(payload)));
+        count++;
+      }
+      // 清除截断位置之后的残留数据，保证下次重放在此停止
+      if (region.remaining() >= 4) {
+        region.putInt(region.position(), END_OF_LOG);
+      }
+      replayed = true;
+      startFlusher();
+      logger.info("Replayed {} orders from journal {} ({} mode)", count, path, mode);
+      return count;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * 追加订单，按持久化模式决定是否等待刷盘.
+   *
+   * @param order 订单
+   */
+  public void append(Order order) {
+    byte[] payload = encode(order);
+    if (payload.length + HEADER_SIZE + 4 > regionSize) {
+      throw new IllegalArgumentException("Order record too large: " + payload.length);
+    }
+
+    long sequence;
+    lock.lock();
+    try {
+      if (!replayed || closed) {
+        throw new IllegalStateException("Order journal is not open for writing");
+      }
+      if (region.remaining() < payload.length + HEADER_SIZE + 4) {
+        if (region.remaining() >= 4) {
+          region.putInt(REGION_PADDING);
+        }
+        nextRegion();
+      }
+      region.putInt(payload.length);
+      region.putInt(checksum(payload));
+      region.put(payload);
+      // 预先写入结束标记，重放时在此停止
+      region.putInt(region.position(), END_OF_LOG);
+      sequence = ++appendedSequence;
+      if (mode == DurabilityMode.GROUP_COMMIT) {
+        pendingWrites.signal();
+      }
+    } finally {
+      lock.unlock();
+    }
+
+    if (mode == DurabilityMode.SYNC) {
+      flushTo(sequence);
+    } else if (mode == DurabilityMode.GROUP_COMMIT) {
+      awaitDurable(sequence);
+    }
+  }
+
+  public DurabilityMode getMode() {
+    return mode;
+  }
+
+  @Override
+  public void close() {
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      pendingWrites.signalAll();
+      durabilityAdvanced.signalAll();
+    } finally {
+      lock.unlock();
+    }
+    if (flusher != null) {
+      try {
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    if (replayed) {
+      flushTo(Long.MAX_VALUE);
+    }
+    try {
+      channel.close();
+    } catch (IOException e) {
+      logger.warn("Failed to close order journal {}", path, e);
+    }
+  }
+
+  private void startFlusher() {
+    if (mode == DurabilityMode.SYNC) {
+      return;
+    }
+    flusher = new Thread(this::runFlusher, "order-journal-flusher");
+    flusher.setDaemon(true);
+    flusher.start();
+  }
+
+  private void runFlusher() {
+    while (true) {
+      lock.lock();
+      try {
+        if (mode == DurabilityMode.ASYNC) {
+          if (!closed) {
+            pendingWrites.await(flushIntervalMillis, TimeUnit.MILLISECONDS);
+          }
+        } else {
+          while (!closed && durableSequence == appendedSequence) {
+            pendingWrites.await();
+          }
+        }
+        if (closed) {
+          return;
+        }
+        if (durableSequence == appendedSequence) {
+          continue;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } finally {
+        lock.unlock();
+      }
+      flushTo(Long.MAX_VALUE);
+    }
+  }
+
+  /**
+   * 刷盘直到至少包含指定序号的记录.
+   *
+   * <p>同一时间只有一个线程刷盘：已写满的分段从待刷列表取出后即不再可见，
+   * 若允许并发刷盘，另一线程可能只刷当前分段就推进持久序号.
+   * 等待中的写入方在前一次刷盘完成后通常发现自己的记录已经持久化，直接返回.
+   *
+   * @param sequence 记录序号，{@link Long#MAX_VALUE} 表示当前已追加的全部记录
+   */
+  private void flushTo(long sequence) {
+    forceLock.lock();
+    try {
+      long target;
+      List<MappedByteBuffer> regions;
+      lock.lock();
+      try {
+        if (durableSequence >= sequence) {
+          return;
+        }
+        target = appendedSequence;
+        regions = new ArrayList<>(unforcedRegions);
+        regions.add(region);
+        unforcedRegions.clear();
+      } finally {
+        lock.unlock();
+      }
+
+      for (MappedByteBuffer buffer : regions) {
+        buffer.force();
+      }
+
+      lock.lock();
+      try {
+        durableSequence = target;
+        durabilityAdvanced.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    } finally {
+      forceLock.unlock();
+    }
+  }
+
+  private void awaitDurable(long sequence) {
+    lock.lock();
+    try {
+      boolean interrupted = false;
+      while (durableSequence < sequence) {
+        if (closed) {
+          throw new IllegalStateException("Order journal closed before the order was flushed");
+        }
+        try {
+          durabilityAdvanced.await();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void nextRegion() {
+    if (region != null) {
+      unforcedRegions.add(region);
+    }
+    regionStart += regionSize;
+    region = map(regionStart);
+  }
+
+  private MappedByteBuffer map(long start) {
+    try {
+      return channel.map(FileChannel.MapMode.READ_WRITE, start, regionSize);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to map order journal region at " + start, e);
+    }
+  }
+
+  private static int checksum(byte[] payload) {
+    CRC32C crc = new CRC32C();
+    crc.update(payload, 0, payload.length);
+    return (int) crc.getValue();
+  }
+
+  static byte[] encode(Order order) {
+    byte[] orderId = order.getOrderId().getBytes(StandardCharsets.UTF_8);
+    byte[] customerId = order.getCustomerId().getBytes(StandardCharsets.UTF_8);
+    byte[] unscaled = order.getTotalPrice().unscaledValue().toByteArray();
+    byte[] discountCode = order.getDiscountCode() == null
+        ? null
+        : order.getDiscountCode().getBytes(StandardCharsets.UTF_8);
+
+    int size = 4 + orderId.length + 4 + customerId.length
+        + 4 + 4 + unscaled.length
+        + 8 + 4
+        + 4 + (discountCode == null ? 0 : discountCode.length);
+    ByteBuffer buffer = ByteBuffer.allocate(size);
+    putBytes(buffer, orderId);
+    putBytes(buffer, customerId);
+    buffer.putInt(order.getTotalPrice().scale());
+    putBytes(buffer, unscaled);
+    LocalDateTime createdAt = order.getCreatedAt();
+    buffer.putLong(createdAt.toEpochSecond(ZoneOffset.UTC));
+    buffer.putInt(createdAt.getNano());
+    putBytes(buffer, discountCode);
+    return buffer.array();
+  }
+
+  static Order decode(ByteBuffer buffer) {
+    String orderId = getString(buffer);
+    String customerId = getString(buffer);
+    int scale = buffer.getInt();
+    BigDecimal totalPrice = new BigDecimal(new BigInteger(getBytes(buffer)), scale);
+    LocalDateTime createdAt = LocalDateTime.ofEpochSecond(
+        buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+    String discountCode = getString(buffer);
+    return new Order(orderId, customerId, totalPrice, createdAt, discountCode);
+  }
+
+  private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+    if (bytes == null) {
+      buffer.putInt(-1);
+      return;
+    }
+    buffer.putInt(bytes.length);
+    buffer.put(bytes);
+  }
+
+  private static byte[] getBytes(ByteBuffer buffer) {
+    int length = buffer.getInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  private static String getString(ByteBuffer buffer) {
+    byte[] bytes = getBytes(buffer);
+    return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+  }
+}
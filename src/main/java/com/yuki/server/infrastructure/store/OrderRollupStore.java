@@ -0,0 +1,174 @@
+package com.yuki.server.infrastructure.store;
+
+import com.yuki.server.domain.model.Money;
+import com.yuki.server.domain.model.Order;
+import com.yuki.server.domain.model.OrderTotals;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * 订单汇总存储（基础设施层）.
+ *
+ * <p>订单保存时增量累加全局、按客户、按折扣码的计数，并写入按分钟划分的环形缓冲区；
+ * 计数器为 {@link LongAdder}，并发结账之间不争用同一个变量. 查询直接读取计数器，
+ * 与订单总数无关. 各计数器分别累加，并发写入时同一次查询中的订单数与营业额可能短暂不同步.
+ *
+ * <p>环形缓冲区每个槽位对应一分钟，新的一分钟到来时整体替换槽位，超出窗口的分钟自然被覆盖.
+ * 创建时从 {@link OrderStore} 重放已有订单.
+ */
+@Component
+public class OrderRollupStore {
+
+  private final Tally totals = new Tally();
+  private final Map<String, Tally> customerTotals = new ConcurrentHashMap<>();
+  private final Map<String, Tally> discountTotals = new ConcurrentHashMap<>();
+  private final AtomicReferenceArray<MinuteTally> minutes;
+
+  public OrderRollupStore(OrderStore orderStore) {
+    this(orderStore, Duration.ofHours(24));
+  }
+
+  @Autowired
+  public OrderRollupStore(
+      OrderStore orderStore,
+      @Value("${order-rollup.window:24h}") Duration window) {
+    this.minutes = new AtomicReferenceArray<>((int) Math.max(1, window.toMinutes()));
+    try (Stream<Order> orders = orderStore.stream(null, null, null)) {
+      orders.forEach(this::record);
+    }
+  }
+
+  /**
+   * 将订单计入汇总.
+   *
+   * @param order 订单
+   */
+  public void record(Order order) {
+    long revenue = Money.toMinorUnits(order.getTotalPrice(), RoundingMode.HALF_UP);
+    boolean discounted = order.getDiscountCode() != null;
+
+    totals.add(revenue, discounted);
+    customerTotals.computeIfAbsent(order.getCustomerId(), k -> new Tally())
+        .add(revenue, discounted);
+    if (discounted) {
+      discountTotals.computeIfAbsent(order.getDiscountCode(), k -> new Tally())
+          .add(revenue, true);
+    }
+
+    MinuteTally bucket = bucketFor(toEpochMinute(order.getCreatedAt()));
+    if (bucket != null) {
+      bucket.add(revenue, discounted);
+    }
+  }
+
+  public OrderTotals getTotals() {
+    return totals.snapshot();
+  }
+
+  public OrderTotals getCustomerTotals(String customerId) {
+    Tally tally = customerTotals.get(customerId);
+    return tally == null ? OrderTotals.ZERO : tally.snapshot();
+  }
+
+  public OrderTotals getDiscountTotals(String discountCode) {
+    Tally tally = discountTotals.get(discountCode);
+    return tally == null ? OrderTotals.ZERO : tally.snapshot();
+  }
+
+  /**
+   * 获取截至某分钟（含）的最近若干分钟的逐分钟汇总.
+   *
+   * @param until 最后一分钟
+   * @param count 分钟数，超出窗口时按窗口截断
+   * @return 按分钟起始时间升序的汇总
+   */
+  public NavigableMap<LocalDateTime, OrderTotals> getMinuteTotals(LocalDateTime until, int count) {
+    long last = toEpochMinute(until);
+    long first = last - Math.min(count, minutes.length()) + 1;
+    NavigableMap<LocalDateTime, OrderTotals> series = new TreeMap<>();
+    for (long minute = first; minute <= last; minute++) {
+      MinuteTally bucket = minutes.get(slot(minute));
+      series.put(
+          LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC),
+          bucket != null && bucket.minute == minute ? bucket.snapshot() : OrderTotals.ZERO);
+    }
+    return series;
+  }
+
+  public int getWindowMinutes() {
+    return minutes.length();
+  }
+
+  /**
+   * 取某分钟对应的槽位，槽位仍是更早的分钟时替换为新槽位.
+   *
+   * @param minute 分钟（纪元分钟数）
+   * @return 槽位，该分钟已被更新的分钟覆盖（早于窗口）时返回null
+   */
+  private MinuteTally bucketFor(long minute) {
+    int slot = slot(minute);
+    MinuteTally bucket = minutes.get(slot);
+    while (bucket == null || bucket.minute < minute) {
+      MinuteTally fresh = new MinuteTally(minute);
+      if (minutes.compareAndSet(slot, bucket, fresh)) {
+        return fresh;
+      }
+      bucket = minutes.get(slot);
+    }
+    return bucket.minute == minute ? bucket : null;
+  }
+
+  private int slot(long minute) {
+    return (int) Math.floorMod(minute, (long) minutes.length());
+  }
+
+  private static long toEpochMinute(LocalDateTime time) {
+    return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+  }
+
+  /**
+   * 一组累加计数.
+   */
+  private static class Tally {
+    private final LongAdder orderCount = new LongAdder();
+    private final LongAdder revenue = new LongAdder(); // 分
+    private final LongAdder discountedOrderCount = new LongAdder();
+
+    void add(long revenueMinorUnits, boolean discounted) {
+      orderCount.increment();
+      revenue.add(revenueMinorUnits);
+      if (discounted) {
+        discountedOrderCount.increment();
+      }
+    }
+
+    OrderTotals snapshot() {
+      return new OrderTotals(
+          orderCount.sum(), Money.toDecimal(revenue.sum()), discountedOrderCount.sum());
+    }
+  }
+
+  /**
+   * 一分钟的累加计数.
+   */
+  private static final class MinuteTally extends Tally {
+    private final long minute;
+
+    MinuteTally(long minute) {
+      this.minute = minute;
+    }
+  }
+}
@@ -1,36 +1,120 @@
 package com.yuki.server.infrastructure.store;
 
+import com.yuki.server.application.repository.OrderCursor;
 import com.yuki.server.domain.model.Order;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 /**
  * 订单数据存储（基础设施层）.
+ *
+ * <p>订单按 {@link Layout} 存放在 {@link HeapOrderTable} 或 {@link CompactOrderTable} 中，
+ * 两者都维护按创建时间排序的全局索引和按客户分组的时间索引.
+ *
+ * <p>启用 {@link OrderJournal} 时，订单先写入日志再进入内存，启动时从日志重放.
  */
 @Component
 public class OrderStore {
-  private final Map<String, Order> orders = new ConcurrentHashMap<>();
 
-  public void save(Order order) {
-    orders.put(order.getOrderId(), order);
+  /**
+   * 订单在内存中的存放方式.
+   */
+  public enum Layout {
+    /** 每个订单一个 {@link Order} 对象，以并发跳表索引. */
+    HEAP,
+    /** 按列存放在堆外内存中，读取时才构造 {@link Order}. */
+    COMPACT;
+
+    OrderTable newTable() {
+      return this == COMPACT ? new CompactOrderTable() : new HeapOrderTable();
+    }
+  }
+
+  private final OrderTable table;
+  private final OrderJournal journal;
+
+  public OrderStore() {
+    this((OrderJournal) null);
+  }
+
+  @Autowired
+  public OrderStore(
+      ObjectProvider<OrderJournal> journalProvider,
+      @Value("${order-store.layout:HEAP}") Layout layout) {
+    this(journalProvider.getIfAvailable(), layout.newTable());
+  }
+
+  public OrderStore(OrderJournal journal) {
+    this(journal, new HeapOrderTable());
+  }
+
+  public OrderStore(OrderJournal journal, OrderTable table) {
+    this.table = table;
+    this.journal = journal;
+    if (journal != null) {
+      journal.replay(table::put);
+    }
+  }
+
+  /**
+   * 保存订单，先写日志再写入内存.
+   *
+   * @param order 订单
+   * @return 被替换的同ID原订单，首次保存时为null
+   */
+  public Order save(Order order) {
+    if (journal != null) {
+      journal.append(order);
+    }
+    return table.put(order);
   }
 
   public Order findById(String orderId) {
-    return orders.get(orderId);
+    return table.findById(orderId);
   }
 
   public List<Order> findAll() {
-    return new ArrayList<>(orders.values());
+    return table.findAll();
   }
 
   public List<Order> findByCustomerId(String customerId) {
-    return orders.values().stream()
-        .filter(order -> order.getCustomerId().equals(customerId))
-        .toList();
+    return table.findByCustomerId(customerId);
+  }
+
+  /**
+   * 按创建时间升序的键集分页查询.
+   *
+   * @param customerId 客户ID，为null时查询全部订单
+   * @param from 起始时间（含），可为null
+   * @param to 结束时间（不含），可为null
+   * @param after 上一页最后一条的游标（不含），可为null
+   * @param limit 最多返回条数
+   * @return 订单列表
+   */
+  public List<Order> findPage(
+      String customerId, LocalDateTime from, LocalDateTime to, OrderCursor after, int limit) {
+    return table.findPage(customerId, from, to, after, limit);
   }
-}
 
+  /**
+   * 按创建时间升序惰性遍历订单，不复制结果集.
+   *
+   * @param customerId 客户ID，为null时遍历全部订单
+   * @param from 起始时间（含），可为null
+   * @param to 结束时间（不含），可为null
+   * @return 订单流
+   */
+  public Stream<Order> stream(String customerId, LocalDateTime from, LocalDateTime to) {
+    return table.stream(customerId, from, to);
+  }
+
+  public int size() {
+    return table.size();
+  }
+}
@@ -0,0 +1,56 @@
+package com.yuki.server.infrastructure.store;
+
+import com.yuki.server.application.repository.OrderCursor;
+import com.yuki.server.domain.model.Order;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 订单在内存中的存放方式（基础设施层）.
+ *
+ * <p>由 {@link OrderStore} 持有，负责订单本身及按创建时间、按客户的索引；
+ * 持久化日志由 {@link OrderStore} 处理. 实现需支持并发读写.
+ */
+public interface OrderTable {
+
+  /**
+   * 保存订单；订单ID已存在时替换原订单.
+   *
+   * @param order 订单
+   * @return 被替换的原订单，订单ID首次出现时为null
+   */
+  Order put(Order order);
+
+  Order findById(String orderId);
+
+  List<Order> findAll();
+
+  List<Order> findByCustomerId(String customerId);
+
+  /**
+   * 按创建时间升序的键集分页查询.
+   *
+   * @param customerId 客户ID，为null时查询全部订单
+   * @param from 起始时间（含），可为null
+   * @param to 结束时间（不含），可为null
+   * @param after 上一页最后一条的游标（不含），可为null
+   * @param limit 最多返回条数
+   * @return 订单列表
+   */
+  List<Order> findPage(
+      String customerId, LocalDateTime from, LocalDateTime to, OrderCursor after, int limit);
+
+  /**
+   * 按创建时间升序惰性遍历订单.
+   *
+   * @param customerId 客户ID，为null时遍历全部订单
+   * @param from 起始时间（含），可为null
+   * @param to 结束时间（不含），可为null
+   * @return 订单流
+   */
+  Stream<Order> stream(String customerId, LocalDateTime from, LocalDateTime to);
+
+  int size();
+}
@@ -1,28 +1,89 @@
 package com.yuki.server.infrastructure.store;
 
 import com.yuki.server.domain.model.Product;
+import com.yuki.server.domain.model.ProductCatalog;
+import com.yuki.server.domain.model.Promotion;
+import com.yuki.server.domain.model.PromotionRule;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 产品数据存储（基础设施层）.
+ *
+ * <p>写时复制：写入方在锁内复制当前快照并发布新版本，读取方无锁获取不可变快照.
+ * 折扣码和促销规则也保存在同一个快照中（见 {@link PromotionStore}），
+ * {@link #replace} 可一次发布新的产品、折扣码和促销规则.
  */
 @Component
 public class ProductStore {
-  private final Map<String, Product> products = new ConcurrentHashMap<>();
+  private volatile ProductCatalog catalog = ProductCatalog.EMPTY;
 
   public void save(Product product) {
-    products.put(product.getProductCode(), product);
+    synchronized (this) {
+      Map<String, Product> products = new HashMap<>(catalog.getProducts());
+      products.put(product.getProductCode(), product);
+      catalog = catalog.withProducts(products);
+    }
+  }
+
+  public void saveAll(Collection<Product> newProducts) {
+    synchronized (this) {
+      Map<String, Product> products = new HashMap<>(catalog.getProducts());
+      for (Product product : newProducts) {
+        products.put(product.getProductCode(), product);
+      }
+      catalog = catalog.withProducts(products);
+    }
+  }
+
+  public void savePromotions(Collection<Promotion> newPromotions) {
+    synchronized (this) {
+      Map<String, Promotion> promotions = new HashMap<>(catalog.getPromotions());
+      for (Promotion promotion : newPromotions) {
+        promotions.put(promotion.getDiscountCode(), promotion);
+      }
+      catalog = catalog.withPromotions(promotions);
+    }
+  }
+
+  /**
+   * 一次替换产品、折扣码和促销规则，读取方要么看到全部旧数据，要么看到全部新数据.
+   *
+   * @param products 新的产品映射，为null时保持不变
+   * @param promotions 新的折扣码映射，为null时保持不变
+   * @param rules 新的促销规则，为null时保持不变
+   * @return 发布后的快照
+   */
+  public ProductCatalog replace(Map<String, Product> products, Map<String, Promotion> promotions,
+      List<PromotionRule> rules) {
+    synchronized (this) {
+      ProductCatalog next = catalog;
+      if (products != null) {
+        next = next.withProducts(new HashMap<>(products));
+      }
+      if (promotions != null || rules != null) {
+        next = next.withPromotions(
+            promotions != null ? new HashMap<>(promotions) : next.getPromotions(),
+            rules != null ? rules : next.getRules());
+      }
+      catalog = next;
+      return next;
+    }
   }
 
   public Product findByCode(String productCode) {
-    return products.get(productCode);
+    return catalog.find(productCode);
   }
 
   public Map<String, Product> findAll() {
-    return new ConcurrentHashMap<>(products);
+    return catalog.getProducts();
   }
-}
 
+  public ProductCatalog getCatalog() {
+    return catalog;
+  }
+}
@@ -3,26 +3,40 @@ package com.yuki.server.infrastructure.store;
 import com.yuki.server.domain.model.Promotion;
 import org.springframework.stereotype.Component;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 促销数据存储（基础设施层）.
+ *
+ * <p>折扣码保存在 {@link ProductStore} 的目录快照中，与产品一起按快照发布.
+ * 只被促销规则引用的折扣码同样视为有效.
  */
 @Component
 public class PromotionStore {
-  private final Map<String, Promotion> promotions = new ConcurrentHashMap<>();
+  private final ProductStore productStore;
+
+  public PromotionStore(ProductStore productStore) {
+    this.productStore = productStore;
+  }
 
   public void save(Promotion promotion) {
-    promotions.put(promotion.getDiscountCode(), promotion);
+    productStore.savePromotions(List.of(promotion));
+  }
+
+  public void saveAll(Collection<Promotion> promotions) {
+    productStore.savePromotions(promotions);
   }
 
   public Promotion findByCode(String discountCode) {
-    return promotions.get(discountCode);
+    return productStore.getCatalog().findPromotion(discountCode);
   }
 
   public boolean isValid(String discountCode) {
-    return promotions.containsKey(discountCode);
+    return productStore.getCatalog().isDiscountCode(discountCode);
   }
-}
 
+  public long getVersion() {
+    return productStore.getCatalog().getPromotionVersion();
+  }
+}
@@ -0,0 +1,86 @@
+package com.yuki.server.infrastructure.store;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 哈希时间轮（基础设施层）.
+ *
+ * <p>时间按固定刻度划分，刻度 t 的任务放入第 t % slotCount 个槽；
+ * 超过一圈的任务与当圈任务同槽，取出后由调用方根据实际截止时间决定处理或重新放入.
+ *
+ * @param <K> 任务键类型
+ */
+class TimingWheel<K> {
+  private final Slot<K>[] slots;
+  private final int mask;
+  private final long tickMillis;
+
+  @SuppressWarnings("unchecked")
+  TimingWheel(int slotCount, long tickMillis) {
+    if (Integer.bitCount(slotCount) != 1) {
+      throw new IllegalArgumentException("Slot count must be a power of two: " + slotCount);
+    }
+    this.slots = new Slot[slotCount];
+    for (int i = 0; i < slotCount; i++) {
+      slots[i] = new Slot<>();
+    }
+    this.mask = slotCount - 1;
+    this.tickMillis = tickMillis;
+  }
+
+  /**
+   * 计算时间点所在的刻度.
+   *
+   * @param millis 时间（毫秒）
+   * @return 刻度
+   */
+  long tickOf(long millis) {
+    return Math.floorDiv(millis, tickMillis);
+  }
+
+  int slotCount() {
+    return slots.length;
+  }
+
+  /**
+   * 将键放入指定刻度对应的槽.
+   *
+   * @param key 键
+   * @param tick 刻度
+   */
+  void schedule(K key, long tick) {
+    slots[(int) (tick & mask)].add(key);
+  }
+
+  /**
+   * 取出指定刻度对应槽中的全部键.
+   *
+   * @param tick 刻度
+   * @return 键列表
+   */
+  List<K> drain(long tick) {
+    return slots[(int) (tick & mask)].drain();
+  }
+
+  /**
+   * 时间轮的一个槽.
+   */
+  private static final class Slot<K> {
+    private List<K> keys = new ArrayList<>();
+
+    synchronized void add(K key) {
+      keys.add(key);
+    }
+
+    synchronized List<K> drain() {
+      if (keys.isEmpty()) {
+        return Collections.emptyList();
+      }
+      List<K> drained = keys;
+      keys = new ArrayList<>();
+      return drained;
+    }
+  }
+}
@@ -2,10 +2,18 @@ package com.yuki.server.presentation.controller;
 
 import com.yuki.server.application.dto.AddProductRequest;
 import com.yuki.server.application.dto.ApplyDiscountRequest;
+import com.yuki.server.application.dto.ApplyDiscountResult;
+import com.yuki.server.application.dto.BasketItemRequest;
 import com.yuki.server.application.dto.BasketResponse;
+import com.yuki.server.application.dto.ErrorResponse;
 import com.yuki.server.application.service.BasketService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -14,6 +22,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 /**
  * 购物车控制器（表示层）.
  */
@@ -21,6 +31,8 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api/baskets")
 public class BasketController {
 
+  private static final Logger logger = LoggerFactory.getLogger(BasketController.class);
+
   private final BasketService basketService;
 
   public BasketController(BasketService basketService) {
@@ -81,19 +93,52 @@ public class BasketController {
     return ResponseEntity.ok(basket);
   }
 
+  /**
+   * 批量修改购物车产品行（增加、设置、移除）.
+   *
+   * @param basketId 购物车ID
+   * @param items 产品行修改列表
+   * @return 购物车响应
+   */
+  @PatchMapping("/{basketId}/products")
+  public ResponseEntity<BasketResponse> updateProducts(
+      @PathVariable String basketId,
+      @RequestBody List<BasketItemRequest> items) {
+    BasketResponse basket = basketService.updateProducts(basketId, items);
+    return ResponseEntity.ok(basket);
+  }
+
   /**
    * 应用折扣码.
    *
+   * <p>折扣码无效返回400；同一购物车或客户短时间内无效尝试过多时返回429并附带Retry-After.
+   * 两者都是预期内的结果，只记录debug日志.
+   *
    * @param basketId 购物车ID
    * @param request 应用折扣请求
-   * @return 购物车响应
+   * @return 购物车响应或错误响应
    */
   @PutMapping("/{basketId}/discount")
-  public ResponseEntity<BasketResponse> applyDiscount(
+  public ResponseEntity<?> applyDiscount(
       @PathVariable String basketId,
       @RequestBody ApplyDiscountRequest request) {
-    BasketResponse basket = basketService.applyDiscount(basketId, request.getDiscountCode());
-    return ResponseEntity.ok(basket);
+    String discountCode = request.getDiscountCode();
+    ApplyDiscountResult result = basketService.applyDiscount(basketId, discountCode);
+    return switch (result.getStatus()) {
+      case APPLIED -> ResponseEntity.ok(result.getBasket());
+      case INVALID_CODE -> {
+        logger.debug("Invalid discount code for basket {}: {}", basketId, discountCode);
+        yield ResponseEntity.badRequest()
+            .body(new ErrorResponse("INVALID_REQUEST", "Invalid discount code: " + discountCode));
+      }
+      case THROTTLED -> {
+        logger.debug("Discount code attempts throttled for basket {}", basketId);
+        yield ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(result.getRetryAfterSeconds()))
+            .body(new ErrorResponse("TOO_MANY_REQUESTS",
+                "Too many invalid discount codes, retry later"));
+      }
+    };
   }
 }
 
@@ -0,0 +1,61 @@
+package com.yuki.server.presentation.controller;
+
+import com.yuki.server.application.dto.CatalogReloadResponse;
+import com.yuki.server.application.service.CatalogService;
+import com.yuki.server.domain.exception.AccessDeniedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * 目录管理控制器（表示层）.
+ *
+ * <p>请求需在 {@value #ADMIN_TOKEN_HEADER} 头中携带 {@code data-loader.admin-token}；
+ * 未配置令牌时接口不可用，一律返回403.
+ */
+@RestController
+@RequestMapping("/api/admin/catalog")
+public class CatalogAdminController {
+
+  static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+  private final CatalogService catalogService;
+  private final byte[] adminToken;
+
+  public CatalogAdminController(
+      CatalogService catalogService,
+      @Value("${data-loader.admin-token:}") String adminToken) {
+    this.catalogService = catalogService;
+    this.adminToken = adminToken.getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * 从目录文件重新加载产品和折扣码.
+   *
+   * @param token 管理令牌
+   * @return 本次变化的条数及发布后的版本号
+   */
+  @PostMapping("/reload")
+  public ResponseEntity<CatalogReloadResponse> reload(
+      @RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token) {
+    authorize(token);
+    return ResponseEntity.ok(catalogService.reload());
+  }
+
+  private void authorize(String token) {
+    if (adminToken.length == 0) {
+      throw new AccessDeniedException("Catalog administration is disabled");
+    }
+    // 定长比较，响应时间不随匹配的前缀长度变化
+    if (token == null
+        || !MessageDigest.isEqual(adminToken, token.getBytes(StandardCharsets.UTF_8))) {
+      throw new AccessDeniedException("Invalid admin token");
+    }
+  }
+}
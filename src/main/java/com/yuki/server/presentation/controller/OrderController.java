@@ -1,17 +1,35 @@
 package com.yuki.server.presentation.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.yuki.server.application.dto.CheckoutRequest;
+import com.yuki.server.application.dto.OrderPageResponse;
 import com.yuki.server.application.dto.OrderResponse;
 import com.yuki.server.application.service.OrderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * 订单控制器（表示层）.
@@ -20,10 +38,19 @@ import java.util.List;
 @RequestMapping("/api/orders")
 public class OrderController {
 
+  private static final Logger logger = LoggerFactory.getLogger(OrderController.class);
+
+  private static final String NDJSON = "application/x-ndjson";
+
   private final OrderService orderService;
 
-  public OrderController(OrderService orderService) {
+  private final ObjectWriter orderWriter;
+
+  public OrderController(OrderService orderService, ObjectMapper objectMapper) {
     this.orderService = orderService;
+    // 逐条写入时不在每个订单后flush，由输出缓冲区决定分块大小
+    this.orderWriter = objectMapper.writerFor(OrderResponse.class)
+        .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
   }
 
   /**
@@ -31,19 +58,43 @@ public class OrderController {
    *
    * @param basketId 购物车ID
    * @param request 结账请求
+   * @param idempotencyKey 幂等键，重试时携带相同的值可得到首次结账的结果
    * @return 订单响应
    */
   @PostMapping("/checkout/{basketId}")
   public ResponseEntity<OrderResponse> checkout(
       @PathVariable String basketId,
-      @RequestBody CheckoutRequest request) {
+      @RequestBody CheckoutRequest request,
+      @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
     OrderResponse order = orderService.checkout(
         basketId,
         request.getCardNumber(),
-        request.getExpiryDate());
+        request.getExpiryDate(),
+        idempotencyKey);
     return ResponseEntity.ok(order);
   }
 
+  /**
+   * 异步结账，等待支付期间释放请求线程.
+   *
+   * @param basketId 购物车ID
+   * @param request 结账请求
+   * @param idempotencyKey 幂等键，重试时携带相同的值可得到首次结账的结果
+   * @return 订单响应
+   */
+  @PostMapping("/checkout/{basketId}/async")
+  public CompletableFuture<ResponseEntity<OrderResponse>> checkoutAsync(
+      @PathVariable String basketId,
+      @RequestBody CheckoutRequest request,
+      @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+    return orderService.checkoutAsync(
+            basketId,
+            request.getCardNumber(),
+            request.getExpiryDate(),
+            idempotencyKey)
+        .thenApply(ResponseEntity::ok);
+  }
+
   /**
    * 获取所有订单列表.
    *
@@ -55,6 +106,55 @@ public class OrderController {
     return ResponseEntity.ok(orders);
   }
 
+  /**
+   * 分页获取订单列表（指定limit参数时生效）.
+   *
+   * @param limit 每页条数
+   * @param after 上一页返回的游标
+   * @param customerId 客户ID
+   * @param from 起始时间（含）
+   * @param to 结束时间（不含）
+   * @return 订单分页响应
+   */
+  @GetMapping(params = "limit")
+  public ResponseEntity<OrderPageResponse> getOrdersPage(
+      @RequestParam int limit,
+      @RequestParam(required = false) String after,
+      @RequestParam(required = false) String customerId,
+      @RequestParam(required = false)
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam(required = false)
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+    OrderPageResponse page = orderService.getOrdersPage(customerId, from, to, after, limit);
+    return ResponseEntity.ok(page);
+  }
+
+  /**
+   * 流式导出订单（NDJSON，每行一个订单，按创建时间升序）.
+   * 订单边读取边写出，内存占用与订单总数无关；客户端断开时停止导出.
+   *
+   * @param customerId 客户ID
+   * @param from 起始时间（含）
+   * @param to 结束时间（不含）
+   * @return 订单流
+   */
+  @GetMapping(value = "/export", produces = NDJSON)
+  public ResponseEntity<StreamingResponseBody> exportOrders(
+      @RequestParam(required = false) String customerId,
+      @RequestParam(required = false)
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+      @RequestParam(required = false)
+      @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+    StreamingResponseBody body = out -> {
+      try (Stream<OrderResponse> orders = orderService.exportOrders(customerId, from, to)) {
+        writeNdjson(orders.iterator(), out);
+      }
+    };
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(NDJSON))
+        .body(body);
+  }
+
   /**
    * 根据客户ID获取订单列表.
    *
@@ -67,5 +167,27 @@ public class OrderController {
     List<OrderResponse> orders = orderService.getOrdersByCustomerId(customerId);
     return ResponseEntity.ok(orders);
   }
-}
 
+  /**
+   * 将订单逐行写出为NDJSON.
+   *
+   * @param orders 订单
+   * @param out 响应输出流
+   */
+  private void writeNdjson(Iterator<OrderResponse> orders, OutputStream out) {
+    int written = 0;
+    try (JsonGenerator generator = orderWriter.createGenerator(out)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      // 根值之间不使用默认的空格分隔，改为每个订单后换行
+      generator.setRootValueSeparator(null);
+      while (orders.hasNext()) {
+        orderWriter.writeValue(generator, orders.next());
+        generator.writeRaw('\n');
+        written++;
+      }
+    } catch (IOException e) {
+      // 客户端断开连接，停止继续读取订单
+      logger.debug("Order export aborted after {} orders: {}", written, e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package com.yuki.server.presentation.controller;
+
+import com.yuki.server.application.dto.MinuteStatsResponse;
+import com.yuki.server.application.dto.OrderStatsResponse;
+import com.yuki.server.application.service.OrderStatsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 订单汇总控制器（表示层）.
+ */
+@RestController
+@RequestMapping("/api/orders/stats")
+public class OrderStatsController {
+
+  private final OrderStatsService orderStatsService;
+
+  public OrderStatsController(OrderStatsService orderStatsService) {
+    this.orderStatsService = orderStatsService;
+  }
+
+  /**
+   * 获取全部订单的汇总.
+   *
+   * @return 订单汇总
+   */
+  @GetMapping
+  public ResponseEntity<OrderStatsResponse> getTotals() {
+    return ResponseEntity.ok(orderStatsService.getTotals());
+  }
+
+  /**
+   * 获取客户的订单汇总.
+   *
+   * @param customerId 客户ID
+   * @return 订单汇总
+   */
+  @GetMapping("/customers/{customerId}")
+  public ResponseEntity<OrderStatsResponse> getCustomerTotals(@PathVariable String customerId) {
+    return ResponseEntity.ok(orderStatsService.getCustomerTotals(customerId));
+  }
+
+  /**
+   * 获取折扣码的使用汇总.
+   *
+   * @param discountCode 折扣码
+   * @return 订单汇总
+   */
+  @GetMapping("/discounts/{discountCode}")
+  public ResponseEntity<OrderStatsResponse> getDiscountTotals(@PathVariable String discountCode) {
+    return ResponseEntity.ok(orderStatsService.getDiscountTotals(discountCode));
+  }
+
+  /**
+   * 获取最近若干分钟的逐分钟汇总.
+   *
+   * @param last 分钟数
+   * @return 按时间升序的逐分钟汇总
+   */
+  @GetMapping("/minutes")
+  public ResponseEntity<List<MinuteStatsResponse>> getMinuteTotals(
+      @RequestParam(defaultValue = "60") int last) {
+    return ResponseEntity.ok(orderStatsService.getMinuteTotals(last));
+  }
+}
@@ -1,36 +1,211 @@
 package com.yuki.server.presentation.controller;
 
-import com.yuki.server.application.dto.ProductResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.yuki.server.application.service.ProductService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * 产品控制器（表示层）.
+ *
+ * <p>产品列表按目录版本预先序列化为JSON及其gzip压缩版本，目录不变时直接返回缓存的字节；
+ * 响应携带由内容摘要生成的强ETag，请求的If-None-Match匹配时返回304.
+ * 编码按Accept-Encoding的q值在gzip与identity之间选择，两者都不被接受时返回406.
  */
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
+  private static final String GZIP = "gzip";
+  private static final String IDENTITY = "identity";
+
   private final ProductService productService;
+  private final ObjectMapper objectMapper;
+
+  private volatile EncodedCatalog encodedCatalog;
 
-  public ProductController(ProductService productService) {
+  public ProductController(ProductService productService, ObjectMapper objectMapper) {
     this.productService = productService;
+    this.objectMapper = objectMapper;
   }
 
   /**
    * 获取所有产品列表.
    *
-   * @return 产品列表
+   * @param ifNoneMatch 客户端缓存的ETag
+   * @param acceptEncoding 客户端可接受的内容编码
+   * @return 产品列表JSON
    */
   @GetMapping
-  public ResponseEntity<List<ProductResponse>> getAllProducts() {
-    List<ProductResponse> products = productService.getAllProducts();
-    return ResponseEntity.ok(products);
+  public ResponseEntity<byte[]> getAllProducts(
+      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+      @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+      String acceptEncoding) {
+    String encoding = selectEncoding(acceptEncoding);
+    if (encoding == null) {
+      return ResponseEntity.status(HttpStatus.NOT_ACCEPTABLE)
+          .varyBy(HttpHeaders.ACCEPT_ENCODING)
+          .build();
+    }
+    EncodedCatalog catalog = currentCatalog();
+    boolean gzip = encoding.equals(GZIP);
+    String etag = gzip ? catalog.gzipEtag : catalog.etag;
+
+    if (ifNoneMatch != null && matches(ifNoneMatch, catalog)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+          .eTag(etag)
+          .varyBy(HttpHeaders.ACCEPT_ENCODING)
+          .build();
+    }
+
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .eTag(etag)
+        .varyBy(HttpHeaders.ACCEPT_ENCODING);
+    if (gzip) {
+      response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+      return response.body(catalog.gzipJson);
+    }
+    return response.body(catalog.json);
+  }
+
+  private EncodedCatalog currentCatalog() {
+    // 先读版本再读数据，保证缓存不会以新版本号记录旧数据；并发重建结果相同，无需加锁
+    long version = productService.getCatalogVersion();
+    EncodedCatalog catalog = encodedCatalog;
+    if (catalog == null || catalog.version != version) {
+      catalog = encode(version);
+      encodedCatalog = catalog;
+    }
+    return catalog;
   }
-}
 
+  private EncodedCatalog encode(long version) {
+    try {
+      byte[] json = objectMapper.writeValueAsBytes(productService.getAllProducts());
+      return new EncodedCatalog(version, json, gzip(json));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize product catalog", e);
+    }
+  }
+
+  private static byte[] gzip(byte[] bytes) {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 4 + 64);
+    try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+      out.write(bytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return buffer.toByteArray();
+  }
+
+  /**
+   * 按Accept-Encoding（RFC 9110 12.5.3）选择响应编码.
+   * gzip与identity各取其q值，未列出时取"*"的q值；q=0表示不接受.
+   * gzip可接受且q值不低于identity时优先gzip；identity未列出且没有"*"时不参与比较，
+   * 仅作为gzip不可接受时的默认编码.
+   *
+   * @param acceptEncoding 请求头，可为null
+   * @return gzip或identity，两者都不被接受时为null
+   */
+  static String selectEncoding(String acceptEncoding) {
+    if (acceptEncoding == null || acceptEncoding.isBlank()) {
+      return IDENTITY;
+    }
+    double gzip = -1;
+    double identity = -1;
+    double any = -1;
+    for (String element : acceptEncoding.split(",")) {
+      String[] parts = element.split(";");
+      String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+      switch (coding) {
+        case GZIP, "x-gzip" -> gzip = Math.max(gzip, quality(parts));
+        case IDENTITY -> identity = Math.max(identity, quality(parts));
+        case "*" -> any = Math.max(any, quality(parts));
+        default -> {
+          // 不支持的编码
+        }
+      }
+    }
+    if (gzip < 0) {
+      gzip = Math.max(any, 0);
+    }
+    if (identity < 0 && any >= 0) {
+      identity = any;
+    }
+    if (gzip > 0 && gzip >= identity) {
+      return GZIP;
+    }
+    return identity != 0 ? IDENTITY : null;
+  }
+
+  /**
+   * 解析编码的q参数，缺省为1；无法解析或超出[0, 1]时视为0（不接受）.
+   */
+  private static double quality(String[] parts) {
+    for (int i = 1; i < parts.length; i++) {
+      String parameter = parts[i].trim();
+      if (parameter.length() > 1 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q')
+          && parameter.charAt(1) == '=') {
+        try {
+          double q = Double.parseDouble(parameter.substring(2).trim());
+          return q >= 0 && q <= 1 ? q : 0;
+        } catch (NumberFormatException e) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+
+  /**
+   * If-None-Match 采用弱比较，任一编码版本的ETag都视为匹配.
+   */
+  private static boolean matches(String ifNoneMatch, EncodedCatalog catalog) {
+    for (String tag : ifNoneMatch.split(",")) {
+      String candidate = tag.trim();
+      if (candidate.startsWith("W/")) {
+        candidate = candidate.substring(2);
+      }
+      if (candidate.equals("*") || candidate.equals(catalog.etag)
+          || candidate.equals(catalog.gzipEtag)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * 某一目录版本的预编码产品列表.
+   */
+  private static final class EncodedCatalog {
+    private final long version;
+    private final byte[] json;
+    private final byte[] gzipJson;
+    private final String etag;
+    private final String gzipEtag;
+
+    private EncodedCatalog(long version, byte[] json, byte[] gzipJson) {
+      String digest = DigestUtils.md5DigestAsHex(json);
+      this.version = version;
+      this.json = json;
+      this.gzipJson = gzipJson;
+      this.etag = "\"" + digest + "\"";
+      this.gzipEtag = "\"" + digest + "-gzip\"";
+    }
+  }
+}
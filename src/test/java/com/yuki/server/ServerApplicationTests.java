@@ -1,13 +1,45 @@
 package com.yuki.server;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.yuki.server.application.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
 
 @SpringBootTest
 class ServerApplicationTests {
 
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     void contextLoads() {
     }
 
+    @Test
+    void bulkheadExecutorsDoNotReplaceApplicationTaskExecutor() {
+        assertThat(context.containsBean("applicationTaskExecutor")).isTrue();
+        assertThat(context.containsBean("paymentExecutor")).isTrue();
+        assertThat(context.containsBean("checkoutExecutor")).isTrue();
+    }
+
+    @Test
+    void timedServicesRecordMethodLatency() {
+        productService.getAllProducts();
+
+        assertThat(meterRegistry.get("app.service")
+            .tag("class", "com.yuki.server.application.service.impl.ProductServiceImpl")
+            .tag("method", "getAllProducts")
+            .timer().count()).isPositive();
+    }
+
 }
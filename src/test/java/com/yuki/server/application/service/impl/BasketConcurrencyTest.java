@@ -0,0 +1,197 @@
+package com.yuki.server.application.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.yuki.server.application.dto.BasketItemRequest;
+import com.yuki.server.application.dto.BasketResponse;
+import com.yuki.server.application.dto.OrderResponse;
+import com.yuki.server.domain.exception.ResourceNotFoundException;
+import com.yuki.server.domain.model.Product;
+import com.yuki.server.infrastructure.config.PaymentBulkheadConfig;
+import com.yuki.server.infrastructure.payment.LocalPaymentGateway;
+import com.yuki.server.infrastructure.repository.BasketRepositoryImpl;
+import com.yuki.server.infrastructure.repository.DiscountAttemptRepositoryImpl;
+import com.yuki.server.infrastructure.repository.IdempotencyRepositoryImpl;
+import com.yuki.server.infrastructure.repository.OrderRepositoryImpl;
+import com.yuki.server.infrastructure.repository.ProductRepositoryImpl;
+import com.yuki.server.infrastructure.repository.PromotionRepositoryImpl;
+import com.yuki.server.infrastructure.store.BasketStore;
+import com.yuki.server.infrastructure.store.DiscountAttemptStore;
+import com.yuki.server.infrastructure.store.IdempotencyStore;
+import com.yuki.server.infrastructure.store.OrderRollupStore;
+import com.yuki.server.infrastructure.store.OrderStore;
+import com.yuki.server.infrastructure.store.ProductStore;
+import com.yuki.server.infrastructure.store.PromotionStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 同一购物车并发修改与结账的压力测试.
+ */
+class BasketConcurrencyTest {
+
+  private static final int THREADS = 16;
+  private static final int OPERATIONS_PER_THREAD = 2_000;
+  private static final List<String> PRODUCT_CODES = List.of("P1", "P2", "P3", "P4");
+
+  private ExecutorService clients;
+  private ExecutorService paymentExecutor;
+  private ExecutorService checkoutExecutor;
+  private BasketServiceImpl basketService;
+  private OrderServiceImpl orderService;
+
+  @BeforeEach
+  void setUp() {
+    ProductStore productStore = new ProductStore();
+    productStore.saveAll(List.of(
+        new Product("P1", "Product 1", new BigDecimal("1.25")),
+        new Product("P2", "Product 2", new BigDecimal("2.50")),
+        new Product("P3", "Product 3", new BigDecimal("0.99")),
+        new Product("P4", "Product 4", new BigDecimal("10.00"))));
+    ProductRepositoryImpl productRepository = new ProductRepositoryImpl(productStore);
+    PromotionRepositoryImpl promotionRepository =
+        new PromotionRepositoryImpl(new PromotionStore(productStore));
+    BasketRepositoryImpl basketRepository = new BasketRepositoryImpl(new BasketStore());
+    PricingServiceImpl pricingService =
+        new PricingServiceImpl(productRepository, RoundingMode.HALF_UP);
+
+    basketService = new BasketServiceImpl(basketRepository, promotionRepository,
+        new DiscountAttemptRepositoryImpl(new DiscountAttemptStore()),
+        new ProductServiceImpl(productRepository), pricingService, new SimpleMeterRegistry());
+    paymentExecutor = new PaymentBulkheadConfig().paymentExecutor(false, 4, 16);
+    checkoutExecutor = new PaymentBulkheadConfig().checkoutExecutor(0, 1024);
+    OrderStore orderStore = new OrderStore();
+    orderService = new OrderServiceImpl(
+        new OrderRepositoryImpl(orderStore, new OrderRollupStore(orderStore)),
+        basketRepository,
+        new IdempotencyRepositoryImpl(new IdempotencyStore()),
+        new CreditCardServiceImpl(Clock.systemDefaultZone(),
+            new LocalPaymentGateway(Duration.ofMillis(20), Duration.ofMillis(20))),
+        pricingService,
+        paymentExecutor,
+        checkoutExecutor,
+        Duration.ofSeconds(5),
+        new SimpleMeterRegistry());
+    clients = Executors.newFixedThreadPool(THREADS);
+  }
+
+  @AfterEach
+  void tearDown() {
+    clients.shutdownNow();
+    paymentExecutor.shutdownNow();
+    checkoutExecutor.shutdownNow();
+  }
+
+  @Test
+  void concurrentAddsToSameBasketAreNotLost() throws Exception {
+    String basketId = basketService.createBasket("customer").getBasketId();
+
+    runConcurrently(thread -> {
+      for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+        basketService.addProduct(basketId, PRODUCT_CODES.get((thread + i) % PRODUCT_CODES.size()), 1);
+      }
+      return null;
+    });
+
+    BasketResponse basket = basketService.getBasket(basketId);
+    int expectedPerProduct = THREADS * OPERATIONS_PER_THREAD / PRODUCT_CODES.size();
+    for (String productCode : PRODUCT_CODES) {
+      assertThat(basket.getProducts()).containsEntry(productCode, expectedPerProduct);
+    }
+    // 增量维护的小计必须与按最终内容重算的结果一致
+    assertThat(basket.getTotalPrice())
+        .isEqualByComparingTo(new BigDecimal("14.74").multiply(BigDecimal.valueOf(expectedPerProduct)));
+  }
+
+  @Test
+  void concurrentBatchAndSingleUpdatesAreAtomic() throws Exception {
+    String basketId = basketService.createBasket("customer").getBasketId();
+
+    runConcurrently(thread -> {
+      for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+        if (thread % 2 == 0) {
+          basketService.updateProducts(basketId, List.of(
+              new BasketItemRequest("P1", 1, BasketItemRequest.Operation.ADD),
+              new BasketItemRequest("P2", 1, BasketItemRequest.Operation.ADD)));
+        } else {
+          basketService.addProduct(basketId, "P3", 1);
+        }
+      }
+      return null;
+    });
+
+    BasketResponse basket = basketService.getBasket(basketId);
+    int perGroup = THREADS / 2 * OPERATIONS_PER_THREAD;
+    assertThat(basket.getProducts())
+        .containsEntry("P1", perGroup)
+        .containsEntry("P2", perGroup)
+        .containsEntry("P3", perGroup);
+    assertThat(basket.getTotalPrice())
+        .isEqualByComparingTo(new BigDecimal("4.74").multiply(BigDecimal.valueOf(perGroup)));
+  }
+
+  @Test
+  void checkoutChargesExactlyTheAddsAcceptedBeforeItClosedTheBasket() throws Exception {
+    String basketId = basketService.createBasket("customer").getBasketId();
+    basketService.addProduct(basketId, "P4", 1);
+    AtomicInteger accepted = new AtomicInteger(1);
+
+    Future<OrderResponse> checkout = clients.submit(
+        () -> orderService.checkout(basketId, "4000056655665556", "12/99"));
+    runConcurrently(thread -> {
+      try {
+        for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+          basketService.addProduct(basketId, "P4", 1);
+          accepted.incrementAndGet();
+        }
+      } catch (ResourceNotFoundException e) {
+        // 购物车已结账关闭或删除
+      }
+      return null;
+    });
+
+    OrderResponse order = checkout.get();
+    assertThat(order.getTotalPrice())
+        .isEqualByComparingTo(new BigDecimal("10.00").multiply(BigDecimal.valueOf(accepted.get())));
+    assertThatThrownBy(() -> basketService.addProduct(basketId, "P4", 1))
+        .isInstanceOf(ResourceNotFoundException.class);
+  }
+
+  private void runConcurrently(ThreadTask task) throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Void>> futures = new ArrayList<>(THREADS);
+    for (int t = 0; t < THREADS; t++) {
+      int thread = t;
+      Callable<Void> worker = () -> {
+        start.await();
+        return task.run(thread);
+      };
+      futures.add(clients.submit(worker));
+    }
+    start.countDown();
+    for (Future<Void> future : futures) {
+      future.get();
+    }
+  }
+
+  @FunctionalInterface
+  private interface ThreadTask {
+    Void run(int thread) throws Exception;
+  }
+}
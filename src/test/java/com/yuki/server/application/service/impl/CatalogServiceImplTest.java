@@ -0,0 +1,166 @@
+package com.yuki.server.application.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.yuki.server.application.dto.CatalogReloadResponse;
+import com.yuki.server.application.gateway.CatalogSource;
+import com.yuki.server.domain.exception.CatalogReloadException;
+import com.yuki.server.domain.model.Basket;
+import com.yuki.server.domain.model.Product;
+import com.yuki.server.domain.model.ProductCatalog;
+import com.yuki.server.domain.model.Promotion;
+import com.yuki.server.domain.model.PromotionRule;
+import com.yuki.server.infrastructure.repository.ProductRepositoryImpl;
+import com.yuki.server.infrastructure.store.ProductStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.FileNotFoundException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * 目录重新加载测试：新旧目录比较、按侧发布与失败时保持原目录.
+ */
+class CatalogServiceImplTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private ProductStore productStore;
+  private PricingServiceImpl pricingService;
+  private CatalogServiceImpl catalogService;
+  private CatalogSource.Contents next;
+  private UncheckedIOException failure;
+
+  @BeforeEach
+  void setUp() {
+    productStore = new ProductStore();
+    ProductRepositoryImpl productRepository = new ProductRepositoryImpl(productStore);
+    pricingService = new PricingServiceImpl(productRepository, RoundingMode.HALF_UP);
+    CatalogSource source = new CatalogSource() {
+      @Override
+      public Contents read() {
+        if (failure != null) {
+          throw failure;
+        }
+        return next;
+      }
+
+      @Override
+      public String fingerprint() {
+        return "";
+      }
+    };
+    catalogService = new CatalogServiceImpl(
+        source, productRepository, pricingService, meterRegistry);
+
+    next = contents(
+        List.of(product("P1", "1.00"), product("P2", "2.00"), product("P3", "3.00")),
+        List.of(new Promotion("D10", new BigDecimal("10"))),
+        List.of(rule("R1", "P1", "5")));
+    catalogService.reload();
+  }
+
+  @Test
+  void reportsAddedUpdatedAndRemovedEntries() {
+    ProductCatalog before = productStore.getCatalog();
+    next = contents(
+        List.of(product("P1", "1.50"), product("P2", "2.00"), product("P4", "4.00"),
+            product("P5", "5.00")),
+        List.of(new Promotion("D10", new BigDecimal("10")),
+            new Promotion("D20", new BigDecimal("20"))),
+        List.of());
+
+    CatalogReloadResponse response = catalogService.reload();
+
+    assertThat(response).isEqualTo(new CatalogReloadResponse(
+        before.getVersion() + 1, before.getPromotionVersion() + 1,
+        2, 1, 1, 1, 0, 0, 0, 0, 1));
+    ProductCatalog after = productStore.getCatalog();
+    assertThat(after.getProducts()).containsOnlyKeys("P1", "P2", "P4", "P5");
+    assertThat(after.find("P1").getFullPrice()).isEqualTo(new BigDecimal("1.50"));
+    assertThat(after.getPromotions()).containsOnlyKeys("D10", "D20");
+    assertThat(after.getRules()).isEmpty();
+  }
+
+  @Test
+  void unchangedSideKeepsItsVersion() {
+    ProductCatalog before = productStore.getCatalog();
+    next = contents(next.getProducts(),
+        List.of(new Promotion("D10", new BigDecimal("15"))), next.getRules());
+
+    CatalogReloadResponse response = catalogService.reload();
+
+    ProductCatalog after = productStore.getCatalog();
+    assertThat(after.getVersion()).isEqualTo(before.getVersion());
+    assertThat(after.getProducts()).isSameAs(before.getProducts());
+    assertThat(after.getPromotionVersion()).isEqualTo(before.getPromotionVersion() + 1);
+    assertThat(response.getPromotionsUpdated()).isEqualTo(1);
+    assertThat(response.getProductsAdded() + response.getProductsUpdated()
+        + response.getProductsRemoved()).isZero();
+  }
+
+  @Test
+  void identicalContentsPublishNothing() {
+    ProductCatalog before = productStore.getCatalog();
+    next = contents(
+        List.of(product("P3", "3.00"), product("P2", "2.00"), product("P1", "1.00")),
+        List.of(new Promotion("D10", new BigDecimal("10"))),
+        List.of(rule("R1", "P1", "5")));
+
+    CatalogReloadResponse response = catalogService.reload();
+
+    assertThat(productStore.getCatalog()).isSameAs(before);
+    assertThat(response).isEqualTo(new CatalogReloadResponse(
+        before.getVersion(), before.getPromotionVersion(), 0, 0, 0, 0, 0, 0, 0, 0, 0));
+    assertThat(meterRegistry.get("catalog.reloads").tag("result", "unchanged").counter()
+        .count()).isEqualTo(1);
+  }
+
+  @Test
+  void pricesComeFromTheSwappedCatalog() {
+    Basket basket = new Basket("b1", "c1");
+    basket.update(current -> pricingService.withProduct(current, "P2", 2));
+    assertThat(pricingService.calculateTotalPrice(basket)).isEqualTo(new BigDecimal("4.00"));
+
+    next = contents(List.of(product("P2", "2.50")), next.getPromotions(), next.getRules());
+    catalogService.reload();
+
+    assertThat(pricingService.calculateTotalPrice(basket)).isEqualTo(new BigDecimal("5.00"));
+  }
+
+  @Test
+  void failedReadKeepsTheCurrentCatalog() {
+    ProductCatalog before = productStore.getCatalog();
+    failure = new UncheckedIOException(new FileNotFoundException("catalog.json"));
+
+    assertThatThrownBy(() -> catalogService.reload())
+        .isInstanceOf(CatalogReloadException.class)
+        .hasMessage("Catalog reload failed: catalog.json")
+        .hasCauseInstanceOf(FileNotFoundException.class);
+    assertThat(productStore.getCatalog()).isSameAs(before);
+    assertThat(meterRegistry.get("catalog.reloads").tag("result", "failed").counter()
+        .count()).isEqualTo(1);
+  }
+
+  private static CatalogSource.Contents contents(
+      List<Product> products, List<Promotion> promotions, List<PromotionRule> rules) {
+    CatalogSource.Contents contents = new CatalogSource.Contents();
+    contents.getProducts().addAll(products);
+    contents.getPromotions().addAll(promotions);
+    contents.getRules().addAll(rules);
+    return contents;
+  }
+
+  private static Product product(String productCode, String fullPrice) {
+    return new Product(productCode, "Product " + productCode, new BigDecimal(fullPrice));
+  }
+
+  private static PromotionRule rule(String ruleId, String productCode, String percent) {
+    return PromotionRule.productPercent(ruleId, productCode, new BigDecimal(percent), null, false);
+  }
+}
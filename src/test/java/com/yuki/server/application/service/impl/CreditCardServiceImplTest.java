@@ -0,0 +1,204 @@
+package com.yuki.server.application.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.yuki.server.domain.exception.PaymentException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 信用卡校验测试，以原先基于正则、split和parseInt的实现为基准逐项对照.
+ */
+class CreditCardServiceImplTest {
+
+  // 2025年6月
+  private static final Clock CLOCK =
+      Clock.fixed(Instant.parse("2025-06-15T12:00:00Z"), ZoneOffset.UTC);
+
+  private final List<String> authorized = new ArrayList<>();
+  private final CreditCardServiceImpl service = new CreditCardServiceImpl(
+      CLOCK, (cardNumber, expiryDate) -> authorized.add(cardNumber));
+
+  @ParameterizedTest(name = "card [{0}] -> {1}")
+  @CsvSource(delimiter = '|', nullValues = "NULL", value = {
+      "4111111111111111        | true",
+      "4111 1111 1111 1111     | true",
+      "4111-1111-1111-1111     | true",
+      "'  4111111111111111  '  | true",
+      "4111111111111112        | false",  // 校验位错误
+      "4111111111111121        | false",  // 相邻数字交换
+      "0000000000000           | true",   // 13位
+      "000000000000            | false",  // 12位
+      "0000000000000000000     | true",   // 19位
+      "00000000000000000000    | false",  // 20位
+      "378282246310005         | true",
+      "6011111111111117        | true",
+      "5555555555554444        | true",
+      "5555555555554440        | false",
+      "4111a1111b1111c1111     | true",   // 非数字字符被忽略
+      "４１１１１１１１１１１１１１１１ | false",  // 全角数字不计入
+      "''                      | false",
+      "'   '                   | false",
+      "NULL                    | false",
+  })
+  void cardNumberMatchesLegacyRules(String cardNumber, boolean expected) {
+    assertThat(service.isValidCardNumber(cardNumber)).isEqualTo(expected);
+    assertThat(LegacyRules.isValidCardNumber(cardNumber)).isEqualTo(expected);
+  }
+
+  @ParameterizedTest(name = "expiry [{0}] -> {1}")
+  @CsvSource(delimiter = '|', nullValues = "NULL", value = {
+      "06/25          | true",   // 当月最后一天前有效
+      "05/25          | false",
+      "12/99          | true",
+      "1/26           | true",
+      "001/026        | true",
+      "12/30/         | true",   // 末尾的'/'被split丢弃
+      "12/30///       | true",
+      "/12/30         | false",
+      "12//30         | false",
+      "12/            | false",
+      "/              | false",
+      "1230           | false",
+      "00/30          | false",
+      "13/30          | false",
+      "+12/+30        | true",   // parseInt允许正负号
+      "-1/30          | false",
+      "12/-1          | false",  // 1999年
+      "12/+           | false",
+      "'12/ 30'       | false",
+      "'12/30 '       | false",
+      "１２/３０        | true",   // parseInt接受Unicode数字
+      "١٢/٣٠          | true",
+      "12/999997999   | true",   // Year.MAX_VALUE
+      "12/999998000   | false",  // 超出LocalDate范围
+      "12/2147483647  | false",  // 2000 + year 溢出为负数
+      "12/2147483648  | false",  // 超出int范围
+      "12/-2147483648 | false",
+      "99999999999/30 | false",
+      "''             | false",
+      "'   '          | false",
+      "NULL           | false",
+  })
+  void expiryDateMatchesLegacyRules(String expiryDate, boolean expected) {
+    assertThat(service.isValidExpiryDate(expiryDate)).isEqualTo(expected);
+    assertThat(LegacyRules.isValidExpiryDate(expiryDate, CLOCK)).isEqualTo(expected);
+  }
+
+  @Test
+  void validateCardsAppliesBothRulesPerCard() {
+    boolean[] result = service.validateCards(
+        List.of("4111111111111111", "4111111111111112", "4111111111111111"),
+        Arrays.asList("12/30", "12/30", null));
+
+    assertThat(result).containsExactly(true, false, false);
+  }
+
+  @Test
+  void expiryIsReevaluatedWhenMonthChanges() {
+    MutableClock clock = new MutableClock(Instant.parse("2025-06-30T23:59:59Z"));
+    CreditCardServiceImpl service = new CreditCardServiceImpl(clock, (card, expiry) -> { });
+    assertThat(service.isValidExpiryDate("06/25")).isTrue();
+
+    clock.instant = Instant.parse("2025-07-01T00:00:00Z");
+    assertThat(service.isValidExpiryDate("06/25")).isFalse();
+    assertThat(service.isValidExpiryDate("07/25")).isTrue();
+  }
+
+  @Test
+  void processPaymentAuthorizesOnlyValidCards() {
+    assertThatThrownBy(() -> service.processPayment("4111111111111112", "12/30"))
+        .isInstanceOf(PaymentException.class);
+    assertThatThrownBy(() -> service.processPayment("4111111111111111", "05/25"))
+        .isInstanceOf(PaymentException.class);
+    assertThat(authorized).isEmpty();
+
+    service.processPayment("4111111111111111", "06/25");
+    assertThat(authorized).containsExactly("4111111111111111");
+  }
+
+  /**
+   * 原先的校验实现，仅把 {@code LocalDate.now()} 换成了固定时钟.
+   */
+  private static final class LegacyRules {
+
+    static boolean isValidCardNumber(String cardNumber) {
+      if (cardNumber == null || cardNumber.trim().isEmpty()) {
+        return false;
+      }
+      String digitsOnly = cardNumber.replaceAll("[^0-9]", "");
+      if (digitsOnly.length() < 13 || digitsOnly.length() > 19) {
+        return false;
+      }
+      int sum = 0;
+      boolean alternate = false;
+      for (int i = digitsOnly.length() - 1; i >= 0; i--) {
+        int digit = Character.getNumericValue(digitsOnly.charAt(i));
+        if (alternate) {
+          digit *= 2;
+          if (digit > 9) {
+            digit = (digit % 10) + 1;
+          }
+        }
+        sum += digit;
+        alternate = !alternate;
+      }
+      return (sum % 10) == 0;
+    }
+
+    static boolean isValidExpiryDate(String expiryDate, Clock clock) {
+      if (expiryDate == null || expiryDate.trim().isEmpty()) {
+        return false;
+      }
+      try {
+        String[] parts = expiryDate.split("/");
+        if (parts.length != 2) {
+          return false;
+        }
+        int month = Integer.parseInt(parts[0]);
+        int year = Integer.parseInt(parts[1]);
+        int fullYear = 2000 + year;
+        LocalDate expiry = LocalDate.of(fullYear, month, 1);
+        expiry = expiry.withDayOfMonth(expiry.lengthOfMonth());
+        LocalDate today = LocalDate.now(clock);
+        return expiry.isAfter(today) || expiry.isEqual(today);
+      } catch (Exception e) {
+        return false;
+      }
+    }
+  }
+
+  private static final class MutableClock extends Clock {
+    private volatile Instant instant;
+
+    MutableClock(Instant instant) {
+      this.instant = instant;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
@@ -0,0 +1,254 @@
+package com.yuki.server.application.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.yuki.server.application.dto.OrderResponse;
+import com.yuki.server.application.gateway.PaymentGateway;
+import com.yuki.server.domain.exception.PaymentException;
+import com.yuki.server.domain.model.Basket;
+import com.yuki.server.domain.model.Order;
+import com.yuki.server.domain.model.Product;
+import com.yuki.server.infrastructure.config.PaymentBulkheadConfig;
+import com.yuki.server.infrastructure.exception.GlobalExceptionHandler;
+import com.yuki.server.infrastructure.repository.BasketRepositoryImpl;
+import com.yuki.server.infrastructure.repository.IdempotencyRepositoryImpl;
+import com.yuki.server.infrastructure.repository.OrderRepositoryImpl;
+import com.yuki.server.infrastructure.repository.ProductRepositoryImpl;
+import com.yuki.server.infrastructure.store.BasketStore;
+import com.yuki.server.infrastructure.store.IdempotencyStore;
+import com.yuki.server.infrastructure.store.OrderRollupStore;
+import com.yuki.server.infrastructure.store.OrderStore;
+import com.yuki.server.infrastructure.store.ProductStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 结账流程测试.
+ */
+class OrderServiceImplTest {
+
+  private static final String CARD_NUMBER = "4111111111111111";
+  private static final String EXPIRY_DATE = "12/99";
+
+  private ExecutorService paymentExecutor;
+  private ExecutorService checkoutExecutor;
+  private BasketRepositoryImpl basketRepository;
+  private PricingServiceImpl pricingService;
+  private RecordingOrderRepository orderRepository;
+  private OrderServiceImpl orderService;
+  private RecordingGateway gateway;
+
+  @BeforeEach
+  void setUp() {
+    ProductStore productStore = new ProductStore();
+    productStore.saveAll(List.of(new Product("P1", "Product 1", new BigDecimal("1.25"))));
+    pricingService = new PricingServiceImpl(
+        new ProductRepositoryImpl(productStore), RoundingMode.HALF_UP);
+    basketRepository = new BasketRepositoryImpl(new BasketStore());
+    gateway = new RecordingGateway();
+    paymentExecutor = new PaymentBulkheadConfig().paymentExecutor(false, 2, 4);
+    checkoutExecutor = new PaymentBulkheadConfig().checkoutExecutor(1, 16);
+    OrderStore orderStore = new OrderStore();
+    orderRepository = new RecordingOrderRepository(orderStore, new OrderRollupStore(orderStore));
+    orderService = orderService(checkoutExecutor);
+  }
+
+  @AfterEach
+  void tearDown() {
+    paymentExecutor.shutdownNow();
+    checkoutExecutor.shutdownNow();
+  }
+
+  @Test
+  void orderIsPlacedOnCheckoutExecutorRatherThanPaymentBulkhead() {
+    String basketId = createBasket();
+
+    OrderResponse order = orderService.checkoutAsync(basketId, CARD_NUMBER, EXPIRY_DATE).join();
+
+    assertThat(order.getTotalPrice()).isEqualByComparingTo("2.50");
+    assertThat(orderRepository.savingThread).startsWith("checkout-");
+  }
+
+  @Test
+  void synchronousCheckoutOnlySubmitsTheGatewayCall() {
+    String basketId = createBasket();
+
+    OrderResponse order = orderService.checkout(basketId, CARD_NUMBER, EXPIRY_DATE);
+
+    assertThat(order.getTotalPrice()).isEqualByComparingTo("2.50");
+    assertThat(gateway.thread).startsWith("payment-");
+    assertThat(orderRepository.savingThread).isEqualTo(Thread.currentThread().getName());
+  }
+
+  @Test
+  void fullCheckoutExecutorRejectsWithServiceUnavailableAndKeepsBasket() {
+    String basketId = createBasket();
+    OrderServiceImpl busy = orderService(command -> {
+      throw new RejectedExecutionException("Checkout queue is full");
+    });
+
+    assertThatThrownBy(() -> busy.checkoutAsync(basketId, CARD_NUMBER, EXPIRY_DATE).join())
+        .isInstanceOf(CompletionException.class)
+        .cause()
+        .isInstanceOfSatisfying(RejectedExecutionException.class, e ->
+            assertThat(new GlobalExceptionHandler().handleRejectedExecutionException(e)
+                .getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+    assertThat(basketRepository.findById(basketId).getContents().isClosed()).isFalse();
+    assertThat(orderRepository.savingThread).isNull();
+  }
+
+  @Test
+  void failedOrderSaveReopensBasketForRetry() {
+    String basketId = createBasket();
+    orderRepository.failNextSave = true;
+
+    assertThatThrownBy(() -> orderService.checkout(basketId, CARD_NUMBER, EXPIRY_DATE))
+        .isInstanceOf(IllegalStateException.class);
+    Basket basket = basketRepository.findById(basketId);
+    assertThat(basket.getContents().isClosed()).isFalse();
+    assertThat(basket.getProducts()).containsEntry("P1", 2);
+
+    OrderResponse order = orderService.checkout(basketId, CARD_NUMBER, EXPIRY_DATE);
+    assertThat(order.getTotalPrice()).isEqualByComparingTo("2.50");
+    assertThat(basketRepository.findById(basketId)).isNull();
+  }
+
+  @Test
+  void replayWithSameIdempotencyKeyReturnsTheFirstOrder() {
+    String basketId = createBasket();
+
+    OrderResponse first = orderService.checkout(basketId, CARD_NUMBER, EXPIRY_DATE, "key-1");
+    OrderResponse replay = orderService.checkout(basketId, CARD_NUMBER, EXPIRY_DATE, "key-1");
+
+    assertThat(replay.getOrderId()).isEqualTo(first.getOrderId());
+    assertThat(gateway.authorizations.get()).isEqualTo(1);
+    assertThat(orderRepository.findAll()).hasSize(1);
+  }
+
+  @Test
+  void concurrentDuplicatesShareOneInFlightCheckout() throws Exception {
+    String basketId = createBasket();
+    gateway.release = new CountDownLatch(1);
+
+    CompletableFuture<OrderResponse> first =
+        orderService.checkoutAsync(basketId, CARD_NUMBER, EXPIRY_DATE, "key-1");
+    CompletableFuture<OrderResponse> duplicate =
+        orderService.checkoutAsync(basketId, CARD_NUMBER, EXPIRY_DATE, "key-1");
+    CompletableFuture<OrderResponse> syncDuplicate = CompletableFuture.supplyAsync(() ->
+        orderService.checkout(basketId, CARD_NUMBER, EXPIRY_DATE, "key-1"));
+
+    // 支付网关未返回前，重复请求都在等待同一个结果
+    Thread.sleep(100);
+    assertThat(first).isNotDone();
+    assertThat(duplicate).isNotDone();
+    assertThat(syncDuplicate).isNotDone();
+    gateway.release.countDown();
+
+    String orderId = first.get(5, TimeUnit.SECONDS).getOrderId();
+    assertThat(duplicate.get(5, TimeUnit.SECONDS).getOrderId()).isEqualTo(orderId);
+    assertThat(syncDuplicate.get(5, TimeUnit.SECONDS).getOrderId()).isEqualTo(orderId);
+    assertThat(gateway.authorizations.get()).isEqualTo(1);
+    assertThat(orderRepository.findAll()).hasSize(1);
+  }
+
+  @Test
+  void failedAttemptCanBeRetriedWithSameIdempotencyKey() {
+    String basketId = createBasket();
+    gateway.declineNext = true;
+
+    assertThatThrownBy(() -> orderService.checkout(basketId, CARD_NUMBER, EXPIRY_DATE, "key-1"))
+        .isInstanceOf(PaymentException.class);
+    OrderResponse order = orderService.checkout(basketId, CARD_NUMBER, EXPIRY_DATE, "key-1");
+
+    assertThat(order.getTotalPrice()).isEqualByComparingTo("2.50");
+    assertThat(gateway.authorizations.get()).isEqualTo(2);
+    assertThat(orderService.checkout(basketId, CARD_NUMBER, EXPIRY_DATE, "key-1").getOrderId())
+        .isEqualTo(order.getOrderId());
+  }
+
+  private OrderServiceImpl orderService(Executor checkoutExecutor) {
+    return new OrderServiceImpl(
+        orderRepository,
+        basketRepository,
+        new IdempotencyRepositoryImpl(new IdempotencyStore()),
+        new CreditCardServiceImpl(Clock.systemDefaultZone(),
+            gateway),
+        pricingService,
+        paymentExecutor,
+        checkoutExecutor,
+        Duration.ofSeconds(5),
+        new SimpleMeterRegistry());
+  }
+
+  private String createBasket() {
+    Basket basket = new Basket("basket-1", "customer");
+    basket.update(current -> pricingService.withProduct(current, "P1", 2));
+    basketRepository.save(basket);
+    return basket.getBasketId();
+  }
+
+  /**
+   * 记录授权次数与所在线程、可阻塞或拒绝授权的支付网关.
+   */
+  private static final class RecordingGateway implements PaymentGateway {
+    private final AtomicInteger authorizations = new AtomicInteger();
+    private volatile CountDownLatch release = new CountDownLatch(0);
+    private volatile boolean declineNext;
+    private volatile String thread;
+
+    @Override
+    public void authorize(String cardNumber, String expiryDate) {
+      thread = Thread.currentThread().getName();
+      authorizations.incrementAndGet();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      if (declineNext) {
+        declineNext = false;
+        throw new PaymentException("Card declined");
+      }
+    }
+  }
+
+  /**
+   * 记录保存订单时所在线程、可模拟保存失败的仓储.
+   */
+  private static final class RecordingOrderRepository extends OrderRepositoryImpl {
+    private volatile String savingThread;
+    private volatile boolean failNextSave;
+
+    RecordingOrderRepository(OrderStore orderStore, OrderRollupStore rollupStore) {
+      super(orderStore, rollupStore);
+    }
+
+    @Override
+    public void save(Order order) {
+      savingThread = Thread.currentThread().getName();
+      if (failNextSave) {
+        failNextSave = false;
+        throw new IllegalStateException("Order storage unavailable");
+      }
+      super.save(order);
+    }
+  }
+}
@@ -0,0 +1,212 @@
+package com.yuki.server.application.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+
+import com.yuki.server.domain.exception.InvalidRequestException;
+import com.yuki.server.domain.model.Basket;
+import com.yuki.server.domain.model.BasketContents;
+import com.yuki.server.domain.model.Product;
+import com.yuki.server.domain.model.ProductCatalog;
+import com.yuki.server.domain.model.Promotion;
+import com.yuki.server.domain.model.PromotionRule;
+import com.yuki.server.infrastructure.repository.ProductRepositoryImpl;
+import com.yuki.server.infrastructure.store.ProductStore;
+import com.yuki.server.infrastructure.store.PromotionStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 定价服务测试，含目录重新加载前后的产品编号字典.
+ */
+class PricingServiceImplTest {
+
+  private ProductStore productStore;
+  private PromotionStore promotionStore;
+
+  @BeforeEach
+  void setUp() {
+    productStore = new ProductStore();
+    productStore.saveAll(List.of(
+        new Product("P1", "Product 1", new BigDecimal("1.00")),
+        new Product("P2", "Product 2", new BigDecimal("9.99")),
+        new Product("P3", "Product 3", new BigDecimal("2.25"))));
+    promotionStore = new PromotionStore(productStore);
+    promotionStore.save(new Promotion("PCT10", new BigDecimal("10")));
+    promotionStore.save(new Promotion("PCT12_5", new BigDecimal("12.5")));
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+      // 模式,      9.99 减 10%（折扣 9.99 分）, 1.00 减 12.5%（折扣 12.5 分）
+      "UP,        8.99, 0.87",
+      "DOWN,      9.00, 0.88",
+      "CEILING,   8.99, 0.87",
+      "FLOOR,     9.00, 0.88",
+      "HALF_UP,   8.99, 0.87",
+      "HALF_DOWN, 8.99, 0.88",
+      "HALF_EVEN, 8.99, 0.88"
+  })
+  void discountIsRoundedToTheCentWithConfiguredMode(
+      RoundingMode mode, String tenPercentTotal, String halfCentTotal) {
+    PricingServiceImpl pricingService = pricingService(mode);
+
+    assertThat(pricingService.calculateTotalPrice(basket("PCT10", "P2")))
+        .isEqualTo(new BigDecimal(tenPercentTotal));
+    assertThat(pricingService.calculateTotalPrice(basket("PCT12_5", "P1")))
+        .isEqualTo(new BigDecimal(halfCentTotal));
+  }
+
+  @Test
+  void unnecessaryRoundingModeRejectsInexactDiscounts() {
+    PricingServiceImpl pricingService = pricingService(RoundingMode.UNNECESSARY);
+
+    assertThat(pricingService.calculateTotalPrice(basket("PCT10", "P1")))
+        .isEqualTo(new BigDecimal("0.90"));
+    assertThatThrownBy(() -> pricingService.calculateTotalPrice(basket("PCT10", "P2")))
+        .isInstanceOf(ArithmeticException.class);
+  }
+
+  @Test
+  void totalsAlwaysHaveTwoDecimals() {
+    PricingServiceImpl pricingService = pricingService(RoundingMode.HALF_UP);
+
+    assertThat(pricingService.calculateTotalPrice(new Basket("b1", "c1")))
+        .isEqualTo(new BigDecimal("0.00"));
+    assertThat(pricingService.calculateTotalPrice(basket(null, "P1")))
+        .isEqualTo(new BigDecimal("1.00"));
+  }
+
+  @Test
+  void addProductUpdatesCachedSubtotalIncrementally() {
+    PricingServiceImpl pricingService = pricingService(RoundingMode.HALF_UP);
+    Basket basket = new Basket("b1", "c1");
+    basket.update(current -> pricingService.withProduct(current, "P1", 2));
+    assertThat(pricingService.calculateTotalPrice(basket)).isEqualByComparingTo("2.00");
+
+    long version = productStore.getCatalog().getVersion();
+    basket.update(current -> pricingService.withProduct(current, "P3", 1));
+    assertThat(basket.getContents().getCachedSubtotal(version)).isEqualTo(425);
+
+    // 未知产品不计价，也不应使小计失效
+    basket.update(current -> pricingService.withProduct(current, "UNKNOWN", 1));
+    assertThat(pricingService.calculateTotalPrice(basket)).isEqualByComparingTo("4.25");
+  }
+
+  @Test
+  void withProductLeavesBasketAndGivenSnapshotUnchanged() {
+    PricingServiceImpl pricingService = pricingService(RoundingMode.HALF_UP);
+    Basket basket = basket(null, "P1");
+    BasketContents before = basket.getContents();
+    pricingService.calculateTotalMinorUnits(before);
+
+    BasketContents after = pricingService.withProduct(before, "P2", 2);
+
+    assertThat(basket.getContents()).isSameAs(before);
+    assertThat(before.toProductMap()).containsOnly(entry("P1", 1));
+    assertThat(after.toProductMap()).containsOnly(entry("P1", 1), entry("P2", 2));
+    assertThat(after.getCachedSubtotal(productStore.getCatalog().getVersion())).isEqualTo(2098);
+  }
+
+  @Test
+  void catalogChangeRepricesCachedBasket() {
+    PricingServiceImpl pricingService = pricingService(RoundingMode.HALF_UP);
+    Basket basket = basket("PCT10", "P1");
+    assertThat(pricingService.calculateTotalPrice(basket)).isEqualByComparingTo("0.90");
+
+    productStore.save(new Product("P1", "Product 1", new BigDecimal("2.00")));
+
+    assertThat(pricingService.calculateTotalPrice(basket)).isEqualByComparingTo("1.80");
+  }
+
+  @Test
+  void promotionChangeRepricesCachedTotal() {
+    PricingServiceImpl pricingService = pricingService(RoundingMode.HALF_UP);
+    Basket basket = basket("PCT10", "P1");
+    assertThat(pricingService.calculateTotalPrice(basket)).isEqualByComparingTo("0.90");
+
+    promotionStore.save(new Promotion("PCT10", new BigDecimal("20")));
+
+    assertThat(pricingService.calculateTotalPrice(basket)).isEqualByComparingTo("0.80");
+  }
+
+  @Test
+  void overflowingTotalIsRejected() {
+    productStore.save(new Product("BIG", "Big", new BigDecimal("90000000000000000.00")));
+    PricingServiceImpl pricingService = pricingService(RoundingMode.HALF_UP);
+    Basket basket = new Basket("b1", "c1");
+    basket.addProduct(productStore.getCatalog().getProductCodes(), "BIG", 2);
+
+    assertThatThrownBy(() -> pricingService.calculateTotalPrice(basket))
+        .isInstanceOf(InvalidRequestException.class);
+  }
+
+  @Test
+  void addingProductsKeepsTheDictionary() {
+    ProductCatalog before = productStore.getCatalog();
+    productStore.save(new Product("P4", "Product 4", new BigDecimal("4.00")));
+
+    ProductCatalog after = productStore.getCatalog();
+    assertThat(after.getProductCodes()).isSameAs(before.getProductCodes());
+    assertThat(after.getProductCodes().find("P1")).isEqualTo(before.getProductCodes().find("P1"));
+  }
+
+  @Test
+  void dictionaryDoesNotGrowAcrossReloadsWithProductChurn() {
+    for (int reload = 0; reload < 50; reload++) {
+      Map<String, Product> products = new HashMap<>();
+      for (int i = 0; i < 10; i++) {
+        String code = "R" + reload + "-" + i;
+        products.put(code, new Product(code, code, BigDecimal.ONE));
+      }
+      productStore.replace(products, null, null);
+    }
+
+    assertThat(productStore.getCatalog().getProductCodes().size()).isEqualTo(10);
+  }
+
+  @Test
+  void basketFromBeforeReloadIsPricedWithNewDictionary() {
+    PricingServiceImpl pricingService = pricingService(RoundingMode.HALF_UP);
+    Basket basket = new Basket("basket", "customer");
+    basket.update(current -> pricingService.withProduct(current, "P3", 1));
+    basket.update(current -> pricingService.withProduct(current, "P2", 2));
+    assertThat(pricingService.calculateTotalPrice(basket)).isEqualByComparingTo("22.23");
+
+    // P1 被移除，新快照换用新字典，P2、P3 的编号随之改变
+    Map<String, Product> products = new HashMap<>(productStore.getCatalog().getProducts());
+    products.remove("P1");
+    products.put("P2", new Product("P2", "Product 2", new BigDecimal("2.50")));
+    ProductCatalog reloaded = productStore.replace(products, null,
+        List.of(PromotionRule.productPercent("R1", "P3", new BigDecimal("20"), null, false)));
+    assertThat(reloaded.getProductCodes()).isNotSameAs(basket.getContents().getProductCodes());
+
+    assertThat(pricingService.calculateTotalPrice(basket)).isEqualByComparingTo("6.80");
+
+    basket.update(current -> pricingService.withProduct(current, "P2", 1));
+    assertThat(basket.getContents().getProductCodes()).isSameAs(reloaded.getProductCodes());
+    assertThat(basket.getContents().toProductMap()).containsOnly(
+        Map.entry("P2", 3), Map.entry("P3", 1));
+    assertThat(pricingService.calculateTotalPrice(basket)).isEqualByComparingTo("9.30");
+  }
+
+  private PricingServiceImpl pricingService(RoundingMode roundingMode) {
+    return new PricingServiceImpl(new ProductRepositoryImpl(productStore), roundingMode);
+  }
+
+  private Basket basket(String discountCode, String productCode) {
+    Basket basket = new Basket("b1", "c1");
+    basket.addProduct(productStore.getCatalog().getProductCodes(), productCode, 1);
+    basket.setDiscountCode(discountCode);
+    return basket;
+  }
+}
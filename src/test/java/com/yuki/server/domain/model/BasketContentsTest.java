@@ -0,0 +1,117 @@
+package com.yuki.server.domain.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 购物车内容快照测试.
+ */
+class BasketContentsTest {
+
+  @Test
+  void linesAreOrderedByProductIdRegardlessOfInsertionOrder() {
+    ProductCodes codes = new ProductCodes();
+    int first = codes.intern("A");
+    int second = codes.intern("B");
+    int third = codes.intern("C");
+
+    BasketContents contents = BasketContents.EMPTY
+        .withProduct(codes, "C", 3)
+        .withProduct(codes, "A", 1)
+        .withProduct(codes, "B", 2);
+
+    assertThat(contents.getLineCount()).isEqualTo(3);
+    assertThat(contents.getProductId(0)).isEqualTo(first);
+    assertThat(contents.getProductId(1)).isEqualTo(second);
+    assertThat(contents.getProductId(2)).isEqualTo(third);
+    assertThat(contents.toProductMap()).containsExactly(
+        Map.entry("A", 1), Map.entry("B", 2), Map.entry("C", 3));
+  }
+
+  @Test
+  void withProductAddsToExistingQuantityAndBumpsVersion() {
+    ProductCodes codes = new ProductCodes();
+    BasketContents once = BasketContents.EMPTY.withProduct(codes, "A", 2);
+    BasketContents twice = once.withProduct(codes, "A", 3);
+
+    assertThat(twice.getLineCount()).isEqualTo(1);
+    assertThat(twice.quantityOf(codes.find("A"))).isEqualTo(5);
+    assertThat(twice.getVersion()).isEqualTo(once.getVersion() + 1);
+    assertThat(once.quantityOf(codes.find("A"))).isEqualTo(2);
+    assertThat(twice.getProductCodes()).isSameAs(codes);
+  }
+
+  @Test
+  void withProductsReplacesAllLinesAndKeepsDiscountCode() {
+    ProductCodes codes = new ProductCodes();
+    BasketContents contents = BasketContents.EMPTY
+        .withProduct(codes, "A", 1)
+        .withProduct(codes, "B", 1)
+        .withDiscountCode("DISCOUNT10");
+
+    Map<String, Integer> updated = new LinkedHashMap<>();
+    updated.put("D", 4);
+    updated.put("B", 7);
+    BasketContents replaced = contents.withProducts(codes, updated);
+
+    assertThat(replaced.toProductMap()).containsExactly(Map.entry("B", 7), Map.entry("D", 4));
+    assertThat(replaced.quantityOf(codes.find("A"))).isZero();
+    assertThat(replaced.getDiscountCode()).isEqualTo("DISCOUNT10");
+    assertThat(replaced.getVersion()).isEqualTo(contents.getVersion() + 1);
+  }
+
+  @Test
+  void quantityOfUnknownOrMissingProductIsZero() {
+    ProductCodes codes = new ProductCodes();
+    codes.intern("A");
+    int absent = codes.intern("B");
+    BasketContents contents = BasketContents.EMPTY.withProduct(codes, "A", 1);
+
+    assertThat(contents.quantityOf(absent)).isZero();
+    assertThat(contents.quantityOf(codes.size() + 10)).isZero();
+    assertThat(BasketContents.EMPTY.quantityOf(0)).isZero();
+  }
+
+  @Test
+  void remapToKeepsLinesVersionAndCachedPrices() {
+    ProductCodes old = new ProductCodes();
+    BasketContents contents = BasketContents.EMPTY
+        .withProduct(old, "A", 1)
+        .withProduct(old, "B", 2);
+    contents.cacheSubtotal(300, 7);
+    contents.cacheTotal(250, 7, 3);
+
+    // 新字典中编号顺序与旧字典相反
+    ProductCodes fresh = new ProductCodes();
+    fresh.intern("B");
+    fresh.intern("A");
+    BasketContents remapped = contents.remapTo(fresh);
+
+    assertThat(remapped.getProductCodes()).isSameAs(fresh);
+    assertThat(remapped.getVersion()).isEqualTo(contents.getVersion());
+    assertThat(remapped.quantityOf(fresh.find("A"))).isEqualTo(1);
+    assertThat(remapped.quantityOf(fresh.find("B"))).isEqualTo(2);
+    assertThat(remapped.getProductId(0)).isEqualTo(fresh.find("B"));
+    assertThat(remapped.toProductMap()).containsOnly(Map.entry("A", 1), Map.entry("B", 2));
+    assertThat(remapped.getCachedSubtotal(7)).isEqualTo(300);
+    assertThat(remapped.getCachedTotal(7, 3)).isEqualTo(250);
+    assertThat(remapped.remapTo(fresh)).isSameAs(remapped);
+  }
+
+  @Test
+  void withProductOnNewDictionaryRemapsExistingLines() {
+    ProductCodes old = new ProductCodes();
+    BasketContents contents = BasketContents.EMPTY.withProduct(old, "A", 1);
+
+    ProductCodes fresh = new ProductCodes();
+    fresh.intern("Z");
+    BasketContents updated = contents.withProduct(fresh, "A", 2).withProduct(fresh, "Z", 1);
+
+    assertThat(updated.getProductCodes()).isSameAs(fresh);
+    assertThat(updated.toProductMap()).containsExactly(Map.entry("Z", 1), Map.entry("A", 3));
+  }
+}
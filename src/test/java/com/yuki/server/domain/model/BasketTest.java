@@ -0,0 +1,136 @@
+package com.yuki.server.domain.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.yuki.server.domain.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 购物车快照CAS与价格缓存测试.
+ */
+class BasketTest {
+
+  private static final ProductCodes CODES = new ProductCodes();
+
+  @Test
+  void updatePublishesNewSnapshotAndKeepsOldOneIntact() {
+    Basket basket = new Basket("b1", "c1");
+    BasketContents before = basket.getContents();
+
+    basket.addProduct(CODES, "P1", 2);
+    basket.addProduct(CODES, "P1", 1);
+
+    BasketContents after = basket.getContents();
+    assertThat(before.toProductMap()).isEmpty();
+    assertThat(after.toProductMap()).containsExactly(Map.entry("P1", 3));
+    assertThat(after.getVersion()).isEqualTo(before.getVersion() + 2);
+  }
+
+  @Test
+  void concurrentUpdatesAreNotLost() throws Exception {
+    Basket basket = new Basket("b1", "c1");
+    int threads = 8;
+    int addsPerThread = 1_000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < addsPerThread; i++) {
+            basket.addProduct(CODES, "P" + (i % 3), 1);
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    int total = basket.getProducts().values().stream().mapToInt(Integer::intValue).sum();
+    assertThat(total).isEqualTo(threads * addsPerThread);
+    assertThat(basket.getContents().getVersion()).isEqualTo(threads * addsPerThread);
+  }
+
+  @Test
+  void closeSucceedsOnlyForTheCurrentSnapshot() {
+    Basket basket = new Basket("b1", "c1");
+    basket.addProduct(CODES, "P1", 1);
+    BasketContents priced = basket.getContents();
+
+    // 计价之后购物车又被修改，结账不能关闭
+    basket.addProduct(CODES, "P2", 1);
+    assertThat(basket.close(priced)).isFalse();
+
+    BasketContents latest = basket.getContents();
+    assertThat(basket.close(latest)).isTrue();
+    assertThat(basket.getContents().isClosed()).isTrue();
+    assertThat(basket.close(basket.getContents())).isFalse();
+  }
+
+  @Test
+  void closedBasketRejectsUpdates() {
+    Basket basket = new Basket("b1", "c1");
+    basket.addProduct(CODES, "P1", 1);
+    basket.close(basket.getContents());
+
+    assertThatThrownBy(() -> basket.addProduct(CODES, "P1", 1))
+        .isInstanceOf(ResourceNotFoundException.class);
+    assertThatThrownBy(() -> basket.setDiscountCode("DISCOUNT10"))
+        .isInstanceOf(ResourceNotFoundException.class);
+    assertThat(basket.getProducts()).containsExactly(Map.entry("P1", 1));
+  }
+
+  @Test
+  void reopenRestoresOnlyTheSnapshotThatClosedTheBasket() {
+    Basket basket = new Basket("b1", "c1");
+    basket.addProduct(CODES, "P1", 1);
+    BasketContents priced = basket.getContents();
+    BasketContents stale = new Basket("b2", "c1").getContents();
+
+    basket.close(priced);
+    assertThat(basket.reopen(stale)).isFalse();
+    assertThat(basket.reopen(priced)).isTrue();
+    assertThat(basket.getContents()).isSameAs(priced);
+    assertThat(basket.reopen(priced)).isFalse();
+
+    basket.addProduct(CODES, "P1", 1);
+    assertThat(basket.getProducts()).containsExactly(Map.entry("P1", 2));
+  }
+
+  @Test
+  void cachedPricesBelongToTheirSnapshot() {
+    Basket basket = new Basket("b1", "c1");
+    basket.addProduct(CODES, "P1", 1);
+    BasketContents contents = basket.getContents();
+    contents.cacheSubtotal(150, 1);
+    contents.cacheTotal(135, 1, 7);
+
+    assertThat(contents.getCachedSubtotal(2)).isEqualTo(BasketContents.UNPRICED);
+    assertThat(contents.getCachedTotal(1, 8)).isEqualTo(BasketContents.UNPRICED);
+    assertThat(contents.getCachedTotal(1, 7)).isEqualTo(135);
+
+    // 产品行变化时新快照没有缓存；只改折扣码时沿用小计，总价需重算
+    basket.setDiscountCode("DISCOUNT10");
+    assertThat(basket.getContents().getCachedSubtotal(1)).isEqualTo(150);
+    assertThat(basket.getContents().getCachedTotal(1, 7)).isEqualTo(BasketContents.UNPRICED);
+
+    basket.addProduct(CODES, "P2", 1);
+    assertThat(basket.getContents().getCachedSubtotal(1)).isEqualTo(BasketContents.UNPRICED);
+    assertThat(contents.getCachedTotal(1, 7)).isEqualTo(135);
+  }
+}
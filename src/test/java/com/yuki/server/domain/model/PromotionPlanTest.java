@@ -0,0 +1,152 @@
+package com.yuki.server.domain.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 促销执行计划测试.
+ */
+class PromotionPlanTest {
+
+  private static final Map<String, Product> PRODUCTS = Map.of(
+      "A", new Product("A", "Product A", new BigDecimal("10.00"), "X"),
+      "B", new Product("B", "Product B", new BigDecimal("20.00"), "X"),
+      "C", new Product("C", "Product C", new BigDecimal("5.00")));
+
+  @Test
+  void exclusiveRulesOnALineTakeTheLargest() {
+    long discount = discount(List.of(
+            PromotionRule.productPercent("R1", "A", new BigDecimal("10"), null, false),
+            PromotionRule.categoryPercent("R2", "X", new BigDecimal("20"), null, false)),
+        null, Map.of("A", 1));
+
+    assertThat(discount).isEqualTo(200);
+  }
+
+  @Test
+  void stackableRulesAddToTheLargestExclusiveRule() {
+    long discount = discount(List.of(
+            PromotionRule.productPercent("R1", "A", new BigDecimal("10"), null, false),
+            PromotionRule.productPercent("R2", "A", new BigDecimal("5"), null, true),
+            PromotionRule.categoryPercent("R3", "X", new BigDecimal("20"), null, false)),
+        null, Map.of("A", 1));
+
+    assertThat(discount).isEqualTo(250);
+  }
+
+  @Test
+  void lineDiscountIsCappedAtLineAmount() {
+    long discount = discount(List.of(
+            PromotionRule.productPercent("R1", "A", new BigDecimal("60"), null, true),
+            PromotionRule.categoryPercent("R2", "X", new BigDecimal("60"), null, true)),
+        null, Map.of("A", 2, "C", 1));
+
+    assertThat(discount).isEqualTo(2000);
+  }
+
+  @Test
+  void ruleWithDiscountCodeAppliesOnlyWhenBasketUsesIt() {
+    List<PromotionRule> rules = List.of(
+        PromotionRule.productPercent("R1", "C", new BigDecimal("50"), "HALF", false));
+
+    assertThat(discount(rules, null, Map.of("C", 2))).isZero();
+    assertThat(discount(rules, "OTHER", Map.of("C", 2))).isZero();
+    assertThat(discount(rules, "HALF", Map.of("C", 2))).isEqualTo(500);
+  }
+
+  @Test
+  void spendTierIsChosenByAmountAfterLineDiscounts() {
+    List<PromotionRule> rules = List.of(
+        PromotionRule.productPercent("R1", "B", new BigDecimal("10"), null, false),
+        PromotionRule.spendTiers("T1", List.of(
+            new PromotionRule.SpendTier(new BigDecimal("100.00"), null, new BigDecimal("10.00")),
+            new PromotionRule.SpendTier(new BigDecimal("50.00"), BigDecimal.ONE, null)),
+            null, false));
+
+    // 小计40.00，未达到任何档位
+    assertThat(discount(rules, null, Map.of("B", 2))).isEqualTo(400);
+    // 小计100.00，行折扣后90.00，落在50档：1%
+    assertThat(discount(rules, null, Map.of("B", 5))).isEqualTo(1000 + 90);
+    // 小计120.00，行折扣后108.00，落在100档：减10.00
+    assertThat(discount(rules, null, Map.of("B", 6))).isEqualTo(1200 + 1000);
+  }
+
+  @Test
+  void exclusiveAndStackableSpendTiersCombine() {
+    List<PromotionRule> rules = List.of(
+        PromotionRule.spendTiers("T1", List.of(
+            new PromotionRule.SpendTier(BigDecimal.ZERO, new BigDecimal("5"), null)), null, false),
+        PromotionRule.spendTiers("T2", List.of(
+            new PromotionRule.SpendTier(BigDecimal.ZERO, new BigDecimal("10"), null)), null, false),
+        PromotionRule.spendTiers("T3", List.of(
+            new PromotionRule.SpendTier(BigDecimal.ZERO, null, new BigDecimal("1.00"))),
+            null, true));
+
+    assertThat(discount(rules, null, Map.of("C", 4))).isEqualTo(200 + 100);
+  }
+
+  @Test
+  void buyXGetYOnSameProductGivesFreeUnitsPerGroup() {
+    List<PromotionRule> rules = List.of(
+        PromotionRule.buyXGetY("R1", "C", 2, 1, null, null, false));
+
+    assertThat(discount(rules, null, Map.of("C", 2))).isZero();
+    assertThat(discount(rules, null, Map.of("C", 3))).isEqualTo(500);
+    assertThat(discount(rules, null, Map.of("C", 7))).isEqualTo(1000);
+  }
+
+  @Test
+  void buyXGetYWithDifferentRewardProductDiscountsTheRewardLine() {
+    List<PromotionRule> rules = List.of(
+        PromotionRule.buyXGetY("R1", "A", 2, 1, "B", null, false));
+
+    // 触发产品不足
+    assertThat(discount(rules, null, Map.of("A", 1, "B", 1))).isZero();
+    // 购物车中没有赠品
+    assertThat(discount(rules, null, Map.of("A", 4))).isZero();
+    // 赠品数量不超过购物车中的数量
+    assertThat(discount(rules, null, Map.of("A", 5, "B", 1))).isEqualTo(2000);
+    assertThat(discount(rules, null, Map.of("A", 4, "B", 3))).isEqualTo(4000);
+    // 触发产品本身不打折
+    assertThat(discount(rules, null, Map.of("A", 6))).isZero();
+  }
+
+  @Test
+  void planIsOnlyReusedForSameVersionAndDictionary() {
+    List<PromotionRule> rules = List.of(
+        PromotionRule.productPercent("R1", "A", BigDecimal.TEN, null, false));
+    ProductCatalog catalog = new ProductCatalog(1, PRODUCTS, 1, Map.of(), rules);
+    PromotionPlan plan = PromotionPlan.compile(catalog, RoundingMode.HALF_UP);
+
+    assertThat(plan.isCompiledFor(catalog)).isTrue();
+    assertThat(plan.isCompiledFor(catalog.withProducts(Map.of(
+        "A", PRODUCTS.get("A"), "B", PRODUCTS.get("B"), "C", PRODUCTS.get("C"),
+        "D", new Product("D", "Product D", BigDecimal.ONE))))).isTrue();
+    assertThat(plan.isCompiledFor(catalog.withProducts(Map.of("A", PRODUCTS.get("A")))))
+        .isFalse();
+    assertThat(plan.isCompiledFor(catalog.withPromotions(Map.of()))).isFalse();
+  }
+
+  private static long discount(
+      List<PromotionRule> rules, String discountCode, Map<String, Integer> lines) {
+    ProductCatalog catalog = new ProductCatalog(1, PRODUCTS, 1, Map.of(), rules);
+    PromotionPlan plan = PromotionPlan.compile(catalog, RoundingMode.HALF_UP);
+    ProductCodes codes = catalog.getProductCodes();
+    BasketContents contents = BasketContents.EMPTY
+        .withProducts(codes, lines)
+        .withDiscountCode(discountCode);
+    PromotionPlan.UnitPrices prices = productId -> Money.toMinorUnits(
+        catalog.find(codes.codeOf(productId)).getFullPrice(), RoundingMode.HALF_UP);
+    long subtotal = 0;
+    for (int line = 0; line < contents.getLineCount(); line++) {
+      subtotal += prices.priceOf(contents.getProductId(line)) * contents.getQuantity(line);
+    }
+    return plan.discount(contents, subtotal, catalog, prices, RoundingMode.HALF_UP);
+  }
+}
@@ -0,0 +1,96 @@
+package com.yuki.server.infrastructure.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 自适应并发上限测试.
+ */
+class AdaptiveConcurrencyLimiterTest {
+
+  private static final long TARGET = 100;
+  private static final long FAST = TARGET / 2;
+  private static final long SLOW = TARGET * 2;
+
+  @Test
+  void rejectsWhenInFlightReachesLimit() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, TARGET, 0);
+
+    assertThat(limiter.tryAcquire()).isTrue();
+    assertThat(limiter.tryAcquire()).isTrue();
+    assertThat(limiter.tryAcquire()).isFalse();
+    assertThat(limiter.getInFlight()).isEqualTo(2);
+  }
+
+  @Test
+  void fastRequestsRaiseLimitOnlyWhenMostOfItIsUsed() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 20, TARGET, 0);
+
+    // 只用到上限的一小部分，不上调
+    limiter.tryAcquire();
+    limiter.release(FAST, 0);
+    assertThat(limiter.getLimit()).isEqualTo(10);
+
+    // 用到一半时上调一
+    acquire(limiter, 5);
+    limiter.release(FAST, 0);
+    assertThat(limiter.getLimit()).isEqualTo(11);
+  }
+
+  @Test
+  void slowRequestsBackOffAtMostOncePerTargetLatency() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 20, TARGET, 0);
+    acquire(limiter, 3);
+
+    limiter.release(SLOW, 1_000);
+    assertThat(limiter.getLimit()).isEqualTo(9);
+    limiter.release(SLOW, 1_000 + TARGET - 1);
+    assertThat(limiter.getLimit()).isEqualTo(9);
+    limiter.release(SLOW, 1_000 + TARGET);
+    assertThat(limiter.getLimit()).isEqualTo(8);
+    assertThat(limiter.getInFlight()).isZero();
+  }
+
+  @Test
+  void firstSlowRequestBacksOffImmediately() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 20, TARGET, 0);
+    limiter.tryAcquire();
+
+    limiter.release(SLOW, 0);
+
+    assertThat(limiter.getLimit()).isEqualTo(9);
+  }
+
+  @Test
+  void limitStaysWithinBounds() {
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(3, 2, 4, TARGET, 0);
+    for (int i = 0; i < 5; i++) {
+      int inFlight = limiter.getLimit();
+      acquire(limiter, inFlight);
+      for (int j = 0; j < inFlight; j++) {
+        limiter.release(FAST, 0);
+      }
+    }
+    assertThat(limiter.getLimit()).isEqualTo(4);
+
+    long now = 0;
+    for (int i = 0; i < 10; i++) {
+      limiter.tryAcquire();
+      limiter.release(SLOW, now += TARGET);
+    }
+    assertThat(limiter.getLimit()).isEqualTo(2);
+  }
+
+  @Test
+  void initialLimitIsClamped() {
+    assertThat(new AdaptiveConcurrencyLimiter(100, 1, 10, TARGET, 0).getLimit()).isEqualTo(10);
+    assertThat(new AdaptiveConcurrencyLimiter(0, 3, 10, TARGET, 0).getLimit()).isEqualTo(3);
+  }
+
+  private static void acquire(AdaptiveConcurrencyLimiter limiter, int count) {
+    for (int i = 0; i < count; i++) {
+      assertThat(limiter.tryAcquire()).isTrue();
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package com.yuki.server.infrastructure.admission;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuki.server.infrastructure.admission.AdmissionControlInterceptor.EndpointClass;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.test.web.servlet.setup.StandaloneMockMvcBuilder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.filter.ForwardedHeaderFilter;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 准入控制测试：订单列表和导出等不带购物车ID、客户ID的请求如何选取限流的键.
+ */
+class AdmissionControlInterceptorTest {
+
+  private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+  @Test
+  void forwardedHeaderIsIgnoredByDefault() throws Exception {
+    MockMvc mockMvc = mockMvc(MockMvcBuilders.standaloneSetup(new OrdersStub()));
+
+    mockMvc.perform(listOrders("10.0.0.1").header("X-Forwarded-For", "203.0.113.1"))
+        .andExpect(status().isOk());
+    // 伪造不同的转发地址不能绕过限流
+    mockMvc.perform(listOrders("10.0.0.1").header("X-Forwarded-For", "203.0.113.2"))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"));
+    mockMvc.perform(listOrders("10.0.0.2")).andExpect(status().isOk());
+  }
+
+  @Test
+  void forwardedClientsBehindTrustedProxyHaveSeparateBuckets() throws Exception {
+    // 与 server.forward-headers-strategy=framework 相同的处理
+    MockMvc mockMvc = mockMvc(MockMvcBuilders.standaloneSetup(new OrdersStub())
+        .addFilters(new ForwardedHeaderFilter()));
+
+    mockMvc.perform(listOrders("10.0.0.1").header("X-Forwarded-For", "203.0.113.1"))
+        .andExpect(status().isOk());
+    mockMvc.perform(exportOrders("10.0.0.1").header("X-Forwarded-For", "203.0.113.2"))
+        .andExpect(status().isOk());
+    mockMvc.perform(exportOrders("10.0.0.1").header("X-Forwarded-For", "203.0.113.1"))
+        .andExpect(status().isTooManyRequests());
+  }
+
+  @Test
+  void authenticatedUsersBehindOneAddressHaveSeparateBuckets() throws Exception {
+    MockMvc mockMvc = mockMvc(MockMvcBuilders.standaloneSetup(new OrdersStub()));
+
+    mockMvc.perform(listOrders("10.0.0.1").principal(() -> "alice")).andExpect(status().isOk());
+    mockMvc.perform(listOrders("10.0.0.1").principal(() -> "bob")).andExpect(status().isOk());
+    mockMvc.perform(listOrders("10.0.0.1")).andExpect(status().isOk());
+    mockMvc.perform(exportOrders("10.0.0.1").principal(() -> "alice"))
+        .andExpect(status().isTooManyRequests());
+  }
+
+  private MockMvc mockMvc(StandaloneMockMvcBuilder builder) {
+    // 每10秒一个令牌，突发1个
+    TokenBucketRateLimiter orderLimiter = new TokenBucketRateLimiter(0.1, 1, 100, clock::get);
+    AdmissionControlInterceptor interceptor = new AdmissionControlInterceptor(
+        Map.of(EndpointClass.ORDER, orderLimiter),
+        new AdaptiveConcurrencyLimiter(1, 1, 1, TimeUnit.SECONDS.toNanos(1), clock.get()),
+        clock::get, new ObjectMapper(), new SimpleMeterRegistry());
+    return builder.addMappedInterceptors(new String[] {"/api/orders/**"}, interceptor).build();
+  }
+
+  private static MockHttpServletRequestBuilder listOrders(String remoteAddress) {
+    return from(get("/api/orders"), remoteAddress);
+  }
+
+  private static MockHttpServletRequestBuilder exportOrders(String remoteAddress) {
+    return from(get("/api/orders/export"), remoteAddress);
+  }
+
+  private static MockHttpServletRequestBuilder from(
+      MockHttpServletRequestBuilder builder, String remoteAddress) {
+    return builder.with(request -> {
+      request.setRemoteAddr(remoteAddress);
+      return request;
+    });
+  }
+
+  @RestController
+  static class OrdersStub {
+
+    @GetMapping({"/api/orders", "/api/orders/export"})
+    String orders() {
+      return "[]";
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package com.yuki.server.infrastructure.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 令牌桶限流测试.
+ */
+class TokenBucketRateLimiterTest {
+
+  private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+  @Test
+  void allowsBurstThenReportsWaitUntilNextToken() {
+    TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 3, 100, clock::get);
+
+    assertThat(limiter.tryAcquire("k")).isZero();
+    assertThat(limiter.tryAcquire("k")).isZero();
+    assertThat(limiter.tryAcquire("k")).isZero();
+    assertThat(limiter.tryAcquire("k")).isEqualTo(INTERVAL);
+
+    clock.addAndGet(INTERVAL / 4);
+    assertThat(limiter.tryAcquire("k")).isEqualTo(INTERVAL - INTERVAL / 4);
+  }
+
+  @Test
+  void refillsAtConfiguredRateUpToBurst() {
+    TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 3, 100, clock::get);
+    for (int i = 0; i < 3; i++) {
+      limiter.tryAcquire("k");
+    }
+
+    clock.addAndGet(INTERVAL);
+    assertThat(limiter.tryAcquire("k")).isZero();
+    assertThat(limiter.tryAcquire("k")).isPositive();
+
+    // 空闲很久后桶只恢复到容量，不会累积更多令牌
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+    for (int i = 0; i < 3; i++) {
+      assertThat(limiter.tryAcquire("k")).isZero();
+    }
+    assertThat(limiter.tryAcquire("k")).isEqualTo(INTERVAL);
+  }
+
+  @Test
+  void rejectedRequestsDoNotConsumeTokens() {
+    TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 1, 100, clock::get);
+    assertThat(limiter.tryAcquire("k")).isZero();
+    for (int i = 0; i < 5; i++) {
+      assertThat(limiter.tryAcquire("k")).isEqualTo(INTERVAL);
+    }
+
+    clock.addAndGet(INTERVAL);
+    assertThat(limiter.tryAcquire("k")).isZero();
+  }
+
+  @Test
+  void keysHaveIndependentBuckets() {
+    TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 1, 100, clock::get);
+
+    assertThat(limiter.tryAcquire("a")).isZero();
+    assertThat(limiter.tryAcquire("a")).isPositive();
+    assertThat(limiter.tryAcquire("b")).isZero();
+  }
+
+  @Test
+  void sweepsFullBucketsWhenKeyLimitIsExceeded() {
+    TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 2, 2, clock::get);
+    limiter.tryAcquire("a");
+    limiter.tryAcquire("b");
+    limiter.tryAcquire("b");
+
+    // a 已恢复满桶，b 仍欠一个令牌
+    clock.addAndGet(INTERVAL);
+    limiter.tryAcquire("c");
+
+    assertThat(limiter.size()).isLessThanOrEqualTo(2);
+    assertThat(limiter.tryAcquire("b")).isZero();
+    assertThat(limiter.tryAcquire("b")).isPositive();
+  }
+
+  @Test
+  void rejectsNonPositiveRateOrBurst() {
+    assertThatThrownBy(() -> new TokenBucketRateLimiter(0, 1, 1, clock::get))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new TokenBucketRateLimiter(1, 0, 1, clock::get))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,115 @@
+package com.yuki.server.infrastructure.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.yuki.server.application.gateway.CatalogSource;
+import com.yuki.server.domain.model.Product;
+import com.yuki.server.domain.model.Promotion;
+import com.yuki.server.domain.model.PromotionRule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 目录文件流式读取测试：字段映射、金额精度与格式校验.
+ */
+class CatalogReaderTest {
+
+  private final CatalogReader reader = new CatalogReader(new JsonFactory());
+
+  @Test
+  void readsProductsPromotionsAndRules() throws IOException {
+    CatalogSource.Contents contents = read("""
+        {
+          "version": {"ignored": [1, 2]},
+          "products": [
+            {"productCode": "P1", "name": "Laptop", "fullPrice": 999.99, "category": "pc",
+             "extra": {"nested": true}},
+            {"productCode": "P2", "name": "Mouse", "fullPrice": "29.90"}
+          ],
+          "promotions": [{"discountCode": "DISCOUNT10", "discountPercent": 10}],
+          "rules": [
+            {"ruleId": "R1", "type": "product_percent", "productCode": "P1", "percent": 5},
+            {"ruleId": "R2", "type": "SPEND_TIERS", "stackable": true,
+             "tiers": [{"minSpend": 100, "amountOff": "7.50"}, {"minSpend": 50, "percent": 2}]}
+          ]
+        }
+        """);
+
+    assertThat(contents.getProducts()).containsExactly(
+        new Product("P1", "Laptop", new BigDecimal("999.99"), "pc"),
+        new Product("P2", "Mouse", new BigDecimal("29.90")));
+    assertThat(contents.getPromotions())
+        .containsExactly(new Promotion("DISCOUNT10", new BigDecimal("10")));
+    assertThat(contents.getRules()).extracting(PromotionRule::getRuleId, PromotionRule::getType)
+        .containsExactly(tuple("R1", PromotionRule.Type.PRODUCT_PERCENT),
+            tuple("R2", PromotionRule.Type.SPEND_TIERS));
+    PromotionRule tiers = contents.getRules().get(1);
+    assertThat(tiers.isStackable()).isTrue();
+    assertThat(tiers.getTiers()).extracting(PromotionRule.SpendTier::getMinSpend)
+        .containsExactly(new BigDecimal("50"), new BigDecimal("100"));
+    assertThat(tiers.getTiers().get(1).getAmountOff()).isEqualTo(new BigDecimal("7.50"));
+  }
+
+  @Test
+  void amountsKeepTheirTextualPrecision() throws IOException {
+    CatalogSource.Contents contents = read("""
+        {"products": [{"productCode": "P1", "fullPrice": 0.1000000000000000055511151231257827}]}
+        """);
+
+    assertThat(contents.getProducts().get(0).getFullPrice())
+        .isEqualTo(new BigDecimal("0.1000000000000000055511151231257827"));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "{\"rules\": [{\"type\": \"PRODUCT_PERCENT\", \"productCode\": \"P1\", \"percent\": 5}]}",
+      "{\"rules\": [{\"ruleId\": \"R1\", \"productCode\": \"P1\", \"percent\": 5}]}",
+  })
+  void ruleWithoutRuleIdOrTypeIsRejected(String json) {
+    assertThatThrownBy(() -> read(json))
+        .isInstanceOf(JsonParseException.class)
+        .hasMessageContaining("Rule requires ruleId and type");
+  }
+
+  @Test
+  void unknownRuleTypeIsRejected() {
+    assertThatThrownBy(() -> read("{\"rules\": [{\"ruleId\": \"R1\", \"type\": \"BOGO\"}]}"))
+        .isInstanceOf(JsonParseException.class)
+        .hasMessageContaining("Unknown rule type: BOGO");
+  }
+
+  @Test
+  void invalidRuleFieldsAreReportedWithTheRuleId() {
+    assertThatThrownBy(() -> read(
+        "{\"rules\": [{\"ruleId\": \"R1\", \"type\": \"PRODUCT_PERCENT\", \"percent\": 5}]}"))
+        .isInstanceOf(JsonParseException.class)
+        .hasMessageContaining("Promotion rule R1: productCode is required");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "[]",
+      "{\"products\": [{\"name\": \"No code\", \"fullPrice\": 1}]}",
+      "{\"products\": [{\"productCode\": \"P1\", \"fullPrice\": \"abc\"}]}",
+      "{\"products\": [{\"productCode\": \"P1\", \"fullPrice\": true}]}",
+      "{\"promotions\": [{\"discountCode\": \"D1\"}]}",
+      "{\"products\": [\"P1\"]}",
+  })
+  void malformedCatalogIsRejected(String json) {
+    assertThatThrownBy(() -> read(json)).isInstanceOf(JsonParseException.class);
+  }
+
+  private CatalogSource.Contents read(String json) throws IOException {
+    return reader.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+  }
+}
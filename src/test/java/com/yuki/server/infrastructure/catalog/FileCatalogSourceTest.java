@@ -0,0 +1,84 @@
+package com.yuki.server.infrastructure.catalog;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuki.server.application.gateway.CatalogSource;
+import com.yuki.server.domain.model.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 多文件目录数据源测试：按配置顺序合并、并行读取与错误定位.
+ */
+class FileCatalogSourceTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void mergesFilesInConfiguredOrder() throws IOException {
+    write("part-2.json", "{\"products\": [{\"productCode\": \"P2\", \"fullPrice\": 2}]}");
+    write("part-1.json", "{\"products\": [{\"productCode\": \"P1\", \"fullPrice\": 1}],"
+        + " \"promotions\": [{\"discountCode\": \"D1\", \"discountPercent\": 5}]}");
+    write("override.json", "{\"products\": [{\"productCode\": \"P1\", \"fullPrice\": 3}]}");
+
+    CatalogSource.Contents contents = source(
+        location("part-*.json"), location("override.json")).read();
+
+    // 通配符匹配的文件按文件名排序，之后才是靠后配置的文件
+    assertThat(contents.getProducts()).extracting(Product::getProductCode)
+        .containsExactly("P1", "P2", "P1");
+    assertThat(contents.getProducts().get(2).getFullPrice()).isEqualByComparingTo("3");
+    assertThat(contents.getPromotions()).hasSize(1);
+  }
+
+  @Test
+  void errorNamesTheFileAndPosition() throws IOException {
+    write("good.json", "{\"products\": []}");
+    write("bad.json", "{\n  \"products\": [{\"productCode\": \"P1\"}]\n}");
+
+    assertThatThrownBy(() -> source(location("good.json"), location("bad.json")).read())
+        .isInstanceOf(UncheckedIOException.class)
+        .hasMessageContaining("bad.json")
+        .hasMessageContaining("line 2")
+        .hasMessageContaining("Product requires productCode and fullPrice");
+  }
+
+  @Test
+  void missingFileIsReported() {
+    assertThatThrownBy(() -> source(location("missing.json")).read())
+        .isInstanceOf(UncheckedIOException.class)
+        .hasMessageContaining("missing.json");
+  }
+
+  @Test
+  void fingerprintChangesWhenAFileChanges() throws IOException {
+    write("catalog.json", "{\"products\": []}");
+    FileCatalogSource source = source(location("catalog.json"));
+    String before = source.fingerprint();
+
+    write("catalog.json", "{\"products\": [{\"productCode\": \"P1\", \"fullPrice\": 1}]}");
+
+    assertThat(source.fingerprint()).isNotEqualTo(before);
+  }
+
+  private FileCatalogSource source(String... locations) {
+    return new FileCatalogSource(new ObjectMapper(), new DefaultResourceLoader(), locations, 2);
+  }
+
+  private String location(String pattern) {
+    return "file:" + directory.toAbsolutePath() + "/" + pattern;
+  }
+
+  private void write(String name, String json) throws IOException {
+    Files.writeString(directory.resolve(name), json);
+  }
+}
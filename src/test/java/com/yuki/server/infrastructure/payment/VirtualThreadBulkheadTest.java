@@ -0,0 +1,58 @@
+package com.yuki.server.infrastructure.payment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 虚拟线程隔离舱测试：并发上限、等待数上限与拒绝.
+ */
+class VirtualThreadBulkheadTest {
+
+  private final VirtualThreadBulkhead bulkhead = new VirtualThreadBulkhead(2, 1, "test-");
+
+  @AfterEach
+  void tearDown() {
+    bulkhead.shutdownNow();
+  }
+
+  @Test
+  void limitsConcurrencyAndRejectsBeyondQueueCapacity() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(2);
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    List<Future<Boolean>> futures = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      futures.add(bulkhead.submit(() -> {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        started.countDown();
+        release.await();
+        running.decrementAndGet();
+        return Thread.currentThread().isVirtual();
+      }));
+    }
+    assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+    // 2个执行中、1个等待，第4个立即被拒绝
+    assertThatThrownBy(() -> bulkhead.submit(() -> true))
+        .isInstanceOf(RejectedExecutionException.class);
+
+    release.countDown();
+    for (Future<Boolean> future : futures) {
+      assertThat(future.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+    assertThat(maxRunning.get()).isEqualTo(2);
+    assertThat(bulkhead.submit(() -> true).get(5, TimeUnit.SECONDS)).isTrue();
+  }
+}
@@ -0,0 +1,248 @@
+package com.yuki.server.infrastructure.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.yuki.server.domain.model.Basket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 购物车存储测试：客户索引、空闲过期与数量上限.
+ */
+class BasketStoreTest {
+
+  private static final Duration IDLE_TTL = Duration.ofMinutes(30);
+  // 后台线程在测试期间不会运行，过期只由读取路径判断
+  private static final Duration EXPIRY_TICK = Duration.ofHours(1);
+
+  private final MutableClock clock = new MutableClock();
+  private BasketStore store;
+
+  @AfterEach
+  void tearDown() {
+    store.close();
+  }
+
+  @Test
+  void idleBasketExpiresAfterTtl() {
+    store = new BasketStore(clock, IDLE_TTL, 0, EXPIRY_TICK);
+    store.save(new Basket("b1", "c1"));
+    store.save(new Basket("b2", "c1"));
+
+    clock.advance(Duration.ofMinutes(20));
+    assertThat(store.findById("b1")).isNotNull();
+
+    clock.advance(Duration.ofMinutes(15));
+    assertThat(store.findById("b1")).isNotNull();
+    assertThat(store.findById("b2")).isNull();
+    assertThat(store.getExpiredCount()).isEqualTo(1);
+
+    clock.advance(Duration.ofMinutes(31));
+    assertThat(store.findByCustomerId("c1")).isNull();
+    assertThat(store.findAllByCustomerId("c1")).isEmpty();
+    assertThat(store.findById("b1")).isNull();
+    assertThat(store.size()).isZero();
+    assertThat(store.getExpiredCount()).isEqualTo(2);
+  }
+
+  @Test
+  void evictsEarliestCreatedBasketsOverCap() {
+    store = new BasketStore(clock, IDLE_TTL, 3, EXPIRY_TICK);
+    for (int i = 1; i <= 5; i++) {
+      store.save(new Basket("b" + i, "c" + i));
+      clock.advance(Duration.ofSeconds(1));
+    }
+
+    assertThat(store.size()).isEqualTo(3);
+    assertThat(store.getEvictedCount()).isEqualTo(2);
+    assertThat(store.findById("b1")).isNull();
+    assertThat(store.findById("b2")).isNull();
+    assertThat(store.findById("b3")).isNotNull();
+    assertThat(store.findById("b5")).isNotNull();
+  }
+
+  @Test
+  void basketAccessedSinceQueuedGetsSecondChance() {
+    store = new BasketStore(clock, IDLE_TTL, 3, EXPIRY_TICK);
+    for (int i = 1; i <= 3; i++) {
+      store.save(new Basket("b" + i, "c" + i));
+      clock.advance(Duration.ofSeconds(1));
+    }
+    assertThat(store.findById("b1")).isNotNull();
+
+    store.save(new Basket("b4", "c4"));
+    store.save(new Basket("b5", "c5"));
+
+    // b1 最早创建但最近被访问，移到队尾；随后按顺序淘汰 b2、b3
+    assertThat(store.getEvictedCount()).isEqualTo(2);
+    assertThat(store.findById("b2")).isNull();
+    assertThat(store.findById("b3")).isNull();
+    assertThat(store.findById("b1")).isNotNull();
+
+    // 移到队尾后未再被访问，下一次超限时被淘汰
+    clock.advance(Duration.ofSeconds(1));
+    store.findById("b4");
+    store.findById("b5");
+    store.save(new Basket("b6", "c6"));
+    assertThat(store.findById("b1")).isNull();
+    assertThat(store.size()).isEqualTo(3);
+  }
+
+  @Test
+  void capIsEnforcedWithoutIdleTtl() {
+    store = new BasketStore(clock, Duration.ZERO, 2, EXPIRY_TICK);
+    for (int i = 1; i <= 4; i++) {
+      store.save(new Basket("b" + i, "c" + i));
+    }
+
+    assertThat(store.size()).isEqualTo(2);
+    assertThat(store.getEvictedCount()).isEqualTo(2);
+    assertThat(store.findByCustomerId("c1")).isNull();
+    assertThat(store.findById("b4")).isNotNull();
+  }
+
+  @Test
+  void removedBasketsDoNotCountTowardsCap() {
+    store = new BasketStore(clock, IDLE_TTL, 2, EXPIRY_TICK);
+    store.save(new Basket("b1", "c1"));
+    store.save(new Basket("b2", "c2"));
+    store.delete("b1");
+    store.save(new Basket("b3", "c3"));
+
+    assertThat(store.getEvictedCount()).isZero();
+    assertThat(store.findById("b2")).isNotNull();
+
+    Basket updated = new Basket("b2", "c2");
+    store.save(updated);
+    store.save(new Basket("b4", "c4"));
+
+    // b2 被替换后重新排队，最早的是 b3
+    assertThat(store.getEvictedCount()).isEqualTo(1);
+    assertThat(store.findById("b3")).isNull();
+    assertThat(store.findById("b2")).isSameAs(updated);
+    assertThat(store.findById("b4")).isNotNull();
+  }
+
+  @Test
+  void customerIndexFollowsCreateAndDelete() {
+    store = new BasketStore();
+    Basket first = new Basket("b1", "c1");
+    Basket second = new Basket("b2", "c1");
+    store.save(first);
+    store.save(second);
+    store.save(new Basket("b3", "c2"));
+
+    assertThat(store.findByCustomerId("c1")).isSameAs(first);
+    assertThat(store.findAllByCustomerId("c1")).containsExactly(first, second);
+
+    store.delete("b1");
+    assertThat(store.findByCustomerId("c1")).isSameAs(second);
+    assertThat(store.findAllByCustomerId("c1")).containsExactly(second);
+
+    store.delete("b2");
+    assertThat(store.findByCustomerId("c1")).isNull();
+    assertThat(store.findAllByCustomerId("c1")).isEmpty();
+    assertThat(store.findAllByCustomerId("c2")).extracting(Basket::getBasketId)
+        .containsExactly("b3");
+  }
+
+  @Test
+  void resavingBasketDoesNotDuplicateIndexEntry() {
+    store = new BasketStore();
+    Basket basket = new Basket("b1", "c1");
+    store.save(basket);
+    store.save(basket);
+
+    assertThat(store.findAllByCustomerId("c1")).containsExactly(basket);
+    store.delete("b1");
+    assertThat(store.findAllByCustomerId("c1")).isEmpty();
+    store.delete("b1");
+    assertThat(store.size()).isZero();
+  }
+
+  @Test
+  void unknownCustomerHasNoBaskets() {
+    store = new BasketStore();
+
+    assertThat(store.findByCustomerId("nobody")).isNull();
+    assertThat(store.findAllByCustomerId("nobody")).isEmpty();
+  }
+
+  @Test
+  void concurrentCreateAndDeleteKeepIndexConsistent() throws Exception {
+    store = new BasketStore();
+    int threads = 8;
+    int basketsPerThread = 500;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        int thread = t;
+        futures.add(executor.submit(() -> {
+          start.await();
+          for (int i = 0; i < basketsPerThread; i++) {
+            // 所有线程共用少量客户，争用同一索引项；奇数编号的购物车随后删除
+            String basketId = thread + "-" + i;
+            store.save(new Basket(basketId, "c" + (i % 4)));
+            if (i % 2 == 1) {
+              store.delete(basketId);
+            }
+          }
+          return null;
+        }));
+      }
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    int indexed = 0;
+    for (int c = 0; c < 4; c++) {
+      for (Basket basket : store.findAllByCustomerId("c" + c)) {
+        assertThat(basket.getCustomerId()).isEqualTo("c" + c);
+        assertThat(store.findById(basket.getBasketId())).isSameAs(basket);
+        indexed++;
+      }
+    }
+    assertThat(indexed).isEqualTo(threads * basketsPerThread / 2).isEqualTo(store.size());
+  }
+
+  private static final class MutableClock extends Clock {
+    private Instant instant = Instant.parse("2025-01-01T00:00:00Z");
+
+    void advance(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
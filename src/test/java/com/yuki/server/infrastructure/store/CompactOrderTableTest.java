@@ -0,0 +1,163 @@
+package com.yuki.server.infrastructure.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.yuki.server.application.repository.OrderCursor;
+import com.yuki.server.domain.model.Order;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * 以 {@link HeapOrderTable} 为基准的 {@link CompactOrderTable} 差异测试.
+ */
+class CompactOrderTableTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+  private static final int CUSTOMERS = 12;
+
+  private final Random random = new Random(42);
+  private final HeapOrderTable heap = new HeapOrderTable();
+  private final CompactOrderTable compact = new CompactOrderTable();
+  private final List<Order> saved = new ArrayList<>();
+
+  @Test
+  void queriesMatchHeapLayout() {
+    for (int i = 0; i < 3000; i++) {
+      save(randomOrder(randomOrderId(i)));
+    }
+
+    assertSameContents();
+    assertSamePages();
+  }
+
+  @Test
+  void duplicateSaveReplacesOrderLikeHeapLayout() {
+    for (int i = 0; i < 1000; i++) {
+      save(randomOrder(randomOrderId(i)));
+    }
+    // 同一订单ID再次保存，时间、客户和金额都可能变化
+    for (int i = 0; i < 300; i++) {
+      Order previous = saved.get(random.nextInt(saved.size()));
+      save(random.nextBoolean()
+          ? previous
+          : randomOrder(previous.getOrderId()));
+    }
+
+    assertThat(compact.size()).isEqualTo(heap.size());
+    assertSameContents();
+    assertSamePages();
+  }
+
+  @Test
+  void uuidOrderingMatchesStringOrdering() {
+    LocalDateTime createdAt = START;
+    String[] ids = {
+        "00000000-0000-0000-0000-000000000000",
+        "7fffffff-ffff-ffff-ffff-ffffffffffff",
+        "80000000-0000-0000-0000-000000000000",
+        "ffffffff-ffff-ffff-7fff-ffffffffffff",
+        "ffffffff-ffff-ffff-8000-000000000000",
+        "ffffffff-ffff-ffff-ffff-ffffffffffff",
+        "FFFFFFFF-0000-0000-0000-000000000000",
+        "order-1",
+    };
+    for (int i = ids.length - 1; i >= 0; i--) {
+      save(new Order(ids[i], "customer", BigDecimal.ONE, createdAt, null));
+    }
+
+    assertThat(compact.findAll()).isEqualTo(heap.findAll());
+    for (String id : ids) {
+      OrderCursor after = new OrderCursor(createdAt, id);
+      assertThat(compact.findPage(null, null, null, after, 3))
+          .isEqualTo(heap.findPage(null, null, null, after, 3));
+    }
+  }
+
+  private void save(Order order) {
+    Order replaced = heap.put(order);
+    assertThat(compact.put(order)).isEqualTo(replaced);
+    saved.add(order);
+  }
+
+  private void assertSameContents() {
+    assertThat(compact.size()).isEqualTo(heap.size());
+    assertThat(compact.findAll()).isEqualTo(heap.findAll());
+    for (Order order : saved) {
+      assertThat(compact.findById(order.getOrderId())).isEqualTo(heap.findById(order.getOrderId()));
+    }
+    assertThat(compact.findById(UUID.randomUUID().toString())).isNull();
+    for (int customer = 0; customer <= CUSTOMERS; customer++) {
+      String customerId = "customer-" + customer;
+      assertThat(compact.findByCustomerId(customerId)).isEqualTo(heap.findByCustomerId(customerId));
+    }
+  }
+
+  private void assertSamePages() {
+    for (int i = 0; i < 2000; i++) {
+      String customerId = random.nextInt(4) == 0 ? null : "customer-" + random.nextInt(CUSTOMERS + 1);
+      LocalDateTime from = random.nextBoolean() ? null : randomTime();
+      LocalDateTime to = random.nextBoolean() ? null : randomTime();
+      OrderCursor after = randomCursor();
+      int limit = random.nextInt(50);
+
+      assertThat(compact.findPage(customerId, from, to, after, limit))
+          .as("page customer=%s from=%s to=%s after=%s limit=%d",
+              customerId, from, to, after, limit)
+          .isEqualTo(heap.findPage(customerId, from, to, after, limit));
+      if (i % 20 == 0) {
+        assertThat(compact.stream(customerId, from, to).toList())
+            .isEqualTo(heap.stream(customerId, from, to).toList());
+      }
+    }
+  }
+
+  private OrderCursor randomCursor() {
+    switch (random.nextInt(4)) {
+      case 0:
+        return null;
+      case 1:
+        Order order = saved.get(random.nextInt(saved.size()));
+        return new OrderCursor(order.getCreatedAt(), order.getOrderId());
+      case 2:
+        return new OrderCursor(randomTime(), UUID.randomUUID().toString());
+      default:
+        return new OrderCursor(randomTime(), "order-" + random.nextInt(100));
+    }
+  }
+
+  private Order randomOrder(String orderId) {
+    return new Order(
+        orderId,
+        "customer-" + random.nextInt(CUSTOMERS),
+        BigDecimal.valueOf(random.nextInt(100_000), random.nextInt(4)),
+        randomTime(),
+        random.nextInt(3) == 0 ? "DISCOUNT" + random.nextInt(3) : null);
+  }
+
+  /**
+   * 时间取自较小的集合，使大量订单时间相同，按订单ID决定先后.
+   */
+  private LocalDateTime randomTime() {
+    return START.plusSeconds(random.nextInt(200)).plusNanos(random.nextInt(3) * 1000L);
+  }
+
+  /**
+   * 以规范UUID为主，混入非UUID格式的订单ID.
+   */
+  private String randomOrderId(int sequence) {
+    switch (random.nextInt(8)) {
+      case 0:
+        return "order-" + sequence;
+      case 1:
+        return UUID.randomUUID().toString().toUpperCase();
+      default:
+        return new UUID(random.nextLong(), random.nextLong()).toString();
+    }
+  }
+}
@@ -0,0 +1,190 @@
+package com.yuki.server.infrastructure.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.yuki.server.domain.model.Order;
+import com.yuki.server.infrastructure.store.OrderJournal.DurabilityMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 订单日志重放、截断与分段切换测试.
+ */
+class OrderJournalTest {
+
+  private static final int SMALL_REGION = 4096;
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void replaysAppendedOrdersInOrder() {
+    Path path = directory.resolve("orders.journal");
+    List<Order> orders = List.of(
+        order(1, "1.25", "DISCOUNT10"),
+        order(2, "1000000000000.00", null),
+        order(3, "0.0001", ""));
+    writeAll(path, DurabilityMode.SYNC, OrderJournal.DEFAULT_REGION_SIZE, orders);
+
+    assertThat(replay(path, OrderJournal.DEFAULT_REGION_SIZE)).containsExactlyElementsOf(orders);
+  }
+
+  @Test
+  void appendsContinueAfterReplayedRecords() {
+    Path path = directory.resolve("orders.journal");
+    writeAll(path, DurabilityMode.GROUP_COMMIT, SMALL_REGION, List.of(order(1, "1.00", null)));
+    try (OrderJournal journal = OrderJournal.open(path, DurabilityMode.ASYNC, 10, SMALL_REGION)) {
+      assertThat(journal.replay(order -> { })).isEqualTo(1);
+      journal.append(order(2, "2.00", null));
+    }
+
+    assertThat(replay(path, SMALL_REGION))
+        .containsExactly(order(1, "1.00", null), order(2, "2.00", null));
+  }
+
+  @Test
+  void checksumMismatchTruncatesTailAndIsOverwritten() throws IOException {
+    Path path = directory.resolve("orders.journal");
+    List<Order> orders = List.of(order(1, "1.00", null), order(2, "2.00", null),
+        order(3, "3.00", null));
+    writeAll(path, DurabilityMode.SYNC, SMALL_REGION, orders);
+
+    // 翻转最后一条记录数据的最后一个字节
+    long lastByte = recordSize(orders.get(0)) + recordSize(orders.get(1))
+        + recordSize(orders.get(2)) - 1;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      ByteBuffer buffer = ByteBuffer.allocate(1);
+      channel.read(buffer, lastByte);
+      buffer.put(0, (byte) ~buffer.get(0));
+      channel.write(buffer.rewind(), lastByte);
+    }
+
+    try (OrderJournal journal = OrderJournal.open(path, DurabilityMode.SYNC, 10, SMALL_REGION)) {
+      assertThat(journal.replay(order -> { })).isEqualTo(2);
+      journal.append(order(4, "4.00", null));
+    }
+    assertThat(replay(path, SMALL_REGION))
+        .containsExactly(orders.get(0), orders.get(1), order(4, "4.00", null));
+  }
+
+  @Test
+  void tornHeaderWithoutPayloadIsDiscarded() throws IOException {
+    Path path = directory.resolve("orders.journal");
+    List<Order> orders = List.of(order(1, "1.00", null));
+    writeAll(path, DurabilityMode.SYNC, SMALL_REGION, orders);
+
+    // 长度已写入而CRC和数据未写入
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.allocate(4).putInt(0, 64), recordSize(orders.get(0)));
+    }
+    assertThat(replay(path, SMALL_REGION)).containsExactlyElementsOf(orders);
+
+    // 长度超出分段剩余空间
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.allocate(4).putInt(0, SMALL_REGION), recordSize(orders.get(0)));
+    }
+    assertThat(replay(path, SMALL_REGION)).containsExactlyElementsOf(orders);
+  }
+
+  @Test
+  void recordsSpanningRegionsReplayInOrder() throws IOException {
+    Path path = directory.resolve("orders.journal");
+    List<Order> orders = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      orders.add(order(i, i + ".99", i % 3 == 0 ? "DISCOUNT10" : null));
+    }
+    writeAll(path, DurabilityMode.SYNC, SMALL_REGION, orders);
+
+    assertThat(Files.size(path)).isGreaterThan(3L * SMALL_REGION);
+    assertThat(replay(path, SMALL_REGION)).containsExactlyElementsOf(orders);
+  }
+
+  @Test
+  void concurrentGroupCommitAcrossRegionsKeepsEveryOrder() throws Exception {
+    Path path = directory.resolve("orders.journal");
+    int threads = 8;
+    int perThread = 100;
+    List<Order> expected = new ArrayList<>();
+    try (OrderJournal journal = OrderJournal.open(
+        path, DurabilityMode.GROUP_COMMIT, 10, SMALL_REGION)) {
+      journal.replay(order -> { });
+      ExecutorService executor = Executors.newFixedThreadPool(threads);
+      try {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+          int base = t * perThread;
+          futures.add(executor.submit(() -> {
+            for (int i = 0; i < perThread; i++) {
+              journal.append(order(base + i, "1.00", null));
+            }
+          }));
+          for (int i = 0; i < perThread; i++) {
+            expected.add(order(base + i, "1.00", null));
+          }
+        }
+        for (Future<?> future : futures) {
+          future.get();
+        }
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+
+    assertThat(replay(path, SMALL_REGION)).containsExactlyInAnyOrderElementsOf(expected);
+  }
+
+  @Test
+  void rejectsRecordLargerThanRegion() {
+    Path path = directory.resolve("orders.journal");
+    try (OrderJournal journal = OrderJournal.open(path, DurabilityMode.SYNC, 10, SMALL_REGION)) {
+      journal.replay(order -> { });
+      Order large = new Order("large", "c".repeat(SMALL_REGION), BigDecimal.ONE,
+          LocalDateTime.of(2025, 1, 1, 0, 0), null);
+
+      assertThatThrownBy(() -> journal.append(large))
+          .isInstanceOf(IllegalArgumentException.class);
+    }
+  }
+
+  private static void writeAll(
+      Path path, DurabilityMode mode, int regionSize, List<Order> orders) {
+    try (OrderJournal journal = OrderJournal.open(path, mode, 10, regionSize)) {
+      journal.replay(order -> { });
+      orders.forEach(journal::append);
+    }
+  }
+
+  private static List<Order> replay(Path path, int regionSize) {
+    List<Order> replayed = new ArrayList<>();
+    try (OrderJournal journal = OrderJournal.open(path, DurabilityMode.SYNC, 10, regionSize)) {
+      journal.replay(replayed::add);
+    }
+    return replayed;
+  }
+
+  private static long recordSize(Order order) {
+    return 8 + OrderJournal.encode(order).length;
+  }
+
+  private static Order order(int sequence, String totalPrice, String discountCode) {
+    return new Order("order-" + sequence, "customer-" + (sequence % 7),
+        new BigDecimal(totalPrice), LocalDateTime.of(2025, 1, 1, 0, 0).plusNanos(sequence * 1001L),
+        discountCode);
+  }
+}
@@ -0,0 +1,133 @@
+package com.yuki.server.infrastructure.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.yuki.server.domain.model.Order;
+import com.yuki.server.domain.model.OrderTotals;
+import com.yuki.server.infrastructure.repository.OrderRepositoryImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.NavigableMap;
+import java.util.UUID;
+
+/**
+ * 订单汇总测试.
+ */
+class OrderRollupStoreTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+  private int sequence;
+
+  @Test
+  void recordsGlobalCustomerAndDiscountTotals() {
+    OrderRollupStore rollups = new OrderRollupStore(new OrderStore());
+    rollups.record(order("c1", "10.00", START, null));
+    rollups.record(order("c1", "5.50", START.plusSeconds(10), "DISCOUNT10"));
+    rollups.record(order("c2", "1.25", START.plusSeconds(20), "DISCOUNT10"));
+
+    assertThat(rollups.getTotals()).isEqualTo(totals(3, "16.75", 2));
+    assertThat(rollups.getCustomerTotals("c1")).isEqualTo(totals(2, "15.50", 1));
+    assertThat(rollups.getDiscountTotals("DISCOUNT10")).isEqualTo(totals(2, "6.75", 2));
+    assertThat(rollups.getCustomerTotals("unknown")).isEqualTo(OrderTotals.ZERO);
+  }
+
+  @Test
+  void replaysExistingOrdersOnCreation() {
+    OrderStore orderStore = new OrderStore();
+    orderStore.save(order("c1", "2.00", START, null));
+    orderStore.save(order("c2", "3.00", START.plusMinutes(1), null));
+
+    OrderRollupStore rollups = new OrderRollupStore(orderStore);
+
+    assertThat(rollups.getTotals()).isEqualTo(totals(2, "5.00", 0));
+    assertThat(rollups.getMinuteTotals(START.plusMinutes(1), 2).values())
+        .containsExactly(totals(1, "2.00", 0), totals(1, "3.00", 0));
+  }
+
+  @Test
+  void groupsOrdersByMinute() {
+    OrderRollupStore rollups = new OrderRollupStore(new OrderStore(), Duration.ofMinutes(10));
+    rollups.record(order("c1", "1.00", START.plusSeconds(5), null));
+    rollups.record(order("c1", "2.00", START.plusSeconds(59), "DISCOUNT10"));
+    rollups.record(order("c1", "4.00", START.plusMinutes(2), null));
+
+    NavigableMap<LocalDateTime, OrderTotals> series =
+        rollups.getMinuteTotals(START.plusMinutes(2).plusSeconds(30), 3);
+
+    assertThat(series.keySet())
+        .containsExactly(START, START.plusMinutes(1), START.plusMinutes(2));
+    assertThat(series.values()).containsExactly(
+        totals(2, "3.00", 1), OrderTotals.ZERO, totals(1, "4.00", 0));
+  }
+
+  @Test
+  void slotIsReplacedWhenItsMinuteComesAroundAgain() {
+    OrderRollupStore rollups = new OrderRollupStore(new OrderStore(), Duration.ofMinutes(5));
+    rollups.record(order("c1", "1.00", START, null));
+    // 与 START 落在同一槽位，旧分钟的计数被丢弃
+    rollups.record(order("c1", "7.00", START.plusMinutes(5), null));
+
+    assertThat(rollups.getMinuteTotals(START.plusMinutes(5), 1).values())
+        .containsExactly(totals(1, "7.00", 0));
+    assertThat(rollups.getMinuteTotals(START, 1).values()).containsExactly(OrderTotals.ZERO);
+    // 全局计数不受环形缓冲区影响
+    assertThat(rollups.getTotals()).isEqualTo(totals(2, "8.00", 0));
+  }
+
+  @Test
+  void lateOrderForOverwrittenMinuteIsNotCountedInSeries() {
+    OrderRollupStore rollups = new OrderRollupStore(new OrderStore(), Duration.ofMinutes(5));
+    rollups.record(order("c1", "7.00", START.plusMinutes(5), null));
+    rollups.record(order("c1", "1.00", START, null));
+
+    assertThat(rollups.getMinuteTotals(START.plusMinutes(5), 1).values())
+        .containsExactly(totals(1, "7.00", 0));
+    assertThat(rollups.getTotals()).isEqualTo(totals(2, "8.00", 0));
+  }
+
+  @Test
+  void seriesIsTruncatedToWindow() {
+    OrderRollupStore rollups = new OrderRollupStore(new OrderStore(), Duration.ofMinutes(5));
+    rollups.record(order("c1", "1.00", START, null));
+
+    NavigableMap<LocalDateTime, OrderTotals> series = rollups.getMinuteTotals(START, 60);
+
+    assertThat(rollups.getWindowMinutes()).isEqualTo(5);
+    assertThat(series).hasSize(5);
+    assertThat(series.firstKey()).isEqualTo(START.minusMinutes(4));
+    assertThat(series.lastEntry().getValue()).isEqualTo(totals(1, "1.00", 0));
+  }
+
+  @ParameterizedTest
+  @EnumSource(OrderStore.Layout.class)
+  void resavingAnOrderIsCountedOnce(OrderStore.Layout layout) {
+    OrderStore orderStore = new OrderStore(null, layout.newTable());
+    OrderRollupStore rollups = new OrderRollupStore(orderStore);
+    OrderRepositoryImpl repository = new OrderRepositoryImpl(orderStore, rollups);
+    Order order = new Order(UUID.randomUUID().toString(), "c1", new BigDecimal("4.00"),
+        START, "DISCOUNT10");
+
+    repository.save(order);
+    repository.save(order);
+
+    assertThat(rollups.getTotals()).isEqualTo(totals(1, "4.00", 1));
+    assertThat(rollups.getCustomerTotals("c1")).isEqualTo(totals(1, "4.00", 1));
+    assertThat(rollups.getDiscountTotals("DISCOUNT10")).isEqualTo(totals(1, "4.00", 1));
+    assertThat(rollups.getMinuteTotals(START, 1).values())
+        .containsExactly(totals(1, "4.00", 1));
+  }
+
+  private Order order(String customerId, String total, LocalDateTime createdAt, String discount) {
+    return new Order("order-" + sequence++, customerId, new BigDecimal(total), createdAt, discount);
+  }
+
+  private static OrderTotals totals(long orders, String revenue, long discounted) {
+    return new OrderTotals(orders, new BigDecimal(revenue), discounted);
+  }
+}
@@ -0,0 +1,51 @@
+package com.yuki.server.infrastructure.store;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 时间轮槽位与回绕测试.
+ */
+class TimingWheelTest {
+
+  @Test
+  void tickOfRoundsDownToTickBoundary() {
+    TimingWheel<String> wheel = new TimingWheel<>(8, 1000);
+
+    assertThat(wheel.tickOf(0)).isZero();
+    assertThat(wheel.tickOf(999)).isZero();
+    assertThat(wheel.tickOf(1000)).isEqualTo(1);
+    assertThat(wheel.slotCount()).isEqualTo(8);
+  }
+
+  @Test
+  void drainReturnsKeysScheduledForSlotOnce() {
+    TimingWheel<String> wheel = new TimingWheel<>(8, 1000);
+    wheel.schedule("a", 3);
+    wheel.schedule("b", 3);
+    wheel.schedule("c", 4);
+
+    assertThat(wheel.drain(3)).containsExactlyInAnyOrder("a", "b");
+    assertThat(wheel.drain(3)).isEmpty();
+    assertThat(wheel.drain(4)).containsExactly("c");
+  }
+
+  @Test
+  void ticksBeyondOneRevolutionShareSlot() {
+    TimingWheel<String> wheel = new TimingWheel<>(8, 1000);
+    wheel.schedule("near", 2);
+    wheel.schedule("far", 2 + 8 * 3);
+
+    // 同一槽位的条目一并取出，由调用方按截止时间重新排期
+    assertThat(wheel.drain(2)).containsExactlyInAnyOrder("near", "far");
+    assertThat(wheel.drain(10)).isEmpty();
+  }
+
+  @Test
+  void rejectsSlotCountThatIsNotPowerOfTwo() {
+    assertThatThrownBy(() -> new TimingWheel<String>(12, 1000))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,223 @@
+package com.yuki.server.presentation.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuki.server.application.dto.BasketItemRequest;
+import com.yuki.server.application.dto.BasketItemRequest.Operation;
+import com.yuki.server.application.service.impl.BasketServiceImpl;
+import com.yuki.server.application.service.impl.PricingServiceImpl;
+import com.yuki.server.application.service.impl.ProductServiceImpl;
+import com.yuki.server.domain.model.Product;
+import com.yuki.server.domain.model.Promotion;
+import com.yuki.server.infrastructure.exception.GlobalExceptionHandler;
+import com.yuki.server.infrastructure.repository.BasketRepositoryImpl;
+import com.yuki.server.infrastructure.repository.DiscountAttemptRepositoryImpl;
+import com.yuki.server.infrastructure.repository.ProductRepositoryImpl;
+import com.yuki.server.infrastructure.repository.PromotionRepositoryImpl;
+import com.yuki.server.infrastructure.store.BasketStore;
+import com.yuki.server.infrastructure.store.DiscountAttemptStore;
+import com.yuki.server.infrastructure.store.ProductStore;
+import com.yuki.server.infrastructure.store.PromotionStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 购物车接口测试：批量修改（PATCH）按顺序应用、全部成功或全部不生效、批量上限；
+ * 无效折扣码的计数限制.
+ */
+class BasketControllerTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final MutableClock clock = new MutableClock();
+
+  private BasketServiceImpl basketService;
+  private MockMvc mockMvc;
+  private String basketId;
+
+  @BeforeEach
+  void setUp() {
+    ProductStore productStore = new ProductStore();
+    productStore.saveAll(List.of(
+        new Product("P1", "Product 1", new BigDecimal("1.25")),
+        new Product("P2", "Product 2", new BigDecimal("2.50")),
+        new Product("P3", "Product 3", new BigDecimal("0.99"))));
+    PromotionStore promotionStore = new PromotionStore(productStore);
+    promotionStore.save(new Promotion("DISCOUNT10", new BigDecimal("10")));
+    ProductRepositoryImpl productRepository = new ProductRepositoryImpl(productStore);
+    basketService = new BasketServiceImpl(
+        new BasketRepositoryImpl(new BasketStore()),
+        new PromotionRepositoryImpl(promotionStore),
+        new DiscountAttemptRepositoryImpl(
+            new DiscountAttemptStore(clock, Duration.ofMinutes(1), 5, 1000)),
+        new ProductServiceImpl(productRepository),
+        new PricingServiceImpl(productRepository, RoundingMode.HALF_UP),
+        new SimpleMeterRegistry());
+    mockMvc = MockMvcBuilders.standaloneSetup(new BasketController(basketService))
+        .setControllerAdvice(new GlobalExceptionHandler())
+        .build();
+
+    basketId = basketService.createBasket("customer").getBasketId();
+    basketService.addProduct(basketId, "P1", 2);
+  }
+
+  @Test
+  void mixedOperationsApplyInRequestOrder() throws Exception {
+    patchProducts(List.of(
+        item("P1", 3, Operation.ADD),
+        item("P2", 4, Operation.SET),
+        item("P1", null, Operation.REMOVE),
+        item("P1", 1, null),
+        item("P2", 0, Operation.SET),
+        item("P3", 2, Operation.ADD)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.products.P1").value(1))
+        .andExpect(jsonPath("$.products.P2").doesNotExist())
+        .andExpect(jsonPath("$.products.P3").value(2))
+        .andExpect(jsonPath("$.totalPrice").value(3.23));
+
+    assertThat(basketService.getBasket(basketId).getProducts())
+        .containsOnlyKeys("P1", "P3");
+  }
+
+  @Test
+  void unknownProductRejectsTheWholeBatch() throws Exception {
+    patchProducts(List.of(item("P2", 1, Operation.ADD), item("UNKNOWN", 1, Operation.ADD)))
+        .andExpect(status().isNotFound());
+
+    assertThat(basketService.getBasket(basketId).getProducts()).containsOnlyKeys("P1");
+  }
+
+  @Test
+  void invalidQuantityRejectsTheWholeBatch() throws Exception {
+    patchProducts(List.of(item("P1", null, Operation.REMOVE), item("P2", -1, Operation.SET)))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.error").value("INVALID_REQUEST"));
+    patchProducts(List.of(item("P2", 1, Operation.ADD), item("P3", 0, Operation.ADD)))
+        .andExpect(status().isBadRequest());
+    patchProducts(List.of(item("P2", 1, Operation.ADD), item(null, 1, Operation.ADD)))
+        .andExpect(status().isBadRequest());
+
+    assertThat(basketService.getBasket(basketId).getProducts()).containsEntry("P1", 2)
+        .hasSize(1);
+  }
+
+  @Test
+  void batchSizeIsLimitedToOneThousandItems() throws Exception {
+    List<BasketItemRequest> items = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      items.add(item("P" + (1 + i % 3), 1, Operation.ADD));
+    }
+    patchProducts(items)
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.products.P1").value(336));
+
+    items.add(item("P1", 1, Operation.ADD));
+    patchProducts(items).andExpect(status().isBadRequest());
+    patchProducts(List.of()).andExpect(status().isBadRequest());
+
+    assertThat(basketService.getBasket(basketId).getProducts()).containsEntry("P1", 336);
+  }
+
+  @Test
+  void repeatedInvalidCodesThrottleEveryCodeUntilTheWindowEnds() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      applyDiscount("GUESS" + i)
+          .andExpect(status().isBadRequest())
+          .andExpect(jsonPath("$.error").value("INVALID_REQUEST"));
+    }
+
+    // 受限期间有效码同样被拒绝，否则受限后仍可逐个试出有效码
+    applyDiscount("DISCOUNT10")
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string(HttpHeaders.RETRY_AFTER, "60"))
+        .andExpect(jsonPath("$.error").value("TOO_MANY_REQUESTS"));
+    clock.advance(Duration.ofSeconds(45));
+    applyDiscount("GUESS5")
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string(HttpHeaders.RETRY_AFTER, "15"));
+    assertThat(basketService.getBasket(basketId).getDiscountCode()).isNull();
+
+    clock.advance(Duration.ofSeconds(15));
+    applyDiscount("DISCOUNT10")
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.discountCode").value("DISCOUNT10"));
+  }
+
+  @Test
+  void throttleAppliesToOtherBasketsOfTheSameCustomer() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      applyDiscount("GUESS" + i).andExpect(status().isBadRequest());
+    }
+    String otherBasket = basketService.createBasket("customer").getBasketId();
+    String freshCustomer = basketService.createBasket("other").getBasketId();
+
+    applyDiscount(otherBasket, "DISCOUNT10").andExpect(status().isTooManyRequests());
+    applyDiscount(freshCustomer, "DISCOUNT10").andExpect(status().isOk());
+  }
+
+  private ResultActions applyDiscount(String discountCode) throws Exception {
+    return applyDiscount(basketId, discountCode);
+  }
+
+  private ResultActions applyDiscount(String basketId, String discountCode) throws Exception {
+    return mockMvc.perform(put("/api/baskets/{basketId}/discount", basketId)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(Map.of("discountCode", discountCode))));
+  }
+
+  private ResultActions patchProducts(List<BasketItemRequest> items) throws Exception {
+    return mockMvc.perform(patch("/api/baskets/{basketId}/products", basketId)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(items)));
+  }
+
+  private static BasketItemRequest item(String productCode, Integer quantity, Operation operation) {
+    return new BasketItemRequest(productCode, quantity, operation);
+  }
+
+  private static final class MutableClock extends Clock {
+    private Instant instant = Instant.parse("2025-01-01T00:00:00Z");
+
+    void advance(Duration duration) {
+      instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
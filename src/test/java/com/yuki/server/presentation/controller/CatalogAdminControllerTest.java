@@ -0,0 +1,83 @@
+package com.yuki.server.presentation.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.yuki.server.application.dto.CatalogReloadResponse;
+import com.yuki.server.application.service.CatalogService;
+import com.yuki.server.domain.exception.CatalogReloadException;
+import com.yuki.server.infrastructure.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.FileNotFoundException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 目录管理接口测试：管理令牌校验与加载失败的错误映射.
+ */
+class CatalogAdminControllerTest {
+
+  private final AtomicInteger reloads = new AtomicInteger();
+  private RuntimeException failure;
+
+  private final CatalogService catalogService = () -> {
+    reloads.incrementAndGet();
+    if (failure != null) {
+      throw failure;
+    }
+    return new CatalogReloadResponse(2, 1, 1, 0, 0, 0, 0, 0, 0, 0, 0);
+  };
+
+  @Test
+  void reloadWithMatchingTokenReturnsTheDiff() throws Exception {
+    mockMvc("secret").perform(post("/api/admin/catalog/reload")
+            .header(CatalogAdminController.ADMIN_TOKEN_HEADER, "secret"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.catalogVersion").value(2))
+        .andExpect(jsonPath("$.productsAdded").value(1));
+  }
+
+  @Test
+  void missingOrWrongTokenIsForbidden() throws Exception {
+    MockMvc mockMvc = mockMvc("secret");
+
+    mockMvc.perform(post("/api/admin/catalog/reload"))
+        .andExpect(status().isForbidden())
+        .andExpect(jsonPath("$.error").value("FORBIDDEN"));
+    mockMvc.perform(post("/api/admin/catalog/reload")
+            .header(CatalogAdminController.ADMIN_TOKEN_HEADER, "secret2"))
+        .andExpect(status().isForbidden());
+
+    assertThat(reloads).hasValue(0);
+  }
+
+  @Test
+  void reloadIsDisabledWithoutConfiguredToken() throws Exception {
+    mockMvc("").perform(post("/api/admin/catalog/reload")
+            .header(CatalogAdminController.ADMIN_TOKEN_HEADER, ""))
+        .andExpect(status().isForbidden())
+        .andExpect(jsonPath("$.message").value("Catalog administration is disabled"));
+  }
+
+  @Test
+  void failedReloadIsAServerError() throws Exception {
+    failure = new CatalogReloadException(
+        "Catalog reload failed: catalog.json", new FileNotFoundException("catalog.json"));
+
+    mockMvc("secret").perform(post("/api/admin/catalog/reload")
+            .header(CatalogAdminController.ADMIN_TOKEN_HEADER, "secret"))
+        .andExpect(status().isInternalServerError())
+        .andExpect(jsonPath("$.error").value("CATALOG_RELOAD_FAILED"))
+        .andExpect(jsonPath("$.message").value("Catalog reload failed: catalog.json"));
+  }
+
+  private MockMvc mockMvc(String adminToken) {
+    return MockMvcBuilders.standaloneSetup(new CatalogAdminController(catalogService, adminToken))
+        .setControllerAdvice(new GlobalExceptionHandler())
+        .build();
+  }
+}
@@ -0,0 +1,256 @@
+package com.yuki.server.presentation.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuki.server.application.dto.OrderResponse;
+import com.yuki.server.application.service.impl.CreditCardServiceImpl;
+import com.yuki.server.application.service.impl.OrderServiceImpl;
+import com.yuki.server.application.service.impl.PricingServiceImpl;
+import com.yuki.server.domain.model.Order;
+import com.yuki.server.infrastructure.exception.GlobalExceptionHandler;
+import com.yuki.server.infrastructure.payment.LocalPaymentGateway;
+import com.yuki.server.infrastructure.repository.BasketRepositoryImpl;
+import com.yuki.server.infrastructure.repository.IdempotencyRepositoryImpl;
+import com.yuki.server.infrastructure.repository.OrderRepositoryImpl;
+import com.yuki.server.infrastructure.repository.ProductRepositoryImpl;
+import com.yuki.server.infrastructure.store.BasketStore;
+import com.yuki.server.infrastructure.store.IdempotencyStore;
+import com.yuki.server.infrastructure.store.OrderRollupStore;
+import com.yuki.server.infrastructure.store.OrderStore;
+import com.yuki.server.infrastructure.store.ProductStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * 订单分页与流式导出测试.
+ */
+class OrderControllerTest {
+
+  private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+  private OrderStore orderStore;
+  private TrackingOrderRepository orderRepository;
+  private ExecutorService paymentExecutor;
+  private OrderController controller;
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    orderStore = new OrderStore();
+    orderRepository = new TrackingOrderRepository(orderStore, new OrderRollupStore(orderStore));
+    paymentExecutor = Executors.newSingleThreadExecutor();
+    OrderServiceImpl orderService = new OrderServiceImpl(
+        orderRepository,
+        new BasketRepositoryImpl(new BasketStore()),
+        new IdempotencyRepositoryImpl(new IdempotencyStore()),
+        new CreditCardServiceImpl(Clock.systemDefaultZone(),
+            new LocalPaymentGateway(Duration.ZERO, Duration.ZERO)),
+        new PricingServiceImpl(new ProductRepositoryImpl(new ProductStore()), RoundingMode.HALF_UP),
+        paymentExecutor,
+        Runnable::run,
+        Duration.ofSeconds(5),
+        new SimpleMeterRegistry());
+    controller = new OrderController(orderService, objectMapper);
+    mockMvc = MockMvcBuilders.standaloneSetup(controller)
+        .setControllerAdvice(new GlobalExceptionHandler())
+        .build();
+  }
+
+  @AfterEach
+  void tearDown() {
+    paymentExecutor.shutdownNow();
+  }
+
+  @Test
+  void ordersWithTheSameCreatedAtArePagedByOrderId() throws Exception {
+    for (String orderId : List.of("o3", "o1", "o5", "o2", "o4")) {
+      saveOrder(orderId, "c1", 0);
+    }
+
+    List<String> seen = new ArrayList<>();
+    String after = null;
+    do {
+      JsonNode page = page("/api/orders?limit=2" + (after == null ? "" : "&after=" + after));
+      page.get("orders").forEach(order -> seen.add(order.get("orderId").asText()));
+      after = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+    } while (after != null);
+
+    assertThat(seen).containsExactly("o1", "o2", "o3", "o4", "o5");
+  }
+
+  @Test
+  void pagingContinuesAcrossInsertsWithoutSkipsOrRepeats() throws Exception {
+    for (int i = 0; i < 4; i++) {
+      saveOrder("o" + i, "c1", i * 10);
+    }
+    JsonNode first = page("/api/orders?limit=2");
+    String after = first.get("nextCursor").asText();
+
+    // 翻页期间插入：一条早于游标（已翻过的位置），一条晚于游标
+    saveOrder("early", "c1", 5);
+    saveOrder("late", "c1", 25);
+    JsonNode second = page("/api/orders?limit=10&after=" + after);
+
+    assertThat(first.get("orders")).extracting(order -> order.get("orderId").asText())
+        .containsExactly("o0", "o1");
+    assertThat(second.get("orders")).extracting(order -> order.get("orderId").asText())
+        .containsExactly("o2", "late", "o3");
+    assertThat(second.get("nextCursor").isNull()).isTrue();
+  }
+
+  @Test
+  void malformedCursorIsRejectedWithBadRequest() throws Exception {
+    for (String cursor : List.of("%%%", encode("no-separator"), encode("yesterday|o1"))) {
+      mockMvc.perform(get("/api/orders").param("limit", "2").param("after", cursor))
+          .andExpect(status().isBadRequest())
+          .andExpect(jsonPath("$.error").value("INVALID_REQUEST"));
+    }
+  }
+
+  @Test
+  void exportWritesOneJsonObjectPerLineInCreationOrder() throws Exception {
+    saveOrder("o2", "c1", 2);
+    saveOrder("o1", "c1", 1);
+    saveOrder("o3", "c2", 3);
+
+    List<OrderResponse> orders = export("/api/orders/export?customerId=c1");
+
+    assertThat(orders).extracting(OrderResponse::getOrderId).containsExactly("o1", "o2");
+    assertThat(orders.get(0).getTotalPrice()).isEqualByComparingTo("19.99");
+    assertThat(orderRepository.closed).isTrue();
+  }
+
+  @Test
+  void exportHonoursTimeRange() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      saveOrder("o" + i, "c1", i);
+    }
+
+    List<OrderResponse> orders = export("/api/orders/export?from="
+        + START.plusSeconds(1) + "&to=" + START.plusSeconds(3));
+
+    assertThat(orders).extracting(OrderResponse::getOrderId).containsExactly("o1", "o2");
+  }
+
+  @Test
+  void emptyExportHasEmptyBody() throws Exception {
+    assertThat(export("/api/orders/export?customerId=nobody")).isEmpty();
+  }
+
+  @Test
+  void clientDisconnectStopsReadingOrders() throws Exception {
+    int total = 20_000;
+    for (int i = 0; i < total; i++) {
+      saveOrder("o" + i, "c" + (i % 10), i);
+    }
+    StreamingResponseBody body = controller.exportOrders(null, null, null).getBody();
+
+    // 客户端在收到第一块数据时断开
+    body.writeTo(new OutputStream() {
+      @Override
+      public void write(int b) throws IOException {
+        throw new IOException("Broken pipe");
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        throw new IOException("Broken pipe");
+      }
+    });
+
+    assertThat(orderRepository.read.get()).isPositive().isLessThan(total);
+    assertThat(orderRepository.closed).isTrue();
+  }
+
+  private JsonNode page(String url) throws Exception {
+    MvcResult result = mockMvc.perform(get(url))
+        .andExpect(status().isOk())
+        .andReturn();
+    return objectMapper.readTree(result.getResponse().getContentAsString());
+  }
+
+  private static String encode(String raw) {
+    return Base64.getUrlEncoder().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private List<OrderResponse> export(String url) throws Exception {
+    MvcResult started = mockMvc.perform(get(url))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    MvcResult result = mockMvc.perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType("application/x-ndjson"))
+        .andReturn();
+
+    String body = result.getResponse().getContentAsString();
+    List<OrderResponse> orders = new ArrayList<>();
+    if (body.isEmpty()) {
+      return orders;
+    }
+    assertThat(body).endsWith("\n");
+    for (String line : body.split("\n", -1)) {
+      if (!line.isEmpty()) {
+        orders.add(objectMapper.readValue(line, OrderResponse.class));
+      }
+    }
+    assertThat(body.split("\n")).hasSize(orders.size());
+    return orders;
+  }
+
+  private void saveOrder(String orderId, String customerId, int second) {
+    orderStore.save(new Order(orderId, customerId, new BigDecimal("19.99"),
+        START.plusSeconds(second), null));
+  }
+
+  /**
+   * 记录导出读取了多少订单以及订单流是否已关闭的仓储.
+   */
+  private static final class TrackingOrderRepository extends OrderRepositoryImpl {
+    private final AtomicInteger read = new AtomicInteger();
+    private volatile boolean closed;
+
+    TrackingOrderRepository(OrderStore orderStore, OrderRollupStore rollupStore) {
+      super(orderStore, rollupStore);
+    }
+
+    @Override
+    public Stream<Order> stream(String customerId, LocalDateTime from, LocalDateTime to) {
+      return super.stream(customerId, from, to)
+          .peek(order -> read.incrementAndGet())
+          .onClose(() -> closed = true);
+    }
+  }
+}
@@ -0,0 +1,172 @@
+package com.yuki.server.presentation.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuki.server.application.service.impl.ProductServiceImpl;
+import com.yuki.server.domain.model.Product;
+import com.yuki.server.infrastructure.repository.ProductRepositoryImpl;
+import com.yuki.server.infrastructure.store.ProductStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 产品列表的ETag与gzip协商测试.
+ */
+class ProductControllerTest {
+
+  private ProductStore productStore;
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    productStore = new ProductStore();
+    productStore.saveAll(List.of(
+        new Product("P1", "Product 1", new BigDecimal("1.25")),
+        new Product("P2", "Product 2", new BigDecimal("2.50"))));
+    ProductController controller = new ProductController(
+        new ProductServiceImpl(new ProductRepositoryImpl(productStore)), new ObjectMapper());
+    mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+  }
+
+  @Test
+  void plainResponseCarriesStrongEtagAndVary() throws Exception {
+    MvcResult result = mockMvc.perform(get("/api/products"))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+        .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+        .andReturn();
+
+    String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+    assertThat(etag).startsWith("\"").endsWith("\"").doesNotStartWith("W/");
+    assertThat(result.getResponse().getContentAsString()).contains("P1", "P2");
+  }
+
+  @Test
+  void gzipResponseDecompressesToPlainBodyWithDistinctEtag() throws Exception {
+    MvcResult plain = mockMvc.perform(get("/api/products")).andReturn();
+    MvcResult gzip = mockMvc.perform(get("/api/products")
+            .header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+        .andExpect(status().isOk())
+        .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+        .andReturn();
+
+    assertThat(gunzip(gzip.getResponse().getContentAsByteArray()))
+        .isEqualTo(plain.getResponse().getContentAsByteArray());
+    assertThat(gzip.getResponse().getHeader(HttpHeaders.ETAG))
+        .isNotEqualTo(plain.getResponse().getHeader(HttpHeaders.ETAG));
+  }
+
+  @ParameterizedTest
+  @CsvSource(delimiter = '|', value = {
+      "gzip;q=0                      | identity",
+      "gzip; q=0.000, br             | identity",
+      "GZIP;Q=0.5                    | gzip",
+      "x-gzip                        | gzip",
+      "gzip;q=0.2, identity;q=0.8    | identity",
+      "gzip;q=0.8, identity;q=0.8    | gzip",
+      "identity                      | identity",
+      "identity;q=0, gzip;q=0.1      | gzip",
+      "*                             | gzip",
+      "*;q=0, identity               | identity",
+      "*;q=0.5, gzip;q=0             | identity",
+      "br, deflate                   | identity",
+      "gzip;q=abc                    | identity",
+      "''                            | identity",
+  })
+  void encodingFollowsAcceptEncodingQualities(String acceptEncoding, String expected)
+      throws Exception {
+    MvcResult result = mockMvc.perform(get("/api/products")
+            .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+        .andExpect(status().isOk())
+        .andReturn();
+
+    String contentEncoding = result.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING);
+    assertThat(contentEncoding == null ? "identity" : contentEncoding).isEqualTo(expected);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"identity;q=0", "*;q=0", "br, identity;q=0"})
+  void noAcceptableEncodingReturnsNotAcceptable(String acceptEncoding) throws Exception {
+    mockMvc.perform(get("/api/products").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+        .andExpect(status().isNotAcceptable())
+        .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING));
+  }
+
+  @Test
+  void matchingEtagReturnsNotModifiedWithoutBody() throws Exception {
+    String etag = etag(null);
+
+    MvcResult result = mockMvc.perform(get("/api/products")
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, etag))
+        .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+        .andReturn();
+
+    assertThat(result.getResponse().getContentAsByteArray()).isEmpty();
+  }
+
+  @Test
+  void etagOfEitherEncodingMatchesWeakly() throws Exception {
+    String plainEtag = etag(null);
+    String gzipEtag = etag("gzip");
+
+    // 以gzip版本的ETag发起不压缩请求，返回当前编码的ETag
+    mockMvc.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, plainEtag));
+    mockMvc.perform(get("/api/products")
+            .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+            .header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + plainEtag))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string(HttpHeaders.ETAG, gzipEtag));
+    mockMvc.perform(get("/api/products").header(HttpHeaders.IF_NONE_MATCH, "*"))
+        .andExpect(status().isNotModified());
+  }
+
+  @Test
+  void catalogChangeInvalidatesEtag() throws Exception {
+    String etag = etag(null);
+
+    productStore.save(new Product("P3", "Product 3", new BigDecimal("3.75")));
+
+    MvcResult result = mockMvc.perform(get("/api/products")
+            .header(HttpHeaders.IF_NONE_MATCH, etag))
+        .andExpect(status().isOk())
+        .andReturn();
+    assertThat(result.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+    assertThat(result.getResponse().getContentAsString()).contains("P3");
+  }
+
+  private String etag(String acceptEncoding) throws Exception {
+    MockHttpServletRequestBuilder request = get("/api/products");
+    if (acceptEncoding != null) {
+      request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+    }
+    return mockMvc.perform(request).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+  }
+
+  private static byte[] gunzip(byte[] bytes) throws IOException {
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+      return in.readAllBytes();
+    }
+  }
+}